@@ -3,6 +3,13 @@ package de.tukl.cs.softech.agilereview;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.osgi.framework.BundleContext;
 
+import de.tukl.cs.softech.agilereview.annotations.AnnotationParser;
+import de.tukl.cs.softech.agilereview.core.CoreLogger;
+import de.tukl.cs.softech.agilereview.core.DeletionCallbackRegistry;
+import de.tukl.cs.softech.agilereview.core.ErrorCallbackRegistry;
+import de.tukl.cs.softech.agilereview.core.annotations.TagCleaner;
+import de.tukl.cs.softech.agilereview.plugincontrol.DialogErrorCallback;
+import de.tukl.cs.softech.agilereview.plugincontrol.EditorClosingCallback;
 import de.tukl.cs.softech.agilereview.tools.PropertiesManager;
 
 /**
@@ -34,6 +41,12 @@ public class Activator extends AbstractUIPlugin {
     public void start(BundleContext context) throws Exception {
         super.start(context);
         plugin = this;
+        // configure the core bundle
+        CoreLogger.setLogLevel(PropertiesManager.getInstance().getLogLevel());
+        TagCleaner.setRawTagRegex(AnnotationParser.RAW_TAG_REGEX);
+        TagCleaner.setSupportedFiles(PropertiesManager.getParserFileendingsMappingTags());
+        ErrorCallbackRegistry.setCallback(new DialogErrorCallback());
+        DeletionCallbackRegistry.setCallback(new EditorClosingCallback());
     }
     
     /*
@@ -42,6 +55,8 @@ public class Activator extends AbstractUIPlugin {
      */
     @Override
     public void stop(BundleContext context) throws Exception {
+        DeletionCallbackRegistry.setCallback(null);
+        ErrorCallbackRegistry.setCallback(null);
         plugin = null;
         super.stop(context);
     }
@@ -27,7 +27,6 @@ import org.eclipse.ui.IEditorInput;
 import org.eclipse.ui.texteditor.ITextEditor;
 
 import agileReview.softech.tukl.de.CommentDocument.Comment;
-import de.tukl.cs.softech.agilereview.dataaccess.ReviewAccess;
 import de.tukl.cs.softech.agilereview.tools.NoDocumentFoundException;
 import de.tukl.cs.softech.agilereview.tools.PluginLogger;
 import de.tukl.cs.softech.agilereview.tools.PropertiesManager;
@@ -381,15 +380,15 @@ public class AnnotationParser implements IAnnotationParser {
     /*
      * (non-Javadoc)
      * 
-     * @see de.tukl.cs.softech.agilereview.annotations.IAnnotationParser#filter(java.util.ArrayList)
+     * @see de.tukl.cs.softech.agilereview.annotations.IAnnotationParser#filter(java.util.HashSet)
      */
     public void filter(HashSet<Comment> comments) {
-        PluginLogger.log(this.getClass().toString(), "filter", "triggered");
+        PluginLogger.log(this.getClass().toString(), "filter", "triggered for " + comments.size() + " comments of " + path);
         
         HashMap<String, Position> toDisplay = new HashMap<String, Position>();
         for (Comment c : comments) {
             String commentKey = c.getReviewID() + keySeparator + c.getAuthor() + keySeparator + c.getId();
-            if (path.equals(ReviewAccess.computePath(c)) && this.idPositionMap.get(commentKey) != null) {
+            if (this.idPositionMap.get(commentKey) != null) {
                 toDisplay.put(commentKey, this.idPositionMap.get(commentKey));
                 ColorManager.addReservation(c.getAuthor());
             }
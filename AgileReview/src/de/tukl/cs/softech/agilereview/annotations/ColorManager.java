@@ -2,7 +2,9 @@ package de.tukl.cs.softech.agilereview.annotations;
 
 import java.util.ArrayList;
 
+import org.eclipse.jface.resource.ColorRegistry;
 import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.RGB;
 import org.eclipse.ui.PlatformUI;
 
 import de.tukl.cs.softech.agilereview.tools.PropertiesManager;
@@ -21,6 +23,11 @@ public class ColorManager {
      */
     private static ArrayList<String> authors = new ArrayList<String>();
     
+    /**
+     * Registry of all colors handed out, keyed by their RGB string. The colors are disposed together with the display.
+     */
+    private static ColorRegistry colorRegistry;
+    
     /**
      * Resets the current color scheme
      */
@@ -85,8 +92,23 @@ public class ColorManager {
         } else {
             prop = PropertiesManager.getPreferences().getString(PropertiesManager.EXTERNAL_KEYS.ANNOTATION_COLOR);
         }
-        String[] rgb = prop.split(",");
-        return new Color(PlatformUI.getWorkbench().getDisplay(), Integer.parseInt(rgb[0]), Integer.parseInt(rgb[1]), Integer.parseInt(rgb[2]));
+        return getRGBColor(prop);
+    }
+    
+    /**
+     * Returns the shared color for the given RGB string. The color is managed by a color registry and must not be disposed by the caller.
+     * @param rgb RGB string of the format "r,g,b" as stored in the preferences
+     * @return the shared color
+     */
+    public static synchronized Color getRGBColor(String rgb) {
+        if (colorRegistry == null) {
+            colorRegistry = new ColorRegistry(PlatformUI.getWorkbench().getDisplay());
+        }
+        if (!colorRegistry.hasValueFor(rgb)) {
+            String[] values = rgb.split(",");
+            colorRegistry.put(rgb, new RGB(Integer.parseInt(values[0].trim()), Integer.parseInt(values[1].trim()), Integer.parseInt(values[2].trim())));
+        }
+        return colorRegistry.get(rgb);
     }
     
     /**
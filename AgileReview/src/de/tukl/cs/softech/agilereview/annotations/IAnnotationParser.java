@@ -14,8 +14,9 @@ import agileReview.softech.tukl.de.CommentDocument.Comment;
 public interface IAnnotationParser {
     
     /**
-     * Filter annotations and display only the given comments
-     * @param comments which should be displayed
+     * Filter annotations and display only the given comments. Only the comments of the parsed file should be passed, as the comments will not be
+     * checked for their location again.
+     * @param comments of the parsed file which should be displayed
      */
     public void filter(HashSet<Comment> comments);
     
@@ -9,6 +9,7 @@ import org.eclipse.ui.IEditorPart;
 import org.eclipse.ui.texteditor.ITextEditor;
 
 import de.tukl.cs.softech.agilereview.Activator;
+import de.tukl.cs.softech.agilereview.core.annotations.TagCleaner;
 import de.tukl.cs.softech.agilereview.tools.NoDocumentFoundException;
 import de.tukl.cs.softech.agilereview.tools.PluginLogger;
 import de.tukl.cs.softech.agilereview.tools.PropertiesManager;
@@ -70,6 +71,7 @@ public class ParserFactory implements IPropertyChangeListener {
         if (event.getProperty().equals(PropertiesManager.EXTERNAL_KEYS.PARSER_FILEENDINGS)) {
             //get supported files list anew as something might has changed
             supportedFiles = PropertiesManager.getParserFileendingsMappingTags();
+            TagCleaner.setSupportedFiles(supportedFiles);
             
             //create all parser anew in order to react on changed supported files list
             if (ViewControl.isOpen(CommentTableView.class)) {
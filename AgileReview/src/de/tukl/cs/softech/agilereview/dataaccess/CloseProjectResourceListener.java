@@ -5,49 +5,146 @@ import java.util.HashSet;
 import java.util.Map.Entry;
 import java.util.Set;
 
+import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IProjectDescription;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IResourceChangeEvent;
 import org.eclipse.core.resources.IResourceChangeListener;
 import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
 import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.resources.WorkspaceJob;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.MultiRule;
 import org.eclipse.jface.dialogs.MessageDialog;
 import org.eclipse.jface.wizard.WizardDialog;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Shell;
 import org.eclipse.ui.PlatformUI;
+import org.eclipse.ui.progress.UIJob;
 
+import de.tukl.cs.softech.agilereview.core.dataaccess.RefactoringAccess;
 import de.tukl.cs.softech.agilereview.tools.PluginLogger;
 import de.tukl.cs.softech.agilereview.tools.PropertiesManager;
 import de.tukl.cs.softech.agilereview.wizards.noreviewsource.NoReviewSourceWizard;
 
 /**
- * This class handles the case of closing the active review source folder.
+ * This class handles the case of closing the active review source folder. The listener itself only filters the resource change events, which
+ * are relevant for AgileReview (i.e. events concerning the source project or projects whose description changed), and returns immediately for
+ * all other events. The reaction to relevant events is performed asynchronously by a job, such that the notifying thread is never blocked.
  */
 public class CloseProjectResourceListener implements IResourceChangeListener {
     
     /**
-     * This boolean indicates whether there was a PRE_CLOSE event before a POST_BUILD
+     * This set contains the closed source project iff there was a PRE_CLOSE event before a POST_BUILD
      */
-    private volatile Set<IResource> closedBefore = new HashSet<IResource>();
+    private final Set<IResource> closedBefore = new HashSet<IResource>();
     /**
-     * This IPath is unequal to null iff there was a PRE_DELETE event before a POST_BUILD
+     * This map contains the path of the deleted source project iff there was a PRE_DELETE event before a POST_BUILD
      */
-    private volatile HashMap<IResource, IPath> deletedProjectPath = new HashMap<IResource, IPath>();
+    private final HashMap<IResource, IPath> deletedProjectPath = new HashMap<IResource, IPath>();
+    /**
+     * Projects which were added, opened or whose description changed since the last run of the job and therefore may carry the active nature
+     */
+    private final Set<IProject> natureCandidates = new HashSet<IProject>();
+    /**
+     * Indicates whether the source project changed since the last run of the job and should be refreshed
+     */
+    private boolean sourceChanged = false;
     /**
      * Variable to save the old SourceProject between a PRE and a POST event
      */
     private IProject oldSourceProject = null;
     
+    /**
+     * Workspace job which restores the closed or deleted source project and loads it again as source project, when it has been restored
+     */
+    private abstract class RestoreSourceProjectJob extends WorkspaceJob {
+        
+        /**
+         * Description of the operation used for logging
+         */
+        private final String operation;
+        /**
+         * Title of the error dialog shown if the operation fails
+         */
+        private final String errorTitle;
+        
+        /**
+         * Creates a new job, which holds the workspace root as scheduling rule
+         * @param name name of the job
+         * @param operation description of the operation used for logging
+         * @param errorTitle title of the error dialog shown if the operation fails
+         */
+        RestoreSourceProjectJob(String name, String operation, String errorTitle) {
+            super(name);
+            this.operation = operation;
+            this.errorTitle = errorTitle;
+            setRule(ResourcesPlugin.getWorkspace().getRoot());
+        }
+        
+        /**
+         * Restores the source project
+         * @param monitor progress monitor
+         * @return the restored project
+         * @throws CoreException if the project could not be restored
+         */
+        protected abstract IProject restore(IProgressMonitor monitor) throws CoreException;
+        
+        @Override
+        public IStatus runInWorkspace(IProgressMonitor monitor) {
+            try {
+                final IProject project = restore(monitor);
+                // load the project as soon as it has been restored
+                Display.getDefault().asyncExec(new Runnable() {
+                    @Override
+                    public void run() {
+                        ReviewAccess.getInstance().loadReviewSourceProject(project.getName());
+                    }
+                });
+            } catch (final CoreException e) {
+                PluginLogger.logError(CloseProjectResourceListener.class.toString(), "runInWorkspace", "An exception occured while " + operation
+                        + " the closed source project", e);
+                Display.getDefault().asyncExec(new Runnable() {
+                    @Override
+                    public void run() {
+                        MessageDialog.openError(Display.getDefault().getActiveShell(), errorTitle, e.getLocalizedMessage());
+                    }
+                });
+            }
+            return Status.OK_STATUS;
+        }
+    }
+    /**
+     * Job which reacts to the relevant events collected by this listener
+     */
+    private final UIJob job = new UIJob("AgileReview: Handling workspace changes") {
+        @Override
+        public IStatus runInUIThread(IProgressMonitor monitor) {
+            handleChanges();
+            return Status.OK_STATUS;
+        }
+    };
+    
+    /**
+     * Creates a new CloseProjectResourceListener
+     */
+    public CloseProjectResourceListener() {
+        job.setSystem(true);
+    }
+    
     /**
      * Displays the NoAgileReviewSourceProject wizard
      */
     private void showNoSourceProjectWizard() {
-        // Has to be done in new thread, as the resourceChanged method blocks the building of the workspace
+        // Has to be done asynchronously, as the job should not be blocked by the wizard
         Display.getDefault().asyncExec(new Runnable() {
             @Override
             public void run() {
@@ -60,173 +157,237 @@ public class CloseProjectResourceListener implements IResourceChangeListener {
     }
     
     @Override
-    public void resourceChanged(final IResourceChangeEvent event) {
-        Display.getDefault().syncExec(new Runnable() {
-            @Override
-            public void run() {
-                ReviewAccess ra = ReviewAccess.getInstance();
+    public void resourceChanged(IResourceChangeEvent event) {
+        ReviewAccess ra = ReviewAccess.getInstance();
+        synchronized (this) {
+            ////////////////////////////
+            // PRE_CLOSE & PRE_DELETE //
+            ////////////////////////////
+            // the source project has to be unloaded before it will be closed or deleted, which only resets a field of the ReviewAccess
+            if (event.getType() == IResourceChangeEvent.PRE_CLOSE || event.getType() == IResourceChangeEvent.PRE_DELETE) {
+                if (oldSourceProject == null) {
+                    oldSourceProject = ra.getCurrentSourceFolder();
+                }
+                if (oldSourceProject == null || !oldSourceProject.equals(event.getResource())) { return; }
                 
-                ///////////////
-                // PRE_CLOSE //
-                ///////////////
                 if (event.getType() == IResourceChangeEvent.PRE_CLOSE) {
                     closedBefore.add(event.getResource());
-                    if (oldSourceProject == null) {
-                        oldSourceProject = ra.getCurrentSourceFolder();
-                    }
-                    // Remove active nature, if needed
-                    if (oldSourceProject != null) {
-                        if (oldSourceProject.equals(event.getResource())) {
-                            oldSourceProject = ra.unloadCurrentReviewSourceProject();
-                        }
-                    }
+                } else {
+                    deletedProjectPath.put(oldSourceProject, oldSourceProject.getLocation());
                 }
-                
-                ////////////////
-                // POST_CLOSE //
-                ////////////////
-                if (event.getType() == IResourceChangeEvent.POST_BUILD && !closedBefore.isEmpty()) {
-                    if (oldSourceProject != null) {
-                        //check whether the project was one of the closed project
-                        for (IResource r : closedBefore) {
-                            if (oldSourceProject.equals(r)) {
-                                Shell currentShell = Display.getDefault().getActiveShell();
-                                String msg = "You closed the currently used 'Agile Review Source Project'.\n"
-                                        + "Do you want to reopen it to avoid a crash of AgileReview?";
-                                if (MessageDialog.openQuestion(currentShell, "Warning: AgileReview Source Project", msg)) {
-                                    try {
-                                        oldSourceProject.open(null); // TODO use progressmonitor?
-                                        ra.loadReviewSourceProject(oldSourceProject.getName());
-                                    } catch (final CoreException e) {
-                                        PluginLogger.logError(this.getClass().toString(), "resourceChanged",
-                                                "An exception occured while reopening the closed source project", e);
-                                        Display.getDefault().syncExec(new Runnable() {
-                                            @Override
-                                            public void run() {
-                                                MessageDialog.openError(Display.getDefault().getActiveShell(), "AgileReview: Could open project", e
-                                                        .getLocalizedMessage());
-                                            }
-                                        });
-                                    }
-                                } else {
-                                    // Show NoAgileReviewSourceProject wizard
-                                    showNoSourceProjectWizard();
-                                }
-                                break;
-                            }
+                oldSourceProject = ra.unloadCurrentReviewSourceProject();
+                return;
+            }
+            
+            ////////////////
+            // POST_BUILD //
+            ////////////////
+            boolean relevant = !closedBefore.isEmpty() || !deletedProjectPath.isEmpty();
+            IResourceDelta rootDelta = event.getDelta();
+            if (rootDelta != null) {
+                IProject source = ra.getCurrentSourceFolder();
+                // only the project level of the delta has to be inspected
+                for (IResourceDelta delta : rootDelta.getAffectedChildren(IResourceDelta.ADDED | IResourceDelta.CHANGED)) {
+                    if (!(delta.getResource() instanceof IProject)) {
+                        continue;
+                    }
+                    IProject p = (IProject) delta.getResource();
+                    if (p.equals(source)) {
+                        // the changes of comment files written by a refactoring are patched into the model directly
+                        if (!isExpectedChange(delta)) {
+                            sourceChanged = true;
+                            relevant = true;
                         }
+                    } else if (delta.getKind() == IResourceDelta.ADDED
+                            || (delta.getFlags() & (IResourceDelta.DESCRIPTION | IResourceDelta.OPEN)) != 0) {
+                        natureCandidates.add(p);
+                        relevant = true;
                     }
-                    closedBefore.clear();
                 }
-                
-                ////////////////
-                // PRE_DELETE //
-                ////////////////
-                if (event.getType() == IResourceChangeEvent.PRE_DELETE) {
-                    if (oldSourceProject == null) {
-                        oldSourceProject = ra.getCurrentSourceFolder();
-                    }
-                    
-                    if (oldSourceProject != null) {
-                        if (oldSourceProject.equals(event.getResource())) {
-                            deletedProjectPath.put(oldSourceProject, oldSourceProject.getLocation());
-                            oldSourceProject = ra.unloadCurrentReviewSourceProject();
-                        }
+            }
+            if (!relevant) { return; }
+        }
+        job.schedule();
+    }
+    
+    /**
+     * Checks whether the given delta of the source project only consists of content changes of comment files, which have been written by a
+     * refactoring (see {@link RefactoringAccess#addExpectedChanges(java.util.Collection)}). The expected changes are consumed.
+     * @param projectDelta delta of the source project
+     * @return <i>true</i> if all changes of the delta are expected, <i>false</i> otherwise
+     */
+    private boolean isExpectedChange(IResourceDelta projectDelta) {
+        if (projectDelta.getKind() != IResourceDelta.CHANGED
+                || (projectDelta.getFlags() & (IResourceDelta.DESCRIPTION | IResourceDelta.OPEN)) != 0) { return false; }
+        final boolean[] expected = { true };
+        try {
+            projectDelta.accept(new IResourceDeltaVisitor() {
+                @Override
+                public boolean visit(IResourceDelta delta) {
+                    if (delta.getKind() != IResourceDelta.CHANGED) {
+                        // added or removed resources are never written by a refactoring of the comment paths
+                        expected[0] = false;
+                    } else if (!(delta.getResource() instanceof IFile)) {
+                        return true;
+                    } else if ((delta.getFlags() & IResourceDelta.CONTENT) != 0
+                            && !RefactoringAccess.consumeExpectedChange((IFile) delta.getResource())) {
+                        expected[0] = false;
                     }
+                    return false;
                 }
-                
-                /////////////////
-                // POST_DELETE //
-                /////////////////
-                if (event.getType() == IResourceChangeEvent.POST_BUILD && !deletedProjectPath.isEmpty()) {
-                    if (oldSourceProject != null) {
-                        //check whether the project was one of the closed project
-                        for (Entry<IResource, IPath> entry : deletedProjectPath.entrySet()) {
-                            if (oldSourceProject.equals(entry.getKey())) {
-                                Shell currentShell = Display.getDefault().getActiveShell();
-                                // Check in file system, if file still exists
-                                if (!entry.getValue().toFile().exists()) {
-                                    String msg = "You deleted the current 'Agile Review Source Project' from disk.\n"
-                                            + "Please choose an other 'AgileReview Source Project' for AgileReview to stay functional.";
-                                    MessageDialog.openWarning(currentShell, "'Agile Review Source Project' deleted", msg);
-                                } else {
-                                    String msg = "You deleted the current 'Agile Review Source Project' from your internal explorer.\n"
-                                            + "Do you want to re-import it directly to avoid a crash of AgileReview?";
-                                    if (MessageDialog.openQuestion(currentShell, "Warning: AgileReview Source Project", msg)) {
-                                        try {
-                                            IProjectDescription description = ResourcesPlugin.getWorkspace().loadProjectDescription(
-                                                    new Path(entry.getValue() + "/.project"));
-                                            IProject project = ResourcesPlugin.getWorkspace().getRoot().getProject(description.getName());
-                                            project.create(description, null); //TODO use progress monitor here and one line below?
-                                            project.open(null);
-                                            ra.loadReviewSourceProject(project.getName());
-                                        } catch (final CoreException e) {
-                                            PluginLogger.logError(this.getClass().toString(), "resourceChanged",
-                                                    "An exception occured while reimporting the closed source project", e);
-                                            Display.getDefault().syncExec(new Runnable() {
-                                                @Override
-                                                public void run() {
-                                                    MessageDialog.openError(Display.getDefault().getActiveShell(),
-                                                            "AgileReview: Could not import project", e.getLocalizedMessage());
-                                                }
-                                            });
-                                        }
-                                    } else {
-                                        // Show NoAgileReviewSourceProject wizard
-                                        showNoSourceProjectWizard();
-                                    }
-                                }
-                                break;
-                            }
+            });
+        } catch (CoreException e) {
+            return false;
+        }
+        return expected[0];
+    }
+    
+    /**
+     * Removes the active nature from all given projects, which are not the current source project, within a workspace job holding the modify
+     * rules of these projects. The decorators will be updated afterwards.
+     * @param candidates projects which may carry the active nature
+     */
+    private void scheduleNatureReset(final Set<IProject> candidates) {
+        ISchedulingRule rule = null;
+        for (IProject p : candidates) {
+            rule = MultiRule.combine(rule, ResourcesPlugin.getWorkspace().getRuleFactory().modifyRule(p));
+        }
+        WorkspaceJob natureJob = new WorkspaceJob("AgileReview: Updating project natures") {
+            @Override
+            public IStatus runInWorkspace(IProgressMonitor monitor) throws CoreException {
+                ReviewAccess ra = ReviewAccess.getInstance();
+                boolean natureChanged = false;
+                String activeNature = PropertiesManager.getInstance().getInternalProperty(
+                        PropertiesManager.INTERNAL_KEYS.ACTIVE_AGILEREVIEW_NATURE);
+                for (IProject p : candidates) {
+                    try {
+                        if (p.isOpen() && p.hasNature(activeNature) && ra.getCurrentSourceFolder() != null
+                                && !ra.getCurrentSourceFolder().equals(p)) {
+                            ReviewAccess.setProjectNatures(p, new String[] { PropertiesManager.getInstance().getInternalProperty(
+                                    PropertiesManager.INTERNAL_KEYS.AGILEREVIEW_NATURE) });
+                            natureChanged = true;
                         }
+                    } catch (CoreException e) {/* We are not interested in closed or non existent projects*/
                     }
-                    deletedProjectPath.clear();
                 }
-                
-                ////////////////
-                // POST_BUILD //
-                ////////////////
-                if (event.getType() == IResourceChangeEvent.POST_BUILD && deletedProjectPath.isEmpty() && closedBefore.isEmpty()) {
-                    for (IProject p : ResourcesPlugin.getWorkspace().getRoot().getProjects()) {
-                        try {
-                            if (p.hasNature(PropertiesManager.getInstance().getInternalProperty(
-                                    PropertiesManager.INTERNAL_KEYS.ACTIVE_AGILEREVIEW_NATURE))
-                                    && ra.getCurrentSourceFolder() != null && !ra.getCurrentSourceFolder().equals(p)) {
-                                ReviewAccess.setProjectNatures(p, new String[] { PropertiesManager.getInstance().getInternalProperty(
-                                        PropertiesManager.INTERNAL_KEYS.AGILEREVIEW_NATURE) });
-                                // update decorator
-                                Display.getDefault().asyncExec(new Runnable() {
-                                    @Override
-                                    public void run() {
-                                        while (PlatformUI.getWorkbench() == null) {
-                                        }
-                                        PlatformUI.getWorkbench().getDecoratorManager().update("de.tukl.cs.softech.agilereview.active_decorator");
-                                    }
-                                });
+                if (natureChanged) {
+                    // update decorator
+                    Display.getDefault().asyncExec(new Runnable() {
+                        @Override
+                        public void run() {
+                            if (PlatformUI.isWorkbenchRunning()) {
+                                PlatformUI.getWorkbench().getDecoratorManager().update("de.tukl.cs.softech.agilereview.active_decorator");
                             }
-                        } catch (CoreException e) {/* We are not interested in closed or non existent projects*/
                         }
-                    }
+                    });
                 }
-                
-                /////////////////////////////////////////////////////
-                // POST_BUILD -- Refresh Source Folder if necessary//
-                /////////////////////////////////////////////////////
-                if (event.getType() == IResourceChangeEvent.POST_BUILD) {
-                    if (oldSourceProject == null) {
-                        oldSourceProject = ra.getCurrentSourceFolder();
+                return Status.OK_STATUS;
+            }
+        };
+        natureJob.setRule(rule);
+        natureJob.setSystem(true);
+        natureJob.schedule();
+    }
+    
+    /**
+     * Reacts to all relevant events which have been collected since the last run of the job
+     */
+    private void handleChanges() {
+        ReviewAccess ra = ReviewAccess.getInstance();
+        HashSet<IResource> closed;
+        HashMap<IResource, IPath> deleted;
+        HashSet<IProject> candidates;
+        boolean refreshSource;
+        IProject oldSource;
+        synchronized (this) {
+            closed = new HashSet<IResource>(closedBefore);
+            deleted = new HashMap<IResource, IPath>(deletedProjectPath);
+            candidates = new HashSet<IProject>(natureCandidates);
+            refreshSource = sourceChanged;
+            closedBefore.clear();
+            deletedProjectPath.clear();
+            natureCandidates.clear();
+            sourceChanged = false;
+            if (oldSourceProject == null) {
+                oldSourceProject = ra.getCurrentSourceFolder();
+            }
+            oldSource = oldSourceProject;
+        }
+        
+        ////////////////
+        // POST_CLOSE //
+        ////////////////
+        if (oldSource != null && closed.contains(oldSource)) {
+            Shell currentShell = Display.getDefault().getActiveShell();
+            String msg = "You closed the currently used 'Agile Review Source Project'.\n"
+                    + "Do you want to reopen it to avoid a crash of AgileReview?";
+            if (MessageDialog.openQuestion(currentShell, "Warning: AgileReview Source Project", msg)) {
+                final IProject project = oldSource;
+                new RestoreSourceProjectJob("AgileReview: Reopening source project", "reopening", "AgileReview: Could open project") {
+                    @Override
+                    protected IProject restore(IProgressMonitor monitor) throws CoreException {
+                        project.open(monitor);
+                        return project;
                     }
-                    if (oldSourceProject != null) {
-                        for (IResourceDelta delta : event.getDelta().getAffectedChildren()) {
-                            if (oldSourceProject.equals(delta.getResource())) {
-                                // Mantis tracker issue no. 141, Github issue #1
-                                ReviewAccess.getInstance().doGlobalRefresh();
-                                break;
-                            }
+                }.schedule();
+            } else {
+                // Show NoAgileReviewSourceProject wizard
+                showNoSourceProjectWizard();
+            }
+        }
+        
+        /////////////////
+        // POST_DELETE //
+        /////////////////
+        if (oldSource != null && deleted.containsKey(oldSource)) {
+            for (Entry<IResource, IPath> entry : deleted.entrySet()) {
+                if (oldSource.equals(entry.getKey())) {
+                    Shell currentShell = Display.getDefault().getActiveShell();
+                    // Check in file system, if file still exists
+                    if (!entry.getValue().toFile().exists()) {
+                        String msg = "You deleted the current 'Agile Review Source Project' from disk.\n"
+                                + "Please choose an other 'AgileReview Source Project' for AgileReview to stay functional.";
+                        MessageDialog.openWarning(currentShell, "'Agile Review Source Project' deleted", msg);
+                    } else {
+                        String msg = "You deleted the current 'Agile Review Source Project' from your internal explorer.\n"
+                                + "Do you want to re-import it directly to avoid a crash of AgileReview?";
+                        if (MessageDialog.openQuestion(currentShell, "Warning: AgileReview Source Project", msg)) {
+                            final IPath location = entry.getValue();
+                            new RestoreSourceProjectJob("AgileReview: Reimporting source project", "reimporting",
+                                    "AgileReview: Could not import project") {
+                                @Override
+                                protected IProject restore(IProgressMonitor monitor) throws CoreException {
+                                    IProjectDescription description = ResourcesPlugin.getWorkspace().loadProjectDescription(
+                                            new Path(location + "/.project"));
+                                    IProject project = ResourcesPlugin.getWorkspace().getRoot().getProject(description.getName());
+                                    project.create(description, monitor);
+                                    project.open(monitor);
+                                    return project;
+                                }
+                            }.schedule();
+                        } else {
+                            // Show NoAgileReviewSourceProject wizard
+                            showNoSourceProjectWizard();
                         }
                     }
+                    break;
                 }
             }
-        });
+        }
+        
+        /////////////////////////////////////////////////////////////
+        // POST_BUILD -- Remove active nature from other projects  //
+        /////////////////////////////////////////////////////////////
+        if (closed.isEmpty() && deleted.isEmpty() && !candidates.isEmpty()) {
+            scheduleNatureReset(candidates);
+        }
+        
+        /////////////////////////////////////////////////////
+        // POST_BUILD -- Refresh Source Folder if necessary//
+        /////////////////////////////////////////////////////
+        if (refreshSource) {
+            // Mantis tracker issue no. 141, Github issue #1
+            ra.doGlobalRefresh();
+        }
     }
-}
\ No newline at end of file
+}
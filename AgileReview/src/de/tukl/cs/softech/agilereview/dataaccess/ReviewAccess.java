@@ -6,12 +6,14 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.Set;
 import java.util.regex.Pattern;
 
-import javax.xml.namespace.QName;
-
 import org.apache.xmlbeans.XmlCursor;
 import org.apache.xmlbeans.XmlObject;
 import org.eclipse.core.resources.IFile;
@@ -20,9 +22,10 @@ import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IProjectDescription;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.IWorkspaceRunnable;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
-import org.eclipse.jface.dialogs.MessageDialog;
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.PlatformUI;
 
@@ -36,6 +39,13 @@ import agileReview.softech.tukl.de.PersonInChargeDocument.PersonInCharge;
 import agileReview.softech.tukl.de.ProjectDocument.Project;
 import agileReview.softech.tukl.de.ReviewDocument;
 import agileReview.softech.tukl.de.ReviewDocument.Review;
+import de.tukl.cs.softech.agilereview.core.ErrorCallbackRegistry;
+import de.tukl.cs.softech.agilereview.core.dataaccess.CommentCounts;
+import de.tukl.cs.softech.agilereview.core.dataaccess.CommentSearchIndex;
+import de.tukl.cs.softech.agilereview.core.dataaccess.PathRewrite;
+import de.tukl.cs.softech.agilereview.core.dataaccess.RefactoringAccess;
+import de.tukl.cs.softech.agilereview.core.dataaccess.ReviewFileModel;
+import de.tukl.cs.softech.agilereview.core.dataaccess.ReviewModel;
 import de.tukl.cs.softech.agilereview.plugincontrol.ExceptionHandler;
 import de.tukl.cs.softech.agilereview.plugincontrol.exceptions.NoReviewSourceFolderException;
 import de.tukl.cs.softech.agilereview.tools.PluginLogger;
@@ -79,6 +89,12 @@ public class ReviewAccess {
      */
     private final ReviewFileModel rFileModel = new ReviewFileModel();
     
+    /**
+     * Modification stamps of the comment files of all indexed closed reviews (ReviewId -> file -> stamp). Closed reviews are only parsed again
+     * if one of their files has been changed since they were indexed.
+     */
+    private final HashMap<String, HashMap<IFile, Long>> closedReviewStamps = new HashMap<String, HashMap<IFile, Long>>();
+    
     /**
      * Flag indicating that we just stored our data on disk.
      */
@@ -98,18 +114,10 @@ public class ReviewAccess {
         IFile file = ReviewAccess.createReviewFolder(reviewId).getFile("author_" + author + ".xml");
         if (!file.exists()) {
             try {
-                file.create(new ByteArrayInputStream("".getBytes()), IResource.NONE, null);
-                while (!file.exists()) {
-                };
-            } catch (final CoreException e) {
+                createFile(file);
+            } catch (CoreException e) {
                 PluginLogger.logError(ReviewAccess.class.toString(), "createCommentFile", "CoreException while creating comment file", e);
-                Display.getDefault().syncExec(new Runnable() {
-                    @Override
-                    public void run() {
-                        MessageDialog.openError(Display.getDefault().getActiveShell(), "AgileReview: Could not create comment file", e
-                                .getLocalizedMessage());
-                    }
-                });
+                ErrorCallbackRegistry.reportError("AgileReview: Could not create comment file", e.getLocalizedMessage());
             }
         }
         return file;
@@ -123,21 +131,20 @@ public class ReviewAccess {
      */
     private static IFolder createReviewFolder(String reviewId) throws NoReviewSourceFolderException {
         if (REVIEW_REPO_FOLDER == null) throw new NoReviewSourceFolderException();
-        IFolder folder = REVIEW_REPO_FOLDER.getFolder("review." + reviewId);
+        final IFolder folder = REVIEW_REPO_FOLDER.getFolder("review." + reviewId);
         if (!folder.exists()) {
             try {
-                folder.create(IResource.NONE, true, null);
-                while (!folder.exists()) {
-                }
-            } catch (final CoreException e) {
-                PluginLogger.logError(ReviewAccess.class.toString(), "createReviewFolder", "CoreException while creating review folder", e);
-                Display.getDefault().syncExec(new Runnable() {
+                ReviewFileModel.runWorkspaceOperation(new IWorkspaceRunnable() {
                     @Override
-                    public void run() {
-                        MessageDialog.openError(Display.getDefault().getActiveShell(), "AgileReview: Could not create review folder", e
-                                .getLocalizedMessage());
+                    public void run(IProgressMonitor monitor) throws CoreException {
+                        if (!folder.exists()) {
+                            folder.create(IResource.NONE, true, monitor);
+                        }
                     }
-                });
+                }, ResourcesPlugin.getWorkspace().getRuleFactory().createRule(folder));
+            } catch (CoreException e) {
+                PluginLogger.logError(ReviewAccess.class.toString(), "createReviewFolder", "CoreException while creating review folder", e);
+                ErrorCallbackRegistry.reportError("AgileReview: Could not create review folder", e.getLocalizedMessage());
             }
         }
         return folder;
@@ -153,23 +160,31 @@ public class ReviewAccess {
         IFile file = ReviewAccess.createReviewFolder(reviewId).getFile("review.xml");
         if (!file.exists()) {
             try {
-                file.create(new ByteArrayInputStream("".getBytes()), IResource.NONE, null);
-                while (!file.exists()) {
-                }
-            } catch (final CoreException e) {
+                createFile(file);
+            } catch (CoreException e) {
                 PluginLogger.logError(ReviewAccess.class.toString(), "createReviewFile", "CoreException while creating review file", e);
-                Display.getDefault().syncExec(new Runnable() {
-                    @Override
-                    public void run() {
-                        MessageDialog.openError(Display.getDefault().getActiveShell(), "AgileReview: Could not create review file", e
-                                .getLocalizedMessage());
-                    }
-                });
+                ErrorCallbackRegistry.reportError("AgileReview: Could not create review file", e.getLocalizedMessage());
             }
         }
         return file;
     }
     
+    /**
+     * Creates the given empty file within a workspace operation
+     * @param file file to be created
+     * @throws CoreException if the file could not be created
+     */
+    private static void createFile(final IFile file) throws CoreException {
+        ReviewFileModel.runWorkspaceOperation(new IWorkspaceRunnable() {
+            @Override
+            public void run(IProgressMonitor monitor) throws CoreException {
+                if (!file.exists()) {
+                    file.create(new ByteArrayInputStream("".getBytes()), IResource.NONE, monitor);
+                }
+            }
+        }, ResourcesPlugin.getWorkspace().getRuleFactory().createRule(file));
+    }
+    
     /**
      * Creates a Project as child of the given XmlObject (if possible)
      * @param parent parent XmlObject (should be Files)
@@ -228,16 +243,7 @@ public class ReviewAccess {
      * @return path of the item (excluding the item itself)
      */
     public static String computePath(XmlObject item) {
-        XmlCursor c = item.newCursor();
-        c.toParent();
-        String path = c.getAttributeText(new QName("name"));
-        
-        while (c.toParent() && !(c.getObject() instanceof Files)) {
-            path = c.getAttributeText(new QName("name")) + System.getProperty("file.separator") + path;
-        }
-        c.dispose();
-        
-        return path;
+        return ReviewModel.computePath(item);
     }
     
     /**
@@ -248,35 +254,31 @@ public class ReviewAccess {
     public static boolean createAndOpenReviewProject(String projectName) {
         boolean result = true;
         IWorkspaceRoot workspaceRoot = ResourcesPlugin.getWorkspace().getRoot();
-        IProject p = workspaceRoot.getProject(projectName);
+        final IProject p = workspaceRoot.getProject(projectName);
         
         try {
-            // Create a new Project, if necessary
-            if (!p.exists()) {
-                p.create(null);// TODO: Use ProgressMonitor
-                while (!p.exists()) {
-                }
-            }
-            
-            // Open the Project, if necessary
-            if (!p.isOpen()) {
-                p.open(null);// TODO: Use ProgressMonitor
-            }
-            while (!p.isOpen()) {
-            }
-            
-            // Set project description
-            setProjectNatures(p, new String[] { PropertiesManager.getInstance().getInternalProperty(
-                    PropertiesManager.INTERNAL_KEYS.AGILEREVIEW_NATURE) });
-        } catch (final CoreException e) {
-            PluginLogger.logError(ReviewAccess.class.toString(), "createReviewProject", "CoreException in ReviewAccess constructor", e);
-            Display.getDefault().syncExec(new Runnable() {
+            // create, open and configure the project as one operation, which returns after the project is open
+            ReviewFileModel.runWorkspaceOperation(new IWorkspaceRunnable() {
                 @Override
-                public void run() {
-                    MessageDialog.openError(Display.getDefault().getActiveShell(),
-                            "AgileReview: Could not create or open AgileReview source project", e.getLocalizedMessage());
+                public void run(IProgressMonitor monitor) throws CoreException {
+                    // Create a new Project, if necessary
+                    if (!p.exists()) {
+                        p.create(monitor);
+                    }
+                    
+                    // Open the Project, if necessary
+                    if (!p.isOpen()) {
+                        p.open(monitor);
+                    }
+                    
+                    // Set project description
+                    setProjectNatures(p, new String[] { PropertiesManager.getInstance().getInternalProperty(
+                            PropertiesManager.INTERNAL_KEYS.AGILEREVIEW_NATURE) });
                 }
-            });
+            }, workspaceRoot);
+        } catch (CoreException e) {
+            PluginLogger.logError(ReviewAccess.class.toString(), "createReviewProject", "CoreException in ReviewAccess constructor", e);
+            ErrorCallbackRegistry.reportError("AgileReview: Could not create or open AgileReview source project", e.getLocalizedMessage());
             result = false;
         }
         return result;
@@ -294,15 +296,9 @@ public class ReviewAccess {
             projectDesc.setNatureIds(natures);
             p.setDescription(projectDesc, null);// TODO: Use ProgressMonitor
             return true;
-        } catch (final CoreException e) {
+        } catch (CoreException e) {
             PluginLogger.logError(ReviewAccess.class.toString(), "createReviewProject", "CoreException while setting project natures", e);
-            Display.getDefault().syncExec(new Runnable() {
-                @Override
-                public void run() {
-                    MessageDialog.openError(Display.getDefault().getActiveShell(), "AgileReview: Could not set project natures", e
-                            .getLocalizedMessage());
-                }
-            });
+            ErrorCallbackRegistry.reportError("AgileReview: Could not set project natures", e.getLocalizedMessage());
             return false;
         }
     }
@@ -337,7 +333,7 @@ public class ReviewAccess {
      * Returns the current active source folder
      * @return the current active source folder
      */
-    IProject getCurrentSourceFolder() {
+    public IProject getCurrentSourceFolder() {
         return REVIEW_REPO_FOLDER;
     }
     
@@ -404,15 +400,17 @@ public class ReviewAccess {
             // add active nature to new project
             setProjectNatures(p, new String[] { PropertiesManager.getInstance().getInternalProperty(
                     PropertiesManager.INTERNAL_KEYS.AGILEREVIEW_NATURE) });
-            // update decorator
-            Display.getDefault().asyncExec(new Runnable() {
-                @Override
-                public void run() {
-                    while (PlatformUI.getWorkbench() == null) {
+            // update decorator (not available in headless applications)
+            if (PlatformUI.isWorkbenchRunning()) {
+                Display.getDefault().asyncExec(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (PlatformUI.isWorkbenchRunning()) {
+                            PlatformUI.getWorkbench().getDecoratorManager().update("de.tukl.cs.softech.agilereview.active_decorator");
+                        }
                     }
-                    PlatformUI.getWorkbench().getDecoratorManager().update("de.tukl.cs.softech.agilereview.active_decorator");
-                }
-            });
+                });
+            }
             
             // Load open reviews initially
             try {
@@ -452,15 +450,9 @@ public class ReviewAccess {
                                     stream.close();
                                     this.rFileModel.addXmlDocument(doc, (IFile) currFile);
                                     readCommentsDocument(doc);
-                                } catch (final CoreException e) {
+                                } catch (CoreException e) {
                                     PluginLogger.logError(ReviewAccess.class.toString(), "loadAllComment", "CoreException while loading comments", e);
-                                    Display.getDefault().syncExec(new Runnable() {
-                                        @Override
-                                        public void run() {
-                                            MessageDialog.openError(Display.getDefault().getActiveShell(), "AgileReview: Could not open files", e
-                                                    .getLocalizedMessage());
-                                        }
-                                    });
+                                    ErrorCallbackRegistry.reportError("AgileReview: Could not open files", e.getLocalizedMessage());
                                 } catch (Exception e) {
                                     PluginLogger.logError(ReviewAccess.class.toString(), "loadAllComment", "Could not load file " + currFile, e);
                                     errorFiles.add(currFile);
@@ -477,22 +469,11 @@ public class ReviewAccess {
                     message += file.getLocation().toOSString() + "\n";
                 }
                 message += "\nThese files may be corrupted (i.e. empty). Please check them.";
-                final String finalMessage = message;
-                Display.getDefault().syncExec(new Runnable() {
-                    @Override
-                    public void run() {
-                        MessageDialog.openError(Display.getDefault().getActiveShell(), "AgileReview: Could not load files", finalMessage);
-                    }
-                });
+                ErrorCallbackRegistry.reportError("AgileReview: Could not load files", message);
             }
-        } catch (final CoreException e) {
+        } catch (CoreException e) {
             PluginLogger.logError(ReviewAccess.class.toString(), "loadAllComment", "CoreException while filling comment model", e);
-            Display.getDefault().syncExec(new Runnable() {
-                @Override
-                public void run() {
-                    MessageDialog.openError(Display.getDefault().getActiveShell(), "AgileReview: Could not open files", e.getLocalizedMessage());
-                }
-            });
+            ErrorCallbackRegistry.reportError("AgileReview: Could not open files", e.getLocalizedMessage());
         }
     }
     
@@ -523,15 +504,9 @@ public class ReviewAccess {
                                 stream.close();
                                 this.rFileModel.addXmlDocument(doc, (IFile) allFiles[i]);
                                 rModel.addReview(doc.getReview());
-                            } catch (final CoreException e) {
+                            } catch (CoreException e) {
                                 PluginLogger.logError(ReviewAccess.class.toString(), "loadAllReviews", "CoreException while filling review model", e);
-                                Display.getDefault().syncExec(new Runnable() {
-                                    @Override
-                                    public void run() {
-                                        MessageDialog.openError(Display.getDefault().getActiveShell(), "AgileReview: Could not open files", e
-                                                .getLocalizedMessage());
-                                    }
-                                });
+                                ErrorCallbackRegistry.reportError("AgileReview: Could not open files", e.getLocalizedMessage());
                             } catch (Exception e) {
                                 PluginLogger.logError(ReviewAccess.class.toString(), "loadAllReviews", "Could not load file " + allFiles[i], e);
                                 errorFiles.add(allFiles[i]);
@@ -547,16 +522,11 @@ public class ReviewAccess {
                     message += file.getLocation().toOSString() + "\n";
                 }
                 message += "\nThese files may be corrupted (i.e. empty). Please check them.\nComments of a review cannot be loaded without working review file.";
-                MessageDialog.openError(Display.getDefault().getActiveShell(), "AgileReview: Could not load files", message);
+                ErrorCallbackRegistry.reportError("AgileReview: Could not load files", message);
             }
-        } catch (final CoreException e) {
+        } catch (CoreException e) {
             PluginLogger.logError(ReviewAccess.class.toString(), "loadAllReviews", "CoreException while filling review model", e);
-            Display.getDefault().syncExec(new Runnable() {
-                @Override
-                public void run() {
-                    MessageDialog.openError(Display.getDefault().getActiveShell(), "AgileReview: Could not open files", e.getLocalizedMessage());
-                }
-            });
+            ErrorCallbackRegistry.reportError("AgileReview: Could not open files", e.getLocalizedMessage());
         }
     }
     
@@ -678,6 +648,38 @@ public class ReviewAccess {
     public Comment createNewComment(String reviewId, String author, String path) throws NoReviewSourceFolderException {
         PluginLogger.log(this.getClass().toString(), "createNewComment", "Comment created for:\n reviewId: " + reviewId + " \n author: " + author
                 + " \n path: " + path);
+        Comment result = addNewComment(reviewId, author, null, path);
+        
+        // Save and return the new empty comment
+        save(result);
+        return result;
+    }
+    
+    /**
+     * Creates a new empty Comment with the given id at the right position in the xml without saving it. This is intended for bulk imports, which
+     * should save the created comments by {@link #save(Collection)} in batches. If a comment with the given id already exists, it will be
+     * replaced in the model.
+     * @param reviewId Review in which the comment is placed
+     * @param author author of the comment
+     * @param commentId id of the comment or null, if the next free id should be used
+     * @param path file path of the commented file
+     * @return empty comment
+     * @throws NoReviewSourceFolderException will be thrown if no review source folder had been defined beforehand
+     */
+    public Comment importComment(String reviewId, String author, String commentId, String path) throws NoReviewSourceFolderException {
+        return addNewComment(reviewId, author, commentId, path);
+    }
+    
+    /**
+     * Creates a new empty Comment at the right position in the xml and adds it to the model
+     * @param reviewId Review in which the comment is placed
+     * @param author author of the comment
+     * @param commentId id of the comment or null, if the next free id should be used
+     * @param path file path of the commented file
+     * @return empty comment
+     * @throws NoReviewSourceFolderException will be thrown if no review source folder had been defined beforehand
+     */
+    private Comment addNewComment(String reviewId, String author, String commentId, String path) throws NoReviewSourceFolderException {
         // Check if file for this author in this review does already exist (assumption: database and file system are synch)
         IFile commentFile = ReviewAccess.createCommentFile(reviewId, author);
         // Check if file for this author does already exist
@@ -698,8 +700,10 @@ public class ReviewAccess {
         // Prepare new Comment
         Comment result = currFile.addNewComment();
         // Find the next id
-        Integer newKey = this.rModel.getNextCommentIdFor(reviewId, author);
-        result.setId("c" + newKey);
+        if (commentId == null) {
+            commentId = "c" + this.rModel.getNextCommentIdFor(reviewId, author);
+        }
+        result.setId(commentId);
         
         // Fill attributes
         result.setAuthor(author);
@@ -719,9 +723,6 @@ public class ReviewAccess {
         
         // Store comment in database
         this.rModel.addComment(result);
-        
-        // Save and return the new empty comment
-        save(result);
         return result;
     }
     
@@ -769,13 +770,41 @@ public class ReviewAccess {
     }
     
     /**
-     * @see ReviewAccess#deleteComment(String, String, String)
+     * Deletes all given comments like {@link ReviewAccess#deleteComment(String, String, String)}, but saves each changed author file only once
      * @param comments
      * @throws NoReviewSourceFolderException will be thrown if no review source folder had been defined beforehand
      */
     public void deleteComments(Collection<Comment> comments) throws NoReviewSourceFolderException {
+        PluginLogger.log(this.getClass().toString(), "deleteComments", "Delete " + comments.size() + " comments");
+        LinkedHashSet<IFile> changedFiles = new LinkedHashSet<IFile>();
+        LinkedHashSet<IFile> removedFiles = new LinkedHashSet<IFile>();
         for (Comment c : comments) {
-            deleteComment(c.getReviewID(), c.getAuthor(), c.getId());
+            // the values of the comment cannot be read any more, after its xml nodes have been removed
+            String reviewId = c.getReviewID();
+            String author = c.getAuthor();
+            String commentId = c.getId();
+            
+            // Remove xml nodes
+            cleanXmlPath(c);
+            IFile changedFile = ReviewAccess.createCommentFile(reviewId, author);
+            if (this.rModel.removeComment(reviewId, author, commentId)) {
+                // Last comment of this author in this review has been deleted
+                removedFiles.add(changedFile);
+            } else {
+                changedFiles.add(changedFile);
+            }
+        }
+        
+        changedFiles.removeAll(removedFiles);
+        for (IFile file : removedFiles) {
+            this.rFileModel.removeXmlDocument(file);
+        }
+        for (IFile file : changedFiles) {
+            try {
+                this.rFileModel.save(file);
+            } catch (IOException e) {
+                PluginLogger.logError(this.getClass().toString(), "deleteComments", "IOException occured while deleting comments of file " + file, e);
+            }
         }
     }
     
@@ -811,12 +840,51 @@ public class ReviewAccess {
      * @param reviewId
      * @param author
      * @param commentId
-     * @return comment specified by given tupel
+     * @return comment specified by given tupel or null, if there is no such comment
      */
     public Comment getComment(String reviewId, String author, String commentId) {
         return this.rModel.getComment(reviewId, author, commentId);
     }
     
+    /**
+     * Returns all loaded comments which belong to the file with the given path
+     * @param path path of the file as computed by {@link #computePath(XmlObject)}
+     * @return unmodifiable set of all comments of the given file
+     */
+    public Set<Comment> getFileComments(String path) {
+        return this.rModel.getFileComments(path);
+    }
+    
+    /**
+     * Returns the number of loaded comments of the given review within the given path in constant time
+     * @param reviewId
+     * @param path path of a project, folder or file or the empty string for the whole review
+     * @return number of comments
+     */
+    public int getCommentCount(String reviewId, String path) {
+        return this.rModel.getCounts().getTotalCount(reviewId, path);
+    }
+    
+    /**
+     * Returns the number of loaded open comments of the given review within the given path in constant time
+     * @param reviewId
+     * @param path path of a project, folder or file or the empty string for the whole review
+     * @return number of open comments
+     */
+    public int getOpenCommentCount(String reviewId, String path) {
+        return this.rModel.getCounts().getCount(reviewId, path, CommentCounts.STATUS_OPEN);
+    }
+    
+    /**
+     * Returns the path of the file the given comment belongs to. In contrast to {@link #computePath(XmlObject)} the path of loaded comments will
+     * be taken from the model.
+     * @param comment
+     * @return path of the commented file
+     */
+    public String getCommentPath(Comment comment) {
+        return this.rModel.getPath(comment);
+    }
+    
     // ////////////////////////
     // review functionality //
     // ////////////////////////
@@ -856,15 +924,21 @@ public class ReviewAccess {
     public HashSet<Project> getProjects(String reviewId) {
         PluginLogger.log(this.getClass().toString(), "getProjects", "all projects of review \"" + reviewId + "\" requested");
         HashSet<Project> result = new HashSet<Project>();
+        HashSet<XmlObject> visitedParents = new HashSet<XmlObject>();
         
         // Iterate all comments of this review
         for (Comment c : rModel.getComments(reviewId)) {
-            // Get the corresponding <project> node
-            XmlObject[] xPathResult = c.selectPath("declare namespace s='http://de.tukl.softech.agileReview'; $this/ancestor::s:project");
-            
-            // Every comment has exactly one ancestor of type project
-            Project currProject = (Project) xPathResult[0];
-            result.add(currProject);
+            XmlCursor cursor = c.newCursor();
+            // Comments of the same file share their parent, so the ancestors only have to be walked for the first of them
+            if (cursor.toParent() && visitedParents.add(cursor.getObject())) {
+                // Every comment has exactly one ancestor of type project
+                while (!(cursor.getObject() instanceof Project) && cursor.toParent()) {
+                }
+                if (cursor.getObject() instanceof Project) {
+                    result.add((Project) cursor.getObject());
+                }
+            }
+            cursor.dispose();
         }
         
         return result;
@@ -920,6 +994,7 @@ public class ReviewAccess {
         
         // Delete review from Model
         this.rModel.removeReview(reviewId, true);
+        this.closedReviewStamps.remove(reviewId);
         this.rFileModel.removeXmlDocument(delFile);
     }
     
@@ -939,6 +1014,7 @@ public class ReviewAccess {
             IResource[] allFiles = currFolder.members();
             
             this.rModel.createModelEntry(reviewId);
+            this.closedReviewStamps.remove(reviewId);
             LinkedList<IResource> errorFiles = new LinkedList<IResource>();
             // Iterate all files in the current folder
             for (IResource currFile : allFiles) {
@@ -951,16 +1027,10 @@ public class ReviewAccess {
                             stream.close();
                             this.rFileModel.addXmlDocument(doc, (IFile) currFile);
                             readCommentsDocument(doc);
-                        } catch (final CoreException e) {
+                        } catch (CoreException e) {
                             PluginLogger.logError(ReviewAccess.class.toString(), "loadReviewComments",
                                     "CoreException while loading comments from file " + currFile, e);
-                            Display.getDefault().syncExec(new Runnable() {
-                                @Override
-                                public void run() {
-                                    MessageDialog.openError(Display.getDefault().getActiveShell(), "AgileReview: Could not open files", e
-                                            .getLocalizedMessage());
-                                }
-                            });
+                            ErrorCallbackRegistry.reportError("AgileReview: Could not open files", e.getLocalizedMessage());
                         } catch (Exception e) {
                             PluginLogger.logError(ReviewAccess.class.toString(), "loadReviewComments", "Could not load file " + currFile, e);
                             errorFiles.add(currFile);
@@ -975,17 +1045,12 @@ public class ReviewAccess {
                     message += file.getLocation().toOSString() + "\n";
                 }
                 message += "\nThese files may be corrupted (i.e. empty). Please check them.";
-                MessageDialog.openError(Display.getDefault().getActiveShell(), "AgileReview: Could not load files", message);
+                ErrorCallbackRegistry.reportError("AgileReview: Could not load files", message);
             }
-        } catch (final CoreException e) {
+        } catch (CoreException e) {
             PluginLogger.logError(ReviewAccess.class.toString(), "loadReviewComments", "CoreException while loading comments of review " + reviewId
                     + " into database", e);
-            Display.getDefault().syncExec(new Runnable() {
-                @Override
-                public void run() {
-                    MessageDialog.openError(Display.getDefault().getActiveShell(), "AgileReview: Could not open files", e.getLocalizedMessage());
-                }
-            });
+            ErrorCallbackRegistry.reportError("AgileReview: Could not open files", e.getLocalizedMessage());
         }
     }
     
@@ -995,9 +1060,90 @@ public class ReviewAccess {
      */
     public void unloadReviewComments(String reviewId) {
         PluginLogger.log(this.getClass().toString(), "unloadReviewComments", "Unload comments of review: " + reviewId);
-        // Remove the given review from the models
+        // Remove the given review from the models (its comments remain searchable)
         this.rModel.removeReview(reviewId, false);
         // TODO: Erstmal nicht aus dem anderen Model rauslöschen. Dazu muss es cleverer werden
+        // the index entries are up to date, so the files only have to be parsed again if they are changed later on
+        if (REVIEW_REPO_FOLDER == null) { return; }
+        try {
+            this.closedReviewStamps.put(reviewId, getCommentFileStamps(reviewId));
+        } catch (CoreException e) {
+            PluginLogger.logError(ReviewAccess.class.toString(), "unloadReviewComments", "CoreException while reading the files of review "
+                    + reviewId, e);
+            // re-index the review on the next refresh
+            this.closedReviewStamps.put(reviewId, new HashMap<IFile, Long>());
+        }
+    }
+    
+    /**
+     * Returns the modification stamps of all comment files of the given review
+     * @param reviewId
+     * @return the modification stamps of all comment files of the given review (file -> stamp)
+     * @throws CoreException if the files of the review could not be determined
+     */
+    private HashMap<IFile, Long> getCommentFileStamps(String reviewId) throws CoreException {
+        HashMap<IFile, Long> result = new HashMap<IFile, Long>();
+        IFolder currFolder = REVIEW_REPO_FOLDER.getFolder("review." + reviewId);
+        if (!currFolder.exists()) { return result; }
+        for (IResource currFile : currFolder.members()) {
+            if (currFile instanceof IFile && !((IFile) currFile).getName().equals("review.xml")) {
+                result.put((IFile) currFile, currFile.getModificationStamp());
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Updates the full-text index entries of all closed reviews, such that closed reviews can be searched without loading them into the
+     * database. Only reviews whose files have been changed since they were indexed are parsed again. The entries of reviews which do not exist
+     * anymore are removed.
+     */
+    private void indexClosedReviews() {
+        Iterator<String> it = closedReviewStamps.keySet().iterator();
+        while (it.hasNext()) {
+            String reviewId = it.next();
+            if (!rModel.containsReview(reviewId, false)) {
+                rModel.removeClosedReview(reviewId);
+                it.remove();
+            }
+        }
+        for (Review r : rModel.getAllReviews()) {
+            if (!rModel.containsReview(r.getId(), true)) {
+                indexClosedReviewComments(r.getId());
+            }
+        }
+    }
+    
+    /**
+     * Adds the comments of the given closed review to the full-text index only, if its files have been changed since it was indexed. Errors
+     * are only logged, as the review itself is not affected.
+     * @param reviewId
+     */
+    private void indexClosedReviewComments(String reviewId) {
+        if (REVIEW_REPO_FOLDER == null) { return; }
+        try {
+            HashMap<IFile, Long> stamps = getCommentFileStamps(reviewId);
+            if (stamps.equals(closedReviewStamps.get(reviewId))) { return; }
+            this.rModel.removeClosedReview(reviewId);
+            this.closedReviewStamps.put(reviewId, stamps);
+            for (IFile currFile : stamps.keySet()) {
+                try {
+                    InputStream stream = currFile.getContents();
+                    CommentsDocument doc = CommentsDocument.Factory.parse(stream);
+                    stream.close();
+                    XmlObject[] xPathResult = doc.getComments().selectPath(
+                            "declare namespace s='http://de.tukl.softech.agileReview'; $this//s:comment");
+                    for (XmlObject c : xPathResult) {
+                        this.rModel.addClosedComment((Comment) c);
+                    }
+                } catch (Exception e) {
+                    PluginLogger.logError(ReviewAccess.class.toString(), "indexClosedReviewComments", "Could not index file " + currFile, e);
+                }
+            }
+        } catch (CoreException e) {
+            PluginLogger.logError(ReviewAccess.class.toString(), "indexClosedReviewComments", "CoreException while indexing comments of review "
+                    + reviewId, e);
+        }
     }
     
     /**
@@ -1013,7 +1159,7 @@ public class ReviewAccess {
         // Fill in new values
         loadAllReviews();
         loadAllComment();
-        
+        indexClosedReviews();
     }
     
     /**
@@ -1044,6 +1190,43 @@ public class ReviewAccess {
         if (!activeReviewFound) {
             PropertiesManager.getPreferences().setToDefault(PropertiesManager.EXTERNAL_KEYS.ACTIVE_REVIEW);
         }
+        
+        // Make the closed reviews searchable
+        indexClosedReviews();
+    }
+    
+    /**
+     * Applies the given path rewrites (in the given order) to all loaded comment documents and updates the comment model accordingly. This
+     * reproduces the changes a refactoring performed on the comment files without reloading them from disk. The documents are not saved, as
+     * the refactoring has already written the files.
+     * @param rewrites path rewrites performed by a refactoring
+     * @return all comments which were relocated and therefore replaced by new instances in the model
+     */
+    public Collection<Comment> applyPathRewrites(Collection<PathRewrite> rewrites) {
+        HashSet<CommentsDocument> changedDocs = new HashSet<CommentsDocument>();
+        for (PathRewrite r : rewrites) {
+            for (CommentsDocument doc : rFileModel.getAllCommentsDocument()) {
+                if (RefactoringAccess.rewritePath(doc, r.getOldPath(), r.getNewPath(), r.getType(), r.isMoveAllChilds())) {
+                    changedDocs.add(doc);
+                }
+            }
+        }
+        
+        ArrayList<Comment> result = new ArrayList<Comment>();
+        if (changedDocs.isEmpty()) { return result; }
+        
+        for (CommentsDocument doc : changedDocs) {
+            XmlObject[] xPathResult = doc.getComments().selectPath("declare namespace s='http://de.tukl.softech.agileReview'; $this//s:comment");
+            for (int j = 0; j < xPathResult.length; j++) {
+                Comment c = (Comment) xPathResult[j];
+                if (rModel.getComment(c.getReviewID(), c.getAuthor(), c.getId()) != c) {
+                    result.add(c);
+                }
+                rModel.addComment(c);
+            }
+        }
+        PluginLogger.log(this.getClass().toString(), "applyPathRewrites", result.size() + " comments relocated by " + rewrites);
+        return result;
     }
     
     /**
@@ -1073,6 +1256,8 @@ public class ReviewAccess {
             // Determine the file of this comment
             IFile file2save = null;
             if (obj instanceof Comment) {
+                // the comment might have been edited, so update the full-text index
+                rModel.reindexComment((Comment) obj);
                 file2save = createCommentFile(((Comment) obj).getReviewID(), ((Comment) obj).getAuthor());
             } else if (obj instanceof Review) {
                 file2save = createReviewFile(((Review) obj).getId());
@@ -1090,6 +1275,50 @@ public class ReviewAccess {
         }
     }
     
+    /**
+     * Saves the files of all given objects, whereas each file is only saved once. This should be preferred to {@link #save(XmlObject)} when
+     * many comments of the same authors have been changed at once.
+     * @param objs The objects which changed. Have to be comments or reviews
+     * @throws NoReviewSourceFolderException will be thrown if no review source folder had been defined beforehand
+     */
+    public void save(Collection<? extends XmlObject> objs) throws NoReviewSourceFolderException {
+        synchronized (RECENTLY_SAVED) {
+            RECENTLY_SAVED = true;
+            LinkedHashSet<IFile> files2save = new LinkedHashSet<IFile>();
+            for (XmlObject obj : objs) {
+                if (obj instanceof Comment) {
+                    rModel.reindexComment((Comment) obj);
+                    files2save.add(createCommentFile(((Comment) obj).getReviewID(), ((Comment) obj).getAuthor()));
+                } else if (obj instanceof Review) {
+                    files2save.add(createReviewFile(((Review) obj).getId()));
+                } else {
+                    PluginLogger.logError(this.getClass().toString(), "save", obj + " could not be saved, as it is neither a comment nor a review");
+                }
+            }
+            PluginLogger.log(this.getClass().toString(), "save", "Save " + files2save.size() + " files in order to save " + objs.size() + " objects");
+            for (IFile file2save : files2save) {
+                try {
+                    rFileModel.save(file2save);
+                } catch (IOException e) {
+                    PluginLogger.logError(this.getClass().toString(), "save", "IOException occured while trying to save to file " + file2save, e);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Searches the comments of all reviews for the given substring (case insensitive) using the full-text index. The comments of closed reviews
+     * are searched as well, although they are not part of the database. As the index synchronizes its accesses, it can be searched by background
+     * jobs while the model is changed.
+     * @param query substring to be searched for
+     * @param fields fields to be searched
+     * @return the keys of all comments matching the query in at least one of the given fields or null if the query is empty
+     * @see CommentSearchIndex#getKey(Comment)
+     */
+    public HashSet<String> searchComments(String query, Collection<CommentSearchIndex.Field> fields) {
+        return rModel.getSearchIndex().search(query, fields);
+    }
+    
     /**
      * Do a global refresh if but not if we are currently changing it.
      * @author Malte Brunnlieb (25.08.2013)
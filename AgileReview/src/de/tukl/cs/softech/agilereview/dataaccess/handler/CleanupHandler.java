@@ -16,6 +16,7 @@ import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.IAdaptable;
 import org.eclipse.jface.dialogs.MessageDialog;
 import org.eclipse.jface.dialogs.ProgressMonitorDialog;
+import org.eclipse.jface.operation.IRunnableWithProgress;
 import org.eclipse.jface.viewers.ISelection;
 import org.eclipse.jface.viewers.IStructuredSelection;
 import org.eclipse.swt.SWT;
@@ -57,25 +58,17 @@ public class CleanupHandler extends AbstractHandler {
         }
         IStructuredSelection selection = (IStructuredSelection) sel;
         
-        MessageBox messageDialog = new MessageBox(HandlerUtil.getActiveShell(event), SWT.ICON_QUESTION | SWT.OK | SWT.CANCEL);
-        messageDialog.setText("AgileReview Cleanup");
-        String options = (deleteComments ? (onlyClosedComments ? "All comments that are in state 'closed' will be deleted."
-                : "All Comments will be deleted.") : "References to code passages will be deleted. All comments will be kept.");
-        String message = "Really do cleanup? " + options + "\nCheck the preferences to adjust the behavior of the Project Cleanup Action.";
-        messageDialog.setMessage(message);
-        int result = messageDialog.open();
-        
-        if (result == SWT.CANCEL) {
-            // cancel selected -> quit method
-            return null;
-        }
-        
         try {
             Object firstElement = selection.getFirstElement();
+            MultipleReviewWrapper reviewWrapper = null;
+            CleanupPlan plan = null;
             // cleanup for reviews
             if (firstElement instanceof MultipleReviewWrapper) {
-                MultipleReviewWrapper reviewWrapper = ((MultipleReviewWrapper) firstElement);
-                cleanupReview(event, reviewWrapper, deleteComments, onlyClosedComments);
+                reviewWrapper = ((MultipleReviewWrapper) firstElement);
+                CleanupReviewProcess dryRun = new CleanupReviewProcess(reviewWrapper.getWrappedReview(), deleteComments,
+                        onlyClosedComments, true);
+                runProcess(event, dryRun);
+                plan = dryRun.getPlan();
             } else
             // cleanup for projects
             if (firstElement instanceof IAdaptable && ((IAdaptable) firstElement).getAdapter(IProject.class) != null) {
@@ -90,7 +83,32 @@ public class CleanupHandler extends AbstractHandler {
                     }
                 }
                 
-                cleanupProjects(selProjects, event, deleteComments, onlyClosedComments);
+                CleanupProjectsProcess dryRun = new CleanupProjectsProcess(selProjects, deleteComments, onlyClosedComments, true);
+                runProcess(event, dryRun);
+                plan = dryRun.getPlan();
+            }
+            if (plan == null) { return null; }
+            
+            // show the computed plan, the confirmed cleanup performs exactly this plan
+            MessageBox messageDialog = new MessageBox(HandlerUtil.getActiveShell(event), SWT.ICON_QUESTION | SWT.OK | SWT.CANCEL);
+            messageDialog.setText("AgileReview Cleanup");
+            String options = (deleteComments ? (onlyClosedComments ? "All comments that are in state 'closed' will be deleted."
+                    : "All Comments will be deleted.") : "References to code passages will be deleted. All comments will be kept.");
+            String message = "Really do cleanup? " + options + "\n\n" + plan.getSummary()
+                    + "\n\nCheck the preferences to adjust the behavior of the Project Cleanup Action.";
+            messageDialog.setMessage(message);
+            int result = messageDialog.open();
+            
+            if (result == SWT.CANCEL) {
+                // cancel selected -> quit method
+                return null;
+            }
+            
+            if (reviewWrapper != null) {
+                if (!checkReviewOpen(event, reviewWrapper)) { return null; }
+                runProcess(event, new CleanupReviewProcess(plan));
+            } else {
+                runProcess(event, new CleanupProjectsProcess(plan));
             }
         } catch (InvocationTargetException e) {
             PluginLogger.logError(this.getClass().toString(), "execute", "InvocationTargetException", e);
@@ -116,7 +134,8 @@ public class CleanupHandler extends AbstractHandler {
             });
         }
         
-        ViewControl.refreshViews(ViewControl.COMMMENT_TABLE_VIEW | ViewControl.REVIEW_EXPLORER, true);
+        // the editors are reparsed with the comments of the reloaded table
+        ViewControl.refreshViewsNow(ViewControl.COMMMENT_TABLE_VIEW | ViewControl.REVIEW_EXPLORER, true);
         if (ViewControl.isOpen(CommentTableView.class)) {
             CommentTableView.getInstance().reparseAllEditors();
         }
@@ -125,40 +144,16 @@ public class CleanupHandler extends AbstractHandler {
     }
     
     /**
-     * Perform cleanup on selected Projects
-     * @param selProjects
-     * @param event
-     * @param deleteComments
-     * @param onlyClosedComments
-     * @throws InterruptedException
-     * @throws InvocationTargetException
-     */
-    private void cleanupProjects(List<IProject> selProjects, final ExecutionEvent event, boolean deleteComments, boolean onlyClosedComments)
-            throws InvocationTargetException, InterruptedException {
-        ProgressMonitorDialog pmd = new ProgressMonitorDialog(HandlerUtil.getActiveShell(event));
-        pmd.open();
-        pmd.run(true, false, new CleanupProjectsProcess(selProjects, deleteComments, onlyClosedComments));
-        pmd.close();
-    }
-    
-    /**
-     * Perform cleanup on selected review
-     * @param event
-     * @param reviewWrapper
-     * @param deleteComments
-     * @param onlyClosedComments
-     * @throws ExecutionException
+     * Runs the given cleanup process within a progress monitor dialog
+     * @param event original handler event
+     * @param process cleanup process (dry-run or execution)
      * @throws InterruptedException
      * @throws InvocationTargetException
      */
-    private void cleanupReview(ExecutionEvent event, MultipleReviewWrapper reviewWrapper, boolean deleteComments, boolean onlyClosedComments)
-            throws ExecutionException, InvocationTargetException, InterruptedException {
-        
-        if (!checkReviewOpen(event, reviewWrapper)) { return; }
-        
+    private void runProcess(ExecutionEvent event, IRunnableWithProgress process) throws InvocationTargetException, InterruptedException {
         ProgressMonitorDialog pmd = new ProgressMonitorDialog(HandlerUtil.getActiveShell(event));
         pmd.open();
-        pmd.run(true, false, new CleanupReviewProcess(reviewWrapper.getWrappedReview(), deleteComments, onlyClosedComments));
+        pmd.run(true, false, process);
         pmd.close();
     }
     
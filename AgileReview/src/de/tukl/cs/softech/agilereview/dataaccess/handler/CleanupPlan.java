@@ -0,0 +1,314 @@
+package de.tukl.cs.softech.agilereview.dataaccess.handler;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.runtime.jobs.MultiRule;
+
+import agileReview.softech.tukl.de.CommentDocument.Comment;
+import de.tukl.cs.softech.agilereview.core.annotations.TagCleaner;
+import de.tukl.cs.softech.agilereview.dataaccess.ReviewAccess;
+import de.tukl.cs.softech.agilereview.plugincontrol.exceptions.NoReviewSourceFolderException;
+import de.tukl.cs.softech.agilereview.tools.PluginLogger;
+
+/**
+ * Plan of a cleanup, which is computed from the review model without reading or writing any file. It describes the tags which will be removed
+ * from each file and the comments which will be deleted from each author file, such that the plan can be shown to the user before the cleanup
+ * and executed afterwards without computing it again.
+ */
+public class CleanupPlan {
+    
+    /**
+     * Instance of ReviewAccess
+     */
+    private static ReviewAccess ra = ReviewAccess.getInstance();
+    /**
+     * Maximum number of files whose cleaned contents are kept in memory before they are written
+     */
+    private static final int WRITE_BATCH_SIZE = 64;
+    /**
+     * delete (true) or keep (false) comments
+     */
+    private final boolean deleteComments;
+    /**
+     * Keys of the tags to be removed grouped by the workspace path of the file
+     */
+    private final LinkedHashMap<IPath, HashSet<String>> tagsByFile = new LinkedHashMap<IPath, HashSet<String>>();
+    /**
+     * Files of which all tags will be removed, including tags without a comment in the model
+     */
+    private final LinkedHashSet<IPath> allTagFiles = new LinkedHashSet<IPath>();
+    /**
+     * Comments to be deleted grouped by review: review id -> (author, comment id)
+     */
+    private final LinkedHashMap<String, ArrayList<String[]>> commentsByReview = new LinkedHashMap<String, ArrayList<String[]>>();
+    /**
+     * Author files which will be changed by the deletion: review id + "/" + author
+     */
+    private final HashSet<String> authorFiles = new HashSet<String>();
+    /**
+     * Number of tags to be removed
+     */
+    private int tagCount;
+    /**
+     * Number of comments to be deleted
+     */
+    private int commentCount;
+    
+    /**
+     * Creates an empty plan
+     * @param deleteComments indicates whether to delete (true) or keep (false) the comments of the plan
+     */
+    CleanupPlan(boolean deleteComments) {
+        this.deleteComments = deleteComments;
+    }
+    
+    /**
+     * Adds the given comment to the plan, i.e. its tags will be removed and it will be deleted, if comments should be deleted
+     * @param c comment to be cleaned up
+     */
+    void addComment(Comment c) {
+        IPath path = new Path(ReviewAccess.computePath(c)).makeAbsolute();
+        HashSet<String> keys = tagsByFile.get(path);
+        if (keys == null) {
+            keys = new HashSet<String>();
+            tagsByFile.put(path, keys);
+        }
+        if (keys.add(ra.generateCommentKey(c))) {
+            tagCount++;
+        }
+        
+        if (deleteComments) {
+            ArrayList<String[]> comments = commentsByReview.get(c.getReviewID());
+            if (comments == null) {
+                comments = new ArrayList<String[]>();
+                commentsByReview.put(c.getReviewID(), comments);
+            }
+            comments.add(new String[] { c.getAuthor(), c.getId() });
+            authorFiles.add(c.getReviewID() + "/" + c.getAuthor());
+            commentCount++;
+        }
+    }
+    
+    /**
+     * Adds the given file to the plan, such that all of its tags will be removed
+     * @param path workspace path of the file
+     */
+    void addAllTagsFile(IPath path) {
+        allTagFiles.add(path);
+    }
+    
+    /**
+     * Returns the number of tags of known comments which will be removed
+     * @return the number of tags
+     */
+    public int getTagCount() {
+        return tagCount;
+    }
+    
+    /**
+     * Returns the number of files containing tags of known comments which will be removed
+     * @return the number of files
+     */
+    public int getFileCount() {
+        return tagsByFile.size();
+    }
+    
+    /**
+     * Returns the number of files which will be searched for further tags without a comment in the model
+     * @return the number of files
+     */
+    public int getAllTagsFileCount() {
+        return allTagFiles.size();
+    }
+    
+    /**
+     * Returns the number of comments which will be deleted
+     * @return the number of comments
+     */
+    public int getCommentCount() {
+        return commentCount;
+    }
+    
+    /**
+     * Returns the number of author files which will be changed by deleting the comments
+     * @return the number of author files
+     */
+    public int getAuthorFileCount() {
+        return authorFiles.size();
+    }
+    
+    /**
+     * Returns a human readable description of the plan
+     * @return the description of the plan
+     */
+    public String getSummary() {
+        StringBuilder result = new StringBuilder();
+        result.append("Tags of " + tagCount + " comments will be removed from " + tagsByFile.size() + " files.");
+        if (!allTagFiles.isEmpty()) {
+            result.append("\nAll remaining tags will be removed from " + allTagFiles.size() + " supported files of the projects.");
+        }
+        if (deleteComments) {
+            result.append("\n" + commentCount + " comments will be deleted from " + authorFiles.size() + " author files.");
+        }
+        return result.toString();
+    }
+    
+    /**
+     * Executes the plan. The tags are removed in one parallel pass per file, the changed files are written in one workspace operation per batch
+     * of files and afterwards the comments are deleted with one write per author file.
+     * @param monitor progress monitor
+     * @throws InterruptedException if the tags of a file could not be removed
+     * @throws InvocationTargetException if a changed file could not be written
+     * @throws NoReviewSourceFolderException if no review source folder had been defined beforehand
+     */
+    void execute(IProgressMonitor monitor) throws InvocationTargetException, InterruptedException, NoReviewSourceFolderException {
+        SubMonitor progress = SubMonitor.convert(monitor, 100);
+        
+        // tag keys to be removed grouped by file (null if all tags of the file should be removed)
+        LinkedHashMap<IPath, HashSet<String>> keysByFile = new LinkedHashMap<IPath, HashSet<String>>(tagsByFile);
+        for (IPath path : allTagFiles) {
+            keysByFile.put(path, null);
+        }
+        PluginLogger.log(this.getClass().toString(), "execute", "Removing comments from " + keysByFile.keySet().toString());
+        removeTags(keysByFile, progress.newChild(deleteComments ? 70 : 100));
+        
+        if (deleteComments) {
+            progress.subTask("Deleting comments...");
+            PluginLogger.log(this.getClass().toString(), "execute", "Removing comments from XML");
+            deleteComments(progress.newChild(30));
+        }
+    }
+    
+    /**
+     * Removes the given tags from the given files. The files are read and cleaned in parallel and the changed files are written in batches of
+     * {@link #WRITE_BATCH_SIZE} files, such that the cleaned contents of at most one batch are kept in memory.
+     * @param keysByFile tag keys to be removed grouped by file (null if all tags of the file should be removed)
+     * @param monitor progress monitor
+     * @throws InterruptedException if the tags of a file could not be removed
+     * @throws InvocationTargetException if a changed file could not be written
+     */
+    private void removeTags(Map<IPath, HashSet<String>> keysByFile, IProgressMonitor monitor) throws InterruptedException,
+            InvocationTargetException {
+        SubMonitor progress = SubMonitor.convert(monitor, "Removing tags...", 2 * keysByFile.size());
+        IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+        LinkedHashMap<IFile, Future<String>> batch = new LinkedHashMap<IFile, Future<String>>();
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            for (Map.Entry<IPath, HashSet<String>> entry : keysByFile.entrySet()) {
+                final IFile file = root.getFile(entry.getKey());
+                final HashSet<String> keys = entry.getValue();
+                // comments may refer to files which do not exist anymore
+                if (!file.exists() || !TagCleaner.isSupported(file)) {
+                    progress.worked(2);
+                    continue;
+                }
+                batch.put(file, executor.submit(new Callable<String>() {
+                    @Override
+                    public String call() throws Exception {
+                        return TagCleaner.removeTags(file, keys);
+                    }
+                }));
+                if (batch.size() == WRITE_BATCH_SIZE) {
+                    writeBatch(batch, progress);
+                    batch.clear();
+                }
+            }
+            writeBatch(batch, progress);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    /**
+     * Waits for the cleaned contents of the given files and writes the changed ones in one workspace operation, such that the resource listeners
+     * are only notified once per batch
+     * @param batch files with their pending cleaned contents (null if a file has not been changed)
+     * @param progress progress monitor, which will be informed about two units of work per file
+     * @throws InterruptedException if the tags of a file could not be removed
+     * @throws InvocationTargetException if a changed file could not be written
+     */
+    private void writeBatch(Map<IFile, Future<String>> batch, final SubMonitor progress) throws InterruptedException, InvocationTargetException {
+        final LinkedHashMap<IFile, String> changedFiles = new LinkedHashMap<IFile, String>();
+        LinkedHashSet<IProject> projects = new LinkedHashSet<IProject>();
+        for (Map.Entry<IFile, Future<String>> result : batch.entrySet()) {
+            try {
+                String content = result.getValue().get();
+                if (content != null) {
+                    changedFiles.put(result.getKey(), content);
+                    projects.add(result.getKey().getProject());
+                } else {
+                    progress.worked(1);
+                }
+            } catch (ExecutionException e) {
+                PluginLogger.logError(this.getClass().toString(), "writeBatch", "Exception while trying to remove tags.", e.getCause());
+                throw new InterruptedException("Tags of file " + result.getKey().getFullPath().toOSString() + " could not be removed!");
+            }
+            progress.worked(1);
+        }
+        if (changedFiles.isEmpty()) { return; }
+        
+        try {
+            ResourcesPlugin.getWorkspace().run(new IWorkspaceRunnable() {
+                @Override
+                public void run(IProgressMonitor monitor) throws CoreException {
+                    for (Map.Entry<IFile, String> changed : changedFiles.entrySet()) {
+                        progress.subTask("Writing " + changed.getKey().getName() + "...");
+                        TagCleaner.writeContents(changed.getKey(), changed.getValue());
+                        progress.worked(1);
+                    }
+                }
+            }, MultiRule.combine(projects.toArray(new IProject[projects.size()])), IWorkspace.AVOID_UPDATE, null);
+        } catch (CoreException e) {
+            throw new InvocationTargetException(e, "Tags could not be removed!");
+        }
+    }
+    
+    /**
+     * Deletes the comments of the plan review by review. Reviews which are not loaded are only loaded while their comments are deleted.
+     * @param monitor progress monitor
+     * @throws NoReviewSourceFolderException if no review source folder had been defined beforehand
+     */
+    private void deleteComments(IProgressMonitor monitor) throws NoReviewSourceFolderException {
+        SubMonitor progress = SubMonitor.convert(monitor, commentsByReview.size());
+        for (Map.Entry<String, ArrayList<String[]>> entry : commentsByReview.entrySet()) {
+            String reviewId = entry.getKey();
+            boolean loaded = ra.isReviewLoaded(reviewId);
+            if (!loaded) {
+                ra.loadReviewComments(reviewId);
+            }
+            ArrayList<Comment> comments = new ArrayList<Comment>();
+            for (String[] key : entry.getValue()) {
+                Comment c = ra.getComment(reviewId, key[0], key[1]);
+                if (c != null) {
+                    comments.add(c);
+                }
+            }
+            ra.deleteComments(comments);
+            if (!loaded) {
+                ra.unloadReviewComments(reviewId);
+            }
+            progress.worked(1);
+        }
+    }
+}
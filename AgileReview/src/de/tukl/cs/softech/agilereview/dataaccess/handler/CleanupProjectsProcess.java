@@ -1,29 +1,23 @@
 package de.tukl.cs.softech.agilereview.dataaccess.handler;
 
-import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
-import java.util.regex.Pattern;
 
-import org.eclipse.core.resources.IFile;
-import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceProxy;
+import org.eclipse.core.resources.IResourceProxyVisitor;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.core.runtime.Path;
-import org.eclipse.jface.dialogs.MessageDialog;
+import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.jface.operation.IRunnableWithProgress;
-import org.eclipse.swt.widgets.Display;
 
 import agileReview.softech.tukl.de.CommentDocument.Comment;
 import agileReview.softech.tukl.de.ReviewDocument.Review;
-import de.tukl.cs.softech.agilereview.annotations.TagCleaner;
+import de.tukl.cs.softech.agilereview.core.ErrorCallbackRegistry;
 import de.tukl.cs.softech.agilereview.dataaccess.ReviewAccess;
 import de.tukl.cs.softech.agilereview.plugincontrol.ExceptionHandler;
 import de.tukl.cs.softech.agilereview.plugincontrol.exceptions.NoReviewSourceFolderException;
@@ -31,7 +25,14 @@ import de.tukl.cs.softech.agilereview.tools.PluginLogger;
 import de.tukl.cs.softech.agilereview.tools.PropertiesManager;
 
 /**
- * Class that performs the cleanup process
+ * Class that performs the cleanup process for projects. The cleanup is performed in two stages:
+ * <ol>
+ * <li>a {@link CleanupPlan} is computed from the comments of all reviews which belong to the given projects. The reviews are scanned review
+ * by review, such that closed reviews are only loaded while they are scanned</li>
+ * <li>the plan is executed, i.e. the tags are removed in one parallel pass per file and the comments are deleted with one write per author
+ * file</li>
+ * </ol>
+ * In dry-run mode only the plan is computed, which can be executed later on by a process created with {@link #CleanupProjectsProcess(CleanupPlan)}.
  */
 public class CleanupProjectsProcess implements IRunnableWithProgress {
 
@@ -55,6 +56,14 @@ public class CleanupProjectsProcess implements IRunnableWithProgress {
 	 * process closed comments only (true) or all (false) comments
 	 */
 	private final boolean onlyClosedComments;
+	/**
+	 * only compute the plan (true) or perform the cleanup (false)
+	 */
+	private final boolean dryRun;
+	/**
+	 * the plan of the cleanup or null, if it has not been computed yet
+	 */
+	private CleanupPlan plan;
 
 	/**
 	 * Constructor of the Cleanup process
@@ -68,166 +77,144 @@ public class CleanupProjectsProcess implements IRunnableWithProgress {
 	 *            processed
 	 */
 	public CleanupProjectsProcess(List<IProject> selProjects, boolean deleteComments, boolean onlyClosedComments) {
+		this(selProjects, deleteComments, onlyClosedComments, false);
+	}
+
+	/**
+	 * Constructor of the Cleanup process
+	 *
+	 * @param selProjects
+	 *            the projects to clean (remove tags)
+	 * @param deleteComments
+	 *            indicates whether to delete (true) or keep (false) comments
+	 * @param onlyClosedComments
+	 *            indicates whether only closed comments should be
+	 *            processed
+	 * @param dryRun
+	 *            indicates whether only the plan should be computed (true)
+	 *            or the cleanup should be performed (false)
+	 */
+	public CleanupProjectsProcess(List<IProject> selProjects, boolean deleteComments, boolean onlyClosedComments, boolean dryRun) {
 		this.selProjects = selProjects;
 		this.deleteComments = deleteComments;
 		this.onlyClosedComments = onlyClosedComments;
+		this.dryRun = dryRun;
+	}
+
+	/**
+	 * Constructor of the Cleanup process, which performs the given plan
+	 * without computing it again
+	 *
+	 * @param plan
+	 *            plan computed by a dry-run of this process
+	 */
+	public CleanupProjectsProcess(CleanupPlan plan) {
+		this(new ArrayList<IProject>(), false, false, false);
+		this.plan = plan;
 	}
 
 	@Override
 	public void run(IProgressMonitor monitor) throws InvocationTargetException, InterruptedException {
-		monitor.beginTask("Performing cleanup: ", IProgressMonitor.UNKNOWN);
-		monitor.worked(0);
-
-		// get all reviews (not only open ones)
-		ArrayList<Review> reviews = ra.getAllReviews();
-
-		// some helper variables
-		ArrayList<Comment> comments = new ArrayList<Comment>();
-		HashSet<String> paths = new HashSet<String>();
-
-		monitor.worked(10);
-
-		// load all comments for all reviews
+		SubMonitor progress = SubMonitor.convert(monitor, "Performing cleanup: ", 100);
 		try {
+			if (this.plan == null) {
+				progress.subTask("Collecting comments...");
+				this.plan = computePlan(progress.newChild(30));
+			}
+			progress.setWorkRemaining(70);
+			if (!this.dryRun) {
+				this.plan.execute(progress.newChild(70));
+			}
+		} catch (NoReviewSourceFolderException e) {
+			ExceptionHandler.handleNoReviewSourceFolderException();
+		}
+		monitor.done();
+	}
 
-			monitor.subTask("Loading all reviews...");
-			ra.fillDatabaseCompletely();
+	/**
+	 * Returns the plan of the cleanup
+	 *
+	 * @return the plan or null, if it has not been computed (yet)
+	 */
+	public CleanupPlan getPlan() {
+		return this.plan;
+	}
 
-			// save all comments for the given projects
-			for (IProject selProject : this.selProjects) {
-				String selProjectPath = selProject.getFullPath().toOSString().replaceAll(Pattern.quote(System.getProperty("file.separator")), "");
-				for (Review r : reviews) {
-					ArrayList<Comment> projectComments = ra.getComments(r.getId(), selProjectPath);
-					for (Comment c : projectComments) {
-						if (!this.onlyClosedComments || c.getStatus() == 1) {
-							comments.add(c);
-						}
-					}
-				}
+	/**
+	 * Computes the plan of the cleanup from the comments of all reviews which
+	 * belong to the selected projects. Reviews which are not loaded are only
+	 * loaded while they are scanned.
+	 *
+	 * @param monitor
+	 *            progress monitor
+	 * @return the plan of the cleanup
+	 * @throws NoReviewSourceFolderException
+	 *             if no review source folder had been defined beforehand
+	 */
+	private CleanupPlan computePlan(IProgressMonitor monitor) throws NoReviewSourceFolderException {
+		CleanupPlan result = new CleanupPlan(this.deleteComments);
+		ArrayList<Review> reviews = ra.getAllReviews();
+		SubMonitor progress = SubMonitor.convert(monitor, reviews.size() + 1);
+		for (Review r : reviews) {
+			boolean loaded = ra.isReviewLoaded(r.getId());
+			if (!loaded) {
+				ra.loadReviewComments(r.getId());
 			}
-			monitor.worked(20);
-
-			monitor.subTask("Searching for project files...");
 			for (IProject selProject : this.selProjects) {
-				// save the paths of all files of the project
-				paths.addAll(getFilesOfProject(selProject));
-			}
-			monitor.worked(30);
-
-			monitor.subTask("Removing tags...");
-			// remove tags from files
-			PluginLogger.log(this.getClass().toString(), "execute", "Removing comments from " + paths.toString());
-			for (String path : paths) {
-				IPath actPath = new Path(path);
-				if (this.onlyClosedComments) { // issue #13: add ability to ignore open comments on cleanup
-					for (Comment c : comments) {
-						if (c.getStatus() == 1) {
-							String key = ra.generateCommentKey(c);
-							if (!TagCleaner.removeTag(actPath, key)) {
-								throw new InterruptedException("Tag of comment " + c.getId() + " of review " + c.getReviewID() + "in file "
-										+ actPath.toOSString() + " could not be removed!");
-							}
-						}
-					}
-				} else {
-					if (!TagCleaner.removeAllTags(actPath)) {
-						throw new InterruptedException("Tags of file " + actPath.toOSString() + " could not be removed!");
+				for (Comment c : ra.getComments(r.getId(), selProject.getName() + System.getProperty("file.separator"))) {
+					if (!this.onlyClosedComments || c.getStatus() == 1) { // issue #13: add ability to ignore open comments on cleanup
+						result.addComment(c);
 					}
 				}
 			}
-			monitor.worked(60);
-
-			// delete comments based on users decision
-			if (this.deleteComments) {
-				monitor.subTask("Deleting comments...");
-				PluginLogger.log(this.getClass().toString(), "execute", "Removing comments from XML");
-				if (this.onlyClosedComments) { // issue #13: add ability to ignore open comments on cleanup
-					for (Comment c : comments) {
-						if (c.getStatus() != 0) {
-							try {
-								ra.deleteComment(c);
-							} catch (IOException e) {
-								throw new InterruptedException("Unable to delete comment " + c.getId() + "of review " + c.getReviewID());
-							}
-						}
-					}
-				} else {
-					ra.deleteComments(comments);
-				}
+			if (!loaded) {
+				ra.unloadReviewComments(r.getId());
 			}
-			monitor.worked(90);
+			progress.worked(1);
+		}
 
-			// unload closed reviews again
-			monitor.subTask("Unloading closed reviews...");
-			List<String> openReviews = Arrays.asList(PropertiesManager.getInstance().getOpenReviews());
-			for (Review r : reviews) {
-				if (!openReviews.contains(r.getId())) {
-					ra.unloadReviewComments(r.getId());
+		if (!this.onlyClosedComments) {
+			progress.subTask("Searching for project files...");
+			for (IProject selProject : this.selProjects) {
+				for (IPath path : getFilesOfProject(selProject)) {
+					result.addAllTagsFile(path);
 				}
 			}
-		} catch (NoReviewSourceFolderException e) {
-			ExceptionHandler.handleNoReviewSourceFolderException();
 		}
-		monitor.worked(100);
-		monitor.done();
+		progress.worked(1);
+		return result;
 	}
 
 	/**
-	 * Get all files of the given project
+	 * Get all supported files of the given project
 	 *
 	 * @param project
 	 *            the project
 	 * @return list of paths of files relatively to the workspace
 	 */
-	private HashSet<String> getFilesOfProject(final IProject project) {
-		HashSet<String> paths = new HashSet<String>();
+	private List<IPath> getFilesOfProject(final IProject project) {
+		final ArrayList<IPath> paths = new ArrayList<IPath>();
 		try {
-			for (IResource r : project.members()) {
-				if (r instanceof IFolder) {
-					paths.addAll(getFilesOfFolderRecursively((IFolder) r));
-				} else if (r instanceof IFile) {
-					if (supportedFiles.containsKey(((IFile) r).getFileExtension())) {
-						paths.add(r.getFullPath().toOSString());
+			// proxies avoid creating a resource handle for each member of the project
+			project.accept(new IResourceProxyVisitor() {
+				@Override
+				public boolean visit(IResourceProxy proxy) {
+					if (proxy.getType() != IResource.FILE) { return true; }
+					String name = proxy.getName();
+					int dot = name.lastIndexOf('.');
+					if (dot != -1 && supportedFiles.containsKey(name.substring(dot + 1))) {
+						paths.add(proxy.requestFullPath());
 					}
+					return false;
 				}
-			}
+			}, IResource.NONE);
 		} catch (CoreException e) {
-			Display.getDefault().asyncExec(new Runnable() {
-
-				@Override
-				public void run() {
-					MessageDialog.openError(Display.getDefault().getActiveShell(), "CoreException",
-							"An eclipse internal error occured when performing cleanup!\n" + "The resource " + project.getName()
-									+ " does not exist or is closed.");
-				}
-
-			});
+			ErrorCallbackRegistry.reportError("CoreException", "An eclipse internal error occured when performing cleanup!\n" + "The resource "
+					+ project.getName() + " does not exist or is closed.");
 			PluginLogger.logError(this.getClass().toString(), "getFilesOfProject", "CoreException while trying to fetch files of project " + project.getName()
 					+ ".", e);
 		}
 		return paths;
 	}
 
-	/**
-	 * Recursively get all files of the given folder
-	 *
-	 * @param folder
-	 *            the folder
-	 * @return set of paths of files relatively to the workspace
-	 * @throws CoreException
-	 */
-	private HashSet<String> getFilesOfFolderRecursively(IFolder folder) throws CoreException {
-		HashSet<String> paths = new HashSet<String>();
-		for (IResource r : folder.members()) {
-			if (r instanceof IFolder) {
-				paths.addAll(getFilesOfFolderRecursively((IFolder) r));
-			} else if (r instanceof IFile) {
-				if (supportedFiles.containsKey(((IFile) r).getFileExtension())) {
-					paths.add(r.getFullPath().toOSString());
-				}
-			}
-		}
-		return paths;
-	}
-
 }
@@ -1,23 +1,23 @@
 package de.tukl.cs.softech.agilereview.dataaccess.handler;
 
-import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
-import java.util.List;
 
 import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.jface.operation.IRunnableWithProgress;
 
 import agileReview.softech.tukl.de.CommentDocument.Comment;
 import agileReview.softech.tukl.de.ReviewDocument.Review;
-import de.tukl.cs.softech.agilereview.annotations.TagCleaner;
 import de.tukl.cs.softech.agilereview.dataaccess.ReviewAccess;
 import de.tukl.cs.softech.agilereview.plugincontrol.ExceptionHandler;
 import de.tukl.cs.softech.agilereview.plugincontrol.exceptions.NoReviewSourceFolderException;
-import de.tukl.cs.softech.agilereview.tools.PluginLogger;
 
 /**
- * Class that performs the cleanup process
+ * Class that performs the cleanup process for a review. First a
+ * {@link CleanupPlan} is computed from the comments of the review, which is
+ * executed afterwards. In dry-run mode only the plan is computed, which can be
+ * executed later on by a process created with
+ * {@link #CleanupReviewProcess(CleanupPlan)}.
  */
 public class CleanupReviewProcess implements IRunnableWithProgress {
 
@@ -33,6 +33,14 @@ public class CleanupReviewProcess implements IRunnableWithProgress {
 	 * process only closed comments during cleanup
 	 */
 	private boolean onlyClosedComments;
+	/**
+	 * only compute the plan (true) or perform the cleanup (false)
+	 */
+	private final boolean dryRun;
+	/**
+	 * the plan of the cleanup or null, if it has not been computed yet
+	 */
+	private CleanupPlan plan;
 
 	/**
 	 * Constructor of the Cleanup process
@@ -44,43 +52,92 @@ public class CleanupReviewProcess implements IRunnableWithProgress {
 	 * @param onlyClosedComments 
 	 */
 	public CleanupReviewProcess(Review review, boolean deleteComments, boolean onlyClosedComments) {
+		this(review, deleteComments, onlyClosedComments, false);
+	}
+
+	/**
+	 * Constructor of the Cleanup process
+	 *
+	 * @param review
+	 *            the review to clean (remove tags)
+	 * @param deleteComments
+	 *            indicates whether to delete (true) or keep (false) comments
+	 * @param onlyClosedComments
+	 *            indicates whether only closed comments should be
+	 *            processed
+	 * @param dryRun
+	 *            indicates whether only the plan should be computed (true)
+	 *            or the cleanup should be performed (false)
+	 */
+	public CleanupReviewProcess(Review review, boolean deleteComments, boolean onlyClosedComments, boolean dryRun) {
 		this.review = review;
 		this.deleteComments = deleteComments;
 		this.onlyClosedComments = onlyClosedComments;
+		this.dryRun = dryRun;
+	}
+
+	/**
+	 * Constructor of the Cleanup process, which performs the given plan
+	 * without computing it again
+	 *
+	 * @param plan
+	 *            plan computed by a dry-run of this process
+	 */
+	public CleanupReviewProcess(CleanupPlan plan) {
+		this(null, false, false, false);
+		this.plan = plan;
 	}
 
 	@Override
 	public void run(IProgressMonitor monitor) throws InvocationTargetException, InterruptedException {
-		ReviewAccess ra = ReviewAccess.getInstance();
-
-		monitor.beginTask("Performing cleanup: ", 100);
-		monitor.worked(0);
+		SubMonitor progress = SubMonitor.convert(monitor, "Performing cleanup: ", 100);
+		try {
+			if (this.plan == null) {
+				progress.subTask("Loading related comments ...");
+				this.plan = computePlan();
+			}
+			progress.setWorkRemaining(90);
+			if (!this.dryRun) {
+				this.plan.execute(progress.newChild(90));
+			}
+		} catch (NoReviewSourceFolderException e) {
+			ExceptionHandler.handleNoReviewSourceFolderException();
+		}
+		monitor.done();
+	}
 
-		monitor.subTask("Loading related comments ...");
-		List<Comment> comments = ra.getComments(this.review.getId());
-		monitor.worked(10);
+	/**
+	 * Returns the plan of the cleanup
+	 *
+	 * @return the plan or null, if it has not been computed (yet)
+	 */
+	public CleanupPlan getPlan() {
+		return this.plan;
+	}
 
-		monitor.subTask("Deleting comments ...");
-		float progressStep = 90f / comments.size();
-		int i = 0;
-		for (Comment c : comments) {
-			String key = ra.generateCommentKey(c);
+	/**
+	 * Computes the plan of the cleanup from the comments of the review. If
+	 * the review is not loaded, it is only loaded while it is scanned.
+	 *
+	 * @return the plan of the cleanup
+	 * @throws NoReviewSourceFolderException
+	 *             if no review source folder had been defined beforehand
+	 */
+	private CleanupPlan computePlan() throws NoReviewSourceFolderException {
+		ReviewAccess ra = ReviewAccess.getInstance();
+		CleanupPlan result = new CleanupPlan(this.deleteComments);
+		boolean loaded = ra.isReviewLoaded(this.review.getId());
+		if (!loaded) {
+			ra.loadReviewComments(this.review.getId());
+		}
+		for (Comment c : ra.getComments(this.review.getId())) {
 			if (!onlyClosedComments || c.getStatus() == 1) {
-				TagCleaner.removeTag(new Path(ReviewAccess.computePath(c)), key);
-				if (this.deleteComments) {
-					try {
-						ReviewAccess.getInstance().deleteComment(c);	
-					} catch (IOException e) {
-						PluginLogger.logError(this.getClass().toString(), "execute", "IOException occured while deleting a comment in ReviewAccess: " + c, e);
-					} catch (NoReviewSourceFolderException e) {
-						ExceptionHandler.handleNoReviewSourceFolderException();
-					}
-				}
+				result.addComment(c);
 			}
-			i++;
-			monitor.worked(Math.round(i * progressStep) + 10);
 		}
-		monitor.worked(100);
-		monitor.done();
+		if (!loaded) {
+			ra.unloadReviewComments(this.review.getId());
+		}
+		return result;
 	}
-}
\ No newline at end of file
+}
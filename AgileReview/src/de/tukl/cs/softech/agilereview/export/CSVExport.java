@@ -0,0 +1,290 @@
+package de.tukl.cs.softech.agilereview.export;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.jface.operation.IRunnableWithProgress;
+
+import agileReview.softech.tukl.de.ReviewDocument.Review;
+import de.tukl.cs.softech.agilereview.tools.PropertiesManager;
+
+/**
+ * Streaming export of reviews and comments to CSV files. One file is written per sheet of the XLS export (reviews, reviewFiles, comments,
+ * replies, projectFiles). Each record is written as soon as it is produced by the {@link ReviewDataWalker}, so the memory usage does not grow
+ * with the number of exported comments. An incremental export only contains the comments changed since the last export of their review.
+ */
+public class CSVExport implements IRunnableWithProgress, IExportSink {
+    
+    /**
+     * Field separator
+     */
+    private static final char SEPARATOR = ',';
+    /**
+     * Line separator as specified by RFC 4180
+     */
+    private static final String LINE_SEPARATOR = "\r\n";
+    /**
+     * Encoding of the written files
+     */
+    private static final String ENCODING = "UTF-8";
+    
+    /**
+     * Snapshot of the reviews to be exported, which has been taken on creation
+     */
+    private final ReviewSnapshot snapshot;
+    /**
+     * Output path where the CSV files should be stored
+     */
+    private String outputPath;
+    /**
+     * Indicates whether only the comments changed since the last export should be exported
+     */
+    private final boolean incremental;
+    /**
+     * Format of all exported dates
+     */
+    private final DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+    /**
+     * Id of the review currently exported
+     */
+    private String currentReview;
+    /**
+     * Writer of the reviews file
+     */
+    private Writer reviewWriter;
+    /**
+     * Writer of the reviewed files file
+     */
+    private Writer reviewFileWriter;
+    /**
+     * Writer of the comments file
+     */
+    private Writer commentWriter;
+    /**
+     * Writer of the replies file
+     */
+    private Writer replyWriter;
+    /**
+     * Writer of the project files file
+     */
+    private Writer projectFileWriter;
+    
+    /**
+     * Creates a new Instance of CSVExport for a list of reviews and the outputPath where the CSV files should be stored
+     * @param reviews which should be exported
+     * @param outputPath directory to which the data should exported
+     */
+    public CSVExport(List<Review> reviews, String outputPath) {
+        this(reviews, outputPath, false);
+    }
+    
+    /**
+     * Creates a new Instance of CSVExport, which exports either all comments of the given reviews or only the comments changed since the last
+     * export. The given reviews are copied, so the export has to be created on the thread which changes the review model.
+     * @param reviews which should be exported
+     * @param outputPath directory to which the data should exported
+     * @param incremental <i>true</i> if only the comments changed since the last export should be exported, <i>false</i> otherwise
+     */
+    public CSVExport(List<Review> reviews, String outputPath, boolean incremental) {
+        this.snapshot = new ReviewSnapshot(reviews);
+        this.outputPath = outputPath;
+        this.incremental = incremental;
+    }
+    
+    /**
+     * Starts the export process for the attributes with which this class was instantiated
+     * @see org.eclipse.jface.operation.IRunnableWithProgress#run(org.eclipse.core.runtime.IProgressMonitor)
+     */
+    @Override
+    public void run(IProgressMonitor monitor) throws InvocationTargetException, InterruptedException {
+        try {
+            exportReviews(monitor);
+        } catch (IOException e) {
+            throw new InvocationTargetException(e, "One of the export files could not be written!");
+        } catch (OperationCanceledException e) {
+            throw new InterruptedException("Export canceled");
+        }
+    }
+    
+    /**
+     * Exports the given Reviews to CSV files in the outputPath. The progress is reported per review. All files are written to temporary files
+     * first, which are renamed when the export succeeded. If one of them cannot be renamed, the files already renamed are deleted again, so
+     * that no partial export remains. The files of the reviewed projects are not collected by incremental exports.
+     * @param monitor
+     * @throws IOException if one of the files could not be written
+     */
+    private void exportReviews(IProgressMonitor monitor) throws IOException {
+        SubMonitor progress = SubMonitor.convert(monitor, "Performing export: ", 100);
+        if (!outputPath.endsWith(System.getProperty("file.separator"))) {
+            outputPath += System.getProperty("file.separator");
+        }
+        String prefix = outputPath + "agilereview_export_" + new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(Calendar.getInstance().getTime());
+        
+        ArrayList<TemporaryExportFile> files = new ArrayList<TemporaryExportFile>();
+        boolean committed = false;
+        try {
+            reviewWriter = openWriter(files, prefix + "_reviews.csv", "Review", "Status", "Responsibility", "External reference", "Description");
+            reviewFileWriter = openWriter(files, prefix + "_reviewFiles.csv", "Review", "Project", "Path", "Filename");
+            commentWriter = openWriter(files, prefix + "_comments.csv", "Review", "Comment", "Author", "Recipient", "Status", "Priority",
+                    "Date created", "Date modified", "Project", "Path", "Filename", "Replies", "Text");
+            replyWriter = openWriter(files, prefix + "_replies.csv", "Review", "Comment", "Author", "Date created", "Text");
+            projectFileWriter = openWriter(files, prefix + "_projectFiles.csv", "Project", "Path", "Filename");
+            
+            ReviewDataWalker walker = new ReviewDataWalker(snapshot, ReviewDataWalker.getChannel("csv", outputPath), incremental);
+            walker.walkReviews(this, progress.newChild(70));
+            if (incremental) {
+                progress.worked(25);
+            } else {
+                walker.walkProjectFiles(this, progress.newChild(25));
+            }
+            
+            progress.subTask("Writing export files...");
+            closeWriters();
+            for (TemporaryExportFile file : files) {
+                file.commit();
+            }
+            committed = true;
+            walker.saveHighWaterMarks();
+            progress.worked(5);
+        } finally {
+            try {
+                closeWriters();
+            } finally {
+                for (TemporaryExportFile file : files) {
+                    if (!committed) {
+                        file.rollback();
+                    }
+                    file.discard();
+                }
+            }
+        }
+    }
+    
+    @Override
+    public void review(Review review) throws IOException {
+        currentReview = review.getId();
+        String status = PropertiesManager.getInstance().getInternalProperty(PropertiesManager.INTERNAL_KEYS.REVIEW_STATUS);
+        String[] states = status.split(",");
+        writeRecord(reviewWriter, review.getId(), review.getStatus() < states.length ? states[review.getStatus()] : String.valueOf(review
+                .getStatus()), review.getPersonInCharge() != null ? review.getPersonInCharge().getName() : "", review.getReferenceId(), review
+                .getDescription());
+    }
+    
+    @Override
+    public void reviewedFile(FileExportWrapper file) throws IOException {
+        writeRecord(reviewFileWriter, currentReview, file.getProject(), file.getPath(), file.getFilename());
+    }
+    
+    @Override
+    public void comment(CommentWrapper comment) throws IOException {
+        PropertiesManager pm = PropertiesManager.getInstance();
+        FileExportWrapper file = comment.getFile();
+        writeRecord(commentWriter, comment.getReviewID(), comment.getId(), comment.getAuthor(), comment.getRecipient(), pm
+                .getCommentStatusByID(comment.getStatus()), pm.getCommentPriorityByID(comment.getPriority()), format(comment
+                .getCreationDate()), format(comment.getLastModified()), file.getProject(), file.getPath(), file.getFilename(), String
+                .valueOf(comment.getReplies().length), comment.getText());
+    }
+    
+    @Override
+    public void reply(ReplyWrapper reply) throws IOException {
+        writeRecord(replyWriter, reply.getComment().getReviewID(), reply.getComment().getId(), reply.getAuthor(),
+                format(reply.getCreationDate()), reply.getText());
+    }
+    
+    @Override
+    public void projectFile(FileExportWrapper file) throws IOException {
+        writeRecord(projectFileWriter, file.getProject(), file.getPath(), file.getFilename());
+    }
+    
+    /**
+     * Opens a buffered writer for a temporary file of the given file and writes the header line
+     * @param files list to which the temporary file will be added
+     * @param path path of the file
+     * @param header column names
+     * @return the opened writer
+     * @throws IOException if the file could not be opened
+     */
+    private Writer openWriter(List<TemporaryExportFile> files, String path, String... header) throws IOException {
+        TemporaryExportFile file = new TemporaryExportFile(new File(path));
+        files.add(file);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file.getFile()), ENCODING));
+        writeRecord(writer, header);
+        return writer;
+    }
+    
+    /**
+     * Closes all writers, which are still open
+     * @throws IOException if one of the writers could not be closed
+     */
+    private void closeWriters() throws IOException {
+        try {
+            close(reviewWriter);
+            close(reviewFileWriter);
+            close(commentWriter);
+            close(replyWriter);
+            close(projectFileWriter);
+        } finally {
+            reviewWriter = null;
+            reviewFileWriter = null;
+            commentWriter = null;
+            replyWriter = null;
+            projectFileWriter = null;
+        }
+    }
+    
+    /**
+     * Closes the given writer, if it has been opened
+     * @param writer writer to be closed or null
+     * @throws IOException if the writer could not be closed
+     */
+    private static void close(Writer writer) throws IOException {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+    
+    /**
+     * Formats the given date
+     * @param date date to be formatted or null
+     * @return the formatted date or an empty string if no date is given
+     */
+    private String format(Calendar date) {
+        return date == null ? "" : dateFormat.format(date.getTime());
+    }
+    
+    /**
+     * Writes one record to the given writer. Fields containing separators, quotes or line breaks will be quoted.
+     * @param writer writer to be written to
+     * @param fields fields of the record
+     * @throws IOException if the record could not be written
+     */
+    private static void writeRecord(Writer writer, String... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(SEPARATOR);
+            }
+            String field = fields[i] == null ? "" : fields[i];
+            if (field.indexOf(SEPARATOR) != -1 || field.indexOf('"') != -1 || field.indexOf('\n') != -1 || field.indexOf('\r') != -1) {
+                writer.write('"');
+                writer.write(field.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(field);
+            }
+        }
+        writer.write(LINE_SEPARATOR);
+    }
+}
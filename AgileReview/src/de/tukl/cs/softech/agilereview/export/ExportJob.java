@@ -0,0 +1,55 @@
+package de.tukl.cs.softech.agilereview.export;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jface.operation.IRunnableWithProgress;
+
+import de.tukl.cs.softech.agilereview.Activator;
+import de.tukl.cs.softech.agilereview.tools.PluginLogger;
+
+/**
+ * Background job which runs an export ({@link XSLExport} or {@link CSVExport}). The user can continue working while the export is running and
+ * can cancel it between two reviews. Failures are reported by the returned status instead of dialogs opened by the export itself.
+ */
+public class ExportJob extends Job {
+    
+    /**
+     * Export to be run
+     */
+    private final IRunnableWithProgress export;
+    
+    /**
+     * Creates a new export job
+     * @param export export to be run
+     */
+    public ExportJob(IRunnableWithProgress export) {
+        super("Exporting AgileReview data");
+        this.export = export;
+        setUser(true);
+    }
+    
+    @Override
+    protected IStatus run(IProgressMonitor monitor) {
+        try {
+            export.run(monitor);
+            return Status.OK_STATUS;
+        } catch (InterruptedException e) {
+            PluginLogger.log(this.getClass().toString(), "run", "Export canceled");
+            return Status.CANCEL_STATUS;
+        } catch (OperationCanceledException e) {
+            PluginLogger.log(this.getClass().toString(), "run", "Export canceled");
+            return Status.CANCEL_STATUS;
+        } catch (InvocationTargetException e) {
+            PluginLogger.logError(this.getClass().toString(), "run", "Error while exporting Reviews", e.getCause());
+            String msg = e.getMessage() != null ? e.getMessage() : "An error occured while exporting the selected Reviews!";
+            return new Status(IStatus.ERROR, Activator.PLUGIN_ID, msg, e.getCause());
+        } finally {
+            monitor.done();
+        }
+    }
+}
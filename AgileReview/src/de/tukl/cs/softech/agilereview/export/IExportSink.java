@@ -0,0 +1,47 @@
+package de.tukl.cs.softech.agilereview.export;
+
+import java.io.IOException;
+
+import agileReview.softech.tukl.de.ReviewDocument.Review;
+
+/**
+ * Receiver of the records produced by the {@link ReviewDataWalker}. The records are pushed one by one, such that a sink can write them directly
+ * instead of collecting them in memory.
+ */
+public interface IExportSink {
+    
+    /**
+     * Receives a review which will be exported. All following records up to the next call of this method belong to this review.
+     * @param review review to be exported
+     * @throws IOException if the record could not be written
+     */
+    public void review(Review review) throws IOException;
+    
+    /**
+     * Receives a file of the current review which has been commented
+     * @param file wrapped file
+     * @throws IOException if the record could not be written
+     */
+    public void reviewedFile(FileExportWrapper file) throws IOException;
+    
+    /**
+     * Receives a comment of the current review
+     * @param comment wrapped comment
+     * @throws IOException if the record could not be written
+     */
+    public void comment(CommentWrapper comment) throws IOException;
+    
+    /**
+     * Receives a reply of the last comment received
+     * @param reply wrapped reply
+     * @throws IOException if the record could not be written
+     */
+    public void reply(ReplyWrapper reply) throws IOException;
+    
+    /**
+     * Receives a file of a project which has been reviewed (at least partially)
+     * @param file wrapped file
+     * @throws IOException if the record could not be written
+     */
+    public void projectFile(FileExportWrapper file) throws IOException;
+}
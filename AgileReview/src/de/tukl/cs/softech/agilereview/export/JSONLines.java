@@ -0,0 +1,297 @@
+package de.tukl.cs.softech.agilereview.export;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON support for the JSON-lines format of {@link JSONLinesExport} and {@link JSONLinesImport}. Every line contains one JSON object.
+ * Objects are parsed into maps, arrays into lists, strings into strings, numbers into doubles and literals into booleans or null.
+ */
+class JSONLines {
+    
+    /**
+     * Pattern of all dates (ISO 8601 including milliseconds and time zone)
+     */
+    private static final String DATE_PATTERN = "yyyy-MM-dd'T'HH:mm:ss.SSSZ";
+    
+    /**
+     * Line to be parsed
+     */
+    private final String line;
+    /**
+     * Current position within the line
+     */
+    private int pos;
+    
+    /**
+     * Creates a new parser for the given line
+     * @param line line to be parsed
+     */
+    private JSONLines(String line) {
+        this.line = line;
+    }
+    
+    /**
+     * Parses the given line, which has to contain exactly one JSON object
+     * @param line line to be parsed
+     * @return the parsed object
+     * @throws ParseException if the line does not contain a valid JSON object
+     */
+    static Map<String, Object> parseObject(String line) throws ParseException {
+        JSONLines parser = new JSONLines(line);
+        Object result = parser.parseValue();
+        parser.skipWhitespace();
+        if (!(result instanceof Map) || parser.pos != line.length()) { throw new ParseException("Line does not contain a single JSON object",
+                parser.pos); }
+        @SuppressWarnings("unchecked")
+        Map<String, Object> object = (Map<String, Object>) result;
+        return object;
+    }
+    
+    /**
+     * Appends the given string as quoted and escaped JSON string to the given buffer
+     * @param buffer buffer to be appended to
+     * @param s string or null
+     */
+    static void appendString(StringBuilder buffer, String s) {
+        if (s == null) {
+            buffer.append("null");
+            return;
+        }
+        buffer.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+            case '"':
+                buffer.append("\\\"");
+                break;
+            case '\\':
+                buffer.append("\\\\");
+                break;
+            case '\n':
+                buffer.append("\\n");
+                break;
+            case '\r':
+                buffer.append("\\r");
+                break;
+            case '\t':
+                buffer.append("\\t");
+                break;
+            default:
+                if (c < 0x20) {
+                    buffer.append(String.format("\\u%04x", (int) c));
+                } else {
+                    buffer.append(c);
+                }
+            }
+        }
+        buffer.append('"');
+    }
+    
+    /**
+     * Formats the given date
+     * @param date date or null
+     * @return the formatted date or null, if no date is given
+     */
+    static String formatDate(Calendar date) {
+        return date == null ? null : new SimpleDateFormat(DATE_PATTERN).format(date.getTime());
+    }
+    
+    /**
+     * Parses the given date
+     * @param date formatted date or null
+     * @return the parsed date or null, if no date is given
+     * @throws ParseException if the date is not valid
+     */
+    static Calendar parseDate(String date) throws ParseException {
+        if (date == null) { return null; }
+        Calendar result = Calendar.getInstance();
+        result.setTime(new SimpleDateFormat(DATE_PATTERN).parse(date));
+        return result;
+    }
+    
+    /**
+     * Parses the value at the current position
+     * @return the parsed value
+     * @throws ParseException if there is no valid value at the current position
+     */
+    private Object parseValue() throws ParseException {
+        skipWhitespace();
+        if (pos >= line.length()) { throw new ParseException("Unexpected end of line", pos); }
+        char c = line.charAt(pos);
+        switch (c) {
+        case '{':
+            return parseObjectValue();
+        case '[':
+            return parseArray();
+        case '"':
+            return parseString();
+        case 't':
+            return parseLiteral("true", Boolean.TRUE);
+        case 'f':
+            return parseLiteral("false", Boolean.FALSE);
+        case 'n':
+            return parseLiteral("null", null);
+        default:
+            return parseNumber();
+        }
+    }
+    
+    /**
+     * Parses the object at the current position
+     * @return the parsed object
+     * @throws ParseException if there is no valid object at the current position
+     */
+    private Map<String, Object> parseObjectValue() throws ParseException {
+        LinkedHashMap<String, Object> result = new LinkedHashMap<String, Object>();
+        pos++;
+        skipWhitespace();
+        if (consume('}')) { return result; }
+        do {
+            skipWhitespace();
+            if (pos >= line.length() || line.charAt(pos) != '"') { throw new ParseException("Expected name of member", pos); }
+            String name = parseString();
+            skipWhitespace();
+            expect(':');
+            result.put(name, parseValue());
+            skipWhitespace();
+        } while (consume(','));
+        expect('}');
+        return result;
+    }
+    
+    /**
+     * Parses the array at the current position
+     * @return the parsed array
+     * @throws ParseException if there is no valid array at the current position
+     */
+    private List<Object> parseArray() throws ParseException {
+        ArrayList<Object> result = new ArrayList<Object>();
+        pos++;
+        skipWhitespace();
+        if (consume(']')) { return result; }
+        do {
+            result.add(parseValue());
+            skipWhitespace();
+        } while (consume(','));
+        expect(']');
+        return result;
+    }
+    
+    /**
+     * Parses the string at the current position
+     * @return the parsed string
+     * @throws ParseException if there is no valid string at the current position
+     */
+    private String parseString() throws ParseException {
+        StringBuilder result = new StringBuilder();
+        pos++;
+        while (pos < line.length()) {
+            char c = line.charAt(pos++);
+            if (c == '"') { return result.toString(); }
+            if (c != '\\') {
+                result.append(c);
+                continue;
+            }
+            if (pos >= line.length()) {
+                break;
+            }
+            c = line.charAt(pos++);
+            switch (c) {
+            case 'n':
+                result.append('\n');
+                break;
+            case 'r':
+                result.append('\r');
+                break;
+            case 't':
+                result.append('\t');
+                break;
+            case 'b':
+                result.append('\b');
+                break;
+            case 'f':
+                result.append('\f');
+                break;
+            case 'u':
+                if (pos + 4 > line.length()) { throw new ParseException("Invalid unicode escape", pos); }
+                try {
+                    result.append((char) Integer.parseInt(line.substring(pos, pos + 4), 16));
+                } catch (NumberFormatException e) {
+                    throw new ParseException("Invalid unicode escape", pos);
+                }
+                pos += 4;
+                break;
+            default:
+                result.append(c);
+            }
+        }
+        throw new ParseException("Unterminated string", pos);
+    }
+    
+    /**
+     * Parses the given literal at the current position
+     * @param literal expected literal
+     * @param value value of the literal
+     * @return the value of the literal
+     * @throws ParseException if the literal is not at the current position
+     */
+    private Object parseLiteral(String literal, Object value) throws ParseException {
+        if (!line.startsWith(literal, pos)) { throw new ParseException("Unexpected token", pos); }
+        pos += literal.length();
+        return value;
+    }
+    
+    /**
+     * Parses the number at the current position
+     * @return the parsed number
+     * @throws ParseException if there is no valid number at the current position
+     */
+    private Double parseNumber() throws ParseException {
+        int start = pos;
+        while (pos < line.length() && "+-0123456789.eE".indexOf(line.charAt(pos)) != -1) {
+            pos++;
+        }
+        try {
+            return Double.valueOf(line.substring(start, pos));
+        } catch (NumberFormatException e) {
+            throw new ParseException("Unexpected token", start);
+        }
+    }
+    
+    /**
+     * Skips all whitespace at the current position
+     */
+    private void skipWhitespace() {
+        while (pos < line.length() && Character.isWhitespace(line.charAt(pos))) {
+            pos++;
+        }
+    }
+    
+    /**
+     * Consumes the given character, if it is at the current position
+     * @param c character
+     * @return <i>true</i> if the character has been consumed, <i>false</i> otherwise
+     */
+    private boolean consume(char c) {
+        if (pos < line.length() && line.charAt(pos) == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Consumes the given character
+     * @param c expected character
+     * @throws ParseException if the character is not at the current position
+     */
+    private void expect(char c) throws ParseException {
+        if (!consume(c)) { throw new ParseException("Expected '" + c + "'", pos); }
+    }
+}
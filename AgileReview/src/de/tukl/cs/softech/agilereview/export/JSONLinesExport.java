@@ -0,0 +1,171 @@
+package de.tukl.cs.softech.agilereview.export;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.List;
+
+import org.apache.xmlbeans.XmlCursor;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.jface.operation.IRunnableWithProgress;
+
+import agileReview.softech.tukl.de.ReplyDocument.Reply;
+import agileReview.softech.tukl.de.ReviewDocument.Review;
+
+/**
+ * Streaming export of comments to a JSON-lines file, which can be read by other tools or imported again by {@link JSONLinesImport}. Each line
+ * contains one comment with its review, author, id, path, status, priority, dates, text and replies. Each comment is written as soon as it is
+ * produced by the {@link ReviewDataWalker}, so the memory usage does not grow with the number of exported comments.
+ */
+public class JSONLinesExport implements IRunnableWithProgress, IExportSink {
+    
+    /**
+     * Encoding of the written file
+     */
+    static final String ENCODING = "UTF-8";
+    
+    /**
+     * Snapshot of the reviews to be exported, which has been taken on creation
+     */
+    private final ReviewSnapshot snapshot;
+    /**
+     * Output path where the file should be stored. If it denotes a directory, a new file will be created within it.
+     */
+    private final String outputPath;
+    /**
+     * Indicates whether only the comments changed since the last export should be exported
+     */
+    private final boolean incremental;
+    /**
+     * Writer of the export file
+     */
+    private Writer writer;
+    
+    /**
+     * Creates a new Instance of JSONLinesExport. The given reviews are copied, so the export has to be created on the thread which changes the
+     * review model.
+     * @param reviews which should be exported
+     * @param outputPath directory in which a new file should be created or the file which should be written
+     * @param incremental <i>true</i> if only the comments changed since the last export should be exported, <i>false</i> otherwise
+     */
+    public JSONLinesExport(List<Review> reviews, String outputPath, boolean incremental) {
+        this.snapshot = new ReviewSnapshot(reviews);
+        this.outputPath = outputPath;
+        this.incremental = incremental;
+    }
+    
+    /**
+     * Starts the export process for the attributes with which this class was instantiated
+     * @see org.eclipse.jface.operation.IRunnableWithProgress#run(org.eclipse.core.runtime.IProgressMonitor)
+     */
+    @Override
+    public void run(IProgressMonitor monitor) throws InvocationTargetException, InterruptedException {
+        try {
+            exportReviews(monitor);
+        } catch (IOException e) {
+            throw new InvocationTargetException(e, "The export file could not be written!");
+        } catch (OperationCanceledException e) {
+            throw new InterruptedException("Export canceled");
+        }
+    }
+    
+    /**
+     * Exports the comments of the given Reviews. The file is written to a temporary file first, which is renamed when the export succeeded.
+     * @param monitor
+     * @throws IOException if the file could not be written
+     */
+    private void exportReviews(IProgressMonitor monitor) throws IOException {
+        SubMonitor progress = SubMonitor.convert(monitor, "Performing export: ", 100);
+        File target = new File(outputPath);
+        if (target.isDirectory()) {
+            target = new File(target, "agilereview_export_" + new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(Calendar.getInstance().getTime())
+                    + ".jsonl");
+        }
+        
+        TemporaryExportFile file = new TemporaryExportFile(target);
+        try {
+            writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file.getFile()), ENCODING));
+            try {
+                ReviewDataWalker walker = new ReviewDataWalker(snapshot, ReviewDataWalker.getChannel("jsonl", outputPath), incremental);
+                walker.walkReviews(this, progress.newChild(95));
+                writer.close();
+                file.commit();
+                walker.saveHighWaterMarks();
+            } finally {
+                writer.close();
+            }
+            progress.worked(5);
+        } finally {
+            file.discard();
+        }
+    }
+    
+    @Override
+    public void review(Review review) {
+    }
+    
+    @Override
+    public void reviewedFile(FileExportWrapper file) {
+    }
+    
+    @Override
+    public void comment(CommentWrapper comment) throws IOException {
+        FileExportWrapper file = comment.getFile();
+        StringBuilder line = new StringBuilder(256);
+        line.append("{\"review\":");
+        JSONLines.appendString(line, comment.getReviewID());
+        line.append(",\"author\":");
+        JSONLines.appendString(line, comment.getAuthor());
+        line.append(",\"id\":");
+        JSONLines.appendString(line, comment.getId());
+        line.append(",\"path\":");
+        // paths are always separated by slashes, independent of the platform
+        JSONLines.appendString(line, (file.getFullPath() + System.getProperty("file.separator") + file.getFilename()).replace(
+                System.getProperty("file.separator"), "/"));
+        line.append(",\"recipient\":");
+        JSONLines.appendString(line, comment.getRecipient());
+        line.append(",\"status\":").append(comment.getStatus());
+        line.append(",\"priority\":").append(comment.getPriority());
+        line.append(",\"created\":");
+        JSONLines.appendString(line, JSONLines.formatDate(comment.getCreationDate()));
+        line.append(",\"modified\":");
+        JSONLines.appendString(line, JSONLines.formatDate(comment.getLastModified()));
+        line.append(",\"text\":");
+        JSONLines.appendString(line, comment.getText());
+        line.append(",\"replies\":[");
+        Reply[] replies = comment.getReplies();
+        for (int i = 0; i < replies.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            line.append("{\"author\":");
+            JSONLines.appendString(line, replies[i].getAuthor());
+            line.append(",\"created\":");
+            JSONLines.appendString(line, JSONLines.formatDate(replies[i].getCreationDate()));
+            line.append(",\"text\":");
+            XmlCursor cursor = replies[i].newCursor();
+            JSONLines.appendString(line, cursor.getTextValue().trim());
+            cursor.dispose();
+            line.append('}');
+        }
+        line.append("]}\n");
+        writer.write(line.toString());
+    }
+    
+    @Override
+    public void reply(ReplyWrapper reply) {
+        // replies are written together with their comment
+    }
+    
+    @Override
+    public void projectFile(FileExportWrapper file) {
+    }
+}
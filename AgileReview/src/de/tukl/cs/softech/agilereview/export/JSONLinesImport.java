@@ -0,0 +1,335 @@
+package de.tukl.cs.softech.agilereview.export;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.InvocationTargetException;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.xmlbeans.XmlCursor;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.jface.operation.IRunnableWithProgress;
+
+import agileReview.softech.tukl.de.CommentDocument.Comment;
+import agileReview.softech.tukl.de.ReplyDocument.Reply;
+import de.tukl.cs.softech.agilereview.dataaccess.ReviewAccess;
+import de.tukl.cs.softech.agilereview.plugincontrol.exceptions.NoReviewSourceFolderException;
+import de.tukl.cs.softech.agilereview.tools.PluginLogger;
+
+/**
+ * Bulk import of comments from a JSON-lines file as written by {@link JSONLinesExport}. Reviews which do not exist are created. Comments which
+ * do not exist are created with their original id, existing comments are only updated if the imported comment has been modified later. New
+ * replies are appended to existing comments. The changed comments are saved in batches, such that each author file is written once per batch
+ * instead of once per comment.
+ */
+public class JSONLinesImport implements IRunnableWithProgress {
+    
+    /**
+     * Number of changed comments after which the changes are saved
+     */
+    private static final int BATCH_SIZE = 1000;
+    
+    /**
+     * Ways of importing a comment of the file
+     */
+    enum Action {
+        /**
+         * The comment does not exist and will be created
+         */
+        CREATE,
+        /**
+         * The existing comment has been modified before the imported one and will be updated
+         */
+        UPDATE,
+        /**
+         * The existing comment is up to date and will be left unchanged
+         */
+        SKIP
+    }
+    
+    /**
+     * Instance of ReviewAccess
+     */
+    private final ReviewAccess ra = ReviewAccess.getInstance();
+    /**
+     * File to be imported
+     */
+    private final File file;
+    /**
+     * Number of created comments
+     */
+    private int created;
+    /**
+     * Number of updated comments
+     */
+    private int updated;
+    /**
+     * Number of comments which already existed without changes
+     */
+    private int skipped;
+    
+    /**
+     * Creates a new import of the given file
+     * @param path path of the JSON-lines file to be imported
+     */
+    public JSONLinesImport(String path) {
+        this.file = new File(path);
+    }
+    
+    /**
+     * Starts the import of the file with which this class was instantiated
+     * @see org.eclipse.jface.operation.IRunnableWithProgress#run(org.eclipse.core.runtime.IProgressMonitor)
+     */
+    @Override
+    public void run(IProgressMonitor monitor) throws InvocationTargetException, InterruptedException {
+        try {
+            importComments(monitor);
+        } catch (IOException e) {
+            throw new InvocationTargetException(e, "The file " + file.getPath() + " could not be read!");
+        } catch (NoReviewSourceFolderException e) {
+            throw new InvocationTargetException(e, "No AgileReview Source Project has been defined!");
+        } catch (OperationCanceledException e) {
+            throw new InterruptedException("Import canceled");
+        }
+    }
+    
+    /**
+     * Imports all comments of the file. The comments changed so far are saved, even if the import is canceled or fails.
+     * @param monitor progress monitor, which will be informed about the read bytes and checked for cancellation between the batches
+     * @throws IOException if the file could not be read
+     * @throws NoReviewSourceFolderException if no review source folder had been defined beforehand
+     * @throws InvocationTargetException if a line of the file could not be parsed
+     */
+    private void importComments(IProgressMonitor monitor) throws IOException, NoReviewSourceFolderException, InvocationTargetException {
+        // progress is measured in kilobytes, as the number of lines is not known in advance
+        SubMonitor progress = SubMonitor.convert(monitor, "Importing " + file.getName() + ": ", (int) (file.length() / 1024) + 1);
+        HashSet<String> knownReviews = new HashSet<String>();
+        ArrayList<String> loadedReviews = new ArrayList<String>();
+        ArrayList<Comment> changed = new ArrayList<Comment>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), JSONLinesExport.ENCODING));
+        try {
+            String line;
+            int lineNumber = 0;
+            long read = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                read += line.length() + 1;
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                Map<String, Object> record;
+                try {
+                    record = JSONLines.parseObject(line);
+                    String reviewId = getString(record, "review");
+                    if (reviewId == null || getString(record, "author") == null) { throw new ParseException("Missing review or author", 0); }
+                    if (knownReviews.add(reviewId)) {
+                        if (!ra.reviewExists(reviewId)) {
+                            ra.createNewReview(reviewId);
+                            loadedReviews.add(reviewId);
+                        } else if (!ra.isReviewLoaded(reviewId)) {
+                            ra.loadReviewComments(reviewId);
+                            loadedReviews.add(reviewId);
+                        }
+                    }
+                    Comment c = importComment(record);
+                    if (c != null) {
+                        changed.add(c);
+                    }
+                } catch (ParseException e) {
+                    throw new InvocationTargetException(e, "Line " + lineNumber + " of " + file.getName() + " is not valid: " + e.getMessage());
+                }
+                
+                if (changed.size() >= BATCH_SIZE) {
+                    progress.subTask("Saving " + changed.size() + " comments...");
+                    ra.save(changed);
+                    changed.clear();
+                    ReviewDataWalker.checkCanceled(progress);
+                }
+                progress.setWorkRemaining((int) ((file.length() - read) / 1024) + 1);
+            }
+        } finally {
+            reader.close();
+            ra.save(changed);
+            // closed reviews are only loaded during the import
+            for (String reviewId : loadedReviews) {
+                ra.unloadReviewComments(reviewId);
+            }
+            PluginLogger.log(this.getClass().toString(), "importComments", "Imported " + file.getPath() + ": " + created + " created, " + updated
+                    + " updated, " + skipped + " skipped");
+        }
+    }
+    
+    /**
+     * Creates or updates the comment described by the given record
+     * @param record parsed line of the file
+     * @return the created or updated comment or null, if the existing comment is up to date
+     * @throws ParseException if the record does not describe a valid comment
+     * @throws NoReviewSourceFolderException if no review source folder had been defined beforehand
+     */
+    private Comment importComment(Map<String, Object> record) throws ParseException, NoReviewSourceFolderException {
+        String reviewId = getString(record, "review");
+        String author = getString(record, "author");
+        String id = getString(record, "id");
+        Calendar modified = JSONLines.parseDate(getString(record, "modified"));
+        
+        Comment c = isValidId(id) ? ra.getComment(reviewId, author, id) : null;
+        switch (getAction(c, modified)) {
+        case CREATE:
+            String path = getString(record, "path");
+            if (path == null) { throw new ParseException("Missing path of comment " + id, 0); }
+            // an invalid id is replaced by the next free id
+            c = ra.importComment(reviewId, author, isValidId(id) ? id : null, path.replace("/", System.getProperty("file.separator")));
+            Calendar creation = JSONLines.parseDate(getString(record, "created"));
+            if (creation != null) {
+                c.setCreationDate(creation);
+            }
+            c.setLastModified(modified != null ? modified : c.getCreationDate());
+            created++;
+            break;
+        case UPDATE:
+            c.setLastModified(modified);
+            updated++;
+            break;
+        default:
+            skipped++;
+            return null;
+        }
+        
+        c.setRecipient(getString(record, "recipient") == null ? "" : getString(record, "recipient"));
+        c.setStatus(getInt(record, "status"));
+        c.setPriority(getInt(record, "priority"));
+        c.setText(getString(record, "text") == null ? "" : getString(record, "text"));
+        importReplies(c, record.get("replies"));
+        return c;
+    }
+    
+    /**
+     * Checks whether the given id can be used as id of an imported comment
+     * @param id id of the imported comment or null
+     * @return <i>true</i> if the id has the form of the generated comment ids, <i>false</i> otherwise
+     */
+    static boolean isValidId(String id) {
+        return id != null && id.matches("c\\d+");
+    }
+    
+    /**
+     * Decides how an imported comment is imported
+     * @param existing existing comment with the same review, author and id or null, if there is none
+     * @param modified last modification date of the imported comment or null, if it is not known
+     * @return {@link Action#CREATE} if the comment does not exist, {@link Action#UPDATE} if the imported comment has been modified later
+     *         than the existing one, {@link Action#SKIP} otherwise
+     */
+    static Action getAction(Comment existing, Calendar modified) {
+        if (existing == null) { return Action.CREATE; }
+        if (modified != null && (existing.getLastModified() == null || modified.after(existing.getLastModified()))) { return Action.UPDATE; }
+        return Action.SKIP;
+    }
+    
+    /**
+     * Appends all given replies to the given comment, which are not yet part of it. Replies are identified by their author and creation
+     * date. Replies without creation date are dated at their first import and therefore identified by their author and text instead.
+     * @param c comment
+     * @param replies parsed replies of the record
+     * @throws ParseException if the replies are not valid
+     */
+    static void importReplies(Comment c, Object replies) throws ParseException {
+        if (replies == null) { return; }
+        if (!(replies instanceof List)) { throw new ParseException("Replies of comment " + c.getId() + " are not an array", 0); }
+        HashSet<String> existing = new HashSet<String>();
+        for (Reply r : c.getReplies().getReplyArray()) {
+            XmlCursor cursor = r.newCursor();
+            String text = cursor.getTextValue().trim();
+            cursor.dispose();
+            existing.add(getReplyKey(r.getAuthor(), r.getCreationDate(), text));
+            existing.add(getReplyKey(r.getAuthor(), null, text));
+        }
+        for (Object o : (List<?>) replies) {
+            if (!(o instanceof Map)) { throw new ParseException("Reply of comment " + c.getId() + " is not an object", 0); }
+            @SuppressWarnings("unchecked")
+            Map<String, Object> reply = (Map<String, Object>) o;
+            String author = getString(reply, "author");
+            Calendar creation = JSONLines.parseDate(getString(reply, "created"));
+            String text = getString(reply, "text") == null ? "" : getString(reply, "text");
+            if (!existing.add(getReplyKey(author, creation, text.trim()))) {
+                continue;
+            }
+            existing.add(getReplyKey(author, null, text.trim()));
+            Reply r = c.getReplies().addNewReply();
+            r.setAuthor(author);
+            r.setCreationDate(creation != null ? creation : Calendar.getInstance());
+            XmlCursor cursor = r.newCursor();
+            cursor.setTextValue(text);
+            cursor.dispose();
+        }
+    }
+    
+    /**
+     * Returns the key identifying a reply of a comment
+     * @param author author of the reply
+     * @param created creation date of the reply or null, if the reply should be identified by its text
+     * @param text trimmed text of the reply
+     * @return the key of the reply
+     */
+    private static String getReplyKey(String author, Calendar created, String text) {
+        return created == null ? author + "|text|" + text : author + "|date|" + JSONLines.formatDate(created);
+    }
+    
+    /**
+     * Returns the string value of the given member
+     * @param record parsed object
+     * @param name name of the member
+     * @return the string value or null, if the member does not exist
+     * @throws ParseException if the member is not a string
+     */
+    private static String getString(Map<String, Object> record, String name) throws ParseException {
+        Object value = record.get(name);
+        if (value != null && !(value instanceof String)) { throw new ParseException("Member \"" + name + "\" is not a string", 0); }
+        return (String) value;
+    }
+    
+    /**
+     * Returns the integer value of the given member
+     * @param record parsed object
+     * @param name name of the member
+     * @return the integer value or 0, if the member does not exist
+     * @throws ParseException if the member is not a number
+     */
+    private static int getInt(Map<String, Object> record, String name) throws ParseException {
+        Object value = record.get(name);
+        if (value != null && !(value instanceof Double)) { throw new ParseException("Member \"" + name + "\" is not a number", 0); }
+        return value == null ? 0 : ((Double) value).intValue();
+    }
+    
+    /**
+     * Returns the number of created comments
+     * @return the number of created comments
+     */
+    public int getCreated() {
+        return created;
+    }
+    
+    /**
+     * Returns the number of updated comments
+     * @return the number of updated comments
+     */
+    public int getUpdated() {
+        return updated;
+    }
+    
+    /**
+     * Returns the number of comments, which already existed without changes
+     * @return the number of skipped comments
+     */
+    public int getSkipped() {
+        return skipped;
+    }
+}
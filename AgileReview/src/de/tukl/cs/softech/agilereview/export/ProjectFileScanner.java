@@ -0,0 +1,268 @@
+package de.tukl.cs.softech.agilereview.export;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+/**
+ * Scans the directory tree of a project in parallel and returns all files which should not be omitted. Omitted directories (e.g. build output
+ * or version control metadata) are pruned, i.e. they are not entered at all. The omissions are given as comma separated names, which may
+ * contain the glob wildcards '*' and '?', and are compiled once per scanner. The listings of the directories can be cached, validated by the
+ * modification time of the directory, so that repeated exports of unchanged trees do not have to query the file system for every entry again.
+ * As the listings do not contain omitted entries, they are cached per omissions. The cache is bounded and evicts the least recently used
+ * listings.
+ */
+class ProjectFileScanner {
+    
+    /**
+     * Maximum number of cached directory listings
+     */
+    private static final int MAX_CACHED_LISTINGS = 10000;
+    /**
+     * Cached listings of the recently scanned directories: omissions + KEY_SEPARATOR + absolute path -> listing
+     */
+    private static final Map<String, Listing> LISTING_CACHE = Collections.synchronizedMap(new LinkedHashMap<String, Listing>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+        
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Listing> eldest) {
+            return size() > MAX_CACHED_LISTINGS;
+        }
+    });
+    /**
+     * Separator between the omissions and the path within the cache keys
+     */
+    private static final String KEY_SEPARATOR = "\u0000";
+    
+    /**
+     * Names which should be omitted (without wildcards)
+     */
+    private final HashSet<String> omittedNames = new HashSet<String>();
+    /**
+     * Compiled patterns of the omissions which contain wildcards
+     */
+    private final ArrayList<Pattern> omittedPatterns = new ArrayList<Pattern>();
+    /**
+     * Indicates whether the directory listings should be cached
+     */
+    private final boolean useCache;
+    /**
+     * Normalized omissions, which prefix the cache keys of the listings of this scanner
+     */
+    private final String cacheKeyPrefix;
+    
+    /**
+     * Listing of one directory
+     */
+    private static class Listing {
+        
+        /**
+         * Modification time of the directory at the time of listing
+         */
+        private final long lastModified;
+        /**
+         * Names of the files within the directory
+         */
+        private final String[] files;
+        /**
+         * Names of the sub-directories of the directory
+         */
+        private final String[] directories;
+        
+        /**
+         * Creates a new listing
+         * @param lastModified modification time of the directory
+         * @param files names of the files within the directory
+         * @param directories names of the sub-directories
+         */
+        Listing(long lastModified, String[] files, String[] directories) {
+            this.lastModified = lastModified;
+            this.files = files;
+            this.directories = directories;
+        }
+    }
+    
+    /**
+     * Creates a new scanner
+     * @param omittings comma separated names of files and directories to be omitted, which may contain the wildcards '*' and '?'
+     * @param useCache <i>true</i> if the directory listings should be cached, <i>false</i> otherwise
+     */
+    ProjectFileScanner(String omittings, boolean useCache) {
+        this.useCache = useCache;
+        TreeSet<String> normalized = new TreeSet<String>();
+        for (String o : omittings.split(",")) {
+            o = o.trim();
+            if (o.isEmpty()) {
+                continue;
+            }
+            normalized.add(o);
+            if (o.indexOf('*') == -1 && o.indexOf('?') == -1) {
+                omittedNames.add(o);
+            } else {
+                omittedPatterns.add(Pattern.compile(toRegex(o)));
+            }
+        }
+        StringBuilder prefix = new StringBuilder();
+        for (String o : normalized) {
+            prefix.append(o).append(',');
+        }
+        this.cacheKeyPrefix = prefix.append(KEY_SEPARATOR).toString();
+    }
+    
+    /**
+     * Converts the given glob into a regular expression
+     * @param glob glob containing the wildcards '*' and '?'
+     * @return the corresponding regular expression
+     */
+    private static String toRegex(String glob) {
+        StringBuilder regex = new StringBuilder();
+        int start = 0;
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c == '*' || c == '?') {
+                if (i > start) {
+                    regex.append(Pattern.quote(glob.substring(start, i)));
+                }
+                regex.append(c == '*' ? ".*" : ".");
+                start = i + 1;
+            }
+        }
+        if (start < glob.length()) {
+            regex.append(Pattern.quote(glob.substring(start)));
+        }
+        return regex.toString();
+    }
+    
+    /**
+     * Checks whether the file or directory with the given name should be omitted
+     * @param name name of the file or directory
+     * @return <i>true</i> if it should be omitted, <i>false</i> otherwise
+     */
+    boolean isOmitted(String name) {
+        if (omittedNames.contains(name)) { return true; }
+        for (Pattern p : omittedPatterns) {
+            if (p.matcher(name).matches()) { return true; }
+        }
+        return false;
+    }
+    
+    /**
+     * Scans the given directory tree in parallel
+     * @param root root directory
+     * @param monitor progress monitor, which will be checked for cancellation
+     * @return all files which should not be omitted, sorted by their path
+     * @throws OperationCanceledException if the monitor has been canceled
+     */
+    List<File> scan(File root, IProgressMonitor monitor) {
+        ArrayList<File> result = new ArrayList<File>();
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        CompletionService<List<File>> completion = new ExecutorCompletionService<List<File>>(executor);
+        // sub-directories found by a task are collected here and submitted by this thread, so no task has to wait for another one
+        final List<File> pending = Collections.synchronizedList(new ArrayList<File>());
+        try {
+            int running = 1;
+            submit(completion, root, pending);
+            while (running > 0) {
+                Future<List<File>> done = completion.poll(100, TimeUnit.MILLISECONDS);
+                if (monitor.isCanceled()) { throw new OperationCanceledException(); }
+                if (done == null) {
+                    continue;
+                }
+                running--;
+                result.addAll(done.get());
+                synchronized (pending) {
+                    for (File dir : pending) {
+                        submit(completion, dir, pending);
+                        running++;
+                    }
+                    pending.clear();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OperationCanceledException();
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        Collections.sort(result);
+        return result;
+    }
+    
+    /**
+     * Submits a task, which lists the given directory
+     * @param completion completion service
+     * @param dir directory to be listed
+     * @param pending list to which the sub-directories will be added
+     */
+    private void submit(CompletionService<List<File>> completion, final File dir, final List<File> pending) {
+        completion.submit(new Callable<List<File>>() {
+            @Override
+            public List<File> call() {
+                Listing listing = list(dir);
+                ArrayList<File> files = new ArrayList<File>(listing.files.length);
+                for (String name : listing.files) {
+                    files.add(new File(dir, name));
+                }
+                for (String name : listing.directories) {
+                    pending.add(new File(dir, name));
+                }
+                return files;
+            }
+        });
+    }
+    
+    /**
+     * Lists the given directory without omitted entries. The listing is taken from the cache, if the directory did not change since it was
+     * cached.
+     * @param dir directory to be listed
+     * @return the listing of the directory
+     */
+    private Listing list(File dir) {
+        long lastModified = dir.lastModified();
+        if (useCache) {
+            Listing cached = LISTING_CACHE.get(cacheKeyPrefix + dir.getAbsolutePath());
+            if (cached != null && cached.lastModified == lastModified) { return cached; }
+        }
+        
+        ArrayList<String> files = new ArrayList<String>();
+        ArrayList<String> directories = new ArrayList<String>();
+        String[] names = dir.list();
+        if (names != null) {
+            for (String name : names) {
+                if (isOmitted(name)) {
+                    continue;
+                }
+                File f = new File(dir, name);
+                if (f.isFile()) {
+                    files.add(name);
+                } else if (f.isDirectory()) {
+                    directories.add(name);
+                }
+            }
+        }
+        Listing listing = new Listing(lastModified, files.toArray(new String[files.size()]), directories.toArray(new String[directories.size()]));
+        if (useCache) {
+            LISTING_CACHE.put(cacheKeyPrefix + dir.getAbsolutePath(), listing);
+        }
+        return listing;
+    }
+}
@@ -0,0 +1,120 @@
+package de.tukl.cs.softech.agilereview.export;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.equinox.app.IApplication;
+import org.eclipse.equinox.app.IApplicationContext;
+import org.eclipse.jface.operation.IRunnableWithProgress;
+
+import agileReview.softech.tukl.de.ReviewDocument.Review;
+import de.tukl.cs.softech.agilereview.dataaccess.ReviewAccess;
+import de.tukl.cs.softech.agilereview.plugincontrol.exceptions.NoReviewSourceFolderException;
+import de.tukl.cs.softech.agilereview.tools.PluginLogger;
+
+/**
+ * Headless application for moving review data in and out of a workspace without starting the workbench, e.g. in CI pipelines:
+ *
+ * <pre>
+ * eclipse -application de.tukl.cs.softech.agilereview.reviewData -data &lt;workspace&gt; [-source &lt;project&gt;]
+ *     (-exportJSON &lt;file or directory&gt; [-reviews &lt;id,id,...&gt;] [-incremental] | -importJSON &lt;file&gt;)
+ * </pre>
+ *
+ * Without <code>-reviews</code> all reviews of the AgileReview Source Project are exported.
+ */
+public class ReviewDataApplication implements IApplication {
+    
+    /**
+     * Exit code if the arguments are invalid or the export/import failed
+     */
+    private static final Integer EXIT_ERROR = Integer.valueOf(1);
+    
+    @Override
+    public Object start(IApplicationContext context) throws Exception {
+        List<String> args = Arrays.asList((String[]) context.getArguments().get(IApplicationContext.APPLICATION_ARGS));
+        ReviewAccess ra = ReviewAccess.getInstance();
+        String source = getArgument(args, "-source");
+        if (source != null && !ra.loadReviewSourceProject(source)) {
+            System.err.println("The AgileReview Source Project " + source + " does not exist or is closed.");
+            return EXIT_ERROR;
+        }
+        if (!ra.isCurrentSourceValid()) {
+            System.err.println("No AgileReview Source Project has been defined. Use -source <project>.");
+            return EXIT_ERROR;
+        }
+        
+        IRunnableWithProgress runnable;
+        ArrayList<String> loadedReviews = new ArrayList<String>();
+        if (getArgument(args, "-importJSON") != null) {
+            runnable = new JSONLinesImport(getArgument(args, "-importJSON"));
+        } else if (getArgument(args, "-exportJSON") != null) {
+            runnable = new JSONLinesExport(getReviews(ra, getArgument(args, "-reviews"), loadedReviews), getArgument(args, "-exportJSON"), args
+                    .contains("-incremental"));
+        } else {
+            System.err.println("Usage: [-source <project>] (-exportJSON <file or directory> [-reviews <id,id,...>] [-incremental] "
+                    + "| -importJSON <file>)");
+            return EXIT_ERROR;
+        }
+        
+        try {
+            runnable.run(new NullProgressMonitor());
+        } catch (InvocationTargetException e) {
+            PluginLogger.logError(this.getClass().toString(), "start", "Error while moving review data", e.getCause());
+            System.err.println(e.getMessage() != null ? e.getMessage() : e.getCause().toString());
+            return EXIT_ERROR;
+        } finally {
+            for (String reviewId : loadedReviews) {
+                ra.unloadReviewComments(reviewId);
+            }
+        }
+        if (runnable instanceof JSONLinesImport) {
+            JSONLinesImport imported = (JSONLinesImport) runnable;
+            System.out.println("Imported comments: " + imported.getCreated() + " created, " + imported.getUpdated() + " updated, "
+                    + imported.getSkipped() + " unchanged");
+        }
+        return IApplication.EXIT_OK;
+    }
+    
+    @Override
+    public void stop() {
+        // the export or import cannot be interrupted
+    }
+    
+    /**
+     * Returns the value following the given option
+     * @param args arguments of the application
+     * @param option name of the option
+     * @return the value of the option or null, if the option is not given
+     */
+    private static String getArgument(List<String> args, String option) {
+        int index = args.indexOf(option);
+        return index == -1 || index + 1 >= args.size() ? null : args.get(index + 1);
+    }
+    
+    /**
+     * Returns the reviews to be exported and loads their comments, if they are not loaded yet
+     * @param ra instance of ReviewAccess
+     * @param ids comma separated review ids or null, if all reviews should be exported
+     * @param loadedReviews list to which all reviews will be added, which have been loaded by this method
+     * @return the reviews to be exported
+     * @throws NoReviewSourceFolderException if no review source folder had been defined beforehand
+     */
+    private static List<Review> getReviews(ReviewAccess ra, String ids, List<String> loadedReviews) throws NoReviewSourceFolderException {
+        List<String> selected = ids == null ? null : Arrays.asList(ids.split(","));
+        ArrayList<Review> result = new ArrayList<Review>();
+        for (Review r : ra.getAllReviews()) {
+            if (selected != null && !selected.contains(r.getId())) {
+                continue;
+            }
+            if (!ra.isReviewLoaded(r.getId())) {
+                ra.loadReviewComments(r.getId());
+                loadedReviews.add(r.getId());
+            }
+            result.add(r);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,247 @@
+package de.tukl.cs.softech.agilereview.export;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.SubMonitor;
+
+import agileReview.softech.tukl.de.CommentDocument.Comment;
+import agileReview.softech.tukl.de.FileDocument.File;
+import agileReview.softech.tukl.de.FolderDocument.Folder;
+import agileReview.softech.tukl.de.ProjectDocument.Project;
+import agileReview.softech.tukl.de.ReplyDocument.Reply;
+import agileReview.softech.tukl.de.ReviewDocument.Review;
+import de.tukl.cs.softech.agilereview.tools.PropertiesManager;
+
+/**
+ * Walks a {@link ReviewSnapshot} of the given reviews and pushes each review, reviewed file, comment and reply as well as each file of the
+ * reviewed projects to an {@link IExportSink}. The records are created on demand while walking the snapshot, so that the memory needed for an
+ * export besides the snapshot does not depend on the number of exported comments, as long as the sink does not collect them.<br>
+ * An incremental walker only pushes the comments which have been created or modified (including new replies) since the last export of their
+ * review through the same export channel, i.e. with the same format to the same output location. The latest change of each walked review is
+ * recorded as its high-water mark for this channel, which should be saved by {@link #saveHighWaterMarks()} as soon as the export succeeded.
+ */
+public class ReviewDataWalker {
+    
+    /**
+     * Snapshot of the reviews to be walked
+     */
+    private final ReviewSnapshot snapshot;
+    /**
+     * Scanner of the reviewed projects, which also decides which files should be omitted during export
+     */
+    private final ProjectFileScanner scanner;
+    /**
+     * Locations of all projects which have been reviewed (at least partially)
+     */
+    private final LinkedHashSet<java.io.File> projects = new LinkedHashSet<java.io.File>();
+    /**
+     * Export channel (format and output location) of the export this walker is used for
+     */
+    private final String channel;
+    /**
+     * Indicates whether only the comments changed since the last export should be pushed
+     */
+    private final boolean incremental;
+    /**
+     * Latest change of each walked review: review id -> time in milliseconds
+     */
+    private final HashMap<String, Long> highWaterMarks = new HashMap<String, Long>();
+    /**
+     * High-water mark of the review currently walked, as saved by the last export
+     */
+    private long exportedUntil;
+    
+    /**
+     * Creates a new walker for the given reviews
+     * @param snapshot snapshot of the reviews to be walked
+     * @param channel export channel as returned by {@link #getChannel(String, String)}
+     * @param incremental <i>true</i> if only the comments changed since the last export of the channel should be pushed, <i>false</i> otherwise
+     */
+    public ReviewDataWalker(ReviewSnapshot snapshot, String channel, boolean incremental) {
+        this.snapshot = snapshot;
+        this.channel = channel;
+        this.incremental = incremental;
+        this.scanner = new ProjectFileScanner(PropertiesManager.getInstance().getInternalProperty(
+                PropertiesManager.INTERNAL_KEYS.EXPORT_OMITTINGS), true);
+    }
+    
+    /**
+     * Returns the reviews to be walked
+     * @return the reviews to be walked
+     */
+    public List<Review> getReviews() {
+        return snapshot.getReviews();
+    }
+    
+    /**
+     * Pushes all reviews with their reviewed files, comments and replies to the given sink
+     * @param sink receiver of the records
+     * @param monitor progress monitor, which will be informed about each review and checked for cancellation between the reviews
+     * @throws IOException if the sink could not write a record
+     * @throws OperationCanceledException if the monitor has been canceled
+     */
+    public void walkReviews(IExportSink sink, IProgressMonitor monitor) throws IOException {
+        SubMonitor progress = SubMonitor.convert(monitor, snapshot.getReviews().size());
+        IWorkspaceRoot workspaceRoot = ResourcesPlugin.getWorkspace().getRoot();
+        for (Review r : snapshot.getReviews()) {
+            checkCanceled(progress);
+            progress.subTask("Collecting review \"" + r.getId() + "\"...");
+            exportedUntil = incremental ? PropertiesManager.getExportHighWaterMark(channel, r.getId()) : 0;
+            highWaterMarks.put(r.getId(), PropertiesManager.getExportHighWaterMark(channel, r.getId()));
+            sink.review(r);
+            for (Project p : snapshot.getProjects(r.getId())) {
+                if (workspaceRoot.getProject(p.getName()).exists()) {
+                    projects.add(workspaceRoot.getProject(p.getName()).getLocation().toFile());
+                }
+                
+                for (File f : p.getFileArray()) {
+                    walkFile(sink, f, r.getId(), p.getName());
+                }
+                for (Folder f : p.getFolderArray()) {
+                    walkFolder(sink, f, r.getId(), p.getName());
+                }
+            }
+            progress.worked(1);
+        }
+    }
+    
+    /**
+     * Pushes all files of the projects which have been reviewed to the given sink. The projects are determined by
+     * {@link #walkReviews(IExportSink, IProgressMonitor)}, which therefore has to be called beforehand.
+     * @param sink receiver of the records
+     * @param monitor progress monitor, which will be checked for cancellation
+     * @throws IOException if the sink could not write a record
+     * @throws OperationCanceledException if the monitor has been canceled
+     */
+    public void walkProjectFiles(IExportSink sink, IProgressMonitor monitor) throws IOException {
+        SubMonitor progress = SubMonitor.convert(monitor, projects.size());
+        for (java.io.File f : projects) {
+            checkCanceled(progress);
+            progress.subTask("Collecting files of project \"" + f.getName() + "\"...");
+            for (java.io.File file : scanner.scan(f, progress)) {
+                sink.projectFile(new FileExportWrapper(file, f.getName()));
+            }
+            progress.worked(1);
+        }
+    }
+    
+    /**
+     * Pushes the given reviewed file with all its comments and their replies to the given sink
+     * @param sink receiver of the records
+     * @param f reviewed file
+     * @param reviewId review to which the file correlates
+     * @param projectName project to which the file correlates
+     * @throws IOException if the sink could not write a record
+     */
+    private void walkFile(IExportSink sink, File f, String reviewId, String projectName) throws IOException {
+        ArrayList<Comment> changed = new ArrayList<Comment>();
+        for (Comment c : f.getCommentArray()) {
+            long lastChange = getLastChange(c);
+            if (lastChange > highWaterMarks.get(reviewId)) {
+                highWaterMarks.put(reviewId, lastChange);
+            }
+            if (lastChange > exportedUntil) {
+                changed.add(c);
+            }
+        }
+        // files without changed comments are not part of an incremental export
+        if (incremental && changed.isEmpty()) { return; }
+        
+        FileExportWrapper file = new FileExportWrapper(f, reviewId, projectName);
+        sink.reviewedFile(file);
+        for (Comment c : changed) {
+            CommentWrapper comment = new CommentWrapper(c, file);
+            sink.comment(comment);
+            for (Reply reply : comment.getReplies()) {
+                sink.reply(new ReplyWrapper(reply, comment));
+            }
+        }
+    }
+    
+    /**
+     * Walks recursively through all files under the given folder, which should not be omitted
+     * @param sink receiver of the records
+     * @param folder root node of the search process
+     * @param reviewId review to which these files correlate
+     * @param projectName project to which these files correlate
+     * @throws IOException if the sink could not write a record
+     */
+    private void walkFolder(IExportSink sink, Folder folder, String reviewId, String projectName) throws IOException {
+        for (File f : folder.getFileArray()) {
+            if (!scanner.isOmitted(f.getName())) {
+                walkFile(sink, f, reviewId, projectName);
+            }
+        }
+        for (Folder f : folder.getFolderArray()) {
+            walkFolder(sink, f, reviewId, projectName);
+        }
+    }
+    
+    /**
+     * Returns the time of the latest change of the given comment, i.e. the latest of its creation date, its modification date and the creation
+     * dates of its replies
+     * @param c comment
+     * @return the time in milliseconds
+     */
+    private static long getLastChange(Comment c) {
+        long result = Math.max(getTime(c.getCreationDate()), getTime(c.getLastModified()));
+        for (Reply r : c.getReplies().getReplyArray()) {
+            result = Math.max(result, getTime(r.getCreationDate()));
+        }
+        return result;
+    }
+    
+    /**
+     * Returns the time of the given date
+     * @param date date or null
+     * @return the time in milliseconds or 0, if no date is given
+     */
+    private static long getTime(Calendar date) {
+        return date == null ? 0 : date.getTimeInMillis();
+    }
+    
+    /**
+     * Indicates whether this walker only pushes the comments changed since the last export
+     * @return <i>true</i> if the walker is incremental, <i>false</i> otherwise
+     */
+    public boolean isIncremental() {
+        return incremental;
+    }
+    
+    /**
+     * Saves the latest change of each walked review as its high-water mark for the export channel, such that the next incremental export of
+     * the channel only contains the comments changed afterwards. This should only be called after the export has been written successfully.
+     */
+    public void saveHighWaterMarks() {
+        for (String reviewId : highWaterMarks.keySet()) {
+            PropertiesManager.setExportHighWaterMark(channel, reviewId, highWaterMarks.get(reviewId));
+        }
+    }
+    
+    /**
+     * Returns the export channel of the given format and output location
+     * @param format format of the export (e.g. the file extension)
+     * @param outputPath output directory or file of the export
+     * @return the export channel
+     */
+    public static String getChannel(String format, String outputPath) {
+        return format + ":" + new java.io.File(outputPath).getAbsolutePath();
+    }
+    
+    /**
+     * Throws an {@link OperationCanceledException} if the given monitor has been canceled
+     * @param monitor progress monitor
+     */
+    static void checkCanceled(IProgressMonitor monitor) {
+        if (monitor.isCanceled()) { throw new OperationCanceledException(); }
+    }
+}
@@ -0,0 +1,63 @@
+package de.tukl.cs.softech.agilereview.export;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import agileReview.softech.tukl.de.ProjectDocument.Project;
+import agileReview.softech.tukl.de.ReviewDocument.Review;
+import de.tukl.cs.softech.agilereview.dataaccess.ReviewAccess;
+
+/**
+ * Detached copy of the given reviews and of the reviewed projects with their comments. The review model is neither synchronized nor a copy on
+ * write structure, so a snapshot has to be taken on the thread which changes the model (i.e. the UI thread) before an export is run in the
+ * background. Afterwards the snapshot can be walked by any thread, while the model may be changed concurrently.
+ */
+public class ReviewSnapshot {
+    
+    /**
+     * Copies of the reviews
+     */
+    private final List<Review> reviews;
+    /**
+     * Copies of the reviewed projects of each review: review id -> projects
+     */
+    private final LinkedHashMap<String, List<Project>> projects = new LinkedHashMap<String, List<Project>>();
+    
+    /**
+     * Copies the given reviews and their reviewed projects. This has to be called on the thread which changes the review model.
+     * @param reviews reviews to be copied
+     */
+    public ReviewSnapshot(List<Review> reviews) {
+        ReviewAccess ra = ReviewAccess.getInstance();
+        ArrayList<Review> copies = new ArrayList<Review>(reviews.size());
+        for (Review r : reviews) {
+            copies.add((Review) r.copy());
+            ArrayList<Project> reviewProjects = new ArrayList<Project>();
+            for (Project p : ra.getProjects(r.getId())) {
+                reviewProjects.add((Project) p.copy());
+            }
+            projects.put(r.getId(), reviewProjects);
+        }
+        this.reviews = Collections.unmodifiableList(copies);
+    }
+    
+    /**
+     * Returns the copies of the reviews
+     * @return the copies of the reviews
+     */
+    public List<Review> getReviews() {
+        return reviews;
+    }
+    
+    /**
+     * Returns the copies of the projects reviewed within the given review
+     * @param reviewId review id
+     * @return the copies of the reviewed projects, which contain the comments of this review only
+     */
+    public List<Project> getProjects(String reviewId) {
+        List<Project> result = projects.get(reviewId);
+        return result == null ? Collections.<Project> emptyList() : result;
+    }
+}
@@ -0,0 +1,71 @@
+package de.tukl.cs.softech.agilereview.export;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Temporary file for an export, which is created next to the target file and renamed to the target file when the export succeeded. Thus the
+ * target file is either written completely or not at all. Exports consisting of several files can roll back the files already committed, if
+ * a later one cannot be committed.
+ */
+class TemporaryExportFile {
+    
+    /**
+     * File which should be written by the export
+     */
+    private final File target;
+    /**
+     * Temporary file, which is written instead of the target file
+     */
+    private final File temporary;
+    /**
+     * Indicates whether the temporary file has been renamed to the target file
+     */
+    private boolean committed = false;
+    
+    /**
+     * Creates a new temporary file in the directory of the given target file
+     * @param target file which should be written by the export
+     * @throws IOException if the temporary file could not be created
+     */
+    TemporaryExportFile(File target) throws IOException {
+        this.target = target;
+        this.temporary = File.createTempFile(target.getName() + ".", ".part", target.getAbsoluteFile().getParentFile());
+    }
+    
+    /**
+     * Returns the temporary file, which should be written by the export
+     * @return the temporary file
+     */
+    File getFile() {
+        return temporary;
+    }
+    
+    /**
+     * Renames the temporary file to the target file
+     * @throws IOException if the temporary file could not be renamed
+     */
+    void commit() throws IOException {
+        if (!temporary.renameTo(target)) { throw new IOException("Could not rename " + temporary.getPath() + " to " + target.getPath()); }
+        committed = true;
+    }
+    
+    /**
+     * Deletes the target file again, if it has been written by {@link #commit()}
+     */
+    void rollback() {
+        if (committed && target.exists() && !target.delete()) {
+            target.deleteOnExit();
+        }
+        committed = false;
+    }
+    
+    /**
+     * Deletes the temporary file, if it still exists
+     */
+    void discard() {
+        if (temporary.exists() && !temporary.delete()) {
+            temporary.deleteOnExit();
+        }
+    }
+}
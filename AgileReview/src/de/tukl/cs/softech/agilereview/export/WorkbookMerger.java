@@ -0,0 +1,162 @@
+package de.tukl.cs.softech.agilereview.export;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+
+/**
+ * Merges the workbook of an incremental export into the workbook of a previous export, which has been created from the same template. As the
+ * layout of the template is unknown, the rows are matched by their cell values: rows of the previous workbook which contain the review id, the
+ * author and the comment id of an exported comment are replaced, as the comment is part of the incremental export (comment ids are only
+ * unique per review and author). Rows of the incremental export which already exist in the previous workbook (e.g. headers, unchanged
+ * reviewed files or replies which have already been exported) are skipped, all other rows are appended to the sheet with the same name.
+ */
+class WorkbookMerger {
+    
+    /**
+     * Formatter for the cell values to be compared
+     */
+    private final DataFormatter formatter = new DataFormatter();
+    /**
+     * Exported comments: comment id -> {review id, author} of each exported comment with this id
+     */
+    private final HashMap<String, ArrayList<String[]>> comments = new HashMap<String, ArrayList<String[]>>();
+    
+    /**
+     * Creates a new merger
+     * @param exportedComments comments which are part of the incremental export
+     */
+    WorkbookMerger(List<CommentWrapper> exportedComments) {
+        for (CommentWrapper c : exportedComments) {
+            ArrayList<String[]> owners = comments.get(c.getId());
+            if (owners == null) {
+                owners = new ArrayList<String[]>();
+                comments.put(c.getId(), owners);
+            }
+            owners.add(new String[] { c.getReviewID(), c.getAuthor() });
+        }
+    }
+    
+    /**
+     * Merges the given incremental workbook into the given previous workbook
+     * @param previous workbook of the previous export, which will be modified
+     * @param delta workbook of the incremental export
+     */
+    void merge(Workbook previous, Workbook delta) {
+        for (int i = 0; i < delta.getNumberOfSheets(); i++) {
+            Sheet source = delta.getSheetAt(i);
+            Sheet target = previous.getSheet(source.getSheetName());
+            if (target != null) {
+                mergeSheet(target, source);
+            }
+        }
+    }
+    
+    /**
+     * Merges the rows of the given incremental sheet into the given previous sheet
+     * @param target sheet of the previous export
+     * @param source sheet of the incremental export
+     */
+    private void mergeSheet(Sheet target, Sheet source) {
+        // remove outdated rows bottom up, such that the indices of the remaining rows do not change
+        for (int i = target.getLastRowNum(); i >= target.getFirstRowNum(); i--) {
+            Row row = target.getRow(i);
+            if (row != null && isOutdated(getValues(row))) {
+                target.removeRow(row);
+                if (i < target.getLastRowNum()) {
+                    target.shiftRows(i + 1, target.getLastRowNum(), -1);
+                }
+            }
+        }
+        
+        HashSet<List<String>> existing = new HashSet<List<String>>();
+        for (Row row : target) {
+            existing.add(getValues(row));
+        }
+        for (Row row : source) {
+            List<String> values = getValues(row);
+            if (values.isEmpty() || !existing.add(values)) {
+                continue;
+            }
+            copyRow(row, target);
+        }
+    }
+    
+    /**
+     * Checks whether the given row values contain the review id, the author and the comment id of an exported comment
+     * @param values values of a row
+     * @return <i>true</i> if the row describes an exported comment, <i>false</i> otherwise
+     */
+    private boolean isOutdated(List<String> values) {
+        HashSet<String> valueSet = null;
+        for (String value : values) {
+            ArrayList<String[]> owners = comments.get(value);
+            if (owners == null) {
+                continue;
+            }
+            if (valueSet == null) {
+                valueSet = new HashSet<String>(values);
+            }
+            for (String[] owner : owners) {
+                if (valueSet.contains(owner[0]) && valueSet.contains(owner[1])) { return true; }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Returns the formatted values of all non-empty cells of the given row
+     * @param row row
+     * @return the values of the row in column order
+     */
+    private List<String> getValues(Row row) {
+        ArrayList<String> values = new ArrayList<String>();
+        for (Cell cell : row) {
+            String value = formatter.formatCellValue(cell);
+            if (!value.isEmpty()) {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+    
+    /**
+     * Appends a copy of the given row to the given sheet. The cells are styled like the cells of the row above, as styles cannot be shared
+     * between workbooks.
+     * @param source row to be copied
+     * @param target sheet to which the row will be appended
+     */
+    private static void copyRow(Row source, Sheet target) {
+        Row above = target.getPhysicalNumberOfRows() == 0 ? null : target.getRow(target.getLastRowNum());
+        Row row = target.createRow(above == null ? 0 : target.getLastRowNum() + 1);
+        for (Cell cell : source) {
+            Cell copy = row.createCell(cell.getColumnIndex());
+            if (above != null && above.getCell(cell.getColumnIndex()) != null) {
+                copy.setCellStyle(above.getCell(cell.getColumnIndex()).getCellStyle());
+            }
+            switch (cell.getCellType()) {
+            case Cell.CELL_TYPE_NUMERIC:
+                copy.setCellValue(cell.getNumericCellValue());
+                break;
+            case Cell.CELL_TYPE_BOOLEAN:
+                copy.setCellValue(cell.getBooleanCellValue());
+                break;
+            case Cell.CELL_TYPE_FORMULA:
+                copy.setCellFormula(cell.getCellFormula());
+                break;
+            case Cell.CELL_TYPE_STRING:
+                copy.setCellValue(cell.getStringCellValue());
+                break;
+            default:
+                break;
+            }
+        }
+    }
+}
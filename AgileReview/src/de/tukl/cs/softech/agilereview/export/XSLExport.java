@@ -1,60 +1,48 @@
 package de.tukl.cs.softech.agilereview.export;
 
-import java.io.FilenameFilter;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.reflect.InvocationTargetException;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Calendar;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeSet;
 
 import net.sf.jxls.exception.ParsePropertyException;
 import net.sf.jxls.transformer.Configuration;
 import net.sf.jxls.transformer.XLSTransformer;
 
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
-import org.eclipse.core.resources.IWorkspaceRoot;
-import org.eclipse.core.resources.ResourcesPlugin;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
 import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.jface.dialogs.MessageDialog;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.jface.operation.IRunnableWithProgress;
-import org.eclipse.ui.PlatformUI;
 
-import agileReview.softech.tukl.de.CommentDocument.Comment;
-import agileReview.softech.tukl.de.FileDocument.File;
-import agileReview.softech.tukl.de.FolderDocument.Folder;
-import agileReview.softech.tukl.de.ProjectDocument.Project;
-import agileReview.softech.tukl.de.ReplyDocument.Reply;
 import agileReview.softech.tukl.de.ReviewDocument.Review;
-import de.tukl.cs.softech.agilereview.dataaccess.ReviewAccess;
-import de.tukl.cs.softech.agilereview.tools.PluginLogger;
 import de.tukl.cs.softech.agilereview.tools.PropertiesManager;
 
 /**
- * This class represents the interface to jxls for exporting reviews and comments to xls, xlsx sheets
+ * This class represents the interface to jxls for exporting reviews and comments to xls, xlsx sheets. An incremental export only contains the
+ * comments changed since the last export of their review with the same file type to the same output path. It can be merged into the latest
+ * complete export of this channel, i.e. the export the recorded high-water marks belong to.
  */
 public class XSLExport implements IRunnableWithProgress {
     
     /**
-     * Instance of ReviewAccess
+     * Snapshot of the reviews to be exported, which has been taken on creation
      */
-    private final ReviewAccess ra = ReviewAccess.getInstance();
-    /**
-     * Instance of PropertiesManager
-     */
-    private static PropertiesManager pm = PropertiesManager.getInstance();
-    
-    /**
-     * Reviews to be exported
-     */
-    private final List<Review> reviews;
+    private final ReviewSnapshot snapshot;
     /**
      * Template path where the xls template can be found
      */
@@ -63,6 +51,14 @@ public class XSLExport implements IRunnableWithProgress {
      * Output path where the new instance of the exported template should be stored
      */
     private String outputPath;
+    /**
+     * Indicates whether only the comments changed since the last export should be exported
+     */
+    private final boolean incremental;
+    /**
+     * Indicates whether the incremental export should be merged into the latest complete export of the output path
+     */
+    private final boolean merge;
     
     /**
      * Creates a new Instance of XSLExport for a list of reviews, the templatePath where the export class can find the xls template to be used and the
@@ -72,9 +68,25 @@ public class XSLExport implements IRunnableWithProgress {
      * @param outputPath directory to which the data should exported
      */
     public XSLExport(List<Review> reviews, String templatePath, String outputPath) {
-        this.reviews = reviews;
+        this(reviews, templatePath, outputPath, false, false);
+    }
+    
+    /**
+     * Creates a new Instance of XSLExport, which exports either all comments of the given reviews or only the comments changed since the last
+     * export. The given reviews are copied, so the export has to be created on the thread which changes the review model.
+     * @param reviews which should be exported
+     * @param templatePath path to the xls/xlsx template
+     * @param outputPath directory to which the data should exported
+     * @param incremental <i>true</i> if only the comments changed since the last export should be exported, <i>false</i> otherwise
+     * @param merge <i>true</i> if the incremental export should be merged into the latest complete export of the output path, <i>false</i>
+     *            otherwise
+     */
+    public XSLExport(List<Review> reviews, String templatePath, String outputPath, boolean incremental, boolean merge) {
+        this.snapshot = new ReviewSnapshot(reviews);
         this.templatePath = templatePath;
         this.outputPath = outputPath;
+        this.incremental = incremental;
+        this.merge = incremental && merge;
     }
     
     /**
@@ -86,177 +98,140 @@ public class XSLExport implements IRunnableWithProgress {
         try {
             exportReviews(monitor);
         } catch (ParsePropertyException e) {
-            PluginLogger.logError(this.getClass().toString(), "run", "ParsePropertyException", e);
-            MessageDialog.openError(PlatformUI.getWorkbench().getActiveWorkbenchWindow().getShell(), "Error while exporting Reviews",
-                    "The formulas in the selected template file cannot be evaluated correctly");
+            throw new InvocationTargetException(e, "The formulas in the selected template file cannot be evaluated correctly");
         } catch (InvalidFormatException e) {
-            PluginLogger.logError(this.getClass().toString(), "run", "InvalidFormatException", e);
-            MessageDialog.openError(PlatformUI.getWorkbench().getActiveWorkbenchWindow().getShell(), "Error while exporting Reviews",
-                    "An error occured while exporting the selected Reviews!");
+            throw new InvocationTargetException(e, "An error occured while exporting the selected Reviews!");
         } catch (IOException e) {
-            PluginLogger.logError(this.getClass().toString(), "run", "IOException", e);
-            MessageDialog.openError(PlatformUI.getWorkbench().getActiveWorkbenchWindow().getShell(), "Error while exporting Reviews",
-                    "One of the selected files could not be read or written!");
+            throw new InvocationTargetException(e, "One of the selected files could not be read or written!");
+        } catch (OperationCanceledException e) {
+            throw new InterruptedException("Export canceled");
         }
     }
     
     /**
      * This function provides the functionality for exporting the given Reviews to the outputPath by using the xls/xlsx template specified in the
-     * templatePath
+     * templatePath. The progress is reported per review and per stage (collect, transform, write). The export file is written to a temporary
+     * file first, which is renamed when the export succeeded. The files of the reviewed projects are not collected by incremental exports. If
+     * an incremental export should be merged, but the latest complete export does not exist anymore, all comments are exported.
      * @param monitor
      * @throws ParsePropertyException occurs during the transfomation process of jxls
      * @throws InvalidFormatException occurs during the transfomation process of jxls
      * @throws IOException occurs during the transfomation process of jxls
      */
     private void exportReviews(IProgressMonitor monitor) throws ParsePropertyException, InvalidFormatException, IOException {
-        monitor.beginTask("Performing export: ", IProgressMonitor.UNKNOWN);
-        monitor.subTask("Collecting review data...");
+        SubMonitor progress = SubMonitor.convert(monitor, "Performing export: ", 100);
         Map<String, Object> beans = new HashMap<String, Object>();
+        String filetype = templatePath.substring(templatePath.lastIndexOf("."));
+        String channel = ReviewDataWalker.getChannel(filetype.substring(1), outputPath);
+        File previous = merge ? getLatestCompleteExport(channel) : null;
+        // the high-water marks belong to the latest complete export, so only merge into this one
+        boolean walkIncremental = incremental && (!merge || previous != null);
         
-        IWorkspaceRoot workspaceRoot = ResourcesPlugin.getWorkspace().getRoot();
-        
-        //collect all files which have been reviewed
-        ArrayList<FileExportWrapper> reviewFiles = new ArrayList<FileExportWrapper>();
-        ArrayList<CommentWrapper> comments = new ArrayList<CommentWrapper>();
-        HashSet<java.io.File> projects = new HashSet<java.io.File>();
-        for (Review r : reviews) {
-            for (Project p : ra.getProjects(r.getId())) {
-                
-                if (workspaceRoot.getProject(p.getName()).exists()) {
-                    projects.add(workspaceRoot.getProject(p.getName()).getLocation().toFile());
-                }
-                
-                reviewFiles.addAll(convertFilesToWrappedFiles(Arrays.asList(p.getFileArray()), r.getId(), p.getName()));
-                for (File f : p.getFileArray()) {
-                    collectComments(comments, r.getId(), p.getName(), f);
-                }
-                for (Folder f : p.getFolderArray()) {
-                    reviewFiles.addAll(getAllWrappedFiles(f, r.getId(), p.getName(), comments));
-                }
+        // jxls needs all data within lists, so collect the records of the walker
+        final ArrayList<FileExportWrapper> reviewFiles = new ArrayList<FileExportWrapper>();
+        final ArrayList<CommentWrapper> comments = new ArrayList<CommentWrapper>();
+        final ArrayList<ReplyWrapper> replies = new ArrayList<ReplyWrapper>();
+        final ArrayList<FileExportWrapper> projectFiles = new ArrayList<FileExportWrapper>();
+        IExportSink collector = new IExportSink() {
+            @Override
+            public void review(Review review) {
+            }
+            
+            @Override
+            public void reviewedFile(FileExportWrapper file) {
+                reviewFiles.add(file);
+            }
+            
+            @Override
+            public void comment(CommentWrapper comment) {
+                comments.add(comment);
+            }
+            
+            @Override
+            public void reply(ReplyWrapper reply) {
+                replies.add(reply);
             }
+            
+            @Override
+            public void projectFile(FileExportWrapper file) {
+                projectFiles.add(file);
+            }
+        };
+        ReviewDataWalker walker = new ReviewDataWalker(snapshot, channel, walkIncremental);
+        walker.walkReviews(collector, progress.newChild(40));
+        if (walkIncremental) {
+            progress.worked(20);
+        } else {
+            walker.walkProjectFiles(collector, progress.newChild(20));
         }
+        
         beans.put("reviewFiles", reviewFiles);
         beans.put("comments", comments);
-        
-        // Collect all replies
-        ArrayList<ReplyWrapper> replies = new ArrayList<ReplyWrapper>();
-        for (CommentWrapper c : comments) {
-            for (Reply r : c.getReplies()) {
-                replies.add(new ReplyWrapper(r, c));
-            }
-        }
         beans.put("replies", replies);
-        
-        //collect all files which are in a project which has been reviewed partially
-        ArrayList<FileExportWrapper> projectFiles = new ArrayList<FileExportWrapper>();
-        for (java.io.File f : projects) {
-            projectFiles.addAll(getAllWrappedFiles(f, f.getName()));
-        }
         beans.put("projectFiles", projectFiles);
-        beans.put("reviews", reviews);
+        beans.put("reviews", snapshot.getReviews());
         
         Configuration config = new Configuration();
         XLSTransformer transformer = new XLSTransformer(config);
         DateFormat df = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss");
-        String filetype = templatePath.substring(templatePath.lastIndexOf("."));
         
         if (!outputPath.endsWith(System.getProperty("file.separator"))) {
             outputPath += System.getProperty("file.separator");
         }
         
-        monitor.subTask("Creating export sheet...");
-        transformer.transformXLS(templatePath, beans, outputPath + "agilereview_export_" + df.format(Calendar.getInstance().getTime()) + filetype);
-        monitor.done();
-    }
-    
-    /**
-     * @param comments
-     * @param r
-     * @param p
-     * @param f
-     * @author Malte Brunnlieb (06.11.2013)
-     */
-    private static void collectComments(ArrayList<CommentWrapper> comments, String reviewId, String projectName, File f) {
-        for (Comment c : f.getCommentArray()) {
-            comments.add(new CommentWrapper(c, new FileExportWrapper(f, reviewId, projectName)));
+        ReviewDataWalker.checkCanceled(progress);
+        progress.subTask("Creating export sheet...");
+        Workbook workbook;
+        InputStream in = new BufferedInputStream(new FileInputStream(templatePath));
+        try {
+            workbook = transformer.transformXLS(in, beans);
+        } finally {
+            in.close();
         }
-    }
-    
-    /**
-     * Searches recursively for all files under the given folder and wraps them into a {@link FileExportWrapper} object
-     * @param folder root node of the search process
-     * @param review to which these files correlate
-     * @param project to which these files correlate
-     * @return a list of all found and wrapped {@link FileExportWrapper} objects
-     */
-    private static ArrayList<FileExportWrapper> getAllWrappedFiles(Folder folder, String review, String project, ArrayList<CommentWrapper> comments) {
-        ArrayList<FileExportWrapper> files = new ArrayList<FileExportWrapper>();
-        
-        TreeSet<String> omittings = new TreeSet<String>(Arrays.asList(pm.getInternalProperty(PropertiesManager.INTERNAL_KEYS.EXPORT_OMITTINGS).split(
-                ",")));
-        LinkedList<File> tmpFiles = new LinkedList<File>();
-        for (File f : Arrays.asList(folder.getFileArray())) {
-            if (!omittings.contains(f.getName())) {
-                tmpFiles.add(f);
-                collectComments(comments, review, project, f);
+        if (previous != null) {
+            progress.subTask("Merging into " + previous.getName() + "...");
+            in = new BufferedInputStream(new FileInputStream(previous));
+            try {
+                Workbook merged = WorkbookFactory.create(in);
+                new WorkbookMerger(comments).merge(merged, workbook);
+                workbook = merged;
+            } finally {
+                in.close();
             }
         }
+        progress.worked(30);
         
-        files.addAll(convertFilesToWrappedFiles(tmpFiles, review, project));
-        for (Folder f : folder.getFolderArray()) {
-            files.addAll(getAllWrappedFiles(f, review, project, comments));
-        }
-        
-        return files;
-    }
-    
-    /**
-     * Searches recursively for all files under the given file and wraps them into a {@link FileExportWrapper} object
-     * @param file root node of the search process
-     * @param project to which these files correlate
-     * @return a list of all found and wrapped {@link FileExportWrapper} objects
-     */
-    private static ArrayList<FileExportWrapper> getAllWrappedFiles(java.io.File file, String project) {
-        ArrayList<FileExportWrapper> files = new ArrayList<FileExportWrapper>();
-        
-        final TreeSet<String> omittings = new TreeSet<String>(Arrays.asList(pm.getInternalProperty(PropertiesManager.INTERNAL_KEYS.EXPORT_OMITTINGS)
-                .split(",")));
-        java.io.File[] fs = file.listFiles(new FilenameFilter() {
-            @Override
-            public boolean accept(java.io.File arg0, String arg1) {
-                if (omittings.contains(arg1)) {
-                    return false;
-                } else {
-                    return true;
-                }
+        ReviewDataWalker.checkCanceled(progress);
+        progress.subTask("Writing export sheet...");
+        File target = new File(outputPath + "agilereview_export_" + df.format(Calendar.getInstance().getTime()) + filetype);
+        TemporaryExportFile file = new TemporaryExportFile(target);
+        try {
+            OutputStream out = new BufferedOutputStream(new FileOutputStream(file.getFile()));
+            try {
+                workbook.write(out);
+            } finally {
+                out.close();
             }
-        });
-        
-        for (java.io.File f : fs) {
-            if (f.isFile()) {
-                files.add(new FileExportWrapper(f, project));
-            } else if (f.isDirectory()) {
-                files.addAll(getAllWrappedFiles(f, project));
+            file.commit();
+            walker.saveHighWaterMarks();
+            if (!walkIncremental || previous != null) {
+                PropertiesManager.setLatestCompleteExport(channel, target.getAbsolutePath());
             }
+        } finally {
+            file.discard();
         }
-        
-        return files;
+        progress.worked(10);
     }
     
     /**
-     * Converts a given list of files in a given review and project to the respective {@link FileExportWrapper} representation
-     * @param input files which should be wrapped
-     * @param review in which the given files are in
-     * @param project under which the given files are lying
-     * @return a list of all wrapped {@link FileExportWrapper}
+     * Returns the latest complete export of the given channel, if it still exists
+     * @param channel export channel
+     * @return the latest complete export or null, if there is none
      */
-    private static ArrayList<FileExportWrapper> convertFilesToWrappedFiles(List<File> input, String review, String project) {
-        ArrayList<FileExportWrapper> files = new ArrayList<FileExportWrapper>();
-        
-        for (File f : input) {
-            files.add(new FileExportWrapper(f, review, project));
-        }
-        
-        return files;
+    private File getLatestCompleteExport(String channel) {
+        String path = PropertiesManager.getLatestCompleteExport(channel);
+        if (path.isEmpty()) { return null; }
+        File latest = new File(path);
+        return latest.isFile() ? latest : null;
     }
 }
\ No newline at end of file
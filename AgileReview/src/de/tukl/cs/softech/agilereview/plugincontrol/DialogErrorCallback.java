@@ -0,0 +1,36 @@
+package de.tukl.cs.softech.agilereview.plugincontrol;
+
+import org.eclipse.jface.dialogs.MessageDialog;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.ui.PlatformUI;
+
+import de.tukl.cs.softech.agilereview.core.IErrorCallback;
+import de.tukl.cs.softech.agilereview.tools.PluginLogger;
+
+/**
+ * Shows the errors reported by the data layer in error dialogs. The dialog is opened directly when called from the UI thread, otherwise it
+ * is scheduled asynchronously, such that the reporting thread never waits for the UI thread while holding workspace locks. Without a running
+ * workbench (e.g. in headless applications) the errors are written to the log.
+ */
+public class DialogErrorCallback implements IErrorCallback {
+    
+    /*
+     * (non-Javadoc)
+     * @see de.tukl.cs.softech.agilereview.core.IErrorCallback#reportError(java.lang.String, java.lang.String)
+     */
+    @Override
+    public void reportError(final String title, final String message) {
+        if (!PlatformUI.isWorkbenchRunning()) {
+            PluginLogger.logError(this.getClass().toString(), "reportError", title + ": " + message);
+        } else if (Display.getCurrent() != null) {
+            MessageDialog.openError(Display.getCurrent().getActiveShell(), title, message);
+        } else {
+            Display.getDefault().asyncExec(new Runnable() {
+                @Override
+                public void run() {
+                    MessageDialog.openError(Display.getDefault().getActiveShell(), title, message);
+                }
+            });
+        }
+    }
+}
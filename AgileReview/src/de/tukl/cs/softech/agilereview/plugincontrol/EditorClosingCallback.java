@@ -0,0 +1,53 @@
+package de.tukl.cs.softech.agilereview.plugincontrol;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.ui.IEditorPart;
+import org.eclipse.ui.IEditorReference;
+import org.eclipse.ui.IWorkbenchPage;
+import org.eclipse.ui.PlatformUI;
+import org.eclipse.ui.ide.ResourceUtil;
+
+import de.tukl.cs.softech.agilereview.core.IDeletionCallback;
+
+/**
+ * Closes all editors which display a file that is about to be deleted by the data layer. Without a running workbench (e.g. in headless
+ * applications) there are no editors to be closed.
+ */
+public class EditorClosingCallback implements IDeletionCallback {
+    
+    /*
+     * (non-Javadoc)
+     * @see de.tukl.cs.softech.agilereview.core.IDeletionCallback#aboutToDelete(java.lang.String)
+     */
+    @Override
+    public void aboutToDelete(String fullPath) {
+        if (!PlatformUI.isWorkbenchRunning()) { return; }
+        final IPath path = new Path(fullPath);
+        Runnable closeEditors = new Runnable() {
+            @Override
+            public void run() {
+                if (!PlatformUI.isWorkbenchRunning() || PlatformUI.getWorkbench().getActiveWorkbenchWindow() == null) { return; }
+                IWorkbenchPage page = PlatformUI.getWorkbench().getActiveWorkbenchWindow().getActivePage();
+                if (page == null) { return; }
+                for (IEditorReference ref : page.getEditorReferences()) {
+                    IEditorPart editor = ref.getEditor(false);
+                    if (editor == null) {
+                        continue;
+                    }
+                    IFile file = ResourceUtil.getFile(editor.getEditorInput());
+                    if (file != null && path.isPrefixOf(file.getFullPath())) {
+                        page.closeEditor(editor, false);
+                    }
+                }
+            }
+        };
+        if (Display.getCurrent() != null) {
+            closeEditors.run();
+        } else {
+            Display.getDefault().syncExec(closeEditors);
+        }
+    }
+}
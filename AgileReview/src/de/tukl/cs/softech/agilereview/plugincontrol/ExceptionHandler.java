@@ -40,6 +40,8 @@ public class ExceptionHandler {
      * Handles {@link NoReviewSourceFolderException} for Eclipse startup
      */
     public static void handleNoReviewSourceFolderExceptionOnStartUp() {
+        // headless applications cannot ask the user
+        if (!PlatformUI.isWorkbenchRunning()) { return; }
         if (!PropertiesManager.getPreferences().getBoolean(PropertiesManager.EXTERNAL_KEYS.DO_NOT_ASK_FOR_REVIEW_FOLDER)) {
             MessageDialogWithToggle md = MessageDialogWithToggle.openYesNoQuestion(Display.getDefault().getActiveShell(), title, message,
                     "Do not ask again. (Except when I explicitly try to use AgileReview functionality)", PropertiesManager.getPreferences()
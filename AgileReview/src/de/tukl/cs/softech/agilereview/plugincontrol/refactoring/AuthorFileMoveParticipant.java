@@ -28,7 +28,9 @@ import org.eclipse.ltk.core.refactoring.participants.MoveArguments;
 import org.eclipse.ltk.core.refactoring.participants.MoveParticipant;
 import org.eclipse.ltk.core.refactoring.participants.RefactoringArguments;
 
-import de.tukl.cs.softech.agilereview.dataaccess.RefactoringAccess;
+import de.tukl.cs.softech.agilereview.core.dataaccess.PathRewrite;
+import de.tukl.cs.softech.agilereview.core.dataaccess.RefactoringAccess;
+import de.tukl.cs.softech.agilereview.dataaccess.ReviewAccess;
 import de.tukl.cs.softech.agilereview.tools.PluginLogger;
 
 /**
@@ -78,7 +80,7 @@ public class AuthorFileMoveParticipant extends MoveParticipant implements IShara
     
     @Override
     protected boolean initialize(Object element) {
-        ra = new RefactoringAccess();
+        ra = new RefactoringAccess(ReviewAccess.getInstance().getCurrentSourceFolder());
         addRefactoringIssue(element, getArguments());
         
         if (!ra.getFailedFiles().isEmpty()) {
@@ -282,6 +284,10 @@ public class AuthorFileMoveParticipant extends MoveParticipant implements IShara
         //no changes to be done if there was an error during initialization
         if (errorWhileInitialization != 0) { return null; }
         
-        return RefactoringKit.createChange(affectedFiles, prevDocs, postDocs, this);
+        ArrayList<PathRewrite> rewrites = new ArrayList<PathRewrite>();
+        for (int i = 0; i < oldPath.size(); i++) {
+            rewrites.add(new PathRewrite(oldPath.get(i), newPath.get(i), type.get(i), moveSubfolders.get(i)));
+        }
+        return RefactoringKit.createChange(affectedFiles, prevDocs, postDocs, this, rewrites);
     }
 }
\ No newline at end of file
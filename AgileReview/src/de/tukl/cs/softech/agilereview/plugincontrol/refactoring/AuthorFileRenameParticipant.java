@@ -1,6 +1,7 @@
 package de.tukl.cs.softech.agilereview.plugincontrol.refactoring;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
@@ -27,7 +28,9 @@ import org.eclipse.ltk.core.refactoring.participants.RefactoringArguments;
 import org.eclipse.ltk.core.refactoring.participants.RenameArguments;
 import org.eclipse.ltk.core.refactoring.participants.RenameParticipant;
 
-import de.tukl.cs.softech.agilereview.dataaccess.RefactoringAccess;
+import de.tukl.cs.softech.agilereview.core.dataaccess.PathRewrite;
+import de.tukl.cs.softech.agilereview.core.dataaccess.RefactoringAccess;
+import de.tukl.cs.softech.agilereview.dataaccess.ReviewAccess;
 import de.tukl.cs.softech.agilereview.tools.PluginLogger;
 
 /**
@@ -81,7 +84,7 @@ public class AuthorFileRenameParticipant extends RenameParticipant implements IS
     
     @Override
     protected boolean initialize(Object element) {
-        ra = new RefactoringAccess();
+        ra = new RefactoringAccess(ReviewAccess.getInstance().getCurrentSourceFolder());
         addRefactoringIssue(element, getArguments());
         
         if (!ra.getFailedFiles().isEmpty()) {
@@ -267,6 +270,8 @@ public class AuthorFileRenameParticipant extends RenameParticipant implements IS
         //no changes to be done if there was an error during initialization
         if (errorWhileInitialization != 0) { return null; }
         
-        return RefactoringKit.createChange(affectedFiles, prevDocs, postDocs, this);
+        ArrayList<PathRewrite> rewrites = new ArrayList<PathRewrite>();
+        rewrites.add(new PathRewrite(oldPath, newPath, type, renameSubpackages));
+        return RefactoringKit.createChange(affectedFiles, prevDocs, postDocs, this, rewrites);
     }
 }
\ No newline at end of file
@@ -1,10 +1,16 @@
 package de.tukl.cs.softech.agilereview.plugincontrol.refactoring;
 
+import java.util.Collection;
+import java.util.HashSet;
+
 import org.eclipse.core.commands.ExecutionEvent;
 import org.eclipse.core.commands.ExecutionException;
 import org.eclipse.core.commands.IExecutionListener;
 import org.eclipse.core.commands.NotHandledException;
 
+import agileReview.softech.tukl.de.CommentDocument.Comment;
+import de.tukl.cs.softech.agilereview.core.dataaccess.PathRewrite;
+import de.tukl.cs.softech.agilereview.core.dataaccess.RefactoringAccess;
 import de.tukl.cs.softech.agilereview.dataaccess.ReviewAccess;
 import de.tukl.cs.softech.agilereview.plugincontrol.ExceptionHandler;
 import de.tukl.cs.softech.agilereview.plugincontrol.exceptions.NoReviewSourceFolderException;
@@ -30,7 +36,10 @@ public class ExecutionListener implements IExecutionListener {
         if (commandId.equals("org.eclipse.jdt.ui.edit.text.java.move.element")
                 || commandId.equals("org.eclipse.ltk.ui.refactoring.commands.renameResource") || commandId.equals("org.eclipse.ui.edit.rename")
                 || commandId.equals("org.eclipse.jdt.ui.edit.text.java.rename.element")) {
-            if (ViewControl.isOpen(CommentTableView.class)) {
+            // the changes might have been performed partially, so the model has to be reloaded completely
+            if (!RefactoringAccess.pollPerformedRewrites().isEmpty()) {
+                reloadModel();
+            } else if (ViewControl.isOpen(CommentTableView.class)) {
                 CommentTableView.getInstance().resetEditorReferences();
             }
         }
@@ -51,40 +60,95 @@ public class ExecutionListener implements IExecutionListener {
                 || commandId.equals("org.eclipse.ltk.ui.refactoring.commands.renameResource") || commandId.equals("org.eclipse.ui.edit.rename")
                 || commandId.equals("org.eclipse.jdt.ui.edit.text.java.rename.element")) {
             
-            // Refill the database
-            ReviewAccess ra = ReviewAccess.getInstance();
-            try {
-                ra.fillDatabaseForOpenReviews();
-                
-                // Test if active review may have vanished
-                String activeReview = PropertiesManager.getPreferences().getString(PropertiesManager.EXTERNAL_KEYS.ACTIVE_REVIEW);
-                if (!ra.reviewExists(activeReview) && !ra.isReviewLoaded(activeReview)) {
-                    // Active review has vanished --> deactivate it
-                    PropertiesManager.getPreferences().setToDefault(PropertiesManager.EXTERNAL_KEYS.ACTIVE_REVIEW);
-                }
-                
-                if (ViewControl.isOpen(DetailView.class)) {
-                    DetailView.getInstance().clearView();
-                }
-                if (ViewControl.isOpen(ReviewExplorer.class)) {
-                    ReviewExplorer.getInstance().refreshInput();
-                }
+            Collection<PathRewrite> rewrites = RefactoringAccess.pollPerformedRewrites();
+            if (rewrites.isEmpty()) {
+                // no comment has been touched by the refactoring
                 if (ViewControl.isOpen(CommentTableView.class)) {
-                    CommentTableView.getInstance().resetComments();
                     CommentTableView.getInstance().resetEditorReferences();
                 }
-            } catch (NoReviewSourceFolderException e) {
-                ExceptionHandler.handleNoReviewSourceFolderExceptionOnStartUp();
+                return;
+            }
+            
+            try {
+                patchModel(rewrites);
+            } catch (RuntimeException e) {
+                PluginLogger.logError(this.getClass().toString(), "postExecuteSuccess",
+                        "Patching the model after a refactoring failed. Falling back to a full reload.", e);
+                reloadModel();
             }
         }
     }
     
+    /**
+     * Applies the given path rewrites to the loaded model and refreshes only the affected parts of the views
+     * @param rewrites path rewrites performed by the refactoring
+     */
+    private void patchModel(Collection<PathRewrite> rewrites) {
+        Collection<Comment> relocated = ReviewAccess.getInstance().applyPathRewrites(rewrites);
+        HashSet<String> affectedReviews = new HashSet<String>();
+        for (Comment c : relocated) {
+            affectedReviews.add(c.getReviewID());
+        }
+        
+        if (ViewControl.isOpen(DetailView.class) && !relocated.isEmpty()) {
+            DetailView.getInstance().clearView();
+        }
+        if (ViewControl.isOpen(ReviewExplorer.class) && !affectedReviews.isEmpty()) {
+            ReviewExplorer.getInstance().refreshReviews(affectedReviews);
+        }
+        if (ViewControl.isOpen(CommentTableView.class)) {
+            if (!relocated.isEmpty()) {
+                CommentTableView.getInstance().replaceComments(relocated);
+            }
+            CommentTableView.getInstance().resetEditorReferences();
+        }
+    }
+    
+    /**
+     * Reloads the complete model from disk and resets all views
+     */
+    private void reloadModel() {
+        // Refill the database
+        ReviewAccess ra = ReviewAccess.getInstance();
+        if (ViewControl.isOpen(DetailView.class)) {
+            DetailView.getInstance().flushContent();
+        }
+        try {
+            ra.fillDatabaseForOpenReviews();
+            
+            // Test if active review may have vanished
+            String activeReview = PropertiesManager.getPreferences().getString(PropertiesManager.EXTERNAL_KEYS.ACTIVE_REVIEW);
+            if (!ra.reviewExists(activeReview) && !ra.isReviewLoaded(activeReview)) {
+                // Active review has vanished --> deactivate it
+                PropertiesManager.getPreferences().setToDefault(PropertiesManager.EXTERNAL_KEYS.ACTIVE_REVIEW);
+            }
+            
+            if (ViewControl.isOpen(DetailView.class)) {
+                DetailView.getInstance().clearView();
+            }
+            if (ViewControl.isOpen(ReviewExplorer.class)) {
+                ReviewExplorer.getInstance().refreshInput();
+            }
+            if (ViewControl.isOpen(CommentTableView.class)) {
+                CommentTableView.getInstance().resetComments();
+                CommentTableView.getInstance().resetEditorReferences();
+            }
+        } catch (NoReviewSourceFolderException e) {
+            ExceptionHandler.handleNoReviewSourceFolderExceptionOnStartUp();
+        }
+    }
+    
     @Override
     public void preExecute(String commandId, ExecutionEvent event) {
         PluginLogger.log(this.getClass().toString(), "preExecute", commandId);
         if (commandId.equals("org.eclipse.jdt.ui.edit.text.java.move.element")
                 || commandId.equals("org.eclipse.ltk.ui.refactoring.commands.renameResource") || commandId.equals("org.eclipse.ui.edit.rename")
                 || commandId.equals("org.eclipse.jdt.ui.edit.text.java.rename.element")) {
+            RefactoringAccess.clearPerformedRewrites();
+            // the refactoring might relocate the displayed comment, so its pending modifications are saved beforehand
+            if (ViewControl.isOpen(DetailView.class)) {
+                DetailView.getInstance().flushContent();
+            }
             if (ViewControl.isOpen(CommentTableView.class)) {
                 CommentTableView.getInstance().cleanEditorReferences();
             }
@@ -0,0 +1,50 @@
+package de.tukl.cs.softech.agilereview.plugincontrol.refactoring;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.ltk.core.refactoring.Change;
+import org.eclipse.ltk.core.refactoring.CompositeChange;
+
+import de.tukl.cs.softech.agilereview.core.dataaccess.PathRewrite;
+import de.tukl.cs.softech.agilereview.core.dataaccess.RefactoringAccess;
+
+/**
+ * {@link CompositeChange} of all comment file changes of one refactoring participant. After performing the changes, the underlying path
+ * rewrites and the written files are registered at the {@link RefactoringAccess} such that the loaded review model can be patched instead of
+ * being reloaded.
+ */
+class PathRewriteChange extends CompositeChange {
+    
+    /**
+     * Path rewrites which are performed by this change
+     */
+    private final Collection<PathRewrite> rewrites;
+    
+    /**
+     * Creates a new change for the given path rewrites
+     * @param name human readable name of this change
+     * @param rewrites path rewrites which are performed by this change
+     */
+    PathRewriteChange(String name, Collection<PathRewrite> rewrites) {
+        super(name);
+        this.rewrites = rewrites;
+    }
+    
+    @Override
+    public Change perform(IProgressMonitor pm) throws CoreException {
+        Change undo = super.perform(pm);
+        ArrayList<IFile> files = new ArrayList<IFile>();
+        for (Change c : getChildren()) {
+            if (c.getModifiedElement() instanceof IFile) {
+                files.add((IFile) c.getModifiedElement());
+            }
+        }
+        RefactoringAccess.addExpectedChanges(files);
+        RefactoringAccess.addPerformedRewrites(rewrites);
+        return undo;
+    }
+}
@@ -23,6 +23,7 @@ import org.eclipse.text.edits.MultiTextEdit;
 import org.eclipse.text.edits.ReplaceEdit;
 
 import de.tukl.cs.softech.agilereview.Activator;
+import de.tukl.cs.softech.agilereview.core.dataaccess.PathRewrite;
 import de.tukl.cs.softech.agilereview.plugincontrol.refactoring.ComputeDiff.Diff;
 
 /**
@@ -70,12 +71,13 @@ public class RefactoringKit {
      * @param postDocs contents of the files after the refactoring simulation
      * @param participant the reference of the refactoring participant which calls this function in order to get possible changes for each file which
      *            could be done by other participants beforehand
+     * @param rewrites path rewrites the simulation was based on, which will be registered after the change has been performed
      * @return a {@link CompositeChange} which comprises all changes
      */
     static Change createChange(Collection<IFile> affectedFiles, Map<IFile, String> prevDocs, Map<IFile, String> postDocs,
-            RefactoringParticipant participant) {
+            RefactoringParticipant participant, Collection<PathRewrite> rewrites) {
         
-        CompositeChange result = new CompositeChange("Refactoring of all affected comment paths");
+        CompositeChange result = new PathRewriteChange("Refactoring of all affected comment paths", rewrites);
         ComputeDiff diffProcessor = new ComputeDiff();
         
         for (IFile f : affectedFiles) {
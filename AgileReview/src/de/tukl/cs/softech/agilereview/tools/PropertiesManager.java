@@ -2,6 +2,8 @@ package de.tukl.cs.softech.agilereview.tools;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -10,6 +12,7 @@ import java.util.regex.Pattern;
 
 import org.eclipse.jface.dialogs.IInputValidator;
 import org.eclipse.jface.preference.IPreferenceStore;
+import org.eclipse.jface.resource.ImageRegistry;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
 
@@ -218,6 +221,17 @@ public class PropertiesManager implements IInputValidator {
 		 * The default export location
 		 */
 		public static String EXPORT_PATH = "exportPath";
+		/**
+		 * Prefix of the keys storing the latest change of each review which
+		 * has already been exported (followed by the encoded export channel
+		 * and the review id)
+		 */
+		public static String EXPORT_HIGH_WATER_MARK = "exportHighWaterMark.";
+		/**
+		 * Prefix of the keys storing the path of the latest complete export of
+		 * an export channel (followed by the encoded export channel)
+		 */
+		public static String EXPORT_LATEST_COMPLETE = "exportLatestComplete.";
 		/**
 		 * States whether the AgileReview Perspective should automatically be
 		 * opened on certain events
@@ -608,7 +622,85 @@ public class PropertiesManager implements IInputValidator {
 	}
 
 	/**
-	 * Returns an image representing the icon of the key
+	 * Returns the time of the latest change of the given review, which has
+	 * already been exported through the given export channel. An export
+	 * channel identifies the format and the output location of an export, as
+	 * an incremental export is only complete together with the previous
+	 * exports of the same channel.
+	 *
+	 * @param channel
+	 *            export channel, i.e. format and output location
+	 * @param reviewId
+	 *            id of the review
+	 * @return the time in milliseconds or 0, if the review has never been
+	 *         exported through this channel
+	 */
+	public static long getExportHighWaterMark(String channel, String reviewId) {
+		return getPreferences().getLong(EXTERNAL_KEYS.EXPORT_HIGH_WATER_MARK + encodeKey(channel) + "." + reviewId);
+	}
+
+	/**
+	 * Sets the time of the latest change of the given review, which has been
+	 * exported through the given export channel
+	 *
+	 * @param channel
+	 *            export channel, i.e. format and output location
+	 * @param reviewId
+	 *            id of the review
+	 * @param time
+	 *            time in milliseconds
+	 */
+	public static void setExportHighWaterMark(String channel, String reviewId, long time) {
+		getPreferences().setValue(EXTERNAL_KEYS.EXPORT_HIGH_WATER_MARK + encodeKey(channel) + "." + reviewId, time);
+	}
+
+	/**
+	 * Returns the path of the latest export of the given channel, which
+	 * contains all data exported through this channel (i.e. a full export or
+	 * an incremental export merged into a previous one)
+	 *
+	 * @param channel
+	 *            export channel, i.e. format and output location
+	 * @return the path of the export or the empty string, if there is none
+	 */
+	public static String getLatestCompleteExport(String channel) {
+		return getPreferences().getString(EXTERNAL_KEYS.EXPORT_LATEST_COMPLETE + encodeKey(channel));
+	}
+
+	/**
+	 * Sets the path of the latest export of the given channel, which contains
+	 * all data exported through this channel
+	 *
+	 * @param channel
+	 *            export channel, i.e. format and output location
+	 * @param path
+	 *            path of the export
+	 */
+	public static void setLatestCompleteExport(String channel, String path) {
+		getPreferences().setValue(EXTERNAL_KEYS.EXPORT_LATEST_COMPLETE + encodeKey(channel), path);
+	}
+
+	/**
+	 * Encodes the given text, such that it can be used within a preference
+	 * key (which must not contain path separators)
+	 *
+	 * @param text
+	 *            text to be encoded
+	 * @return the encoded text
+	 */
+	private static String encodeKey(String text) {
+		try {
+			return URLEncoder.encode(text, "UTF-8");
+		} catch (UnsupportedEncodingException e) {
+			// Not likely on modern system.
+			throw new Error("This system does not support UTF-8.", e);
+		}
+	}
+
+	/**
+	 * Returns an image representing the icon of the key. The image is shared
+	 * by the image registry of the plug-in and must not be disposed by the
+	 * caller.
 	 *
 	 * @param key
 	 *            a static field of
@@ -617,6 +709,11 @@ public class PropertiesManager implements IInputValidator {
 	 *         there no image could be loaded
 	 */
 	public Image getIcon(String key) {
-		return AbstractUIPlugin.imageDescriptorFromPlugin(Activator.PLUGIN_ID, getInternalProperty(key)).createImage();
+		String path = getInternalProperty(key);
+		ImageRegistry registry = Activator.getDefault().getImageRegistry();
+		if (registry.getDescriptor(path) == null) {
+			registry.put(path, AbstractUIPlugin.imageDescriptorFromPlugin(Activator.PLUGIN_ID, path));
+		}
+		return registry.get(path);
 	}
 }
\ No newline at end of file
@@ -70,6 +70,14 @@ public class ViewControl implements ISelectionChangedListener, IPartListener2, I
      * Instance of ViewControl in order to add all listeners
      */
     private static ViewControl instance = new ViewControl();
+    /**
+     * Job which coalesces all refresh requests
+     */
+    private static final ViewRefreshJob refreshJob = new ViewRefreshJob();
+    /**
+     * Delay in milliseconds after which it will be checked again whether the active page has been created
+     */
+    private static final int ACTIVE_PAGE_RETRY_DELAY = 100;
     
     /**
      * Singleton Pattern
@@ -86,12 +94,10 @@ public class ViewControl implements ISelectionChangedListener, IPartListener2, I
         Display.getDefault().asyncExec(new Runnable() {
             @Override
             public void run() {
-                //wait until the active page is created, then register all listeners
-                while (PlatformUI.getWorkbench() == null) {
-                }
-                while (PlatformUI.getWorkbench().getActiveWorkbenchWindow() == null) {
-                }
-                while (PlatformUI.getWorkbench().getActiveWorkbenchWindow().getActivePage() == null) {
+                //wait until the active page is created (without blocking the UI thread), then register all listeners
+                if (getActivePage() == null) {
+                    Display.getDefault().timerExec(ACTIVE_PAGE_RETRY_DELAY, this);
+                    return;
                 }
                 PlatformUI.getWorkbench().getActiveWorkbenchWindow().getActivePage().addPartListener(ViewControl.this);
                 // PlatformUI.getWorkbench().getActiveWorkbenchWindow().getActivePage().addSelectionListener(ViewControl.this);
@@ -116,6 +122,15 @@ public class ViewControl implements ISelectionChangedListener, IPartListener2, I
         });
     }
     
+    /**
+     * Returns the active page of the active workbench window. Has to be called within the UI thread.
+     * @return the active page or null if the workbench, its active window or the active page has not been created (yet)
+     */
+    private static IWorkbenchPage getActivePage() {
+        if (!PlatformUI.isWorkbenchRunning() || PlatformUI.getWorkbench().getActiveWorkbenchWindow() == null) { return null; }
+        return PlatformUI.getWorkbench().getActiveWorkbenchWindow().getActivePage();
+    }
+    
     /**
      * Registers a new {@link ViewPart} for the plugin
      * @param c Class of the {@link ViewPart} to register
@@ -174,17 +189,40 @@ public class ViewControl implements ISelectionChangedListener, IPartListener2, I
     /**
      * This function refreshes the views specified in the flags parameter. Therefore use the public fields delivered by this class and combine them
      * with the bitwise or operator.<br> If the parameter validateExplorerSelection is set to true, the ReviewExplorers selection will be validated.
-     * For example this is necessary when changing the open status of reviews.
+     * For example this is necessary when changing the open status of reviews.<br> The refresh is performed asynchronously in the UI thread after a
+     * short delay. All requests within this time window are merged, such that bursts of model changes result in one refresh per view.
      * @param flags views which should be refreshed
      * @param validateExplorerSelection if true, the ReviewExplorers selection will be validated
      * @param refreshInputs if true, data of ReviewExplorer and CommentTableView will be freshly loaded
      */
     public static void refreshViews(int flags, boolean validateExplorerSelection, boolean refreshInputs) {
+        refreshJob.request(flags, validateExplorerSelection, refreshInputs);
+    }
+    
+    /**
+     * Refreshes the views specified in the flags parameter synchronously, together with all pending refresh requests. This has to be called in
+     * the UI thread and should only be used if the caller accesses the refreshed views afterwards, e.g. for selecting an element within the
+     * reloaded CommentTableView.
+     * @param flags views which should be refreshed
+     * @param refreshInputs if true, data of ReviewExplorer and CommentTableView will be freshly loaded
+     */
+    public static void refreshViewsNow(int flags, boolean refreshInputs) {
+        refreshJob.request(flags, false, refreshInputs);
+        refreshJob.flush();
+    }
+    
+    /**
+     * Performs the merged refresh requests of the {@link ViewRefreshJob}
+     * @param flags views which should be refreshed
+     * @param inputFlags views whose data should be freshly loaded (ReviewExplorer and CommentTableView only)
+     * @param validateExplorerSelection if true, the ReviewExplorers selection will be validated
+     */
+    static void performRefresh(int flags, int inputFlags, boolean validateExplorerSelection) {
         if ((flags % 2 == 1) && isOpen(DetailView.class)) {
             DetailView.getInstance().refreshBackgroundColor();
         }
         if (((flags >> 1) % 2 == 1) && isOpen(CommentTableView.class)) {
-            if (refreshInputs) {
+            if (((inputFlags >> 1) % 2 == 1)) {
                 CommentTableView.getInstance().resetComments();
             } else {
                 CommentTableView.getInstance().refreshTable();
@@ -194,7 +232,7 @@ public class ViewControl implements ISelectionChangedListener, IPartListener2, I
             if (validateExplorerSelection) {
                 ReviewExplorer.getInstance().validateExplorerSelection();
             }
-            if (refreshInputs) {
+            if (((inputFlags >> 2) % 2 == 1)) {
                 ReviewExplorer.getInstance().refreshInput();
             } else {
                 ReviewExplorer.getInstance().refresh();
@@ -232,9 +270,9 @@ public class ViewControl implements ISelectionChangedListener, IPartListener2, I
             
             @Override
             public void run() {
-                while (PlatformUI.getWorkbench() == null) {
-                }
-                while (PlatformUI.getWorkbench().getActiveWorkbenchWindow() == null) {
+                if (!PlatformUI.isWorkbenchRunning() || PlatformUI.getWorkbench().getActiveWorkbenchWindow() == null) {
+                    PluginLogger.logWarning(ViewControl.class.toString(), "switchPerspective", "No active workbench window available");
+                    return;
                 }
                 try {
                     PlatformUI.getWorkbench().showPerspective("de.tukl.cs.softech.agilereview.view.AgileReviewPerspective",
@@ -255,11 +293,12 @@ public class ViewControl implements ISelectionChangedListener, IPartListener2, I
             
             @Override
             public void run() {
-                while (PlatformUI.getWorkbench().getActiveWorkbenchWindow() == null) {
-                }
-                while (PlatformUI.getWorkbench().getActiveWorkbenchWindow().getActivePage() == null) {
+                //wait until the active page is created (without blocking the UI thread)
+                IWorkbenchPage page = getActivePage();
+                if (page == null) {
+                    Display.getDefault().timerExec(ACTIVE_PAGE_RETRY_DELAY, this);
+                    return;
                 }
-                IWorkbenchPage page = PlatformUI.getWorkbench().getActiveWorkbenchWindow().getActivePage();
                 
                 if (views % 2 == 1) {
                     if (isOpen(DetailView.class)) {
@@ -0,0 +1,91 @@
+package de.tukl.cs.softech.agilereview.views;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.ui.progress.UIJob;
+
+import de.tukl.cs.softech.agilereview.tools.PluginLogger;
+
+/**
+ * Throttled job which coalesces the refresh requests of the {@link ViewControl}. All requests arriving within a short time window are merged, such
+ * that each view is refreshed at most once per window, and reloading the input of a view subsumes a simple refresh of it.
+ */
+class ViewRefreshJob extends UIJob {
+    
+    /**
+     * Time window in milliseconds within which refresh requests will be merged
+     */
+    private static final long REFRESH_DELAY = 50;
+    /**
+     * Views which should be refreshed (combination of the flags of the {@link ViewControl})
+     */
+    private int pendingFlags = 0;
+    /**
+     * Views whose input should be reloaded (combination of the flags of the {@link ViewControl})
+     */
+    private int inputFlags = 0;
+    /**
+     * Indicates whether the ReviewExplorers selection should be validated
+     */
+    private boolean validateExplorerSelection = false;
+    /**
+     * Indicates whether the job has already been scheduled for the pending requests
+     */
+    private boolean scheduled = false;
+    
+    /**
+     * Creates a new refresh job
+     */
+    ViewRefreshJob() {
+        super("Refreshing AgileReview views");
+        setSystem(true);
+    }
+    
+    /**
+     * Requests a refresh of the given views. The request will be merged with all other requests of the current time window.
+     * @param flags views which should be refreshed
+     * @param validateExplorerSelection if true, the ReviewExplorers selection will be validated
+     * @param refreshInputs if true, data of ReviewExplorer and CommentTableView will be freshly loaded
+     */
+    synchronized void request(int flags, boolean validateExplorerSelection, boolean refreshInputs) {
+        pendingFlags |= flags;
+        if (refreshInputs) {
+            inputFlags |= flags;
+        }
+        this.validateExplorerSelection |= validateExplorerSelection;
+        if (!scheduled) {
+            scheduled = true;
+            schedule(REFRESH_DELAY);
+        }
+    }
+    
+    @Override
+    public IStatus runInUIThread(IProgressMonitor monitor) {
+        flush();
+        return Status.OK_STATUS;
+    }
+    
+    /**
+     * Performs all pending requests immediately. This has to be called in the UI thread. A scheduled run of the job will find no pending
+     * requests afterwards, unless new ones arrive in the meantime.
+     */
+    void flush() {
+        int flags;
+        int inputs;
+        boolean validate;
+        synchronized (this) {
+            flags = pendingFlags;
+            inputs = inputFlags;
+            validate = validateExplorerSelection;
+            pendingFlags = 0;
+            inputFlags = 0;
+            validateExplorerSelection = false;
+            scheduled = false;
+        }
+        if (flags == 0) { return; }
+        
+        PluginLogger.log(this.getClass().toString(), "flush", "Refreshing views " + flags + " (reloading inputs of " + inputs + ")");
+        ViewControl.performRefresh(flags, inputs, validate);
+    }
+}
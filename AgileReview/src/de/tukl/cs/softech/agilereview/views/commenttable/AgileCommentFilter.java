@@ -1,16 +1,21 @@
 package de.tukl.cs.softech.agilereview.views.commenttable;
 
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 
 import org.eclipse.jface.viewers.Viewer;
 import org.eclipse.jface.viewers.ViewerFilter;
 
 import agileReview.softech.tukl.de.CommentDocument.Comment;
+import de.tukl.cs.softech.agilereview.core.dataaccess.CommentSearchIndex;
+import de.tukl.cs.softech.agilereview.core.dataaccess.CommentSearchIndex.Field;
 import de.tukl.cs.softech.agilereview.dataaccess.ReviewAccess;
 import de.tukl.cs.softech.agilereview.tools.PropertiesManager;
 
 /**
- * Filters comments by a given searchword (and a given category)
+ * Filters comments by a given searchword (and a given category). Textual fields are searched using the full-text index of the
+ * {@link ReviewAccess}. Like the other fields, they match if they contain the searchword (case insensitive).
  */
 public class AgileCommentFilter extends ViewerFilter {
     
@@ -22,6 +27,22 @@ public class AgileCommentFilter extends ViewerFilter {
      * Category to be searched ('ALL' or the category's name)
      */
     private final String restriction;
+    /**
+     * Keys of the comments matching the searchword in the indexed fields of the category (null if the searchword does not restrict the result)
+     */
+    private HashSet<String> indexMatches;
+    /**
+     * Indicates whether the indexMatches have to be computed before the next comment will be selected
+     */
+    private boolean outdated = true;
+    /**
+     * Indicates whether the indexMatches are fixed once computed, i.e. this filter is a snapshot created by {@link #snapshot()}
+     */
+    private boolean frozen = false;
+    /**
+     * Cache of status and priority names which have already been checked against the searchword
+     */
+    private final HashMap<String, Boolean> nameMatches = new HashMap<String, Boolean>();
     
     /**
      * Constructor of the filter, used to set initial restrictions on category
@@ -32,12 +53,109 @@ public class AgileCommentFilter extends ViewerFilter {
     }
     
     /**
-     * Append wildcards to search string
+     * Returns the category to be searched
+     * @return 'ALL' or the category's name
+     */
+    public String getRestriction() {
+        return restriction;
+    }
+    
+    /**
+     * Sets the searchword
      * @param s
      */
-    public void setSearchText(String s) {
-        // Search must be a substring of the existing value
-        this.searchString = ".*" + Pattern.quote(s) + ".*";
+    public synchronized void setSearchText(String s) {
+        this.searchString = s;
+        this.outdated = true;
+    }
+    
+    /* (non-Javadoc)
+     * @see org.eclipse.jface.viewers.ViewerFilter#filter(org.eclipse.jface.viewers.Viewer, java.lang.Object, java.lang.Object[])
+     */
+    @Override
+    public Object[] filter(Viewer viewer, Object parent, Object[] elements) {
+        // query the index only once per filter pass (the comments might have been changed since the last pass)
+        synchronized (this) {
+            outdated = !frozen;
+        }
+        return super.filter(viewer, parent, elements);
+    }
+    
+    /**
+     * Returns a copy of this filter with the current searchword, which can be applied by background jobs. The copy queries the full-text index
+     * on its first selection, i.e. within the thread applying it, and keeps these index matches afterwards. This is safe, as the index only
+     * holds extracted texts and synchronizes its accesses against concurrent changes of the model.
+     * @return a copy of this filter, whose index matches will not be updated once they have been computed
+     */
+    synchronized AgileCommentFilter snapshot() {
+        AgileCommentFilter result = new AgileCommentFilter(restriction);
+        result.searchString = searchString;
+        result.frozen = true;
+        return result;
+    }
+    
+    /**
+     * Queries the full-text index for the current searchword, if necessary
+     */
+    private synchronized void updateIndexMatches() {
+        if (!outdated) { return; }
+        outdated = false;
+        nameMatches.clear();
+        indexMatches = null;
+        if (searchString != null && searchString.length() > 0) {
+            indexMatches = ReviewAccess.getInstance().searchComments(searchString, getIndexedFields());
+        }
+    }
+    
+    /**
+     * Returns the indexed fields which belong to the category of this filter
+     * @return indexed fields to be searched
+     */
+    private ArrayList<Field> getIndexedFields() {
+        ArrayList<Field> fields = new ArrayList<Field>();
+        boolean all = restriction.equals("ALL");
+        if (all || restriction.equals("ReviewName") || restriction.equals("ReviewID")) {
+            fields.add(Field.REVIEW_ID);
+        }
+        if (all || restriction.equals("CommentID")) {
+            fields.add(Field.COMMENT_ID);
+        }
+        if (all || restriction.equals("Author")) {
+            fields.add(Field.AUTHOR);
+        }
+        if (all || restriction.equals("Recipient")) {
+            fields.add(Field.RECIPIENT);
+        }
+        if (all || restriction.equals("Description")) {
+            fields.add(Field.TEXT);
+        }
+        if (all || restriction.equals("Replies")) {
+            fields.add(Field.REPLIES);
+        }
+        if (all || restriction.equals("Location")) {
+            fields.add(Field.PATH);
+        }
+        if (all || restriction.equals("Date created")) {
+            fields.add(Field.CREATION_DATE);
+        }
+        if (all || restriction.equals("Date modified")) {
+            fields.add(Field.LAST_MODIFIED);
+        }
+        return fields;
+    }
+    
+    /**
+     * Checks whether the given status or priority name contains the searchword (case insensitive)
+     * @param name status or priority name
+     * @return <i>true</i> if the name contains the searchword, <i>false</i> otherwise
+     */
+    private synchronized boolean nameMatches(String name) {
+        Boolean result = nameMatches.get(name);
+        if (result == null) {
+            result = name.toLowerCase().contains(searchString.toLowerCase());
+            nameMatches.put(name, result);
+        }
+        return result;
     }
     
     /* (non-Javadoc)
@@ -45,66 +163,26 @@ public class AgileCommentFilter extends ViewerFilter {
      */
     @Override
     public boolean select(Viewer viewer, Object parentElement, Object element) {
-        boolean matches = false;
-        if (searchString == null || searchString.length() == 0) {
-            matches = true;
-        } else {
-            Comment c = (Comment) element;
-            // match in ReviewID and category ALL or ReviewID
-            if (c.getReviewID().matches(searchString) && (restriction.equals("ALL") || restriction.equals("ReviewID"))) {
-                matches = true;
-            }
-            // match in CommentID and category ALL or CommentID
-            if (c.getId().matches(searchString) && (restriction.equals("ALL") || restriction.equals("CommentID"))) {
-                matches = true;
-            }
-            // match in Author and category ALL or Author
-            if (c.getAuthor().matches(searchString) && (restriction.equals("ALL") || restriction.equals("Author"))) {
-                matches = true;
-            }
-            // match in Description and category ALL or Description
-            if (c.getText().matches(searchString) && (restriction.equals("ALL") || restriction.equals("Description"))) {
-                matches = true;
-            }
-            // match in Recipient and category ALL or Recipient
-            if (c.getRecipient().matches(searchString) && (restriction.equals("ALL") || restriction.equals("Recipient"))) {
-                matches = true;
-            }
-            // match in Status and category ALL or Status
-            if (PropertiesManager.getInstance().getCommentStatusByID(c.getStatus()).matches(searchString)
-                    && (restriction.equals("ALL") || restriction.equals("Status"))) {
-                matches = true;
-            }
-            // match in Priority and category ALL or Priority
-            if (PropertiesManager.getInstance().getCommentPriorityByID(c.getPriority()).matches(searchString)
-                    && (restriction.equals("ALL") || restriction.equals("Priority"))) {
-                matches = true;
-            }
-            // match in Revision and category ALL or Revision
-            if (String.valueOf(c.getRevision()).matches(searchString) && (restriction.equals("ALL") || restriction.equals("Revision"))) {
-                matches = true;
-            }
-            // match in CreationDate and category ALL or 'Date created'
-            if (c.getCreationDate().toString().matches(searchString) && (restriction.equals("ALL") || restriction.equals("Date created"))) {
-                matches = true;
-            }
-            // match in LastModified and category ALL or 'Date modified'
-            if (c.getLastModified().toString().matches(searchString) && (restriction.equals("ALL") || restriction.equals("Date modified"))) {
-                matches = true;
-            }
-            // match in # of replies and category ALL or Replies
-            if (String.valueOf(c.getReplies().getReplyArray().length).matches(searchString)
-                    && (restriction.equals("ALL") || restriction.equals("Replies"))) {
-                matches = true;
-            }
-            // match in Path and category ALL or Location
-            if (ReviewAccess.computePath(c).matches(searchString) && (restriction.equals("ALL") || restriction.equals("Location"))) {
-                matches = true;
-            }
-            
-        }
+        updateIndexMatches();
+        if (searchString == null || searchString.length() == 0) { return true; }
+        
+        Comment c = (Comment) element;
+        // match in indexed fields of the category
+        if (indexMatches == null || indexMatches.contains(CommentSearchIndex.getKey(c))) { return true; }
         
-        return matches;
+        // match in Status and category ALL or Status
+        if ((restriction.equals("ALL") || restriction.equals("Status"))
+                && nameMatches(PropertiesManager.getInstance().getCommentStatusByID(c.getStatus()))) { return true; }
+        // match in Priority and category ALL or Priority
+        if ((restriction.equals("ALL") || restriction.equals("Priority"))
+                && nameMatches(PropertiesManager.getInstance().getCommentPriorityByID(c.getPriority()))) { return true; }
+        // match in Revision and category ALL or Revision
+        if ((restriction.equals("ALL") || restriction.equals("Revision")) && String.valueOf(c.getRevision()).contains(searchString)) { return true; }
+        // match in # of replies and category ALL or Replies
+        if ((restriction.equals("ALL") || restriction.equals("Replies")) && c.getReplies() != null
+                && String.valueOf(c.getReplies().getReplyArray().length).contains(searchString)) { return true; }
+        
+        return false;
     }
-    
+
 }
@@ -3,6 +3,9 @@
  */
 package de.tukl.cs.softech.agilereview.views.commenttable;
 
+import java.util.Arrays;
+import java.util.Comparator;
+
 import org.eclipse.jface.viewers.Viewer;
 import org.eclipse.jface.viewers.ViewerComparator;
 
@@ -50,54 +53,100 @@ public class AgileViewerComparator extends ViewerComparator {
         }
     }
     
+    /**
+     * Returns a new comparator sorting by the current column and direction of this comparator. Later changes of this comparator do not
+     * affect the copy, so it can be used by background jobs.
+     * @return a copy of this comparator
+     */
+    public AgileViewerComparator copy() {
+        AgileViewerComparator result = new AgileViewerComparator();
+        result.propertyIndex = propertyIndex;
+        result.direction = direction;
+        return result;
+    }
+    
     /* (non-Javadoc)
      * @see org.eclipse.jface.viewers.ViewerComparator#compare(org.eclipse.jface.viewers.Viewer, java.lang.Object, java.lang.Object)
      */
     @Override
     public int compare(Viewer viewer, Object e1, Object e2) {
-        Comment c1 = (Comment) e1;
-        Comment c2 = (Comment) e2;
-        int rc = 0;
-        // a value < 0 is returned if c1<c2
-        // a value = 0 is returned if c1=c2
-        // a value > 0 is returned if c1>c2
+        return compareKeys(getSortKey((Comment) e1), getSortKey((Comment) e2));
+    }
+    
+    /**
+     * Sorts the given comments. The sort key of each comment is computed only once per sort (instead of once per comparison), as some keys like
+     * the path of a comment are expensive to compute.
+     * @see org.eclipse.jface.viewers.ViewerComparator#sort(org.eclipse.jface.viewers.Viewer, java.lang.Object[])
+     */
+    @Override
+    public void sort(Viewer viewer, Object[] elements) {
+        // decorate
+        SortEntry[] entries = new SortEntry[elements.length];
+        for (int i = 0; i < elements.length; i++) {
+            entries[i] = new SortEntry(getSortKey((Comment) elements[i]), elements[i]);
+        }
+        
+        // sort (stable)
+        Arrays.sort(entries, new Comparator<SortEntry>() {
+            @Override
+            public int compare(SortEntry s1, SortEntry s2) {
+                return compareKeys(s1.key, s2.key);
+            }
+        });
+        
+        // undecorate
+        for (int i = 0; i < entries.length; i++) {
+            elements[i] = entries[i].element;
+        }
+    }
+    
+    /**
+     * Extracts the key of the given comment for the current sort column
+     * @param c comment
+     * @return the sort key of the comment or null if the comment has no value for the current sort column
+     */
+    private Comparable<?> getSortKey(Comment c) {
         switch (propertyIndex) {
         case 0:
-            rc = c1.getReviewID().compareTo(c2.getReviewID());
-            break;
+            return c.getReviewID();
         case 1:
-            rc = c1.getId().compareTo(c2.getId());
-            break;
+            return c.getId();
         case 2:
-            rc = c1.getAuthor().compareTo(c2.getAuthor());
-            break;
+            return c.getAuthor();
         case 3:
-            rc = c1.getRecipient().compareTo(c2.getRecipient());
-            break;
+            return c.getRecipient();
         case 4:
-            rc = c1.getStatus() == c2.getStatus() ? 0 : (c1.getStatus() < c2.getStatus() ? -1 : 1);
-            break;
+            return c.getStatus();
         case 5:
-            rc = c1.getPriority() == c2.getPriority() ? 0 : (c1.getPriority() < c2.getPriority() ? -1 : 1);
-            break;
+            return c.getPriority();
         case 6:
-            rc = c1.getRevision() == c2.getRevision() ? 0 : (c1.getRevision() < c2.getRevision() ? -1 : 1);
-            break;
+            return c.getRevision();
         case 7:
-            rc = c1.getCreationDate().compareTo(c2.getCreationDate());
-            break;
+            return c.getCreationDate() == null ? null : c.getCreationDate().getTimeInMillis();
         case 8:
-            rc = c1.getLastModified().compareTo(c2.getLastModified());
-            break;
+            return c.getLastModified() == null ? null : c.getLastModified().getTimeInMillis();
         case 9:
-            rc = c1.getReplies().getReplyArray().length == c2.getReplies().getReplyArray().length ? 0 : (c1.getReplies().getReplyArray().length < c2
-                    .getReplies().getReplyArray().length ? -1 : 1);
-            break;
+            return c.getReplies() == null ? 0 : c.getReplies().getReplyArray().length;
         case 10:
-            rc = ReviewAccess.computePath(c1).compareTo(ReviewAccess.computePath(c2));
-            break;
+            return ReviewAccess.getInstance().getCommentPath(c);
         default:
-            rc = 0;
+            return null;
+        }
+    }
+    
+    /**
+     * Compares two sort keys regarding the current sort direction. Null keys are treated as smallest keys.
+     * @param k1 first sort key
+     * @param k2 second sort key
+     * @return a value &lt; 0 if k1&lt;k2, 0 if k1=k2, and a value &gt; 0 if k1&gt;k2 (flipped for descending order)
+     */
+    @SuppressWarnings("unchecked")
+    private int compareKeys(Comparable<?> k1, Comparable<?> k2) {
+        int rc;
+        if (k1 == null || k2 == null) {
+            rc = k1 == k2 ? 0 : (k1 == null ? -1 : 1);
+        } else {
+            rc = ((Comparable<Object>) k1).compareTo(k2);
         }
         // If descending order, flip the direction
         if (direction == DESCENDING) {
@@ -106,4 +155,29 @@ public class AgileViewerComparator extends ViewerComparator {
         return rc;
     }
     
+    /**
+     * Pair of a comment and its precomputed sort key
+     */
+    private static class SortEntry {
+        
+        /**
+         * Precomputed sort key
+         */
+        private final Comparable<?> key;
+        /**
+         * The comment
+         */
+        private final Object element;
+        
+        /**
+         * Creates a new pair of a comment and its sort key
+         * @param key precomputed sort key
+         * @param element the comment
+         */
+        private SortEntry(Comparable<?> key, Object element) {
+            this.key = key;
+            this.element = element;
+        }
+    }
+    
 }
\ No newline at end of file
@@ -0,0 +1,151 @@
+package de.tukl.cs.softech.agilereview.views.commenttable;
+
+import java.util.ArrayList;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jface.viewers.ViewerComparator;
+import org.eclipse.jface.viewers.ViewerFilter;
+import org.eclipse.swt.widgets.Display;
+
+import de.tukl.cs.softech.agilereview.tools.PluginLogger;
+
+/**
+ * Job which filters the comments of the {@link CommentTableView} in the background. Requests are debounced, i.e. a new request cancels the
+ * pending one and only the result of the last request will be applied to the viewer.
+ */
+class CommentFilterJob extends Job {
+    
+    /**
+     * Delay in milliseconds before a filter request will be evaluated
+     */
+    private static final long FILTER_DELAY = 300;
+    /**
+     * Content provider whose filter should be replaced
+     */
+    private final CommentTableContentProvider contentProvider;
+    /**
+     * Number of the last filter request. Results of older requests will be discarded.
+     */
+    private volatile int lastRequest = 0;
+    /**
+     * Filter to be replaced by the current request
+     */
+    private ViewerFilter oldFilter;
+    /**
+     * Filter which replaces the old filter within the current request
+     */
+    private ViewerFilter newFilter;
+    /**
+     * Snapshot of the comments for the current request
+     */
+    private Object[] snapshot;
+    /**
+     * Filters to be applied to the snapshot within the current request
+     */
+    private ArrayList<ViewerFilter> filters;
+    /**
+     * Snapshot of the comparator for the current request
+     */
+    private ViewerComparator sorter;
+    /**
+     * Version of the content provider's index the snapshot was taken from
+     */
+    private int snapshotVersion;
+    /**
+     * Will be executed in the UI thread after the result of a request has been applied
+     */
+    private Runnable onApplied;
+    
+    /**
+     * Creates a new filter job for the given content provider
+     * @param contentProvider content provider whose filter should be replaced
+     */
+    CommentFilterJob(CommentTableContentProvider contentProvider) {
+        super("Filtering AgileReview comments");
+        this.contentProvider = contentProvider;
+        setSystem(true);
+        setPriority(Job.SHORT);
+    }
+    
+    /**
+     * Requests to replace the old filter by the new one. The filtering will be evaluated in the background after a short delay. Pending requests
+     * will be canceled. This method has to be called from the UI thread, as it takes the snapshots of the comments, the comparator and the
+     * searchwords of the filters. The full-text index is queried by the background job, such that typing is not slowed down by the lookups.
+     * @param oldFilter filter to be replaced
+     * @param newFilter new filter
+     * @param onApplied will be executed in the UI thread after the result has been applied to the viewer
+     */
+    synchronized void filter(ViewerFilter oldFilter, ViewerFilter newFilter, Runnable onApplied) {
+        cancel();
+        lastRequest++;
+        this.oldFilter = oldFilter;
+        this.newFilter = newFilter;
+        this.onApplied = onApplied;
+        this.snapshot = contentProvider.getCommentsSnapshot();
+        this.snapshotVersion = contentProvider.getVersion();
+        this.filters = contentProvider.getFilters();
+        int i = this.filters.indexOf(oldFilter);
+        if (i != -1) {
+            this.filters.set(i, newFilter);
+        }
+        for (int j = 0; j < this.filters.size(); j++) {
+            if (this.filters.get(j) instanceof AgileCommentFilter) {
+                this.filters.set(j, ((AgileCommentFilter) this.filters.get(j)).snapshot());
+            }
+        }
+        this.sorter = contentProvider.getComparatorSnapshot();
+        schedule(FILTER_DELAY);
+    }
+    
+    /**
+     * Discards all pending requests
+     */
+    synchronized void discard() {
+        cancel();
+        lastRequest++;
+    }
+    
+    @Override
+    protected IStatus run(IProgressMonitor monitor) {
+        final int request;
+        final ViewerFilter oldF;
+        final ViewerFilter newF;
+        final int version;
+        final Runnable callback;
+        Object[] elements;
+        ArrayList<ViewerFilter> currFilters;
+        ViewerComparator currSorter;
+        synchronized (this) {
+            request = lastRequest;
+            oldF = oldFilter;
+            newF = newFilter;
+            version = snapshotVersion;
+            callback = onApplied;
+            elements = snapshot;
+            currFilters = filters;
+            currSorter = sorter;
+        }
+        
+        final Object[] result = contentProvider.filterAndSort(elements, currFilters, currSorter, monitor);
+        if (result == null) { return Status.CANCEL_STATUS; }
+        
+        Display display = Display.getDefault();
+        if (!display.isDisposed()) {
+            display.asyncExec(new Runnable() {
+                @Override
+                public void run() {
+                    // only apply the result of the last request
+                    if (request != lastRequest) { return; }
+                    PluginLogger.log(CommentFilterJob.class.toString(), "run", "Applying filter result of " + result.length + " comments");
+                    if (contentProvider.replaceFilter(oldF, newF, result, version) && callback != null) {
+                        callback.run();
+                    }
+                }
+            });
+        }
+        return Status.OK_STATUS;
+    }
+}
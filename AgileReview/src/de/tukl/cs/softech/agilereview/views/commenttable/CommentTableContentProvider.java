@@ -0,0 +1,350 @@
+package de.tukl.cs.softech.agilereview.views.commenttable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jface.viewers.ILazyContentProvider;
+import org.eclipse.jface.viewers.IStructuredSelection;
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.jface.viewers.ViewerComparator;
+import org.eclipse.jface.viewers.ViewerFilter;
+
+import agileReview.softech.tukl.de.CommentDocument.Comment;
+import de.tukl.cs.softech.agilereview.dataaccess.ReviewAccess;
+import de.tukl.cs.softech.agilereview.tools.PluginLogger;
+
+/**
+ * Lazy content provider for the virtual table of the {@link CommentTableView}. As JFace does not support filters and sorters for lazy content
+ * providers, this provider maintains the filtered and sorted index of the comments itself. Only the rows which are visible will be materialized
+ * by the viewer.
+ */
+class CommentTableContentProvider implements ILazyContentProvider {
+    
+    /**
+     * The viewer this content provider is registered at
+     */
+    private final TableViewer viewer;
+    /**
+     * All comments (unfiltered, unsorted) of the current input
+     */
+    private List<Comment> comments = new ArrayList<Comment>();
+    /**
+     * Filters which will be applied to the input
+     */
+    private final ArrayList<ViewerFilter> filters = new ArrayList<ViewerFilter>();
+    /**
+     * Comparator which determines the order of the displayed comments
+     */
+    private ViewerComparator comparator;
+    /**
+     * Filtered and sorted comments, i.e. the rows of the table
+     */
+    private Object[] rows = new Object[0];
+    /**
+     * Row index of each displayed comment
+     */
+    private final HashMap<Object, Integer> rowIndex = new HashMap<Object, Integer>();
+    /**
+     * Set of all displayed comments, which is maintained together with the rows
+     */
+    private HashSet<Comment> filteredComments = new HashSet<Comment>();
+    /**
+     * Version of the index, which will be increased each time the index is rebuilt
+     */
+    private int version = 0;
+    
+    /**
+     * Creates a new lazy content provider for the given viewer
+     * @param viewer viewer this content provider will be registered at
+     */
+    CommentTableContentProvider(TableViewer viewer) {
+        this.viewer = viewer;
+    }
+    
+    @Override
+    public void updateElement(int index) {
+        if (index < rows.length) {
+            viewer.replace(rows[index], index);
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Override
+    public void inputChanged(Viewer viewer, Object oldInput, Object newInput) {
+        if (newInput instanceof List<?>) {
+            this.comments = (List<Comment>) newInput;
+        } else {
+            this.comments = new ArrayList<Comment>();
+        }
+        rebuildIndex();
+        this.viewer.setItemCount(rows.length);
+    }
+    
+    @Override
+    public void dispose() {
+        rows = new Object[0];
+        rowIndex.clear();
+        filteredComments = new HashSet<Comment>();
+    }
+    
+    /**
+     * Sets the comments to be displayed and refreshes the viewer
+     * @param comments all comments (unfiltered, unsorted)
+     */
+    void setComments(List<Comment> comments) {
+        this.comments = comments;
+        refresh();
+    }
+    
+    /**
+     * Adds the given filter and refreshes the viewer
+     * @param filter filter to be added
+     */
+    void addFilter(ViewerFilter filter) {
+        if (!filters.contains(filter)) {
+            filters.add(filter);
+        }
+        refresh();
+    }
+    
+    /**
+     * Removes the given filter and refreshes the viewer
+     * @param filter filter to be removed
+     */
+    void removeFilter(ViewerFilter filter) {
+        filters.remove(filter);
+        refresh();
+    }
+    
+    /**
+     * Sets the comparator which determines the order of the displayed comments. The viewer will not be refreshed.
+     * @param comparator comparator to be used for sorting
+     */
+    void setComparator(ViewerComparator comparator) {
+        this.comparator = comparator;
+    }
+    
+    /**
+     * Recomputes the filtered and sorted index and refreshes the viewer. Only the rows which are visible will be requested again by the viewer.
+     * The current selection is preserved as far as the selected comments are still displayed.
+     */
+    void refresh() {
+        Object[] selection = ((IStructuredSelection) viewer.getSelection()).toArray();
+        rebuildIndex();
+        updateViewer(selection);
+    }
+    
+    /**
+     * Replaces the given filter by the new one and displays the given rows, which have been computed by
+     * {@link #filterAndSort(Object[], List, ViewerComparator, IProgressMonitor)} for the index version given. If the index changed in the
+     * meantime, the index will be rebuilt instead.
+     * @param oldFilter filter to be replaced
+     * @param newFilter new filter
+     * @param filteredRows rows which were computed with the new filter
+     * @param computedVersion version of the index the rows were computed for
+     * @return <i>true</i> if the filter has been replaced, <i>false</i> if the old filter is no longer used by this content provider or the viewer
+     *         has been disposed
+     */
+    boolean replaceFilter(ViewerFilter oldFilter, ViewerFilter newFilter, Object[] filteredRows, int computedVersion) {
+        if (viewer.getControl().isDisposed()) { return false; }
+        int i = filters.indexOf(oldFilter);
+        if (i == -1) { return false; }
+        filters.set(i, newFilter);
+        
+        if (computedVersion != version) {
+            refresh();
+        } else {
+            Object[] selection = ((IStructuredSelection) viewer.getSelection()).toArray();
+            setRows(filteredRows);
+            version++;
+            updateViewer(selection);
+        }
+        return true;
+    }
+    
+    /**
+     * Updates the virtual table after the rows have been changed
+     * @param selection comments which were selected before and should be selected afterwards (if still displayed)
+     */
+    private void updateViewer(Object[] selection) {
+        ArrayList<Integer> selectedRows = new ArrayList<Integer>();
+        for (Object o : selection) {
+            Integer i = rowIndex.get(o);
+            if (i != null) {
+                selectedRows.add(i);
+            }
+        }
+        int[] indices = new int[selectedRows.size()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = selectedRows.get(i);
+        }
+        
+        viewer.getTable().setRedraw(false);
+        viewer.setItemCount(rows.length);
+        viewer.getTable().clearAll();
+        viewer.getTable().setSelection(indices);
+        viewer.getTable().setRedraw(true);
+    }
+    
+    /**
+     * Applies all filters and the comparator to the current comments
+     */
+    private void rebuildIndex() {
+        Object[] result = comments.toArray();
+        for (ViewerFilter filter : filters) {
+            result = filter.filter(viewer, (Object) null, result);
+        }
+        if (comparator != null) {
+            comparator.sort(viewer, result);
+        }
+        setRows(result);
+        version++;
+    }
+    
+    /**
+     * Sets the rows of the table and updates the row index
+     * @param result filtered and sorted comments
+     */
+    private void setRows(Object[] result) {
+        rows = result;
+        rowIndex.clear();
+        // the sets already handed out must not change, so create new ones
+        filteredComments = new HashSet<Comment>(rows.length * 2);
+        for (int i = 0; i < rows.length; i++) {
+            rowIndex.put(rows[i], i);
+            filteredComments.add((Comment) rows[i]);
+        }
+        PluginLogger.log(this.getClass().toString(), "setRows", rows.length + " of " + comments.size() + " comments displayed");
+    }
+    
+    /**
+     * Filters and sorts the given comments. This method does not change the state of this content provider and can therefore be called by
+     * background jobs (on a snapshot of the comments).
+     * @param elements comments to be filtered and sorted
+     * @param filters filters to be applied
+     * @param sorter comparator to be used for sorting (see {@link #getComparatorSnapshot()}) or null, if the result should not be sorted
+     * @param monitor progress monitor which will be checked for cancellation
+     * @return the filtered and sorted comments or null if the monitor has been canceled
+     */
+    Object[] filterAndSort(Object[] elements, List<ViewerFilter> filters, ViewerComparator sorter, IProgressMonitor monitor) {
+        Object[] result = elements;
+        for (ViewerFilter filter : filters) {
+            if (monitor.isCanceled()) { return null; }
+            result = filter.filter(viewer, (Object) null, result);
+        }
+        
+        if (monitor.isCanceled()) { return null; }
+        if (sorter != null) {
+            sorter.sort(viewer, result);
+        }
+        return result;
+    }
+    
+    /**
+     * Returns a copy of the current comparator, which is not affected by later sorting requests of the user
+     * @return a copy of the current comparator or null, if no comparator has been set
+     */
+    ViewerComparator getComparatorSnapshot() {
+        return comparator instanceof AgileViewerComparator ? ((AgileViewerComparator) comparator).copy() : comparator;
+    }
+    
+    /**
+     * Returns a snapshot of all comments (unfiltered, unsorted) of the current input
+     * @return all comments of the current input
+     */
+    Object[] getCommentsSnapshot() {
+        return comments.toArray();
+    }
+    
+    /**
+     * Returns a copy of the filters currently applied
+     * @return filters currently applied
+     */
+    ArrayList<ViewerFilter> getFilters() {
+        return new ArrayList<ViewerFilter>(filters);
+    }
+    
+    /**
+     * Returns the current version of the index
+     * @return version of the index
+     */
+    int getVersion() {
+        return version;
+    }
+    
+    /**
+     * Materializes the row of the given comment, such that it can be selected or revealed by the viewer without materializing all rows
+     * @param comment comment which should be materialized
+     * @return the row index of the comment or -1 if the comment is not displayed
+     */
+    int materialize(Object comment) {
+        Integer i = rowIndex.get(comment);
+        if (i == null) { return -1; }
+        updateElement(i);
+        return i;
+    }
+    
+    /**
+     * Returns the comment displayed in the given row
+     * @param index row index
+     * @return the comment of the given row
+     */
+    Comment getRow(int index) {
+        return (Comment) rows[index];
+    }
+    
+    /**
+     * Returns the row index of the given comment
+     * @param comment comment to search for
+     * @return the row index of the given comment or -1 if the comment is not displayed
+     */
+    int indexOf(Object comment) {
+        Integer i = rowIndex.get(comment);
+        return i == null ? -1 : i;
+    }
+    
+    /**
+     * Returns the number of displayed comments
+     * @return number of displayed comments
+     */
+    int getRowCount() {
+        return rows.length;
+    }
+    
+    /**
+     * Returns all comments which are currently displayed (filtered and sorted)
+     * @return all displayed comments
+     */
+    Object[] getRows() {
+        return rows;
+    }
+    
+    /**
+     * Returns the set of all comments which are currently displayed. The returned set is maintained together with the rows and must not be
+     * modified.
+     * @return all displayed comments
+     */
+    HashSet<Comment> getFilteredComments() {
+        return filteredComments;
+    }
+    
+    /**
+     * Returns all currently displayed comments which belong to the file with the given path. Only the comments of the file will be checked, as
+     * they are taken from the path projection of the {@link ReviewAccess}.
+     * @param path path of the file as computed by {@link ReviewAccess#computePath(org.apache.xmlbeans.XmlObject)}
+     * @return all displayed comments of the given file
+     */
+    HashSet<Comment> getFilteredComments(String path) {
+        HashSet<Comment> result = new HashSet<Comment>();
+        for (Comment c : ReviewAccess.getInstance().getFileComments(path)) {
+            if (filteredComments.contains(c)) {
+                result.add(c);
+            }
+        }
+        return result;
+    }
+}
@@ -3,9 +3,12 @@ package de.tukl.cs.softech.agilereview.views.commenttable;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.regex.Pattern;
 
 import org.eclipse.core.commands.Command;
 import org.eclipse.core.resources.IFile;
@@ -15,7 +18,6 @@ import org.eclipse.core.runtime.Path;
 import org.eclipse.jface.dialogs.MessageDialog;
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.Position;
-import org.eclipse.jface.viewers.ArrayContentProvider;
 import org.eclipse.jface.viewers.ColumnLabelProvider;
 import org.eclipse.jface.viewers.DoubleClickEvent;
 import org.eclipse.jface.viewers.IDoubleClickListener;
@@ -44,7 +46,6 @@ import org.eclipse.swt.widgets.Menu;
 import org.eclipse.swt.widgets.MenuItem;
 import org.eclipse.swt.widgets.Table;
 import org.eclipse.swt.widgets.TableColumn;
-import org.eclipse.swt.widgets.TableItem;
 import org.eclipse.swt.widgets.Text;
 import org.eclipse.swt.widgets.ToolBar;
 import org.eclipse.swt.widgets.ToolItem;
@@ -64,7 +65,7 @@ import de.tukl.cs.softech.agilereview.Activator;
 import de.tukl.cs.softech.agilereview.annotations.AnnotationParser;
 import de.tukl.cs.softech.agilereview.annotations.IAnnotationParser;
 import de.tukl.cs.softech.agilereview.annotations.ParserFactory;
-import de.tukl.cs.softech.agilereview.annotations.TagCleaner;
+import de.tukl.cs.softech.agilereview.core.annotations.TagCleaner;
 import de.tukl.cs.softech.agilereview.dataaccess.ReviewAccess;
 import de.tukl.cs.softech.agilereview.tools.PluginLogger;
 import de.tukl.cs.softech.agilereview.tools.PropertiesManager;
@@ -98,6 +99,10 @@ public class CommentTableView extends ViewPart implements IDoubleClickListener {
      * The view that displays the comments
      */
     private TableViewer viewer;
+    /**
+     * Lazy content provider of the viewer maintaining the filtered and sorted comments
+     */
+    private CommentTableContentProvider contentProvider;
     /**
      * Filter text field
      */
@@ -110,6 +115,10 @@ public class CommentTableView extends ViewPart implements IDoubleClickListener {
      * Filter of the view, used to filter by a given search string
      */
     private AgileCommentFilter commentFilter;
+    /**
+     * Job evaluating changes of the search text in the background
+     */
+    private CommentFilterJob filterJob;
     /**
      * Filter of the view, used to filter by selected entries of the explorer
      */
@@ -146,9 +155,8 @@ public class CommentTableView extends ViewPart implements IDoubleClickListener {
      */
     protected void setTableContent(ArrayList<Comment> comments) {
         this.comments = comments;
-        viewer.setInput(comments);
+        contentProvider.setComments(comments);
         PluginLogger.log(getClass().toString(), "setTableContent", "Set viewer input: " + comments);
-        viewer.refresh();
         PluginLogger.log(this.getClass().toString(), "setTableContent", "Setting table content");
     }
     
@@ -161,7 +169,7 @@ public class CommentTableView extends ViewPart implements IDoubleClickListener {
         PluginLogger.log(this.getClass().toString(), "addComment", "Adding comment to table content");
         this.comments.add(comment);
         
-        viewer.setInput(this.comments);
+        contentProvider.refresh();
         PluginLogger.log(getClass().toString(), "addComment", "Set viewer input: " + comments);
         
         // TODO: Das hier vlt auslagern -> macht CTV dümmer, außerdem liegen z.B. Editor und Selection im Handler vor 
@@ -189,7 +197,7 @@ public class CommentTableView extends ViewPart implements IDoubleClickListener {
         PluginLogger.log(this.getClass().toString(), "deleteComment", "Deleting a comment from table content");
         // add comment to (un)filtered model
         this.comments.remove(comment);
-        viewer.setInput(this.comments);
+        contentProvider.refresh();
         PluginLogger.log(getClass().toString(), "deleteComment", "Set viewer input: " + comments);
         
         // remove annotation and tags
@@ -206,12 +214,34 @@ public class CommentTableView extends ViewPart implements IDoubleClickListener {
         }
     }
     
+    /**
+     * Replaces the given comments in the current table content (matched by their keys) without reloading all comments from the model. Should be
+     * used when comments of the model were replaced by new instances, e.g. after a refactoring.
+     * @param replacements the new comment instances
+     */
+    public void replaceComments(Collection<Comment> replacements) {
+        PluginLogger.log(this.getClass().toString(), "replaceComments", "Replacing " + replacements.size() + " comments of table content");
+        HashMap<String, Comment> replacementMap = new HashMap<String, Comment>();
+        for (Comment c : replacements) {
+            replacementMap.put(generateCommentKey(c), c);
+        }
+        
+        for (int i = 0; i < this.comments.size(); i++) {
+            Comment replacement = replacementMap.get(generateCommentKey(this.comments.get(i)));
+            if (replacement != null) {
+                this.comments.set(i, replacement);
+            }
+        }
+        contentProvider.refresh();
+        filterComments();
+    }
+    
     /**
      * Reload current table input
      */
     public void refreshTable() {
         PluginLogger.log(this.getClass().toString(), "refreshTable", "Reloading current table input");
-        viewer.refresh();
+        contentProvider.refresh();
         filterComments();
         reparseActiveEditor();
     }
@@ -222,7 +252,7 @@ public class CommentTableView extends ViewPart implements IDoubleClickListener {
     public void resetComments() {
         PluginLogger.log(this.getClass().toString(), "resetComments", "Reloading comments from model");
         this.comments = ra.getAllComments();
-        this.viewer.setInput(this.comments);
+        this.contentProvider.setComments(this.comments);
         PluginLogger.log(getClass().toString(), "resetComments", "Set viewer input: " + comments);
         this.refreshTable();
     }
@@ -232,15 +262,10 @@ public class CommentTableView extends ViewPart implements IDoubleClickListener {
      */
     private void filterComments() {
         PluginLogger.log(this.getClass().toString(), "filterComments", "Starting to filter comments");
-        Object[] filteredCommentObjects = this.comments.toArray();
-        for (ViewerFilter filter : viewer.getFilters()) {
-            filteredCommentObjects = filter.filter(viewer, this, filteredCommentObjects);
-        }
-        
         IEditorPart editor;
         if ((editor = this.getActiveEditor()) != null) {
             if (this.parserMap.get(editor) != null) {
-                this.parserMap.get(editor).filter(getFilteredComments());
+                this.parserMap.get(editor).filter(getFilteredComments(editor));
             }
         }
     }
@@ -269,9 +294,9 @@ public class CommentTableView extends ViewPart implements IDoubleClickListener {
         
         // set comparator (sorting order of columns) and filter
         comparator = new AgileViewerComparator();
-        viewer.setComparator(comparator);
+        contentProvider.setComparator(comparator);
         commentFilter = new AgileCommentFilter("ALL");
-        viewer.addFilter(commentFilter);
+        contentProvider.addFilter(commentFilter);
         
         //add help context
         PlatformUI.getWorkbench().getHelpSystem().setHelp(parent, Activator.PLUGIN_ID + ".TableView");
@@ -282,7 +307,7 @@ public class CommentTableView extends ViewPart implements IDoubleClickListener {
         // get editor that is active when opening eclipse
         if (getActiveEditor() instanceof IEditorPart) {
             this.parserMap.put(getActiveEditor(), ParserFactory.createParser(getActiveEditor()));
-            this.parserMap.get(getActiveEditor()).filter(getFilteredComments());
+            this.parserMap.get(getActiveEditor()).filter(getFilteredComments(getActiveEditor()));
         }
         
     }
@@ -295,7 +320,8 @@ public class CommentTableView extends ViewPart implements IDoubleClickListener {
     private TableViewer createViewer(Composite parent) {
         
         // create viewer
-        viewer = new TableViewer(parent, SWT.MULTI | SWT.H_SCROLL | SWT.V_SCROLL | SWT.FULL_SELECTION | SWT.BORDER);
+        // virtual table: only the visible rows will be materialized
+        viewer = new TableViewer(parent, SWT.MULTI | SWT.H_SCROLL | SWT.V_SCROLL | SWT.FULL_SELECTION | SWT.BORDER | SWT.VIRTUAL);
         createColumns();
         
         // set attributes of viewer's table
@@ -304,7 +330,10 @@ public class CommentTableView extends ViewPart implements IDoubleClickListener {
         table.setLinesVisible(true);
         
         // set input for viewer
-        viewer.setContentProvider(new ArrayContentProvider());
+        contentProvider = new CommentTableContentProvider(viewer);
+        filterJob = new CommentFilterJob(contentProvider);
+        viewer.setContentProvider(contentProvider);
+        viewer.setUseHashlookup(true);
         viewer.setInput(this.comments);
         PluginLogger.log(getClass().toString(), "createViewer", "Set viewer input: " + comments);
         
@@ -347,9 +376,10 @@ public class CommentTableView extends ViewPart implements IDoubleClickListener {
         Listener selectionListener = new Listener() {
             public void handleEvent(Event event) {
                 MenuItem item = (MenuItem) event.widget;
-                viewer.removeFilter(commentFilter);
+                filterJob.discard();
+                contentProvider.removeFilter(commentFilter);
                 commentFilter = new AgileCommentFilter(item.getText());
-                viewer.addFilter(commentFilter);
+                contentProvider.addFilter(commentFilter);
                 itemDropDown.setText("Search for " + item.getText());
                 toolBar.pack();
                 parent.layout();
@@ -375,9 +405,16 @@ public class CommentTableView extends ViewPart implements IDoubleClickListener {
         filterText.addKeyListener(new KeyAdapter() {
             @Override
             public void keyReleased(KeyEvent ke) {
-                commentFilter.setSearchText(filterText.getText());
-                viewer.refresh();
-                filterComments();
+                // filter in the background, only the result of the last key stroke will be applied
+                final AgileCommentFilter searchFilter = new AgileCommentFilter(commentFilter.getRestriction());
+                searchFilter.setSearchText(filterText.getText());
+                filterJob.filter(commentFilter, searchFilter, new Runnable() {
+                    @Override
+                    public void run() {
+                        commentFilter = searchFilter;
+                        filterComments();
+                    }
+                });
             }
             
         });
@@ -406,9 +443,9 @@ public class CommentTableView extends ViewPart implements IDoubleClickListener {
             @Override
             public void widgetSelected(SelectionEvent e) {
                 if (onlyOpenCommentsCheckbox.getSelection()) {
-                    viewer.addFilter(openFilter);
+                    contentProvider.addFilter(openFilter);
                 } else {
-                    viewer.removeFilter(openFilter);
+                    contentProvider.removeFilter(openFilter);
                 }
                 filterComments();
             }
@@ -537,7 +574,7 @@ public class CommentTableView extends ViewPart implements IDoubleClickListener {
             @Override
             public String getText(Object element) {
                 Comment c = (Comment) element;
-                return ReviewAccess.computePath(c);
+                return ReviewAccess.getInstance().getCommentPath(c);
             }
         });
         
@@ -594,7 +631,7 @@ public class CommentTableView extends ViewPart implements IDoubleClickListener {
                 }
                 viewer.getTable().setSortDirection(dir);
                 viewer.getTable().setSortColumn(column);
-                viewer.refresh();
+                contentProvider.refresh();
             }
         };
         return selectionAdapter;
@@ -614,7 +651,7 @@ public class CommentTableView extends ViewPart implements IDoubleClickListener {
      */
     public boolean openEditorContains(Comment comment) {
         boolean result = false;
-        IPath path = new Path(ReviewAccess.computePath(comment));
+        IPath path = new Path(ReviewAccess.getInstance().getCommentPath(comment));
         IFile file = ResourcesPlugin.getWorkspace().getRoot().getFile(path);
         if (getActiveEditor() != null) {
             IFile editorFile = (IFile) getActiveEditor().getEditorInput().getAdapter(IFile.class);
@@ -634,7 +671,7 @@ public class CommentTableView extends ViewPart implements IDoubleClickListener {
      */
     private boolean openEditor(Comment comment) {
         PluginLogger.log(this.getClass().toString(), "openEditor", "Opening editor for the given comment");
-        IPath path = new Path(ReviewAccess.computePath(comment));
+        IPath path = new Path(ReviewAccess.getInstance().getCommentPath(comment));
         IFile file = ResourcesPlugin.getWorkspace().getRoot().getFile(path);
         
         if (!file.exists()) {
@@ -674,13 +711,20 @@ public class CommentTableView extends ViewPart implements IDoubleClickListener {
      */
     private HashSet<Comment> getFilteredComments() {
         if (!ViewControl.isPerspectiveOpen()) return new HashSet<Comment>();
-        HashSet<Comment> comments = new HashSet<Comment>();
-        for (TableItem i : viewer.getTable().getItems()) {
-            if (i.getData() instanceof Comment) {
-                comments.add((Comment) i.getData());
-            }
-        }
-        return comments;
+        return contentProvider.getFilteredComments();
+    }
+    
+    /**
+     * Returns all currently shown comments of the table which belong to the file opened in the given editor
+     * @param editor editor
+     * @return comments of all currently displayed comments for the editor's file
+     */
+    private HashSet<Comment> getFilteredComments(IEditorPart editor) {
+        if (!ViewControl.isPerspectiveOpen()) return new HashSet<Comment>();
+        IFile file = (IFile) editor.getEditorInput().getAdapter(IFile.class);
+        if (file == null) return new HashSet<Comment>();
+        String path = file.getFullPath().toOSString().replaceFirst(Pattern.quote(System.getProperty("file.separator")), "");
+        return contentProvider.getFilteredComments(path);
     }
     
     //###############################################################################
@@ -726,7 +770,7 @@ public class CommentTableView extends ViewPart implements IDoubleClickListener {
         if ((editor = this.getActiveEditor()) != null) {
             if (editor instanceof IEditorPart) {
                 this.parserMap.put(editor, ParserFactory.createParser(editor));
-                this.parserMap.get(editor).filter(getFilteredComments());
+                this.parserMap.get(editor).filter(getFilteredComments(editor));
             }
         }
     }
@@ -738,7 +782,7 @@ public class CommentTableView extends ViewPart implements IDoubleClickListener {
         IEditorPart editor;
         if ((editor = this.getActiveEditor()) != null && editor instanceof IEditorPart && this.parserMap.get(editor) != null) {
             this.parserMap.get(editor).reload();
-            this.parserMap.get(editor).filter(getFilteredComments());
+            this.parserMap.get(editor).filter(getFilteredComments(editor));
         }
     }
     
@@ -746,9 +790,9 @@ public class CommentTableView extends ViewPart implements IDoubleClickListener {
      * Triggers all {@link AnnotationParser} in the parser map to reparse its file
      */
     public void reparseAllEditors() {
-        for (IAnnotationParser p : this.parserMap.values()) {
-            p.reload();
-            p.filter(getFilteredComments());
+        for (Entry<IEditorPart, IAnnotationParser> e : this.parserMap.entrySet()) {
+            e.getValue().reload();
+            e.getValue().filter(getFilteredComments(e.getKey()));
         }
     }
     
@@ -824,7 +868,7 @@ public class CommentTableView extends ViewPart implements IDoubleClickListener {
                 
                 // Remove the old filter, then create the new filter, 
                 // so it can be applied directly when needed
-                viewer.removeFilter(this.selectionFilter);
+                contentProvider.removeFilter(this.selectionFilter);
                 this.selectionFilter = new ExplorerSelectionFilter(reviewIDs, paths);
                 
                 ICommandService cmdService = (ICommandService) getSite().getService(ICommandService.class);
@@ -835,7 +879,7 @@ public class CommentTableView extends ViewPart implements IDoubleClickListener {
                     if ((Boolean) state) {
                         PluginLogger.log(this.getClass().toString(), "selectionChanged", "Adding new filter regarding selection of ReviewExplorer");
                         // refresh annotations, update list of filtered comments
-                        viewer.addFilter(this.selectionFilter);
+                        contentProvider.addFilter(this.selectionFilter);
                         filterComments();
                     }
                 }
@@ -875,7 +919,7 @@ public class CommentTableView extends ViewPart implements IDoubleClickListener {
                 this.parserMap.put(editor, ParserFactory.createParser(editor));
             }
             if (parserMap.containsKey(editor)) {
-                parserMap.get(editor).filter(getFilteredComments());
+                parserMap.get(editor).filter(getFilteredComments(editor));
             }
         }
     }
@@ -894,7 +938,7 @@ public class CommentTableView extends ViewPart implements IDoubleClickListener {
             if (this.parserMap.containsKey(editor) && ViewControl.isPerspectiveOpen()) {
                 parserMap.get(editor).clearAnnotations();
                 parserMap.put(editor, ParserFactory.createParser(editor));
-                parserMap.get(editor).filter(getFilteredComments());
+                parserMap.get(editor).filter(getFilteredComments(editor));
             }
         }
     }
@@ -911,7 +955,7 @@ public class CommentTableView extends ViewPart implements IDoubleClickListener {
                     "Adding annotations since AgileReview perspective has been activated");
             if (getActiveEditor() instanceof IEditorPart) {
                 this.parserMap.put(getActiveEditor(), ParserFactory.createParser(getActiveEditor()));
-                this.parserMap.get(getActiveEditor()).filter(getFilteredComments());
+                this.parserMap.get(getActiveEditor()).filter(getFilteredComments(getActiveEditor()));
             }
         } else {
             PluginLogger.log(this.getClass().toString(), "perspectiveActivated", "Hiding annotations since current perspective is not 'AgileReview'");
@@ -946,18 +990,16 @@ public class CommentTableView extends ViewPart implements IDoubleClickListener {
      * Adds the selection filter of the viewer
      */
     public void addSelectionFilter() {
-        viewer.addFilter(this.selectionFilter);
+        contentProvider.addFilter(this.selectionFilter);
         filterComments();
-        viewer.refresh();
     }
     
     /**
      * Removes the selection filter from the viewer
      */
     public void removeSelectionFilter() {
-        viewer.removeFilter(this.selectionFilter);
+        contentProvider.removeFilter(this.selectionFilter);
         filterComments();
-        viewer.refresh();
     }
     
     /**
@@ -972,7 +1014,7 @@ public class CommentTableView extends ViewPart implements IDoubleClickListener {
      * @param c comment to select
      */
     public void selectComment(Comment c) {
-        if (getFilteredComments().contains(c)) {
+        if (ViewControl.isPerspectiveOpen() && contentProvider.materialize(c) != -1) {
             viewer.setSelection(new StructuredSelection(c), true);
         } else {
             if (ViewControl.isOpen(DetailView.class)) {
@@ -986,26 +1028,24 @@ public class CommentTableView extends ViewPart implements IDoubleClickListener {
      */
     public void selectNextComment() {
         if (viewer.getSelection() instanceof IStructuredSelection) {
+            if (contentProvider.getRowCount() == 0) {
+                return;
+            }
             int index = 0;
-            Object comment;
-            if (viewer.getSelection().isEmpty()) {
-                if (comments.isEmpty()) {
-                    return;
-                }
-            } else {
+            if (!viewer.getSelection().isEmpty()) {
                 IStructuredSelection sel = (IStructuredSelection) viewer.getSelection();
-                comment = sel.toList().get(sel.size() - 1);
+                Object comment = sel.toList().get(sel.size() - 1);
                 if (comment instanceof Comment) {
-                    index = comments.indexOf(comment) + 1;
+                    index = contentProvider.indexOf(comment) + 1;
                 }
             }
-            if (index < comments.size()) {
-                comment = comments.get(index);
-            } else {
-                comment = comments.get(0);
+            if (index >= contentProvider.getRowCount()) {
+                index = 0;
             }
-            viewer.setSelection(new StructuredSelection(comment));
-            revealComment((Comment) comment);
+            Comment comment = contentProvider.getRow(index);
+            contentProvider.materialize(comment);
+            viewer.setSelection(new StructuredSelection(comment), true);
+            revealComment(comment);
         }
     }
     
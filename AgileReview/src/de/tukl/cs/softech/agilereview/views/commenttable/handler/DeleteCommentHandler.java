@@ -17,6 +17,7 @@ import de.tukl.cs.softech.agilereview.plugincontrol.exceptions.NoReviewSourceFol
 import de.tukl.cs.softech.agilereview.tools.PluginLogger;
 import de.tukl.cs.softech.agilereview.views.ViewControl;
 import de.tukl.cs.softech.agilereview.views.commenttable.CommentTableView;
+import de.tukl.cs.softech.agilereview.views.detail.DetailView;
 
 /**
  * Handler for deleting comments from the CommentTableView
@@ -36,6 +37,9 @@ public class DeleteCommentHandler extends AbstractHandler {
                 for (Object o : structSel.toArray()) {
                     if (o instanceof Comment) {
                         Comment c = (Comment) o;
+                        if (ViewControl.isOpen(DetailView.class)) {
+                            DetailView.getInstance().objectDeleted(c);
+                        }
                         if (ViewControl.isOpen(CommentTableView.class)) {
                             CommentTableView.getInstance().deleteComment(c);
                         }
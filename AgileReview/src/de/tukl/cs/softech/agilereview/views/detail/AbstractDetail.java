@@ -22,15 +22,22 @@ import de.tukl.cs.softech.agilereview.plugincontrol.SourceProvider;
 import de.tukl.cs.softech.agilereview.plugincontrol.exceptions.NoReviewSourceFolderException;
 import de.tukl.cs.softech.agilereview.tools.PluginLogger;
 import de.tukl.cs.softech.agilereview.views.ViewControl;
+import de.tukl.cs.softech.agilereview.views.reviewexplorer.ReviewExplorer;
 
 /**
  * Abstract class of a Comment or Review representation, which automatically provides IPartListener and FocusListener to save all modified data
  * persistently. Furthermore a listener implementation is provided for a revert action by setting the object Data to "revert" and for a save action by
- * setting the object Data to "save"
+ * setting the object Data to "save".<br> Modifications are kept in the edited object and persisted after an idle interval of
+ * {@value #AUTOSAVE_DELAY} ms while typing, or immediately when {@link #flush()} is called (e.g. when another object will be displayed, the view
+ * is deactivated or closed, or the model will be unloaded or reloaded).
  * @param <E> type which would be displayed by this AbstractDetail
  */
 public abstract class AbstractDetail<E extends XmlObject> extends Composite implements FocusListener, ModifyListener {
     
+    /**
+     * Idle interval in milliseconds after which modifications will be persisted
+     */
+    private static final int AUTOSAVE_DELAY = 2000;
     /**
      * current displayed object which will be modified
      */
@@ -43,6 +50,21 @@ public abstract class AbstractDetail<E extends XmlObject> extends Composite impl
      * This set represents all components which should adapt the composite background color
      */
     protected HashSet<Control> bgComponents = new HashSet<Control>();
+    /**
+     * Indicates whether the edited object contains modifications which have not been persisted yet
+     */
+    private boolean dirty = false;
+    /**
+     * Persists all modifications when the idle interval elapsed
+     */
+    private final Runnable autosave = new Runnable() {
+        @Override
+        public void run() {
+            if (!isDisposed()) {
+                flush();
+            }
+        }
+    };
     
     /**
      * Creates a new AbstractDetail Composite onto the given parent with the specified SWT styles
@@ -67,6 +89,21 @@ public abstract class AbstractDetail<E extends XmlObject> extends Composite impl
      */
     protected abstract boolean saveChanges();
     
+    /**
+     * Returns the instance of the edited object which is currently stored in the model. This differs from the edited object, if the model has
+     * been reloaded or patched (e.g. when the object was relocated by a refactoring) since the object has been displayed.
+     * @return the current instance of the edited object or null, if the object has been deleted or is not loaded anymore
+     */
+    protected abstract E resolveInModel();
+    
+    /**
+     * Checks whether the edited object is still the instance stored in the model, i.e. it has neither been deleted nor been replaced
+     * @return true, if the edited object is part of the model,<br>false, otherwise
+     */
+    protected boolean isInModel() {
+        return resolveInModel() == this.editedObject;
+    }
+    
     /**
      * Returns the current content representation
      * @return current content representation
@@ -117,48 +154,111 @@ public abstract class AbstractDetail<E extends XmlObject> extends Composite impl
     protected abstract Color determineBackgroundColor();
     
     /**
-     * saves every changes made in the current Detail View
+     * Sets the dirty state of this AbstractDetail and the {@link SourceProvider#REVERTABLE} variable accordingly. If the state is set to clean, a
+     * pending autosave will be canceled.
+     * @param dirty <i>true</i> if there are modifications which have not been persisted yet, <i>false</i> otherwise
+     */
+    protected void setDirty(boolean dirty) {
+        this.dirty = dirty;
+        if (!dirty) {
+            getDisplay().timerExec(-1, autosave);
+        }
+        
+        //get SourceProvider for configuration
+        ISourceProviderService isps = (ISourceProviderService) PlatformUI.getWorkbench().getActiveWorkbenchWindow().getService(
+                ISourceProviderService.class);
+        SourceProvider sp = (SourceProvider) isps.getSourceProvider(SourceProvider.REVERTABLE);
+        sp.setVariable(SourceProvider.REVERTABLE, dirty);
+    }
+    
+    /**
+     * Returns whether there are modifications which have not been persisted yet
+     * @return <i>true</i> if there are modifications which have not been persisted yet, <i>false</i> otherwise
+     */
+    protected boolean isDirty() {
+        return this.dirty;
+    }
+    
+    /**
+     * Marks this AbstractDetail as dirty and (re)starts the idle interval after which the modifications will be persisted
+     */
+    private void scheduleAutosave() {
+        setDirty(true);
+        getDisplay().timerExec(AUTOSAVE_DELAY, autosave);
+    }
+    
+    /**
+     * saves every changes made in the current Detail View and persists them immediately
      * @param part will be forwarded from the {@link DetailView}
      * @see org.eclipse.ui.IPartListener2#partClosed(org.eclipse.ui.IWorkbenchPartReference)
      */
-    @SuppressWarnings("unchecked")
     protected void partClosedOrDeactivated(IWorkbenchPart part) {
-        if (part instanceof DetailView) {
-            saveChanges();
-            
-            // save the change persistently
-            PluginLogger.log(this.getClass().toString(), "partClosedOrDeactivated", "trigger save event");
-            try {
-                ReviewAccess.getInstance().save(this.editedObject);
-                ViewControl.refreshViews(ViewControl.COMMMENT_TABLE_VIEW);
-                
-                this.backupObject = (E) this.editedObject.copy();
-                
-                //get SourceProvider for configuration
-                ISourceProviderService isps = (ISourceProviderService) PlatformUI.getWorkbench().getActiveWorkbenchWindow().getService(
-                        ISourceProviderService.class);
-                SourceProvider sp = (SourceProvider) isps.getSourceProvider(SourceProvider.REVERTABLE);
-                sp.setVariable(SourceProvider.REVERTABLE, false);
-            } catch (NoReviewSourceFolderException e) {
-                ExceptionHandler.handleNoReviewSourceFolderException();
+        if (part instanceof DetailView && this.editedObject != null) {
+            if (isInModel() && saveChanges()) {
+                setDirty(true);
             }
+            flush();
+        }
+    }
+    
+    /**
+     * Persists all modifications immediately, if there are any. A pending autosave will be canceled. If the model has been reloaded or patched
+     * meanwhile, the modifications are applied to the current instance of the edited object. Only modifications of an object which has been
+     * deleted or is not loaded anymore are discarded.
+     */
+    @SuppressWarnings("unchecked")
+    protected void flush() {
+        if (this.editedObject == null || !this.dirty) { return; }
+        getDisplay().timerExec(-1, autosave);
+        if (!isInModel()) {
+            E current = resolveInModel();
+            if (current == null) {
+                PluginLogger.logWarning(this.getClass().toString(), "flush",
+                        "discard modifications of an object which has been deleted or is not loaded anymore");
+                discardChanges();
+                return;
+            }
+            // the displayed values are applied to the current instance, as the edited object might be disconnected from its document
+            PluginLogger.log(this.getClass().toString(), "flush", "apply modifications to the reloaded instance of the edited object");
+            this.editedObject = current;
+        }
+        saveChanges();
+        // save the change persistently
+        PluginLogger.log(this.getClass().toString(), "flush", "trigger save event");
+        try {
+            ReviewAccess.getInstance().save(this.editedObject);
+            ViewControl.refreshViews(ViewControl.COMMMENT_TABLE_VIEW);
+            // the status might have changed, so update the comment counts shown in the ReviewExplorer
+            if (ViewControl.isOpen(ReviewExplorer.class)) {
+                ReviewExplorer.getInstance().refreshLabels();
+            }
+            
+            this.backupObject = (E) this.editedObject.copy();
+            setDirty(false);
+        } catch (NoReviewSourceFolderException e) {
+            ExceptionHandler.handleNoReviewSourceFolderException();
         }
     }
     
+    /**
+     * Discards all modifications which have not been persisted yet and detaches this AbstractDetail from the edited object, e.g. because the
+     * object has been deleted. A pending autosave will be canceled.
+     */
+    protected void discardChanges() {
+        this.editedObject = null;
+        setDirty(false);
+    }
+    
     /**
      * Reverts all unsaved changes
      */
     public void revert() {
+        if (this.editedObject == null) { return; }
         @SuppressWarnings("unchecked")
         E copy = (E) backupObject.copy();
         this.editedObject.set(copy);
         fillContents(backupObject);
-        
-        //get SourceProvider for configuration
-        ISourceProviderService isps = (ISourceProviderService) PlatformUI.getWorkbench().getActiveWorkbenchWindow().getService(
-                ISourceProviderService.class);
-        SourceProvider sp = (SourceProvider) isps.getSourceProvider(SourceProvider.REVERTABLE);
-        sp.setVariable(SourceProvider.REVERTABLE, false);
+        setDirty(false);
     }
     
     /*
@@ -178,24 +278,22 @@ public abstract class AbstractDetail<E extends XmlObject> extends Composite impl
     }
     
     /**
-     * save current changes in objects
+     * save current changes in objects. The changes will be persisted after the idle interval.
      * @see org.eclipse.swt.events.FocusListener#focusLost(org.eclipse.swt.events.FocusEvent)
      */
     @Override
     public void focusLost(FocusEvent e) {
-        if (saveChanges()) {
-            ISourceProviderService isps = (ISourceProviderService) PlatformUI.getWorkbench().getActiveWorkbenchWindow().getService(
-                    ISourceProviderService.class);
-            SourceProvider sp = (SourceProvider) isps.getSourceProvider(SourceProvider.REVERTABLE);
-            sp.setVariable(SourceProvider.REVERTABLE, true);
+        if (this.editedObject != null && isInModel() && saveChanges()) {
+            scheduleAutosave();
         }
     }
     
+    /**
+     * marks the current content as modified and restarts the idle interval
+     * @see org.eclipse.swt.events.ModifyListener#modifyText(org.eclipse.swt.events.ModifyEvent)
+     */
     @Override
     public void modifyText(ModifyEvent e) {
-        ISourceProviderService isps = (ISourceProviderService) PlatformUI.getWorkbench().getActiveWorkbenchWindow().getService(
-                ISourceProviderService.class);
-        SourceProvider sp = (SourceProvider) isps.getSourceProvider(SourceProvider.REVERTABLE);
-        sp.setVariable(SourceProvider.REVERTABLE, true);
+        scheduleAutosave();
     }
 }
\ No newline at end of file
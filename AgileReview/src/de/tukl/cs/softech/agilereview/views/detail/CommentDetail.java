@@ -25,13 +25,11 @@ import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.Sash;
 import org.eclipse.swt.widgets.Text;
-import org.eclipse.ui.PlatformUI;
-import org.eclipse.ui.services.ISourceProviderService;
 
 import agileReview.softech.tukl.de.CommentDocument.Comment;
 import agileReview.softech.tukl.de.ReplyDocument.Reply;
 import de.tukl.cs.softech.agilereview.annotations.ColorManager;
-import de.tukl.cs.softech.agilereview.plugincontrol.SourceProvider;
+import de.tukl.cs.softech.agilereview.dataaccess.ReviewAccess;
 import de.tukl.cs.softech.agilereview.tools.PropertiesManager;
 
 /**
@@ -254,6 +252,16 @@ public class CommentDetail extends AbstractDetail<Comment> {
         }
     }
     
+    /*
+     * (non-Javadoc)
+     * @see de.tukl.cs.softech.agilereview.views.detail.AbstractDetail#resolveInModel()
+     */
+    @Override
+    protected Comment resolveInModel() {
+        // the ids are taken from the backup, as the edited object might have been disconnected from its document
+        return ReviewAccess.getInstance().getComment(backupObject.getReviewID(), backupObject.getAuthor(), backupObject.getId());
+    }
+    
     /*
      * (non-Javadoc)
      * @see de.tukl.cs.softech.agilereview.view.detail.AbstractDetail#fillContents(java.lang.Object)
@@ -261,7 +269,7 @@ public class CommentDetail extends AbstractDetail<Comment> {
     @Override
     public void fillContents(Comment comment) {
         // XXX @May-Bee: can we do this here? -> need to save one next comment shortcut
-        if (editedObject != null && backupObject != null) {
+        if (editedObject != null && backupObject != null && isInModel()) {
             saveChanges();
         }
         
@@ -304,10 +312,7 @@ public class CommentDetail extends AbstractDetail<Comment> {
             statusDropDown.select(comment.getStatus());
         }
         //set revertable to false because it was set from the ModificationListener while inserting inital content
-        ISourceProviderService isps = (ISourceProviderService) PlatformUI.getWorkbench().getActiveWorkbenchWindow().getService(
-                ISourceProviderService.class);
-        SourceProvider sp = (SourceProvider) isps.getSourceProvider(SourceProvider.REVERTABLE);
-        sp.setVariable(SourceProvider.REVERTABLE, false);
+        setDirty(false);
     }
     
     /*
@@ -5,6 +5,8 @@ import java.util.Calendar;
 import org.eclipse.jface.viewers.IStructuredSelection;
 import org.eclipse.jface.viewers.SelectionChangedEvent;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.ui.IWorkbench;
+import org.eclipse.ui.IWorkbenchListener;
 import org.eclipse.ui.IWorkbenchPart;
 import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.part.ViewPart;
@@ -65,6 +67,20 @@ public class DetailView extends ViewPart {
      * The current instance in which the createPartControl procedure was called
      */
     private static DetailView instance;
+    /**
+     * Persists all pending modifications when the workbench shuts down
+     */
+    private final IWorkbenchListener shutdownListener = new IWorkbenchListener() {
+        @Override
+        public boolean preShutdown(IWorkbench workbench, boolean forced) {
+            flushContent();
+            return true;
+        }
+        
+        @Override
+        public void postShutdown(IWorkbench workbench) {
+        }
+    };
     
     /**
      * Returns the current instance of the DetailView
@@ -75,12 +91,24 @@ public class DetailView extends ViewPart {
     }
     
     /**
-     * Changes the ViewPart UI to {@link #EMPTY}
+     * Changes the ViewPart UI to {@link #EMPTY}. Pending modifications will be persisted beforehand.
      */
     public void clearView() {
         changeParent(EMPTY);
     }
     
+    /**
+     * Clears the view, if the given object is currently displayed. Has to be called when a comment or review will be deleted, such that its
+     * pending modifications will be discarded instead of being saved again.
+     * @param obj comment or review to be deleted
+     */
+    public void objectDeleted(Object obj) {
+        if (obj != null && getContent() == obj) {
+            discardContent();
+            changeParent(EMPTY);
+        }
+    }
+    
     /**
      * changes the ViewPart UI
      * @param type static Field of class DetailView
@@ -89,6 +117,9 @@ public class DetailView extends ViewPart {
         //optimization and protection of cachedComment reset for changeParent to relocate dialog twice
         if (this.currentDisplay == type) { return; }
         
+        //persist pending modifications before the current parent will be disposed
+        flushContent();
+        
         //reset all variables
         this.currentParent.dispose();
         this.cachedComment = null;
@@ -143,7 +174,7 @@ public class DetailView extends ViewPart {
      */
     public boolean isRevertable() {
         if (currentParent instanceof AbstractDetail<?>) {
-            return ((AbstractDetail<?>) currentParent).isReparentable();
+            return ((AbstractDetail<?>) currentParent).isDirty();
         } else {
             return false;
         }
@@ -159,7 +190,7 @@ public class DetailView extends ViewPart {
         if (currentDisplay == COMMENT_DETAIL) {
             ((CommentDetail) currentParent).addReply(author, text, creationDate);
             //save the current comment in order to save the reply creation time
-            ((CommentDetail) currentParent).partClosedOrDeactivated(this);
+            ((CommentDetail) currentParent).flush();
         }
     }
     
@@ -226,10 +257,24 @@ public class DetailView extends ViewPart {
         //add help context
         PlatformUI.getWorkbench().getHelpSystem().setHelp(this.parentParent, Activator.PLUGIN_ID + ".DetailView");
         
+        // persist pending modifications before the workbench shuts down
+        PlatformUI.getWorkbench().addWorkbenchListener(shutdownListener);
+        
         // register view
         ViewControl.registerView(this.getClass());
     }
     
+    /*
+     * (non-Javadoc)
+     * @see org.eclipse.ui.part.WorkbenchPart#dispose()
+     */
+    @Override
+    public void dispose() {
+        flushContent();
+        PlatformUI.getWorkbench().removeWorkbenchListener(shutdownListener);
+        super.dispose();
+    }
+    
     /*
      * (non-Javadoc)
      * @see org.eclipse.ui.part.WorkbenchPart#setFocus()
@@ -259,6 +304,25 @@ public class DetailView extends ViewPart {
         }
     }
     
+    /**
+     * Persists all pending modifications of the current Detail View immediately. Has to be called before the comments of a review will be
+     * unloaded, as the modifications of a comment which is not loaded anymore cannot be persisted.
+     */
+    public void flushContent() {
+        if (currentParent instanceof AbstractDetail<?> && !currentParent.isDisposed()) {
+            ((AbstractDetail<?>) currentParent).flush();
+        }
+    }
+    
+    /**
+     * Discards all pending modifications of the current Detail View
+     */
+    private void discardContent() {
+        if (currentParent instanceof AbstractDetail<?> && !currentParent.isDisposed()) {
+            ((AbstractDetail<?>) currentParent).discardChanges();
+        }
+    }
+    
     /**
      * Reaction of selection changes in {@link CommentTableView} or {@link ReviewExplorer}
      * @param event will be forwarded from the {@link ViewControl}
@@ -273,11 +337,13 @@ public class DetailView extends ViewPart {
                 if (!(this.currentParent instanceof ReviewDetail)) {
                     this.changeParent(DetailView.REVIEW_DETAIL);
                 }
+                flushContent();
                 ((ReviewDetail) this.currentParent).fillContents((MultipleReviewWrapper) e);
             } else if (e instanceof Comment) {
                 if (!(this.currentParent instanceof CommentDetail)) {
                     this.changeParent(DetailView.COMMENT_DETAIL);
                 }
+                flushContent();
                 ((CommentDetail) this.currentParent).fillContents((Comment) e);
             }
             refreshBackgroundColor();
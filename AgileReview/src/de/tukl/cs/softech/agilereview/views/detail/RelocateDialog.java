@@ -136,7 +136,7 @@ public class RelocateDialog extends Composite implements Listener {
                                 ctv.deleteComment(oldComment);
                                 
                                 //refresh views
-                                ViewControl.refreshViews(ViewControl.REVIEW_EXPLORER | ViewControl.COMMMENT_TABLE_VIEW, true);
+                                ViewControl.refreshViewsNow(ViewControl.REVIEW_EXPLORER | ViewControl.COMMMENT_TABLE_VIEW, true);
                                 ctv.selectComment(newComment);
                             } catch (NoReviewSourceFolderException e) {
                                 ExceptionHandler.handleNoReviewSourceFolderException();
@@ -18,10 +18,10 @@ import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.Sash;
 import org.eclipse.swt.widgets.Text;
 import org.eclipse.ui.PlatformUI;
-import org.eclipse.ui.services.ISourceProviderService;
 
 import agileReview.softech.tukl.de.ReviewDocument.Review;
-import de.tukl.cs.softech.agilereview.plugincontrol.SourceProvider;
+import de.tukl.cs.softech.agilereview.annotations.ColorManager;
+import de.tukl.cs.softech.agilereview.dataaccess.ReviewAccess;
 import de.tukl.cs.softech.agilereview.tools.PluginLogger;
 import de.tukl.cs.softech.agilereview.tools.PropertiesManager;
 import de.tukl.cs.softech.agilereview.views.reviewexplorer.wrapper.MultipleReviewWrapper;
@@ -191,6 +191,19 @@ public class ReviewDetail extends AbstractDetail<Review> implements SelectionLis
         return result;
     }
     
+    /*
+     * (non-Javadoc)
+     * @see de.tukl.cs.softech.agilereview.views.detail.AbstractDetail#resolveInModel()
+     */
+    @Override
+    protected Review resolveInModel() {
+        // the id is taken from the backup, as the edited object might have been disconnected from its document
+        for (Review r : ReviewAccess.getInstance().getAllReviews()) {
+            if (r.getId().equals(backupObject.getId())) { return r; }
+        }
+        return null;
+    }
+    
     /*
      * (non-Javadoc)
      * @see de.tukl.cs.softech.agilereview.view.detail.AbstractDetail#setFocus()
@@ -249,10 +262,7 @@ public class ReviewDetail extends AbstractDetail<Review> implements SelectionLis
             statusDropDown.select(review.getStatus());
         }
         //set revertable to false because it was set from the ModificationListener while inserting inital content
-        ISourceProviderService isps = (ISourceProviderService) PlatformUI.getWorkbench().getActiveWorkbenchWindow().getService(
-                ISourceProviderService.class);
-        SourceProvider sp = (SourceProvider) isps.getSourceProvider(SourceProvider.REVERTABLE);
-        sp.setVariable(SourceProvider.REVERTABLE, false);
+        setDirty(false);
     }
     
     @Override
@@ -282,7 +292,6 @@ public class ReviewDetail extends AbstractDetail<Review> implements SelectionLis
     @Override
     protected Color determineBackgroundColor() {
         String prop = PropertiesManager.getInstance().getInternalProperty(PropertiesManager.INTERNAL_KEYS.DEFAULT_REVIEW_COLOR);
-        String[] rgb = prop.split(",");
-        return new Color(PlatformUI.getWorkbench().getDisplay(), Integer.parseInt(rgb[0]), Integer.parseInt(rgb[1]), Integer.parseInt(rgb[2]));
+        return ColorManager.getRGBColor(prop);
     }
 }
@@ -1,10 +1,12 @@
 package de.tukl.cs.softech.agilereview.views.reviewexplorer;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.TreeSet;
+import java.util.Iterator;
 
-import org.eclipse.jface.viewers.ITreeContentProvider;
+import org.eclipse.jface.viewers.ILazyTreeContentProvider;
+import org.eclipse.jface.viewers.TreeViewer;
 import org.eclipse.jface.viewers.Viewer;
 
 import agileReview.softech.tukl.de.FileDocument.File;
@@ -17,14 +19,64 @@ import de.tukl.cs.softech.agilereview.views.reviewexplorer.wrapper.MultipleProje
 import de.tukl.cs.softech.agilereview.views.reviewexplorer.wrapper.MultipleReviewWrapper;
 
 /**
- * The ReviewExplorerContentProvider provides the content for the tree viewer of the {@link ReviewExplorer}
+ * The ReviewExplorerContentProvider provides the content for the virtual tree viewer of the {@link ReviewExplorer}. The wrapped children of each
+ * node are computed once and cached (review -> project -> folder -> file) until the cache is invalidated due to a change of the model. As JFace
+ * does not support sorters for lazy content providers, the children are sorted by this content provider using the {@link REViewerComparator}.
  */
-class REContentProvider implements ITreeContentProvider {
+class REContentProvider implements ILazyTreeContentProvider {
     
-    //	/**
-    //	 * The tree viewer to whom the content is provided
-    //	 */
-    //	private TreeViewer viewer;
+    /**
+     * The tree viewer to whom the content is provided
+     */
+    private TreeViewer viewer;
+    /**
+     * The root node of the current input
+     */
+    private RERootNode root;
+    /**
+     * Comparator which determines the order of the children
+     */
+    private final REViewerComparator comparator = new REViewerComparator();
+    /**
+     * Cached and sorted reviews of the root node (null if outdated)
+     */
+    private Object[] reviews;
+    /**
+     * Cached tree model: wrapper -> wrapped and sorted children of the wrapper
+     */
+    private final HashMap<AbstractMultipleWrapper, Object[]> childrenCache = new HashMap<AbstractMultipleWrapper, Object[]>();
+    /**
+     * Parent of each cached child: wrapper -> parent wrapper
+     */
+    private final HashMap<AbstractMultipleWrapper, AbstractMultipleWrapper> parents = new HashMap<AbstractMultipleWrapper, AbstractMultipleWrapper>();
+    
+    /**
+     * Invalidates the complete cached tree model. The children will be computed again when they are requested the next time.
+     */
+    void invalidate() {
+        reviews = null;
+        childrenCache.clear();
+        parents.clear();
+    }
+    
+    /**
+     * Invalidates the cached sub trees of the given reviews
+     * @param reviewIds IDs of the reviews whose sub trees should be invalidated
+     */
+    void invalidate(Collection<String> reviewIds) {
+        Iterator<AbstractMultipleWrapper> it = childrenCache.keySet().iterator();
+        while (it.hasNext()) {
+            if (reviewIds.contains(it.next().getReviewId())) {
+                it.remove();
+            }
+        }
+        it = parents.keySet().iterator();
+        while (it.hasNext()) {
+            if (reviewIds.contains(it.next().getReviewId())) {
+                it.remove();
+            }
+        }
+    }
     
     /**
      * Wraps the objects given in <i>input</i>
@@ -41,30 +93,30 @@ class REContentProvider implements ITreeContentProvider {
         for (Object o : input) {
             if (o instanceof Project) {
                 Project currProject = (Project) o;
-                // Try if a project-wrapper for this folder already exists
-                MultipleProjectWrapper pWrap = new MultipleProjectWrapper(currProject, reviewId);
-                if (projectListResult.containsValue(pWrap)) {
-                    projectListResult.get(pWrap.getName()).add(currProject);
+                // Try if a project-wrapper for this project already exists (all children have the same parent path, so the name is unique)
+                MultipleProjectWrapper pWrap = projectListResult.get(currProject.getName());
+                if (pWrap != null) {
+                    pWrap.add(currProject);
                 } else {
-                    projectListResult.put(pWrap.getName(), pWrap);
+                    projectListResult.put(currProject.getName(), new MultipleProjectWrapper(currProject, reviewId));
                 }
             } else if (o instanceof Folder) {
                 Folder currFolder = (Folder) o;
-                // Try if a folder-wrapper for this folder already exists
-                MultipleFolderWrapper fWrap = new MultipleFolderWrapper(currFolder, reviewId);
-                if (folderListResult.containsValue(fWrap)) {
-                    folderListResult.get(fWrap.getName()).add(currFolder);
+                // Try if a folder-wrapper for this folder already exists (all children have the same parent path, so the name is unique)
+                MultipleFolderWrapper fWrap = folderListResult.get(currFolder.getName());
+                if (fWrap != null) {
+                    fWrap.add(currFolder);
                 } else {
-                    folderListResult.put(fWrap.getName(), fWrap);
+                    folderListResult.put(currFolder.getName(), new MultipleFolderWrapper(currFolder, reviewId));
                 }
             } else if (o instanceof File) {
                 File currFile = (File) o;
-                // Try if a file-wrapper for this folder already exists
-                MultipleFileWrapper fWrap = new MultipleFileWrapper(currFile, reviewId);
-                if (fileListResult.containsValue(fWrap)) {
-                    fileListResult.get(fWrap.getName()).add(currFile);
+                // Try if a file-wrapper for this file already exists (all children have the same parent path, so the name is unique)
+                MultipleFileWrapper fWrap = fileListResult.get(currFile.getName());
+                if (fWrap != null) {
+                    fWrap.add(currFile);
                 } else {
-                    fileListResult.put(fWrap.getName(), fWrap);
+                    fileListResult.put(currFile.getName(), new MultipleFileWrapper(currFile, reviewId));
                 }
             }
         }
@@ -78,43 +130,84 @@ class REContentProvider implements ITreeContentProvider {
     }
     
     @Override
-    public void dispose() {/* do nothing */
+    public void dispose() {
+        invalidate();
     }
     
     @Override
     public void inputChanged(Viewer viewer, Object oldInput, Object newInput) {
-        // this.viewer = (TreeViewer)viewer;
+        this.viewer = (TreeViewer) viewer;
+        this.root = newInput instanceof RERootNode ? (RERootNode) newInput : null;
+        invalidate();
     }
     
     @Override
-    public Object[] getElements(Object inputElement) {
-        return getChildren(inputElement);
+    public void updateElement(Object parent, int index) {
+        Object[] children = getChildren(parent);
+        if (index < children.length) {
+            viewer.replace(parent, index, children[index]);
+            viewer.setHasChildren(children[index], hasChildren(children[index]));
+        }
     }
     
     @Override
-    public Object[] getChildren(Object parentElement) {
+    public void updateChildCount(Object element, int currentChildCount) {
+        int count = getChildren(element).length;
+        if (count != currentChildCount) {
+            viewer.setChildCount(element, count);
+        }
+    }
+    
+    /**
+     * Returns the wrapped and sorted children of the given element
+     * @param parentElement the root node or a wrapper
+     * @return the wrapped and sorted children
+     */
+    Object[] getChildren(Object parentElement) {
         Object[] result = new Object[0];
         // Special case: the root node
         if (parentElement instanceof RERootNode) {
-            TreeSet<MultipleReviewWrapper> wrapSet = ((RERootNode) parentElement).getReviews();
-            result = wrapSet.toArray();
+            if (reviews == null) {
+                reviews = ((RERootNode) parentElement).getReviews().toArray();
+                comparator.sort(viewer, reviews);
+            }
+            result = reviews;
         }
         // else wrap the children
         else if (parentElement instanceof AbstractMultipleWrapper) {
-            Object[] children = ((AbstractMultipleWrapper) parentElement).getChildren();
-            result = wrapObjects(children, ((AbstractMultipleWrapper) parentElement).getReviewId());
+            AbstractMultipleWrapper wrapper = (AbstractMultipleWrapper) parentElement;
+            result = childrenCache.get(wrapper);
+            if (result == null) {
+                result = wrapObjects(wrapper.getChildren(), wrapper.getReviewId());
+                comparator.sort(viewer, result);
+                childrenCache.put(wrapper, result);
+                for (Object o : result) {
+                    parents.put((AbstractMultipleWrapper) o, wrapper);
+                }
+            }
         }
         return result;
     }
     
     @Override
     public Object getParent(Object element) {
-        // not implemented
-        return null;
+        if (element instanceof MultipleReviewWrapper) { return root; }
+        return parents.get(element);
     }
     
-    @Override
-    public boolean hasChildren(Object element) {
-        return (getChildren(element).length > 0 ? true : false);
+    /**
+     * Returns whether the given element has children. If the children have not been computed yet, this will only be done for reviews.
+     * @param element the root node or a wrapper
+     * @return <i>true</i> if the element has at least one child, <i>false</i> otherwise
+     */
+    boolean hasChildren(Object element) {
+        if (element instanceof AbstractMultipleWrapper) {
+            Object[] children = childrenCache.get(element);
+            if (children != null) { return children.length > 0; }
+            // the children of reviews have to be computed anyway, so cache them
+            if (element instanceof MultipleReviewWrapper) { return getChildren(element).length > 0; }
+            return ((AbstractMultipleWrapper) element).hasChildren();
+        }
+        return getChildren(element).length > 0;
     }
 }
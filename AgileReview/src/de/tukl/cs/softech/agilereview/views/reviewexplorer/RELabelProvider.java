@@ -1,9 +1,23 @@
 package de.tukl.cs.softech.agilereview.views.reviewexplorer;
 
+import java.util.HashMap;
+import java.util.HashSet;
+
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
 import org.eclipse.core.resources.IWorkspaceRoot;
 import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.Path;
+import org.eclipse.jface.resource.ImageDescriptor;
+import org.eclipse.jface.resource.JFaceResources;
+import org.eclipse.jface.resource.LocalResourceManager;
 import org.eclipse.jface.viewers.ColumnLabelProvider;
+import org.eclipse.jface.viewers.DelegatingStyledCellLabelProvider.IStyledLabelProvider;
+import org.eclipse.jface.viewers.LabelProviderChangedEvent;
+import org.eclipse.jface.viewers.StyledString;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.graphics.Image;
@@ -11,9 +25,9 @@ import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.ISharedImages;
 import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.ide.IDE.SharedImages;
-import org.eclipse.ui.plugin.AbstractUIPlugin;
 
-import de.tukl.cs.softech.agilereview.Activator;
+import de.tukl.cs.softech.agilereview.dataaccess.ReviewAccess;
+import de.tukl.cs.softech.agilereview.tools.PluginLogger;
 import de.tukl.cs.softech.agilereview.tools.PropertiesManager;
 import de.tukl.cs.softech.agilereview.views.reviewexplorer.wrapper.AbstractMultipleWrapper;
 import de.tukl.cs.softech.agilereview.views.reviewexplorer.wrapper.MultipleFolderWrapper;
@@ -21,20 +35,36 @@ import de.tukl.cs.softech.agilereview.views.reviewexplorer.wrapper.MultipleProje
 import de.tukl.cs.softech.agilereview.views.reviewexplorer.wrapper.MultipleReviewWrapper;
 
 /**
- * The LabelProvider specifies how the nodes of the tree viewer should be displayed
+ * The LabelProvider specifies how the nodes of the tree viewer should be displayed. The styled text of each node is decorated with the number of
+ * open and of all comments within the node, which are read from the incrementally maintained counts of the {@link ReviewAccess}. Images are
+ * shared by resource registries and the existence of the represented resources is cached until resources are added to or removed from the
+ * projects shown in the explorer.
  */
-class RELabelProvider extends ColumnLabelProvider {
+class RELabelProvider extends ColumnLabelProvider implements IStyledLabelProvider, IResourceChangeListener {
     
     /**
      * Standard grey color for displaying not exisitng resources
      */
     private final Color grey = Display.getDefault().getSystemColor(SWT.COLOR_GRAY);
+    /**
+     * Resource manager which holds the editor images of the displayed files (keyed by their descriptor)
+     */
+    private final LocalResourceManager resourceManager = new LocalResourceManager(JFaceResources.getResources());
+    /**
+     * Cached existence of the resources represented by the wrappers: path -> exists
+     */
+    private final HashMap<String, Boolean> existsCache = new HashMap<String, Boolean>();
+    /**
+     * Names of the projects containing resources of the existsCache (guarded by the existsCache)
+     */
+    private final HashSet<String> cachedProjects = new HashSet<String>();
     
     /**
      * Empty Constructor
      */
     public RELabelProvider() {
         super();
+        ResourcesPlugin.getWorkspace().addResourceChangeListener(this, IResourceChangeEvent.POST_CHANGE);
     }
     
     /**
@@ -45,17 +75,103 @@ class RELabelProvider extends ColumnLabelProvider {
     private boolean exists(Object o) {
         boolean result = true;
         if (o instanceof AbstractMultipleWrapper) {
-            IWorkspaceRoot wr = ResourcesPlugin.getWorkspace().getRoot();
-            if (!wr.exists(new Path(((AbstractMultipleWrapper) o).getPath()))) {
-                result = false;
+            String path = ((AbstractMultipleWrapper) o).getPath();
+            synchronized (existsCache) {
+                Boolean cached = existsCache.get(path);
+                if (cached == null) {
+                    IWorkspaceRoot wr = ResourcesPlugin.getWorkspace().getRoot();
+                    Path resourcePath = new Path(path);
+                    cached = wr.exists(resourcePath);
+                    existsCache.put(path, cached);
+                    if (resourcePath.segmentCount() > 0) {
+                        cachedProjects.add(resourcePath.segment(0));
+                    }
+                }
+                result = cached;
             }
         }
         return result;
     }
     
+    /**
+     * Invalidates the cached existence of all resources if resources have been added to or removed from the projects shown in the explorer. As
+     * the viewer does not notice the changed existence, its labels will be updated afterwards.
+     * @see org.eclipse.core.resources.IResourceChangeListener#resourceChanged(org.eclipse.core.resources.IResourceChangeEvent)
+     */
+    @Override
+    public void resourceChanged(IResourceChangeEvent event) {
+        if (event.getDelta() == null) { return; }
+        HashSet<String> projects;
+        synchronized (existsCache) {
+            if (cachedProjects.isEmpty()) { return; }
+            projects = new HashSet<String>(cachedProjects);
+        }
+        
+        final boolean[] structureChanged = new boolean[] { false };
+        IResourceDeltaVisitor visitor = new IResourceDeltaVisitor() {
+            @Override
+            public boolean visit(IResourceDelta delta) throws CoreException {
+                if (delta.getKind() == IResourceDelta.ADDED || delta.getKind() == IResourceDelta.REMOVED
+                        || (delta.getFlags() & IResourceDelta.OPEN) != 0) {
+                    structureChanged[0] = true;
+                }
+                return !structureChanged[0];
+            }
+        };
+        try {
+            // only the resources of projects shown in the explorer have a cached existence
+            for (IResourceDelta projectDelta : event.getDelta().getAffectedChildren()) {
+                if (structureChanged[0]) {
+                    break;
+                }
+                if (projects.contains(projectDelta.getResource().getName())) {
+                    projectDelta.accept(visitor);
+                }
+            }
+        } catch (CoreException e) {
+            PluginLogger.logError(this.getClass().toString(), "resourceChanged", "Error while visiting resource delta", e);
+            structureChanged[0] = true;
+        }
+        if (!structureChanged[0]) { return; }
+        
+        synchronized (existsCache) {
+            existsCache.clear();
+            cachedProjects.clear();
+        }
+        Display display = Display.getDefault();
+        if (!display.isDisposed()) {
+            display.asyncExec(new Runnable() {
+                @Override
+                public void run() {
+                    fireLabelProviderChanged(new LabelProviderChangedEvent(RELabelProvider.this));
+                }
+            });
+        }
+    }
+    
+    /**
+     * Returns the shared image for the given descriptor, which will be disposed together with this label provider
+     * @param descriptor image descriptor
+     * @return the shared image
+     */
+    private Image getSharedImage(ImageDescriptor descriptor) {
+        Image image = (Image) resourceManager.find(descriptor);
+        if (image == null) {
+            image = resourceManager.createImage(descriptor);
+        }
+        return image;
+    }
+    
+    @Override
+    public void dispose() {
+        ResourcesPlugin.getWorkspace().removeResourceChangeListener(this);
+        resourceManager.dispose();
+        super.dispose();
+    }
+    
     @Override
     public Image getImage(Object element) {
-        Image result = PlatformUI.getWorkbench().getEditorRegistry().getImageDescriptor(getText(element)).createImage();
+        Image result = null;
         if ((element instanceof MultipleReviewWrapper)) {
             MultipleReviewWrapper reviewElement = (MultipleReviewWrapper) element;
             String elementId = (reviewElement).getReviewId();
@@ -64,8 +180,7 @@ class RELabelProvider extends ColumnLabelProvider {
             if (!reviewElement.isOpen()) {
                 result = PlatformUI.getWorkbench().getSharedImages().getImage(SharedImages.IMG_OBJ_PROJECT_CLOSED);
             } else if (elementId.equals(PropertiesManager.getPreferences().getString(PropertiesManager.EXTERNAL_KEYS.ACTIVE_REVIEW))) {
-                result = AbstractUIPlugin.imageDescriptorFromPlugin(Activator.PLUGIN_ID,
-                        PropertiesManager.getInstance().getInternalProperty(PropertiesManager.INTERNAL_KEYS.ICONS.REVIEW_OK)).createImage();
+                result = PropertiesManager.getInstance().getIcon(PropertiesManager.INTERNAL_KEYS.ICONS.REVIEW_OK);
             }
         } else if (element instanceof MultipleProjectWrapper) {
             result = PlatformUI.getWorkbench().getSharedImages().getImage(SharedImages.IMG_OBJ_PROJECT);
@@ -73,6 +188,9 @@ class RELabelProvider extends ColumnLabelProvider {
             result = PlatformUI.getWorkbench().getSharedImages().getImage(ISharedImages.IMG_OBJ_FOLDER);
         }
         
+        if (result == null) {
+            result = getSharedImage(PlatformUI.getWorkbench().getEditorRegistry().getImageDescriptor(getText(element)));
+        }
         return result;
     }
     
@@ -91,6 +209,23 @@ class RELabelProvider extends ColumnLabelProvider {
         return result;
     }
     
+    @Override
+    public StyledString getStyledText(Object element) {
+        StyledString result = new StyledString(getText(element));
+        if (element instanceof AbstractMultipleWrapper) {
+            AbstractMultipleWrapper wrap = (AbstractMultipleWrapper) element;
+            // Comments of closed reviews are not loaded, so they cannot be counted
+            if (!(wrap instanceof MultipleReviewWrapper) || ((MultipleReviewWrapper) wrap).isOpen()) {
+                ReviewAccess ra = ReviewAccess.getInstance();
+                int total = ra.getCommentCount(wrap.getReviewId(), wrap.getPath());
+                if (total > 0) {
+                    result.append(" (" + ra.getOpenCommentCount(wrap.getReviewId(), wrap.getPath()) + "/" + total + ")", StyledString.COUNTER_STYLER);
+                }
+            }
+        }
+        return result;
+    }
+    
     @Override
     public Color getForeground(Object element) {
         if (!this.exists(element)) { return this.grey; }
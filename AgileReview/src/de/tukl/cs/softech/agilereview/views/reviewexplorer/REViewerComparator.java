@@ -4,6 +4,7 @@ import org.eclipse.jface.viewers.Viewer;
 import org.eclipse.jface.viewers.ViewerComparator;
 
 import de.tukl.cs.softech.agilereview.tools.PropertiesManager;
+import de.tukl.cs.softech.agilereview.views.reviewexplorer.wrapper.AbstractMultipleWrapper;
 import de.tukl.cs.softech.agilereview.views.reviewexplorer.wrapper.MultipleFileWrapper;
 import de.tukl.cs.softech.agilereview.views.reviewexplorer.wrapper.MultipleFolderWrapper;
 import de.tukl.cs.softech.agilereview.views.reviewexplorer.wrapper.MultipleReviewWrapper;
@@ -11,7 +12,7 @@ import de.tukl.cs.softech.agilereview.views.reviewexplorer.wrapper.MultipleRevie
 /**
  * Comparator which determines the ordering of elements in the Review Explorer. Reviews are firstly ordered by category (category=1 if review is
  * closed, category=0 otherwise) and then based on their names (except for the active review, which is always on top), all other elements are directly
- * ordered by their names
+ * ordered by their names. The names are taken from the wrappers, as the labels of the viewer are decorated with comment counts.
  */
 class REViewerComparator extends ViewerComparator {
     @Override
@@ -33,9 +34,28 @@ class REViewerComparator extends ViewerComparator {
         return result;
     }
     
+    /**
+     * Returns the name of the given element by which it is ordered within its category
+     * @param element element of the Review Explorer
+     * @return the review id for reviews, the name of the wrapper for all other wrappers
+     */
+    private String getName(Object element) {
+        String result = null;
+        if (element instanceof MultipleReviewWrapper) {
+            result = ((MultipleReviewWrapper) element).getReviewId();
+        } else if (element instanceof AbstractMultipleWrapper) {
+            result = ((AbstractMultipleWrapper) element).getName();
+        }
+        return result == null ? "" : result;
+    }
+    
+    @SuppressWarnings("unchecked")
     @Override
     public int compare(Viewer viewer, Object e1, Object e2) {
-        int result = super.compare(viewer, e1, e2);
+        int result = category(e1) - category(e2);
+        if (result == 0) {
+            result = getComparator().compare(getName(e1), getName(e2));
+        }
         if (e1 instanceof MultipleReviewWrapper && e2 instanceof MultipleReviewWrapper) {
             String activeReview = PropertiesManager.getPreferences().getString(PropertiesManager.EXTERNAL_KEYS.ACTIVE_REVIEW);
             if (activeReview.equals(((MultipleReviewWrapper) e1).getReviewId())) {
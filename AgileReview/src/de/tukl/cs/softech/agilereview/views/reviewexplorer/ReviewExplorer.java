@@ -1,5 +1,7 @@
 package de.tukl.cs.softech.agilereview.views.reviewexplorer;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Iterator;
 
 import org.eclipse.core.commands.ExecutionException;
@@ -7,6 +9,7 @@ import org.eclipse.core.commands.NotEnabledException;
 import org.eclipse.core.commands.NotHandledException;
 import org.eclipse.core.commands.common.NotDefinedException;
 import org.eclipse.jface.action.MenuManager;
+import org.eclipse.jface.viewers.DelegatingStyledCellLabelProvider;
 import org.eclipse.jface.viewers.DoubleClickEvent;
 import org.eclipse.jface.viewers.IDoubleClickListener;
 import org.eclipse.jface.viewers.ISelection;
@@ -15,6 +18,7 @@ import org.eclipse.jface.viewers.SelectionChangedEvent;
 import org.eclipse.jface.viewers.StructuredSelection;
 import org.eclipse.jface.viewers.TreePath;
 import org.eclipse.jface.viewers.TreeViewer;
+import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Menu;
 import org.eclipse.ui.PlatformUI;
@@ -50,6 +54,10 @@ public class ReviewExplorer extends ViewPart implements IDoubleClickListener {
      * The tree for showing the reviews
      */
     private TreeViewer treeViewer;
+    /**
+     * Content provider of the tree viewer, which caches the tree model
+     */
+    private REContentProvider contentProvider;
     /**
      * Action for opening the files displayed in the tree viewer on double-click
      */
@@ -76,11 +84,14 @@ public class ReviewExplorer extends ViewPart implements IDoubleClickListener {
         PluginLogger.log(this.getClass().toString(), "createPartControl", "ReviewExplorer will be created.");
         instance = this;
         
-        // Create the treeview MULTI, H_SCROLL, V_SCROLL, and BORDER
-        treeViewer = new TreeViewer(parent);
-        treeViewer.setContentProvider(new REContentProvider());
-        treeViewer.setLabelProvider(new RELabelProvider());
-        treeViewer.setComparator(new REViewerComparator());
+        // Create the treeview MULTI, H_SCROLL, V_SCROLL, BORDER and VIRTUAL (nodes are materialized when expanded or scrolled into view)
+        treeViewer = new TreeViewer(parent, SWT.MULTI | SWT.H_SCROLL | SWT.V_SCROLL | SWT.BORDER | SWT.VIRTUAL);
+        treeViewer.setUseHashlookup(true);
+        // the content provider sorts the children itself, as lazy content providers do not support sorters
+        contentProvider = new REContentProvider();
+        treeViewer.setContentProvider(contentProvider);
+        // the labels are decorated with the open/total comment counts of each node
+        treeViewer.setLabelProvider(new DelegatingStyledCellLabelProvider(new RELabelProvider()));
         treeViewer.setInput(this.root);
         treeViewer.addSelectionChangedListener(ViewControl.getInstance());
         refreshInput();
@@ -103,16 +114,47 @@ public class ReviewExplorer extends ViewPart implements IDoubleClickListener {
     }
     
     /**
-     * Refreshes the tree viewer. Also expands all previously expanded nodes afterwards.
+     * Refreshes the tree viewer. The cached tree model will be rebuilt. Also expands all previously expanded nodes afterwards.
      */
     public void refresh() {
         PluginLogger.log(this.getClass().toString(), "refresh", "Refreshing the ReviewExplorer viewer (without reloading the input)");
         this.treeViewer.getControl().setRedraw(false);
-        Object[] expandedElements = this.treeViewer.getExpandedElements();
+        HashSet<String> expandedIds = getExpandedIds();
+        this.contentProvider.invalidate();
         this.treeViewer.refresh();
         
-        for (Object o : expandedElements) {
-            this.treeViewer.expandToLevel(o, 1);
+        restoreExpansion(TreePath.EMPTY, this.root, expandedIds);
+        this.treeViewer.getControl().setRedraw(true);
+        this.treeViewer.getControl().redraw();
+    }
+    
+    /**
+     * Updates the labels of the materialized nodes (e.g. after comment counts changed) without rebuilding the cached tree model
+     */
+    public void refreshLabels() {
+        PluginLogger.log(this.getClass().toString(), "refreshLabels", "Refreshing the labels of the ReviewExplorer viewer");
+        this.treeViewer.refresh(true);
+    }
+    
+    /**
+     * Refreshes only the sub trees of the given reviews (without reloading the input). The expansion state is restored afterwards.
+     * @param reviewIds IDs of the reviews which should be refreshed
+     */
+    public void refreshReviews(Collection<String> reviewIds) {
+        PluginLogger.log(this.getClass().toString(), "refreshReviews", "Refreshing the ReviewExplorer viewer for reviews " + reviewIds);
+        this.treeViewer.getControl().setRedraw(false);
+        HashSet<String> expandedIds = getExpandedIds();
+        this.contentProvider.invalidate(reviewIds);
+        
+        for (MultipleReviewWrapper r : this.root.getReviews()) {
+            if (reviewIds.contains(r.getReviewId())) {
+                this.treeViewer.refresh(r);
+                if (expandedIds.contains(r.getId())) {
+                    TreePath path = TreePath.EMPTY.createChildPath(r);
+                    this.treeViewer.setExpandedState(path, true);
+                    restoreExpansion(path, r, expandedIds);
+                }
+            }
         }
         this.treeViewer.getControl().setRedraw(true);
         this.treeViewer.getControl().redraw();
@@ -127,9 +169,10 @@ public class ReviewExplorer extends ViewPart implements IDoubleClickListener {
         ISelection selection = this.treeViewer.getSelection();
         // Save expansion state
         this.treeViewer.getControl().setRedraw(false);
-        TreePath[] expandedElements = this.treeViewer.getExpandedTreePaths();
+        HashSet<String> expandedIds = getExpandedIds();
         
         // Refresh the input
+        this.contentProvider.invalidate();
         this.root.clear();
         for (Review r : RA.getAllReviews()) {
             MultipleReviewWrapper currWrap = new MultipleReviewWrapper(r, r.getId());
@@ -140,9 +183,7 @@ public class ReviewExplorer extends ViewPart implements IDoubleClickListener {
         
         // Expand nodes again
         this.treeViewer.refresh();
-        for (Object o : expandedElements) {
-            this.treeViewer.expandToLevel(o, 1);
-        }
+        restoreExpansion(TreePath.EMPTY, this.root, expandedIds);
         this.treeViewer.getControl().setRedraw(true);
         this.treeViewer.getControl().redraw();
         
@@ -150,6 +191,39 @@ public class ReviewExplorer extends ViewPart implements IDoubleClickListener {
         this.treeViewer.setSelection(selection, true);
     }
     
+    /**
+     * Returns the stable ids of all expanded nodes
+     * @return ids of all expanded nodes
+     * @see AbstractMultipleWrapper#getId()
+     */
+    private HashSet<String> getExpandedIds() {
+        HashSet<String> result = new HashSet<String>();
+        for (Object o : this.treeViewer.getExpandedElements()) {
+            if (o instanceof AbstractMultipleWrapper) {
+                result.add(((AbstractMultipleWrapper) o).getId());
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Expands all children of the given node whose ids are contained in the given set, and recursively their children. Only the children of
+     * expanded nodes will be computed.
+     * @param parentPath tree path of the given node
+     * @param parent node whose children should be expanded
+     * @param expandedIds ids of the nodes which should be expanded
+     */
+    private void restoreExpansion(TreePath parentPath, Object parent, HashSet<String> expandedIds) {
+        if (expandedIds.isEmpty()) { return; }
+        for (Object o : this.contentProvider.getChildren(parent)) {
+            if (expandedIds.contains(((AbstractMultipleWrapper) o).getId())) {
+                TreePath path = parentPath.createChildPath(o);
+                this.treeViewer.setExpandedState(path, true);
+                restoreExpansion(path, o, expandedIds);
+            }
+        }
+    }
+    
     /**
      * Adds the given review to the viewer
      * @param r the new Review
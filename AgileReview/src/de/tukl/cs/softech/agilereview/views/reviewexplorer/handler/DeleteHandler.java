@@ -18,6 +18,7 @@ import de.tukl.cs.softech.agilereview.tools.PluginLogger;
 import de.tukl.cs.softech.agilereview.tools.PropertiesManager;
 import de.tukl.cs.softech.agilereview.views.ViewControl;
 import de.tukl.cs.softech.agilereview.views.commenttable.CommentTableView;
+import de.tukl.cs.softech.agilereview.views.detail.DetailView;
 import de.tukl.cs.softech.agilereview.views.reviewexplorer.ReviewExplorer;
 import de.tukl.cs.softech.agilereview.views.reviewexplorer.wrapper.AbstractMultipleWrapper;
 import de.tukl.cs.softech.agilereview.views.reviewexplorer.wrapper.MultipleReviewWrapper;
@@ -59,6 +60,9 @@ public class DeleteHandler extends AbstractHandler {
                             
                             // Delete comments of this review from TableView and from database
                             for (Comment c : ra.getComments(wrap.getReviewId(), wrap.getPath())) {
+                                if (ViewControl.isOpen(DetailView.class)) {
+                                    DetailView.getInstance().objectDeleted(c);
+                                }
                                 if (ViewControl.isOpen(CommentTableView.class)) {
                                     CommentTableView.getInstance().deleteComment(c);
                                 }
@@ -71,6 +75,9 @@ public class DeleteHandler extends AbstractHandler {
                             
                             // The following is only considered if a whole review should be deleted
                             if (wrap instanceof MultipleReviewWrapper) {
+                                if (ViewControl.isOpen(DetailView.class)) {
+                                    DetailView.getInstance().objectDeleted(((MultipleReviewWrapper) wrap).getWrappedReview());
+                                }
                                 // Delete the selected review from ReviewExplorer
                                 if (ViewControl.isOpen(ReviewExplorer.class)) {
                                     ReviewExplorer.getInstance().deleteReview((MultipleReviewWrapper) wrap);
@@ -16,6 +16,7 @@ import de.tukl.cs.softech.agilereview.plugincontrol.exceptions.NoReviewSourceFol
 import de.tukl.cs.softech.agilereview.tools.PluginLogger;
 import de.tukl.cs.softech.agilereview.tools.PropertiesManager;
 import de.tukl.cs.softech.agilereview.views.ViewControl;
+import de.tukl.cs.softech.agilereview.views.detail.DetailView;
 import de.tukl.cs.softech.agilereview.views.reviewexplorer.wrapper.MultipleReviewWrapper;
 
 /**
@@ -46,6 +47,10 @@ public class OpenCloseReviewHandler extends AbstractHandler {
                             PluginLogger.log(this.getClass().toString(), "openCloseReview", "Review " + selectedWrap.getReviewId()
                                     + " will be closed");
                             selectedWrap.setOpen(false);
+                            // pending modifications of a displayed comment cannot be saved after unloading its review
+                            if (ViewControl.isOpen(DetailView.class)) {
+                                DetailView.getInstance().flushContent();
+                            }
                             ra.unloadReviewComments(reviewId);
                             pm.removeFromOpenReviews(reviewId);
                             
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 
 import javax.xml.namespace.QName;
 
+import org.apache.xmlbeans.XmlCursor;
 import org.apache.xmlbeans.XmlObject;
 
 /**
@@ -33,7 +34,9 @@ public abstract class AbstractMultipleWrapper implements Comparable<AbstractMult
      * @param reviewId Review this wrapper belongs to
      */
     public AbstractMultipleWrapper(XmlObject initalElement, String reviewId) {
-        this.name = initalElement.newCursor().getAttributeText(new QName("name"));
+        XmlCursor c = initalElement.newCursor();
+        this.name = c.getAttributeText(new QName("name"));
+        c.dispose();
         add(initalElement);
         // Create path
         this.path = createPath(initalElement);
@@ -64,6 +67,14 @@ public abstract class AbstractMultipleWrapper implements Comparable<AbstractMult
         return this.path;
     }
     
+    /**
+     * Returns an id of the node represented by this wrapper, which stays stable when the wrappers are recreated (e.g. after reloading the model)
+     * @return stable id of this wrapper
+     */
+    public String getId() {
+        return getClass().getSimpleName() + ":" + this.reviewId + ":" + this.path;
+    }
+    
     /**
      * Adds an element to this wrapper
      * @param f element
@@ -86,6 +97,14 @@ public abstract class AbstractMultipleWrapper implements Comparable<AbstractMult
      */
     public abstract Object[] getChildren();
     
+    /**
+     * Returns whether this wrapper has children. Subclasses should override this method if the check can be done without computing the children.
+     * @return <i>true</i> if this wrapper has at least one child, <i>false</i> otherwise
+     */
+    public boolean hasChildren() {
+        return getChildren().length > 0;
+    }
+    
     /**
      * Abstract method for creating the path representing this wrapper. Each subclass of this abstract class has to implement this routine itself
      * @param obj object from which the path is derived
@@ -105,6 +124,11 @@ public abstract class AbstractMultipleWrapper implements Comparable<AbstractMult
         return result;
     }
     
+    @Override
+    public int hashCode() {
+        return 31 * this.reviewId.hashCode() + this.path.hashCode();
+    }
+    
     @Override
     public String toString() {
         return this.getName();
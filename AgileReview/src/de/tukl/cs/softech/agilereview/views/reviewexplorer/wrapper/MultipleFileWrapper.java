@@ -26,6 +26,11 @@ public class MultipleFileWrapper extends AbstractMultipleWrapper {
         return new Object[0];
     }
     
+    @Override
+    public boolean hasChildren() {
+        return false;
+    }
+    
     @Override
     protected String createPath(XmlObject obj) {
         File f = (File) obj;
@@ -36,6 +36,15 @@ public class MultipleFolderWrapper extends AbstractMultipleWrapper {
         return result.toArray();
     }
     
+    @Override
+    public boolean hasChildren() {
+        for (XmlObject o : super.internalList) {
+            Folder f = (Folder) o;
+            if (f.sizeOfFolderArray() > 0 || f.sizeOfFileArray() > 0) { return true; }
+        }
+        return false;
+    }
+    
     //	public boolean belongsHere(Folder f)
     //	{
     //		return this.path.equals(createPath(f));
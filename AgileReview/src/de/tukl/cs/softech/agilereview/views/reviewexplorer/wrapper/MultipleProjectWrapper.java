@@ -32,6 +32,15 @@ public class MultipleProjectWrapper extends AbstractMultipleWrapper {
         return result.toArray();
     }
     
+    @Override
+    public boolean hasChildren() {
+        for (XmlObject o : internalList) {
+            Project p = (Project) o;
+            if (p.sizeOfFolderArray() > 0 || p.sizeOfFileArray() > 0) { return true; }
+        }
+        return false;
+    }
+    
     @Override
     protected String createPath(XmlObject obj) {
         return ((Project) obj).getName();
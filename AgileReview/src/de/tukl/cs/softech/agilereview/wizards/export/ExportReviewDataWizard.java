@@ -1,18 +1,17 @@
 package de.tukl.cs.softech.agilereview.wizards.export;
 
-import java.lang.reflect.InvocationTargetException;
 import java.util.Set;
 
-import org.eclipse.jface.dialogs.MessageDialog;
-import org.eclipse.jface.dialogs.ProgressMonitorDialog;
+import org.eclipse.jface.operation.IRunnableWithProgress;
 import org.eclipse.jface.viewers.IStructuredSelection;
 import org.eclipse.jface.wizard.Wizard;
 import org.eclipse.ui.IWorkbench;
 import org.eclipse.ui.IWorkbenchWizard;
-import org.eclipse.ui.PlatformUI;
 
+import de.tukl.cs.softech.agilereview.export.CSVExport;
+import de.tukl.cs.softech.agilereview.export.ExportJob;
+import de.tukl.cs.softech.agilereview.export.JSONLinesExport;
 import de.tukl.cs.softech.agilereview.export.XSLExport;
-import de.tukl.cs.softech.agilereview.tools.PluginLogger;
 import de.tukl.cs.softech.agilereview.tools.PropertiesManager;
 
 /**
@@ -30,7 +29,6 @@ public class ExportReviewDataWizard extends Wizard implements IWorkbenchWizard {
      */
     public ExportReviewDataWizard() {
         super();
-        setNeedsProgressMonitor(true);
     }
     
     /**
@@ -39,7 +37,6 @@ public class ExportReviewDataWizard extends Wizard implements IWorkbenchWizard {
      */
     public ExportReviewDataWizard(Set<String> selectedReviews) {
         super();
-        setNeedsProgressMonitor(true);
         page1.setSelectedReviews(selectedReviews);
     }
     
@@ -58,22 +55,19 @@ public class ExportReviewDataWizard extends Wizard implements IWorkbenchWizard {
      */
     @Override
     public boolean performFinish() {
-        try {
-            ProgressMonitorDialog pmd = new ProgressMonitorDialog(ExportReviewDataWizard.this.getShell());
-            pmd.open();
-            pmd.run(true, false, new XSLExport(page1.getSelectedReviews(), page1.getTemplatePath(), page1.getExportPath()));
-            pmd.close();
-            if (page1.isSavePathAsDefault()) {
-                PropertiesManager.setDefaultExportPaths(page1.getTemplatePath(), page1.getExportPath());
-            }
-        } catch (InvocationTargetException e) {
-            PluginLogger.logError(this.getClass().toString(), "performFinish", "InvocationTargetException", e);
-            MessageDialog.openError(PlatformUI.getWorkbench().getActiveWorkbenchWindow().getShell(), "Error while exporting Reviews",
-                    "An Eclipse internal error occured!\nRetry and please report the bug when it occurs again.\nCode:1");
-        } catch (InterruptedException e) {
-            PluginLogger.logError(this.getClass().toString(), "performFinish", "InterruptedException", e);
-            MessageDialog.openError(PlatformUI.getWorkbench().getActiveWorkbenchWindow().getShell(), "Error while exporting Reviews",
-                    "An Eclipse internal error occured!\nRetry and please report the bug when it occurs again.\nCode:2");
+        IRunnableWithProgress export;
+        if (page1.getExportFormat() == ExportReviewDataWizardPage.FORMAT_CSV) {
+            export = new CSVExport(page1.getSelectedReviews(), page1.getExportPath(), page1.isIncremental());
+        } else if (page1.getExportFormat() == ExportReviewDataWizardPage.FORMAT_JSON) {
+            export = new JSONLinesExport(page1.getSelectedReviews(), page1.getExportPath(), page1.isIncremental());
+        } else {
+            export = new XSLExport(page1.getSelectedReviews(), page1.getTemplatePath(), page1.getExportPath(), page1.isIncremental(), page1
+                    .isMerge());
+        }
+        // the exports copy the selected reviews on creation, so they can run in background while the user continues working
+        new ExportJob(export).schedule();
+        if (page1.isSavePathAsDefault()) {
+            PropertiesManager.setDefaultExportPaths(page1.getTemplatePath(), page1.getExportPath());
         }
         return true;
     }
@@ -20,6 +20,7 @@ import org.eclipse.swt.events.SelectionListener;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.layout.GridLayout;
 import org.eclipse.swt.widgets.Button;
+import org.eclipse.swt.widgets.Combo;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.DirectoryDialog;
 import org.eclipse.swt.widgets.Event;
@@ -43,6 +44,19 @@ import de.tukl.cs.softech.agilereview.tools.PropertiesManager;
  */
 public class ExportReviewDataWizardPage extends WizardPage implements SelectionListener, ModifyListener, Listener {
     
+    /**
+     * Export format: XLS/XLSX file generated from a template
+     */
+    static final int FORMAT_XLS = 0;
+    /**
+     * Export format: CSV files, which are written in a streaming manner
+     */
+    static final int FORMAT_CSV = 1;
+    /**
+     * Export format: JSON-lines file with one comment per line, which can be imported again
+     */
+    static final int FORMAT_JSON = 2;
+    
     /**
      * Instance of ReviewAccess
      */
@@ -75,10 +89,26 @@ public class ExportReviewDataWizardPage extends WizardPage implements SelectionL
      * TreeViewer of Reviews to be exported
      */
     private CheckboxTreeViewer cbtreeviewer;
+    /**
+     * ComboBox for the export format
+     */
+    private Combo formatCombo;
+    /**
+     * Browse button for the template
+     */
+    private Button browseButtonTemplate;
     /**
      * Checkbox for "check as default" property
      */
     private Button checkSave;
+    /**
+     * Checkbox for exporting only the comments changed since the last export
+     */
+    private Button checkIncremental;
+    /**
+     * Checkbox for merging an incremental export into the latest export
+     */
+    private Button checkMerge;
     /**
      * a map of all reviews that are currently opened and their ids
      */
@@ -94,7 +124,7 @@ public class ExportReviewDataWizardPage extends WizardPage implements SelectionL
     protected ExportReviewDataWizardPage() {
         super("ExportReviewDataWizard1");
         setTitle("Export Review Data");
-        setDescription("This wizard exports the data of selected AgileReviews to an XLS/XLSX-File.");
+        setDescription("This wizard exports the data of selected AgileReviews to an XLS/XLSX-File, to CSV files or to a JSON-lines file.");
     }
     
     /* (non-Javadoc)
@@ -114,9 +144,23 @@ public class ExportReviewDataWizardPage extends WizardPage implements SelectionL
         container.setLayout(layout);
         layout.numColumns = 4;
         
+        // ui elements for selecting the export format
+        Label formatLabel = new Label(container, SWT.NULL);
+        formatLabel.setText("Export format:");
+        
+        GridData fGD = new GridData(GridData.FILL_HORIZONTAL);
+        fGD.horizontalSpan = layout.numColumns - 1;
+        formatCombo = new Combo(container, SWT.DROP_DOWN | SWT.READ_ONLY);
+        formatCombo.add("XLS/XLSX (from template)", FORMAT_XLS);
+        formatCombo.add("CSV (streamed, for large exports)", FORMAT_CSV);
+        formatCombo.add("JSON lines (streamed, for tools and bulk import)", FORMAT_JSON);
+        formatCombo.select(FORMAT_XLS);
+        formatCombo.addModifyListener(this);
+        formatCombo.setLayoutData(fGD);
+        
         // ui elements for selecting export path
         Label pathLabel = new Label(container, SWT.NULL);
-        pathLabel.setText("XLS export location:");
+        pathLabel.setText("Export location:");
         
         GridData gd = new GridData(GridData.FILL_HORIZONTAL);
         gd.horizontalSpan = layout.numColumns - 2;
@@ -144,7 +188,7 @@ public class ExportReviewDataWizardPage extends WizardPage implements SelectionL
         templatePathText.addModifyListener(this);
         templatePathText.setLayoutData(gd);
         
-        Button browseButtonTemplate = new Button(container, SWT.NULL);
+        browseButtonTemplate = new Button(container, SWT.NULL);
         browseButtonTemplate.setText("Browse...");
         browseButtonTemplate.setData("template");
         browseButtonTemplate.addSelectionListener(this);
@@ -171,6 +215,24 @@ public class ExportReviewDataWizardPage extends WizardPage implements SelectionL
         checkSave.setSelection(false);
         checkSave.setLayoutData(rlGD);
         
+        // ui elements for incremental exports
+        rlGD = new GridData(GridData.FILL_HORIZONTAL);
+        rlGD.horizontalSpan = layout.numColumns;
+        
+        checkIncremental = new Button(container, SWT.CHECK);
+        checkIncremental.setText("Export only comments created or modified since the last export");
+        checkIncremental.setSelection(false);
+        checkIncremental.setData("incremental");
+        checkIncremental.addSelectionListener(this);
+        checkIncremental.setLayoutData(rlGD);
+        
+        checkMerge = new Button(container, SWT.CHECK);
+        checkMerge.setText("Merge into the latest XLS/XLSX export of the export location");
+        checkMerge.setSelection(false);
+        checkMerge.setEnabled(false);
+        checkMerge.setData("merge");
+        checkMerge.setLayoutData(rlGD);
+        
         // spacer to generate some space between path and review selection
         rlGD = new GridData(GridData.FILL_HORIZONTAL);
         rlGD.horizontalSpan = layout.numColumns;
@@ -273,6 +335,8 @@ public class ExportReviewDataWizardPage extends WizardPage implements SelectionL
                 if (dir != null) {
                     exportPathText.setText(dir);
                 }
+            } else if (e.widget.getData().equals("incremental")) {
+                updateMergeEnablement();
             }
         } else if (e.widget instanceof Tree) {
             // selection of reviews changed	
@@ -305,6 +369,14 @@ public class ExportReviewDataWizardPage extends WizardPage implements SelectionL
     
     @Override
     public void modifyText(ModifyEvent e) {
+        if (e.getSource().equals(this.formatCombo)) {
+            // a template is only needed for the XLS export
+            boolean xls = getExportFormat() == FORMAT_XLS;
+            this.templatePathText.setEnabled(xls);
+            this.browseButtonTemplate.setEnabled(xls);
+            updateMergeEnablement();
+            this.pathsValid = checkPathValidity();
+        }
         if (e.getSource().equals(this.templatePathText)) {
             this.pathsValid = checkPathValidity();
         } else if (e.getSource().equals(this.exportPathText)) {
@@ -313,6 +385,13 @@ public class ExportReviewDataWizardPage extends WizardPage implements SelectionL
         setPageComplete(reviewsSelected && pathsValid);
     }
     
+    /**
+     * Enables the merge checkbox, if an incremental XLS export is selected
+     */
+    private void updateMergeEnablement() {
+        checkMerge.setEnabled(getExportFormat() == FORMAT_XLS && checkIncremental.getSelection());
+    }
+    
     /**
      * Checks whether all paths are valid
      * @return true, if all paths are valid<br> false, otherwise
@@ -320,7 +399,8 @@ public class ExportReviewDataWizardPage extends WizardPage implements SelectionL
     private boolean checkPathValidity() {
         File templatePath = new File(templatePathText.getText());
         File exportPath = new File(exportPathText.getText());
-        if (templatePath.exists() && exportPath.exists() && !templatePathText.getText().isEmpty() && !exportPathText.getText().isEmpty()) {
+        boolean templateValid = getExportFormat() != FORMAT_XLS || (templatePath.exists() && !templatePathText.getText().isEmpty());
+        if (templateValid && exportPath.exists() && !exportPathText.getText().isEmpty()) {
             this.setErrorMessage(null);
             return true;
         } else {
@@ -336,6 +416,13 @@ public class ExportReviewDataWizardPage extends WizardPage implements SelectionL
         return exportPathText.getText();
     }
     
+    /**
+     * @return the selected export format ({@link #FORMAT_XLS}, {@link #FORMAT_CSV} or {@link #FORMAT_JSON})
+     */
+    int getExportFormat() {
+        return formatCombo.getSelectionIndex();
+    }
+    
     /**
      * @return the path selected for export template
      */
@@ -372,6 +459,22 @@ public class ExportReviewDataWizardPage extends WizardPage implements SelectionL
         return checkSave.getSelection();
     }
     
+    /**
+     * Returns whether only the comments changed since the last export should be exported
+     * @return true, if the export should be incremental<br>false, otherwise
+     */
+    boolean isIncremental() {
+        return checkIncremental.getSelection();
+    }
+    
+    /**
+     * Returns whether an incremental export should be merged into the latest export of the export location
+     * @return true, if the export should be merged<br>false, otherwise
+     */
+    boolean isMerge() {
+        return checkMerge.isEnabled() && checkMerge.getSelection();
+    }
+    
     @Override
     public void handleEvent(Event event) {
         if (event.widget.getData().equals("exampleTemplates") && event.text.equals("link")) {
@@ -0,0 +1,74 @@
+package de.tukl.cs.softech.agilereview.wizards.imports;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.eclipse.jface.dialogs.MessageDialog;
+import org.eclipse.jface.viewers.IStructuredSelection;
+import org.eclipse.jface.wizard.Wizard;
+import org.eclipse.ui.IImportWizard;
+import org.eclipse.ui.IWorkbench;
+
+import de.tukl.cs.softech.agilereview.export.JSONLinesImport;
+import de.tukl.cs.softech.agilereview.tools.PluginLogger;
+import de.tukl.cs.softech.agilereview.views.ViewControl;
+
+/**
+ * Provides a wizard for importing comments from a JSON-lines file
+ */
+public class ImportReviewDataWizard extends Wizard implements IImportWizard {
+    
+    /**
+     * The first and sole page of the wizard
+     */
+    private final ImportReviewDataWizardPage page1 = new ImportReviewDataWizardPage();
+    
+    /**
+     * creates a new wizard
+     */
+    public ImportReviewDataWizard() {
+        super();
+        setNeedsProgressMonitor(true);
+        setWindowTitle("Review Import");
+    }
+    
+    /**
+     * adds all needed pages to the wizard
+     * @see org.eclipse.jface.wizard.Wizard#addPages()
+     */
+    @Override
+    public void addPages() {
+        addPage(page1);
+    }
+    
+    /**
+     * Execute the actual wizard command after all information was collected
+     * @see org.eclipse.jface.wizard.Wizard#performFinish()
+     */
+    @Override
+    public boolean performFinish() {
+        JSONLinesImport importer = new JSONLinesImport(page1.getImportPath());
+        try {
+            getContainer().run(true, true, importer);
+        } catch (InvocationTargetException e) {
+            PluginLogger.logError(this.getClass().toString(), "performFinish", "Error while importing review data", e.getCause());
+            MessageDialog.openError(getShell(), "Error while importing Review data", e.getMessage() != null ? e.getMessage()
+                    : "An error occured while importing the selected file!");
+        } catch (InterruptedException e) {
+            PluginLogger.log(this.getClass().toString(), "performFinish", "Import canceled");
+        }
+        // the comments imported so far have been saved, even if the import failed
+        ViewControl.refreshViews(ViewControl.COMMMENT_TABLE_VIEW | ViewControl.REVIEW_EXPLORER, true);
+        MessageDialog.openInformation(getShell(), "Review Import", "Imported comments: " + importer.getCreated() + " created, "
+                + importer.getUpdated() + " updated, " + importer.getSkipped() + " unchanged");
+        return true;
+    }
+    
+    /**
+     * not needed
+     * @see org.eclipse.ui.IWorkbenchWizard#init(org.eclipse.ui.IWorkbench, org.eclipse.jface.viewers.IStructuredSelection)
+     */
+    @Override
+    public void init(IWorkbench workbench, IStructuredSelection selection) { /* Do nothing */
+    }
+    
+}
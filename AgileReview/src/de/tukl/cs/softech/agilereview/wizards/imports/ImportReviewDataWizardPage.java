@@ -0,0 +1,88 @@
+package de.tukl.cs.softech.agilereview.wizards.imports;
+
+import java.io.File;
+
+import org.eclipse.jface.wizard.WizardPage;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.events.ModifyEvent;
+import org.eclipse.swt.events.ModifyListener;
+import org.eclipse.swt.events.SelectionAdapter;
+import org.eclipse.swt.events.SelectionEvent;
+import org.eclipse.swt.layout.GridData;
+import org.eclipse.swt.layout.GridLayout;
+import org.eclipse.swt.widgets.Button;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.FileDialog;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Text;
+
+/**
+ * The single page of the ImportReviewData Wizard
+ */
+public class ImportReviewDataWizardPage extends WizardPage implements ModifyListener {
+    
+    /**
+     * The textfield containing the path of the file to be imported
+     */
+    private Text importPathText;
+    
+    /**
+     * Creates a new page
+     */
+    protected ImportReviewDataWizardPage() {
+        super("ImportReviewDataWizard1");
+        setTitle("Import Review Data");
+        setDescription("This wizard imports comments from a JSON-lines file, which has been created by the AgileReview export.");
+    }
+    
+    /* (non-Javadoc)
+     * @see org.eclipse.jface.dialogs.IDialogPage#createControl(org.eclipse.swt.widgets.Composite)
+     */
+    @Override
+    public void createControl(Composite parent) {
+        Composite container = new Composite(parent, SWT.NULL);
+        GridLayout layout = new GridLayout();
+        container.setLayout(layout);
+        layout.numColumns = 3;
+        
+        Label pathLabel = new Label(container, SWT.NULL);
+        pathLabel.setText("File to import:");
+        
+        importPathText = new Text(container, SWT.BORDER | SWT.SINGLE);
+        importPathText.addModifyListener(this);
+        importPathText.setLayoutData(new GridData(GridData.FILL_HORIZONTAL));
+        
+        Button browseButton = new Button(container, SWT.NULL);
+        browseButton.setText("Browse...");
+        browseButton.addSelectionListener(new SelectionAdapter() {
+            @Override
+            public void widgetSelected(SelectionEvent e) {
+                FileDialog dlg = new FileDialog(getShell(), SWT.OPEN);
+                dlg.setText("AgileReview Import");
+                dlg.setFilterExtensions(new String[] { "*.jsonl", "*.*" });
+                String file = dlg.open();
+                if (file != null) {
+                    importPathText.setText(file);
+                }
+            }
+        });
+        
+        // Required to avoid an error in the system
+        setControl(container);
+        setPageComplete(false);
+    }
+    
+    @Override
+    public void modifyText(ModifyEvent e) {
+        boolean valid = new File(importPathText.getText()).isFile();
+        setErrorMessage(valid || importPathText.getText().isEmpty() ? null : "The selected file does not exist.");
+        setPageComplete(valid);
+    }
+    
+    /**
+     * @return the path of the file to be imported
+     */
+    String getImportPath() {
+        return importPathText.getText();
+    }
+}
@@ -207,9 +207,8 @@ final class NoReviewSourceWizardPage extends WizardPage implements Listener {
                 IProject p = workspaceRoot.getProject(comboClosedProjects.getText());
                 try {
                     // TODO: use ProgressMonitor here
+                    // open() returns when the project has been opened, so it can be used directly
                     p.open(null);
-                    while (!p.isOpen()) {
-                    }
                     updateComboBoxes(p.getName());
                 } catch (CoreException e) {
                     setErrorMessage(e.getLocalizedMessage());
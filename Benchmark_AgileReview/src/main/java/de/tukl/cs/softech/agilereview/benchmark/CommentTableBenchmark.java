@@ -0,0 +1,71 @@
+package de.tukl.cs.softech.agilereview.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.tukl.cs.softech.agilereview.views.commenttable.AgileViewerComparator;
+
+/**
+ * Benchmark of sorting the comment table by the {@link AgileViewerComparator}. The filter of the comment table delegates to the full-text
+ * index of the model, which is measured by <code>ReviewModelBenchmark</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CommentTableBenchmark {
+    
+    /**
+     * Number of comments in the table
+     */
+    @Param({ "1000", "50000" })
+    public int comments;
+    /**
+     * Column to be sorted by: 2 = author, 7 = creation date, 10 = location (path)
+     */
+    @Param({ "2", "7", "10" })
+    public int column;
+    
+    /**
+     * Comments of the table
+     */
+    private Object[] elements;
+    /**
+     * Comparator of the table
+     */
+    private AgileViewerComparator comparator;
+    
+    /**
+     * Creates the comments and the comparator
+     */
+    @Setup
+    public void setup() {
+        elements = new SyntheticReviewData(42, 500, 5).createComments(10, 10, comments / 100).toArray();
+        comparator = new AgileViewerComparator();
+        comparator.setColumn(column);
+    }
+    
+    /**
+     * Sorts a copy of the comments, as done on each refresh of the table
+     * @return the sorted comments
+     */
+    @Benchmark
+    public Object[] sort() {
+        Object[] copy = elements.clone();
+        comparator.sort(null, copy);
+        return copy;
+    }
+}
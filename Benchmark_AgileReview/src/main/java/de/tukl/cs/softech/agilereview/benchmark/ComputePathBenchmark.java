@@ -0,0 +1,63 @@
+package de.tukl.cs.softech.agilereview.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import agileReview.softech.tukl.de.CommentDocument.Comment;
+import de.tukl.cs.softech.agilereview.dataaccess.ReviewAccess;
+
+/**
+ * Benchmark of {@link ReviewAccess#computePath(org.apache.xmlbeans.XmlObject)}, which walks the XML tree from a comment up to the files node
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ComputePathBenchmark {
+    
+    /**
+     * Number of folders between the project and the commented files
+     */
+    @Param({ "2", "8" })
+    public int depth;
+    
+    /**
+     * Comments whose paths are computed
+     */
+    private List<Comment> comments;
+    /**
+     * Index of the next comment
+     */
+    private int next;
+    
+    /**
+     * Creates the comments
+     */
+    @Setup
+    public void setup() {
+        comments = new SyntheticReviewData(42, 100, depth).createComments(1, 1, 1000);
+    }
+    
+    /**
+     * Computes the path of a comment
+     * @return the path of the comment
+     */
+    @Benchmark
+    public String computePath() {
+        return ReviewAccess.computePath(comments.get(next++ % comments.size()));
+    }
+}
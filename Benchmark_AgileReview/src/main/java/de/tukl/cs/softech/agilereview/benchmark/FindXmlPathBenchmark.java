@@ -0,0 +1,84 @@
+package de.tukl.cs.softech.agilereview.benchmark;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.xmlbeans.XmlObject;
+import org.eclipse.core.resources.IResource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import agileReview.softech.tukl.de.CommentsDocument;
+import de.tukl.cs.softech.agilereview.core.dataaccess.RefactoringAccess;
+
+/**
+ * Benchmarks of the XPath based lookup of files and folders within an author document, which is performed for each refactored resource
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FindXmlPathBenchmark {
+    
+    /**
+     * Number of comments of the author document
+     */
+    @Param({ "100", "5000" })
+    public int comments;
+    
+    /**
+     * Author document to be searched
+     */
+    private CommentsDocument doc;
+    /**
+     * Paths of the commented files
+     */
+    private final ArrayList<String> paths = new ArrayList<String>();
+    /**
+     * Index of the next path to be looked up
+     */
+    private int next;
+    
+    /**
+     * Creates the author document
+     */
+    @Setup
+    public void setup() {
+        SyntheticReviewData data = new SyntheticReviewData(42, 200, 5);
+        doc = data.createAuthorDocument("review0", "author0", comments);
+        for (int i = 0; i < 200; i++) {
+            paths.add(data.getPath(i));
+        }
+    }
+    
+    /**
+     * Looks up the node of a file
+     * @return the node of the file or null, if the file has not been commented
+     */
+    @Benchmark
+    public XmlObject findFile() {
+        return RefactoringAccess.findXmlPath(doc, paths.get(next++ % paths.size()), IResource.FILE, false);
+    }
+    
+    /**
+     * Looks up the node of a folder
+     * @return the node of the folder or null, if no file of the folder has been commented
+     */
+    @Benchmark
+    public XmlObject findFolder() {
+        String path = paths.get(next++ % paths.size());
+        return RefactoringAccess.findXmlPath(doc, path.substring(0, path.lastIndexOf(System.getProperty("file.separator"))), IResource.FOLDER,
+                false);
+    }
+}
@@ -0,0 +1,136 @@
+package de.tukl.cs.softech.agilereview.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import agileReview.softech.tukl.de.CommentDocument.Comment;
+import de.tukl.cs.softech.agilereview.core.dataaccess.CommentSearchIndex.Field;
+import de.tukl.cs.softech.agilereview.core.dataaccess.ReviewModel;
+
+/**
+ * Benchmarks of the {@link ReviewModel}: filling the model, looking up single comments, the comments of a path prefix or a file, and querying
+ * the full-text index as done by the filter of the comment table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ReviewModelBenchmark {
+    
+    /**
+     * Number of comments per author document (10 reviews with 10 authors each)
+     */
+    @Param({ "100", "1000" })
+    public int commentsPerAuthor;
+    
+    /**
+     * All comments of the model
+     */
+    private List<Comment> comments;
+    /**
+     * Model containing all comments
+     */
+    private ReviewModel model;
+    /**
+     * Paths of the commented files
+     */
+    private final ArrayList<String> paths = new ArrayList<String>();
+    /**
+     * Index of the next comment or path to be looked up
+     */
+    private int next;
+    
+    /**
+     * Creates the comments and fills the model
+     */
+    @Setup
+    public void setup() {
+        SyntheticReviewData data = new SyntheticReviewData(42, 500, 5);
+        comments = data.createComments(10, 10, commentsPerAuthor);
+        model = new ReviewModel();
+        for (Comment c : comments) {
+            model.addComment(c);
+        }
+        for (int i = 0; i < 500; i++) {
+            paths.add(data.getPath(i));
+        }
+    }
+    
+    /**
+     * Fills an empty model with all comments, including the path projection, the full-text index and the counts
+     * @return the filled model
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ReviewModel addComments() {
+        ReviewModel m = new ReviewModel();
+        for (Comment c : comments) {
+            m.addComment(c);
+        }
+        return m;
+    }
+    
+    /**
+     * Looks up a single comment by its key
+     * @return the found comment
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Comment getComment() {
+        Comment c = comments.get(next++ % comments.size());
+        return model.getComment(c.getReviewID(), c.getAuthor(), c.getId());
+    }
+    
+    /**
+     * Returns the comments of a review below a project, as requested by the cleanup and the Review Explorer
+     * @return the found comments
+     */
+    @Benchmark
+    public List<Comment> getCommentsOfProject() {
+        return model.getComments("review" + (next++ % 10), "project0" + System.getProperty("file.separator"));
+    }
+    
+    /**
+     * Returns the comments of a single file, as requested by the annotation parsers
+     * @return the found comments
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Object getFileComments() {
+        return model.getFileComments(paths.get(next++ % paths.size()));
+    }
+    
+    /**
+     * Searches all indexed fields for a prefix, as done by the filter of the comment table
+     * @return the keys of the matching comments
+     */
+    @Benchmark
+    public Object searchPrefix() {
+        return model.getSearchIndex().search("perf", Arrays.asList(Field.values()));
+    }
+    
+    /**
+     * Searches the texts for a phrase, as done by the filter of the comment table
+     * @return the keys of the matching comments
+     */
+    @Benchmark
+    public Object searchPhrase() {
+        return model.getSearchIndex().search("null pointer", Arrays.asList(Field.TEXT));
+    }
+}
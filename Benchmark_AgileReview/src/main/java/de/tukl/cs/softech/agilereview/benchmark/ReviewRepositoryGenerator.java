@@ -0,0 +1,535 @@
+package de.tukl.cs.softech.agilereview.benchmark;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.xmlbeans.XmlOptions;
+
+import agileReview.softech.tukl.de.CommentsDocument;
+import de.tukl.cs.softech.agilereview.tools.PropertiesManager;
+
+/**
+ * Writes a synthetic AgileReview workspace to disk, which reproduces the scale of large installations: an AgileReview source project
+ * containing a folder <code>review.&lt;id&gt;</code> with a <code>review.xml</code> and one <code>author_&lt;name&gt;.xml</code> per participating
+ * author for each review, and the commented projects whose source files contain the matching comment tags. The number of reviews, authors,
+ * comments, files and the depth of the paths as well as the distributions of the comments over reviews, authors and files are configurable.
+ * All data is derived from a seed, such that benchmarks and integration tests work on the same fixtures.<br>
+ * The generator can be used programmatically or from the command line, see {@link #main(String[])}.
+ */
+public class ReviewRepositoryGenerator {
+    
+    /**
+     * Distribution of the comments over reviews, authors or files
+     */
+    public enum Distribution {
+        /**
+         * Every element receives the same share
+         */
+        UNIFORM,
+        /**
+         * The share of the n-th element is proportional to 1/n, such that a few elements receive most of the comments
+         */
+        ZIPF;
+        
+        /**
+         * Returns the cumulative weights of the given number of elements
+         * @param n number of elements
+         * @return the cumulative weights, the last one being 1
+         */
+        double[] cumulativeWeights(int n) {
+            double[] result = new double[n];
+            double sum = 0;
+            for (int i = 0; i < n; i++) {
+                sum += this == UNIFORM ? 1 : 1.0 / (i + 1);
+                result[i] = sum;
+            }
+            for (int i = 0; i < n; i++) {
+                result[i] /= sum;
+            }
+            return result;
+        }
+    }
+    
+    /**
+     * Begin tag of the comments of Java files
+     */
+    private static final String BEGIN_TAG = "/*";
+    /**
+     * End tag of the comments of Java files
+     */
+    private static final String END_TAG = "*/";
+    
+    /**
+     * Name of the AgileReview source project
+     */
+    private String sourceProject = "AgileReview_Source";
+    /**
+     * Number of reviews
+     */
+    private int reviews = 200;
+    /**
+     * Number of distinct authors, from which the participants of the reviews are drawn
+     */
+    private int authors = 300;
+    /**
+     * Number of authors participating in each review
+     */
+    private int authorsPerReview = 10;
+    /**
+     * Total number of comments
+     */
+    private int comments = 100000;
+    /**
+     * Number of commented projects
+     */
+    private int projects = 3;
+    /**
+     * Number of source files
+     */
+    private int files = 5000;
+    /**
+     * Number of folders between the projects and the source files
+     */
+    private int depth = 8;
+    /**
+     * Minimum number of lines of each source file
+     */
+    private int lines = 200;
+    /**
+     * Distribution of the comments over the reviews
+     */
+    private Distribution reviewDistribution = Distribution.ZIPF;
+    /**
+     * Distribution of the comments of a review over its authors and of the participants over all authors
+     */
+    private Distribution authorDistribution = Distribution.ZIPF;
+    /**
+     * Distribution of the comments over the files
+     */
+    private Distribution fileDistribution = Distribution.ZIPF;
+    /**
+     * Seed of the random generators
+     */
+    private long seed = 42;
+    
+    /**
+     * Generates a repository with the default settings or those given as arguments: <code>-root &lt;dir&gt;</code> (required),
+     * <code>-sourceProject</code>, <code>-reviews</code>, <code>-authors</code>, <code>-authorsPerReview</code>, <code>-comments</code>,
+     * <code>-projects</code>, <code>-files</code>, <code>-depth</code>, <code>-lines</code>, <code>-seed</code> and
+     * <code>-reviewDistribution</code>, <code>-authorDistribution</code>, <code>-fileDistribution</code> (UNIFORM or ZIPF)
+     * @param args arguments as pairs of option and value
+     * @throws IOException if the repository could not be written
+     */
+    public static void main(String[] args) throws IOException {
+        ReviewRepositoryGenerator generator = new ReviewRepositoryGenerator();
+        File root = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String option = args[i];
+            String value = args[i + 1];
+            if (option.equals("-root")) {
+                root = new File(value);
+            } else if (option.equals("-sourceProject")) {
+                generator.setSourceProject(value);
+            } else if (option.equals("-reviews")) {
+                generator.setReviews(Integer.parseInt(value));
+            } else if (option.equals("-authors")) {
+                generator.setAuthors(Integer.parseInt(value));
+            } else if (option.equals("-authorsPerReview")) {
+                generator.setAuthorsPerReview(Integer.parseInt(value));
+            } else if (option.equals("-comments")) {
+                generator.setComments(Integer.parseInt(value));
+            } else if (option.equals("-projects")) {
+                generator.setProjects(Integer.parseInt(value));
+            } else if (option.equals("-files")) {
+                generator.setFiles(Integer.parseInt(value));
+            } else if (option.equals("-depth")) {
+                generator.setDepth(Integer.parseInt(value));
+            } else if (option.equals("-lines")) {
+                generator.setLines(Integer.parseInt(value));
+            } else if (option.equals("-seed")) {
+                generator.setSeed(Long.parseLong(value));
+            } else if (option.equals("-reviewDistribution")) {
+                generator.setReviewDistribution(Distribution.valueOf(value.toUpperCase()));
+            } else if (option.equals("-authorDistribution")) {
+                generator.setAuthorDistribution(Distribution.valueOf(value.toUpperCase()));
+            } else if (option.equals("-fileDistribution")) {
+                generator.setFileDistribution(Distribution.valueOf(value.toUpperCase()));
+            } else {
+                throw new IllegalArgumentException("Unknown option " + option);
+            }
+        }
+        if (root == null) { throw new IllegalArgumentException("The option -root <dir> is required"); }
+        
+        long start = System.currentTimeMillis();
+        generator.generate(root);
+        System.out.println("Generated " + generator.getComments() + " comments of " + generator.getReviews() + " reviews on "
+                + generator.getFiles() + " files in " + root.getAbsolutePath() + " (" + (System.currentTimeMillis() - start) + " ms)");
+    }
+    
+    /**
+     * Writes the repository into the given folder, which will contain the source project and the commented projects. Existing files will be
+     * overwritten.
+     * @param root folder of the workspace
+     * @throws IOException if a file could not be written
+     */
+    public void generate(File root) throws IOException {
+        SyntheticReviewData data = new SyntheticReviewData(seed, files, depth, projects);
+        Random random = new Random(seed);
+        int[][] participants = drawParticipants(random);
+        int[][] commentCounts = distributeComments(random);
+        double[] fileWeights = fileDistribution.cumulativeWeights(files);
+        // the files are shuffled, such that the most commented files are spread over all projects and folders
+        List<Integer> fileOrder = new ArrayList<Integer>(files);
+        for (int i = 0; i < files; i++) {
+            fileOrder.add(i);
+        }
+        Collections.shuffle(fileOrder, random);
+        
+        // write the review and author files one after another, such that only one author document is held in memory
+        File sourceFolder = new File(root, sourceProject);
+        writeProjectFile(sourceFolder, sourceProject, PropertiesManager.getInstance().getInternalProperty(
+                PropertiesManager.INTERNAL_KEYS.AGILEREVIEW_NATURE));
+        String separator = PropertiesManager.getInstance().getInternalProperty(PropertiesManager.INTERNAL_KEYS.KEY_SEPARATOR);
+        Map<Integer, List<String>> tags = new HashMap<Integer, List<String>>();
+        XmlOptions options = new XmlOptions().setSavePrettyPrint();
+        for (int r = 0; r < reviews; r++) {
+            String reviewId = "review" + r;
+            File reviewFolder = new File(sourceFolder, "review." + reviewId);
+            mkdirs(reviewFolder);
+            data.createReviewDocument(reviewId, getAuthorName(participants[r][0])).save(new File(reviewFolder, "review.xml"), options);
+            for (int a = 0; a < participants[r].length; a++) {
+                String author = getAuthorName(participants[r][a]);
+                CommentsDocument doc = data.createEmptyAuthorDocument(author);
+                for (int c = 0; c < commentCounts[r][a]; c++) {
+                    int file = fileOrder.get(sample(fileWeights, random));
+                    String id = "c" + c;
+                    data.addComment(doc, file, reviewId, author, id);
+                    List<String> keys = tags.get(file);
+                    if (keys == null) {
+                        keys = new ArrayList<String>();
+                        tags.put(file, keys);
+                    }
+                    keys.add(reviewId + separator + author + separator + id);
+                }
+                doc.save(new File(reviewFolder, "author_" + author + ".xml"), options);
+            }
+        }
+        
+        // write the commented projects including the tags of all comments
+        for (int p = 0; p < projects; p++) {
+            writeProjectFile(new File(root, "project" + p), "project" + p);
+        }
+        List<String> noTags = Collections.emptyList();
+        for (int f = 0; f < files; f++) {
+            List<String> keys = tags.containsKey(f) ? tags.get(f) : noTags;
+            File file = new File(root, data.getPath(f));
+            mkdirs(file.getParentFile());
+            write(file, data.createSource(Math.max(lines, 2 * keys.size()), keys, BEGIN_TAG, END_TAG));
+        }
+    }
+    
+    /**
+     * Draws the distinct participants of each review from all authors, the first one being the person in charge
+     * @param random random generator
+     * @return the indices of the participating authors per review
+     */
+    private int[][] drawParticipants(Random random) {
+        int perReview = Math.min(authorsPerReview, authors);
+        double[] weights = authorDistribution.cumulativeWeights(authors);
+        int[][] result = new int[reviews][perReview];
+        for (int r = 0; r < reviews; r++) {
+            boolean[] drawn = new boolean[authors];
+            for (int a = 0; a < perReview; a++) {
+                int author = sample(weights, random);
+                // resolve collisions linearly, which keeps the skew of the distribution
+                while (drawn[author]) {
+                    author = (author + 1) % authors;
+                }
+                drawn[author] = true;
+                result[r][a] = author;
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Distributes all comments over the reviews and their participants
+     * @param random random generator
+     * @return the number of comments per review and participant
+     */
+    private int[][] distributeComments(Random random) {
+        int perReview = Math.min(authorsPerReview, authors);
+        double[] reviewWeights = reviewDistribution.cumulativeWeights(reviews);
+        double[] authorWeights = authorDistribution.cumulativeWeights(perReview);
+        int[][] result = new int[reviews][perReview];
+        for (int c = 0; c < comments; c++) {
+            result[sample(reviewWeights, random)][sample(authorWeights, random)]++;
+        }
+        return result;
+    }
+    
+    /**
+     * Draws an index according to the given cumulative weights
+     * @param cumulativeWeights cumulative weights as returned by {@link Distribution#cumulativeWeights(int)}
+     * @param random random generator
+     * @return the drawn index
+     */
+    private static int sample(double[] cumulativeWeights, Random random) {
+        double value = random.nextDouble();
+        int low = 0;
+        int high = cumulativeWeights.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulativeWeights[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    /**
+     * Returns the name of the given author
+     * @param author index of the author
+     * @return the name of the author
+     */
+    private static String getAuthorName(int author) {
+        return "author" + author;
+    }
+    
+    /**
+     * Writes the Eclipse project description of the given project, such that the generated folders can be imported into a workspace
+     * @param folder folder of the project
+     * @param name name of the project
+     * @param natures natures of the project
+     * @throws IOException if the file could not be written
+     */
+    private static void writeProjectFile(File folder, String name, String... natures) throws IOException {
+        mkdirs(folder);
+        StringBuilder content = new StringBuilder();
+        content.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<projectDescription>\n");
+        content.append("\t<name>").append(name).append("</name>\n\t<comment></comment>\n\t<projects>\n\t</projects>\n");
+        content.append("\t<buildSpec>\n\t</buildSpec>\n\t<natures>\n");
+        for (String nature : natures) {
+            content.append("\t\t<nature>").append(nature).append("</nature>\n");
+        }
+        content.append("\t</natures>\n</projectDescription>\n");
+        write(new File(folder, ".project"), content.toString());
+    }
+    
+    /**
+     * Creates the given folder including its parents
+     * @param folder folder to be created
+     * @throws IOException if the folder could not be created
+     */
+    private static void mkdirs(File folder) throws IOException {
+        if (!folder.isDirectory() && !folder.mkdirs()) { throw new IOException("Could not create folder " + folder); }
+    }
+    
+    /**
+     * Writes the given content to the given file using UTF-8
+     * @param file file to be written
+     * @param content content of the file
+     * @throws IOException if the file could not be written
+     */
+    private static void write(File file, String content) throws IOException {
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writer.write(content);
+        } finally {
+            writer.close();
+        }
+    }
+    
+    /**
+     * @return the name of the AgileReview source project
+     */
+    public String getSourceProject() {
+        return sourceProject;
+    }
+    
+    /**
+     * @param sourceProject the name of the AgileReview source project
+     */
+    public void setSourceProject(String sourceProject) {
+        this.sourceProject = sourceProject;
+    }
+    
+    /**
+     * @return the number of reviews
+     */
+    public int getReviews() {
+        return reviews;
+    }
+    
+    /**
+     * @param reviews the number of reviews
+     */
+    public void setReviews(int reviews) {
+        this.reviews = reviews;
+    }
+    
+    /**
+     * @return the number of distinct authors
+     */
+    public int getAuthors() {
+        return authors;
+    }
+    
+    /**
+     * @param authors the number of distinct authors
+     */
+    public void setAuthors(int authors) {
+        this.authors = authors;
+    }
+    
+    /**
+     * @return the number of authors participating in each review
+     */
+    public int getAuthorsPerReview() {
+        return authorsPerReview;
+    }
+    
+    /**
+     * @param authorsPerReview the number of authors participating in each review
+     */
+    public void setAuthorsPerReview(int authorsPerReview) {
+        this.authorsPerReview = authorsPerReview;
+    }
+    
+    /**
+     * @return the total number of comments
+     */
+    public int getComments() {
+        return comments;
+    }
+    
+    /**
+     * @param comments the total number of comments
+     */
+    public void setComments(int comments) {
+        this.comments = comments;
+    }
+    
+    /**
+     * @return the number of commented projects
+     */
+    public int getProjects() {
+        return projects;
+    }
+    
+    /**
+     * @param projects the number of commented projects
+     */
+    public void setProjects(int projects) {
+        this.projects = projects;
+    }
+    
+    /**
+     * @return the number of source files
+     */
+    public int getFiles() {
+        return files;
+    }
+    
+    /**
+     * @param files the number of source files
+     */
+    public void setFiles(int files) {
+        this.files = files;
+    }
+    
+    /**
+     * @return the number of folders between the projects and the source files
+     */
+    public int getDepth() {
+        return depth;
+    }
+    
+    /**
+     * @param depth the number of folders between the projects and the source files
+     */
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+    
+    /**
+     * @return the minimum number of lines of each source file
+     */
+    public int getLines() {
+        return lines;
+    }
+    
+    /**
+     * @param lines the minimum number of lines of each source file
+     */
+    public void setLines(int lines) {
+        this.lines = lines;
+    }
+    
+    /**
+     * @return the distribution of the comments over the reviews
+     */
+    public Distribution getReviewDistribution() {
+        return reviewDistribution;
+    }
+    
+    /**
+     * @param reviewDistribution the distribution of the comments over the reviews
+     */
+    public void setReviewDistribution(Distribution reviewDistribution) {
+        this.reviewDistribution = reviewDistribution;
+    }
+    
+    /**
+     * @return the distribution of the comments over the authors
+     */
+    public Distribution getAuthorDistribution() {
+        return authorDistribution;
+    }
+    
+    /**
+     * @param authorDistribution the distribution of the comments over the authors
+     */
+    public void setAuthorDistribution(Distribution authorDistribution) {
+        this.authorDistribution = authorDistribution;
+    }
+    
+    /**
+     * @return the distribution of the comments over the files
+     */
+    public Distribution getFileDistribution() {
+        return fileDistribution;
+    }
+    
+    /**
+     * @param fileDistribution the distribution of the comments over the files
+     */
+    public void setFileDistribution(Distribution fileDistribution) {
+        this.fileDistribution = fileDistribution;
+    }
+    
+    /**
+     * @return the seed of the random generators
+     */
+    public long getSeed() {
+        return seed;
+    }
+    
+    /**
+     * @param seed the seed of the random generators
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+}
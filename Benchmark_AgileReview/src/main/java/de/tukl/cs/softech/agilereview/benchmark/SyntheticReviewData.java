@@ -0,0 +1,313 @@
+package de.tukl.cs.softech.agilereview.benchmark;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.apache.xmlbeans.XmlCursor;
+
+import agileReview.softech.tukl.de.CommentDocument.Comment;
+import agileReview.softech.tukl.de.CommentsDocument;
+import agileReview.softech.tukl.de.CommentsDocument.Comments;
+import agileReview.softech.tukl.de.FileDocument.File;
+import agileReview.softech.tukl.de.FilesDocument.Files;
+import agileReview.softech.tukl.de.FolderDocument.Folder;
+import agileReview.softech.tukl.de.PersonInChargeDocument.PersonInCharge;
+import agileReview.softech.tukl.de.ProjectDocument.Project;
+import agileReview.softech.tukl.de.ReplyDocument.Reply;
+import agileReview.softech.tukl.de.ReviewDocument;
+import agileReview.softech.tukl.de.ReviewDocument.Review;
+
+/**
+ * In-memory fixtures for the benchmarks: author documents following the AgileReview schema and source files containing the matching comment
+ * tags. All data is derived from a seed, such that every benchmark run works on the same data.
+ */
+public class SyntheticReviewData {
+    
+    /**
+     * Words the comment texts are composed of
+     */
+    private static final String[] WORDS = { "check", "null", "pointer", "refactor", "method", "loop", "naming", "missing", "javadoc", "test",
+            "exception", "handling", "performance", "cache", "thread", "unused", "import", "magic", "number", "duplicate" };
+    /**
+     * Separator of the path segments, as used by the plugin
+     */
+    private static final String FILE_SEPARATOR = System.getProperty("file.separator");
+    
+    /**
+     * Random generator of the data
+     */
+    private final Random random;
+    /**
+     * Number of distinct commented files
+     */
+    private final int fileCount;
+    /**
+     * Number of folders between the project and the files
+     */
+    private final int depth;
+    /**
+     * Number of projects the files are distributed over
+     */
+    private final int projectCount;
+    
+    /**
+     * Creates a new generator of synthetic review data, whose files are distributed over three projects
+     * @param seed seed of the random generator
+     * @param fileCount number of distinct commented files
+     * @param depth number of folders between the project and the files
+     */
+    public SyntheticReviewData(long seed, int fileCount, int depth) {
+        this(seed, fileCount, depth, 3);
+    }
+    
+    /**
+     * Creates a new generator of synthetic review data
+     * @param seed seed of the random generator
+     * @param fileCount number of distinct commented files
+     * @param depth number of folders between the project and the files
+     * @param projectCount number of projects the files are distributed over
+     */
+    public SyntheticReviewData(long seed, int fileCount, int depth, int projectCount) {
+        this.random = new Random(seed);
+        this.fileCount = fileCount;
+        this.depth = depth;
+        this.projectCount = projectCount;
+    }
+    
+    /**
+     * Returns the path of the given file relative to the workspace (without leading separator), as computed by the plugin
+     * @param file index of the file
+     * @return the path of the file
+     */
+    public String getPath(int file) {
+        StringBuilder path = new StringBuilder("project" + (file % projectCount));
+        for (int i = 0; i < depth; i++) {
+            path.append(FILE_SEPARATOR).append(i == 0 ? "src" : "pkg" + (file % (i + 4)));
+        }
+        path.append(FILE_SEPARATOR).append("Class").append(file).append(".java");
+        return path.toString();
+    }
+    
+    /**
+     * Creates the author document of the given author in the given review
+     * @param reviewId id of the review
+     * @param author name of the author
+     * @param commentCount number of comments, which are distributed randomly over the files
+     * @return the created document
+     */
+    public CommentsDocument createAuthorDocument(String reviewId, String author, int commentCount) {
+        return createAuthorDocument(reviewId, author, commentCount, new ArrayList<Comment>());
+    }
+    
+    /**
+     * Creates the author document of the given author in the given review
+     * @param reviewId id of the review
+     * @param author name of the author
+     * @param commentCount number of comments, which are distributed randomly over the files
+     * @param created list to which all created comments will be added
+     * @return the created document
+     */
+    private CommentsDocument createAuthorDocument(String reviewId, String author, int commentCount, List<Comment> created) {
+        CommentsDocument doc = createEmptyAuthorDocument(author);
+        for (int i = 0; i < commentCount; i++) {
+            created.add(addComment(doc, random.nextInt(fileCount), reviewId, author, "c" + i));
+        }
+        return doc;
+    }
+    
+    /**
+     * Creates the author document of the given author without any comments
+     * @param author name of the author
+     * @return the created document
+     */
+    public CommentsDocument createEmptyAuthorDocument(String author) {
+        CommentsDocument doc = CommentsDocument.Factory.newInstance();
+        Comments comments = doc.addNewComments();
+        comments.addNewAuthor().setName(author);
+        comments.addNewFiles();
+        return doc;
+    }
+    
+    /**
+     * Adds a comment with random data on the given file to the given author document
+     * @param doc author document
+     * @param file index of the commented file
+     * @param reviewId id of the review
+     * @param author name of the author
+     * @param id id of the comment
+     * @return the created comment
+     */
+    public Comment addComment(CommentsDocument doc, int file, String reviewId, String author, String id) {
+        Comment c = findOrCreateFile(doc.getComments().getFiles(), getPath(file)).addNewComment();
+        fillComment(c, reviewId, author, id);
+        return c;
+    }
+    
+    /**
+     * Creates the review document of the given review with random status, reference and description
+     * @param reviewId id of the review
+     * @param personInCharge name of the person in charge
+     * @return the created document
+     */
+    public ReviewDocument createReviewDocument(String reviewId, String personInCharge) {
+        ReviewDocument doc = ReviewDocument.Factory.newInstance();
+        Review review = doc.addNewReview();
+        review.setId(reviewId);
+        review.setStatus(random.nextInt(3));
+        review.setReferenceId("TICKET-" + random.nextInt(10000));
+        PersonInCharge p = review.addNewPersonInCharge();
+        p.setName(personInCharge);
+        p.setMailaddress(personInCharge + "@example.org");
+        review.setDescription(createText(10 + random.nextInt(40)));
+        return doc;
+    }
+    
+    /**
+     * Creates the author documents of all given reviews and authors and returns all of their comments
+     * @param reviews number of reviews
+     * @param authors number of authors per review
+     * @param commentsPerAuthor number of comments of each author document
+     * @return all comments of all created documents
+     */
+    public List<Comment> createComments(int reviews, int authors, int commentsPerAuthor) {
+        ArrayList<Comment> result = new ArrayList<Comment>(reviews * authors * commentsPerAuthor);
+        for (int r = 0; r < reviews; r++) {
+            for (int a = 0; a < authors; a++) {
+                createAuthorDocument("review" + r, "author" + a, commentsPerAuthor, result);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Creates the content of a source file containing the tags of the given comment keys. Each comment spans a few lines, some comments are on
+     * a line of their own (and therefore marked for line deletion).
+     * @param lines number of lines of the file
+     * @param keys keys of the comments (reviewId|author|commentId)
+     * @param beginTag begin tag of the comments of the language, e.g. <code>/*</code>
+     * @param endTag end tag of the comments of the language, e.g. <code>*&#47;</code>
+     * @return the content of the file
+     */
+    public String createSource(int lines, List<String> keys, String beginTag, String endTag) {
+        StringBuilder source = new StringBuilder(lines * 40);
+        int step = Math.max(1, lines / Math.max(1, keys.size()));
+        int next = 0;
+        for (int i = 0; i < lines; i++) {
+            String code = "        int value" + i + " = compute(" + random.nextInt(1000) + ");";
+            if (next < keys.size() && i % step == 0) {
+                String key = keys.get(next++);
+                boolean ownLine = random.nextInt(4) == 0;
+                if (ownLine) {
+                    // tags in lines of their own, which will be deleted together with the tags
+                    source.append("        ").append(beginTag).append("-?|").append(key).append("|-").append(endTag).append('\n');
+                    source.append(code).append('\n');
+                    source.append("        ").append(beginTag).append("-|").append(key).append("|?-").append(endTag).append('\n');
+                } else {
+                    source.append(code).append(' ').append(beginTag).append("-?|").append(key).append("|").append(endTag).append('\n');
+                    source.append(code).append(' ').append(beginTag).append("-|").append(key).append("|?").append(endTag).append('\n');
+                }
+                i++;
+            } else {
+                source.append(code).append('\n');
+            }
+        }
+        return source.toString();
+    }
+    
+    /**
+     * Creates a random text of the given number of words
+     * @param words number of words
+     * @return the created text
+     */
+    public String createText(int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+    
+    /**
+     * Fills the given comment with random data
+     * @param c comment to be filled
+     * @param reviewId id of the review
+     * @param author name of the author
+     * @param id id of the comment
+     */
+    private void fillComment(Comment c, String reviewId, String author, String id) {
+        c.setId(id);
+        c.setAuthor(author);
+        c.setReviewID(reviewId);
+        c.setRecipient("author" + random.nextInt(10));
+        c.setStatus(random.nextInt(3));
+        c.setPriority(random.nextInt(4));
+        c.setRevision(random.nextInt(20));
+        Calendar created = Calendar.getInstance();
+        created.setTimeInMillis(1300000000000L + random.nextInt(Integer.MAX_VALUE) * 100L);
+        c.setCreationDate(created);
+        c.setLastModified(created);
+        c.setText(createText(5 + random.nextInt(30)));
+        c.addNewReplies();
+        int replies = random.nextInt(3);
+        for (int i = 0; i < replies; i++) {
+            Reply r = c.getReplies().addNewReply();
+            r.setAuthor("author" + random.nextInt(10));
+            r.setCreationDate(created);
+            XmlCursor cursor = r.newCursor();
+            cursor.setTextValue(createText(3 + random.nextInt(15)));
+            cursor.dispose();
+        }
+    }
+    
+    /**
+     * Returns the file node of the given path, which is created if it does not exist yet
+     * @param files root of the document
+     * @param path path of the file
+     * @return the file node
+     */
+    private static File findOrCreateFile(Files files, String path) {
+        String[] segments = path.split(Pattern.quote(FILE_SEPARATOR));
+        Project project = null;
+        for (Project p : files.getProjectArray()) {
+            if (p.getName().equals(segments[0])) {
+                project = p;
+                break;
+            }
+        }
+        if (project == null) {
+            project = files.addNewProject();
+            project.setName(segments[0]);
+        }
+        
+        Folder folder = null;
+        for (int i = 1; i < segments.length - 1; i++) {
+            Folder[] children = folder == null ? project.getFolderArray() : folder.getFolderArray();
+            Folder child = null;
+            for (Folder f : children) {
+                if (f.getName().equals(segments[i])) {
+                    child = f;
+                    break;
+                }
+            }
+            if (child == null) {
+                child = folder == null ? project.addNewFolder() : folder.addNewFolder();
+                child.setName(segments[i]);
+            }
+            folder = child;
+        }
+        
+        String name = segments[segments.length - 1];
+        for (File f : folder == null ? project.getFileArray() : folder.getFileArray()) {
+            if (f.getName().equals(name)) { return f; }
+        }
+        File file = folder == null ? project.addNewFile() : folder.addNewFile();
+        file.setName(name);
+        return file;
+    }
+}
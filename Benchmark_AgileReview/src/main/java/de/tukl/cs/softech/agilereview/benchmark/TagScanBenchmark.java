@@ -0,0 +1,135 @@
+package de.tukl.cs.softech.agilereview.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.tukl.cs.softech.agilereview.annotations.AnnotationParser;
+import de.tukl.cs.softech.agilereview.core.annotations.TagCleaner;
+
+/**
+ * Benchmarks of the comment tag handling within source files: scanning a file for tags as done by the {@link AnnotationParser} and removing
+ * tags as done by the {@link TagCleaner}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TagScanBenchmark {
+    
+    /**
+     * Begin tag of the comments of Java files
+     */
+    private static final String BEGIN_TAG = "/*";
+    /**
+     * End tag of the comments of Java files
+     */
+    private static final String END_TAG = "*/";
+    
+    /**
+     * Number of lines of the source file
+     */
+    @Param({ "1000", "20000" })
+    public int lines;
+    /**
+     * Number of comments tagged within the source file
+     */
+    @Param({ "10", "200" })
+    public int tags;
+    
+    /**
+     * Content of the source file
+     */
+    private String source;
+    /**
+     * Keys of the tagged comments
+     */
+    private final ArrayList<String> keys = new ArrayList<String>();
+    /**
+     * Pattern of the annotation parser
+     */
+    private Pattern parserPattern;
+    /**
+     * Pattern of the tag cleaner
+     */
+    private Pattern cleanerPattern;
+    
+    /**
+     * Creates the source file
+     */
+    @Setup
+    public void setup() {
+        for (int i = 0; i < tags; i++) {
+            keys.add("review" + (i % 3) + "|author" + (i % 7) + "|c" + i);
+        }
+        source = new SyntheticReviewData(42, 1, 1).createSource(lines, keys, BEGIN_TAG, END_TAG);
+        parserPattern = Pattern.compile(Pattern.quote(BEGIN_TAG) + AnnotationParser.RAW_TAG_REGEX + Pattern.quote(END_TAG));
+        TagCleaner.setRawTagRegex(AnnotationParser.RAW_TAG_REGEX);
+        cleanerPattern = TagCleaner.compileTagPattern(BEGIN_TAG, END_TAG);
+    }
+    
+    /**
+     * Finds all tags of the file
+     * @return the number of found tags
+     */
+    @Benchmark
+    public int scanTags() {
+        int found = 0;
+        Matcher m = parserPattern.matcher(source);
+        while (m.find()) {
+            found++;
+        }
+        return found;
+    }
+    
+    /**
+     * Removes the tags of a single comment, as done when deleting a comment
+     * @return the content without the tags
+     * @throws IOException never, as the content is read from memory
+     */
+    @Benchmark
+    public String removeTag() throws IOException {
+        return TagCleaner.removeTags(new BufferedReader(new StringReader(source)), cleanerPattern, Collections.singleton(keys.get(keys.size() / 2)));
+    }
+    
+    /**
+     * Removes the tags of half of the comments in one pass, as done by the cleanup
+     * @return the content without the tags
+     * @throws IOException never, as the content is read from memory
+     */
+    @Benchmark
+    public String removeTagsBatch() throws IOException {
+        return TagCleaner.removeTags(new BufferedReader(new StringReader(source)), cleanerPattern, new HashSet<String>(keys.subList(0,
+                keys.size() / 2)));
+    }
+    
+    /**
+     * Removes all tags of the file
+     * @return the content without the tags
+     * @throws IOException never, as the content is read from memory
+     */
+    @Benchmark
+    public String removeAllTags() throws IOException {
+        return TagCleaner.removeTags(new BufferedReader(new StringReader(source)), cleanerPattern, null);
+    }
+}
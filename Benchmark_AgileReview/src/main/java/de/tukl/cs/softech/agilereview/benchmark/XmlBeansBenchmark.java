@@ -0,0 +1,107 @@
+package de.tukl.cs.softech.agilereview.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.xmlbeans.XmlException;
+import org.apache.xmlbeans.XmlOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import agileReview.softech.tukl.de.CommentsDocument;
+import de.tukl.cs.softech.agilereview.plugincontrol.refactoring.ComputeDiff;
+import de.tukl.cs.softech.agilereview.plugincontrol.refactoring.ComputeDiff.Diff;
+
+/**
+ * Benchmarks of reading and writing author files with XmlBeans, as done when loading and saving reviews, and of diffing two versions of an
+ * author file, as done when previewing a refactoring
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class XmlBeansBenchmark {
+    
+    /**
+     * Number of comments of the author file
+     */
+    @Param({ "100", "5000" })
+    public int comments;
+    
+    /**
+     * Author document
+     */
+    private CommentsDocument doc;
+    /**
+     * Saved author file
+     */
+    private byte[] file;
+    /**
+     * Author file before a refactoring
+     */
+    private String before;
+    /**
+     * Author file after renaming a project
+     */
+    private String after;
+    
+    /**
+     * Creates the author file
+     * @throws IOException never, as the file is written to memory
+     */
+    @Setup
+    public void setup() throws IOException {
+        doc = new SyntheticReviewData(42, 200, 5).createAuthorDocument("review0", "author0", comments);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        doc.save(out, new XmlOptions().setSavePrettyPrint());
+        file = out.toByteArray();
+        before = new String(file, "UTF-8");
+        after = before.replace("name=\"project1\"", "name=\"renamedProject\"");
+    }
+    
+    /**
+     * Parses the author file
+     * @return the parsed document
+     * @throws XmlException if the file is not valid
+     * @throws IOException never, as the file is read from memory
+     */
+    @Benchmark
+    public CommentsDocument parse() throws XmlException, IOException {
+        return CommentsDocument.Factory.parse(new ByteArrayInputStream(file));
+    }
+    
+    /**
+     * Saves the author document
+     * @return the saved file
+     * @throws IOException never, as the file is written to memory
+     */
+    @Benchmark
+    public byte[] save() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(file.length);
+        doc.save(out, new XmlOptions().setSavePrettyPrint());
+        return out.toByteArray();
+    }
+    
+    /**
+     * Diffs the author file before and after renaming a project
+     * @return the differences
+     */
+    @Benchmark
+    public LinkedList<Diff> diff() {
+        return new ComputeDiff().diff_main(before, after);
+    }
+}
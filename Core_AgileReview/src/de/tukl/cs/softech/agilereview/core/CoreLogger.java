@@ -0,0 +1,140 @@
+package de.tukl.cs.softech.agilereview.core;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.Status;
+import org.osgi.framework.Bundle;
+
+/**
+ * Logger for the core bundle. The messages are written to the log of this bundle. If no platform is running (e.g. when the core classes are
+ * used by benchmarks), they are passed to the java.util.logging logger named after the calling class.
+ */
+public class CoreLogger {
+    
+    /**
+     * The bundle ID
+     */
+    public static final String PLUGIN_ID = "de.tukl.cs.softech.agilereview.core";
+    
+    /**
+     * Log level for the current session (0: nothing, 1: errors, 2: warnings, 3: infos)
+     */
+    private static volatile int logLevel = 2;
+    
+    /**
+     * Utility class, no instances
+     */
+    private CoreLogger() {
+    }
+    
+    /**
+     * Sets the log level for the current session, which is usually the log level of the plugin
+     * @param level 0: nothing, 1: errors, 2: warnings, 3: infos
+     */
+    public static void setLogLevel(int level) {
+        logLevel = level;
+    }
+    
+    /**
+     * Formats the three parameter to one output String
+     * @param className from which this logging was called
+     * @param methodName from which this logging was called
+     * @param msg which should be displayed
+     * @return formatted String
+     */
+    private static String formatMessage(String className, String methodName, String msg) {
+        return className + " -> " + methodName + ": " + msg;
+    }
+    
+    /**
+     * Writes the given message to the log
+     * @param severity severity of the message (see {@link IStatus})
+     * @param className from which this logging was called
+     * @param methodName from which this logging was called
+     * @param msg message to be logged
+     * @param ex exception to be logged with this message (may be null)
+     */
+    private static void write(int severity, String className, String methodName, String msg, Throwable ex) {
+        if (Platform.isRunning()) {
+            Bundle bundle = Platform.getBundle(PLUGIN_ID);
+            if (bundle != null) {
+                Platform.getLog(bundle).log(new Status(severity, PLUGIN_ID, formatMessage(className, methodName, msg), ex));
+                return;
+            }
+        }
+        Level level = severity == IStatus.ERROR ? Level.SEVERE : severity == IStatus.WARNING ? Level.WARNING : Level.INFO;
+        Logger.getLogger(className).log(level, formatMessage(className, methodName, msg), ex);
+    }
+    
+    /**
+     * Logs an Error message
+     * @param className from which this logging was called
+     * @param methodName from which this logging was called
+     * @param msg error message
+     */
+    public static void logError(String className, String methodName, String msg) {
+        logError(className, methodName, msg, null);
+    }
+    
+    /**
+     * Logs an Error message with the given exception
+     * @param className from which this logging was called
+     * @param methodName from which this logging was called
+     * @param msg error message
+     * @param ex exception to be logged with this message
+     */
+    public static void logError(String className, String methodName, String msg, Throwable ex) {
+        if (logLevel > 0) {
+            write(IStatus.ERROR, className, methodName, msg, ex);
+        }
+    }
+    
+    /**
+     * Logs a Warning message
+     * @param className from which this logging was called
+     * @param methodName from which this logging was called
+     * @param msg warning message
+     */
+    public static void logWarning(String className, String methodName, String msg) {
+        logWarning(className, methodName, msg, null);
+    }
+    
+    /**
+     * Logs a Warning message with the given exception
+     * @param className from which this logging was called
+     * @param methodName from which this logging was called
+     * @param msg warning message
+     * @param ex exception to be logged with this message
+     */
+    public static void logWarning(String className, String methodName, String msg, Throwable ex) {
+        if (logLevel > 1) {
+            write(IStatus.WARNING, className, methodName, msg, ex);
+        }
+    }
+    
+    /**
+     * Logs an Info message
+     * @param className from which this logging was called
+     * @param methodName from which this logging was called
+     * @param msg info message
+     */
+    public static void log(String className, String methodName, String msg) {
+        log(className, methodName, msg, null);
+    }
+    
+    /**
+     * Logs an Info message with the given exception
+     * @param className from which this logging was called
+     * @param methodName from which this logging was called
+     * @param msg info message
+     * @param ex exception to be logged with this message
+     */
+    public static void log(String className, String methodName, String msg, Throwable ex) {
+        if (logLevel > 2) {
+            write(IStatus.INFO, className, methodName, msg, ex);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package de.tukl.cs.softech.agilereview.core;
+
+/**
+ * Holds the {@link IDeletionCallback} the data layer informs before deleting resources. As long as no callback has been registered, e.g. when
+ * running headless, nothing has to be released before a deletion.
+ */
+public class DeletionCallbackRegistry {
+    
+    /**
+     * Callback used if none has been registered
+     */
+    private static final IDeletionCallback DEFAULT_CALLBACK = new IDeletionCallback() {
+        @Override
+        public void aboutToDelete(String fullPath) {
+            // nothing to be released
+        }
+    };
+    
+    /**
+     * Currently registered callback
+     */
+    private static volatile IDeletionCallback callback = DEFAULT_CALLBACK;
+    
+    /**
+     * Utility class, no instances
+     */
+    private DeletionCallbackRegistry() {
+    }
+    
+    /**
+     * Registers the callback which will be informed about all following deletions
+     * @param newCallback callback to be registered or null, if the default callback should be used again
+     */
+    public static void setCallback(IDeletionCallback newCallback) {
+        callback = newCallback == null ? DEFAULT_CALLBACK : newCallback;
+    }
+    
+    /**
+     * Informs the registered callback that the given resource is about to be deleted
+     * @param fullPath full workspace path of the file or folder to be deleted
+     */
+    public static void aboutToDelete(String fullPath) {
+        callback.aboutToDelete(fullPath);
+    }
+}
@@ -0,0 +1,46 @@
+package de.tukl.cs.softech.agilereview.core;
+
+/**
+ * Holds the {@link IErrorCallback} the data layer reports its errors to. As long as no callback has been registered, e.g. when running
+ * headless, errors are written to the log of the core bundle.
+ */
+public class ErrorCallbackRegistry {
+    
+    /**
+     * Callback used if none has been registered
+     */
+    private static final IErrorCallback DEFAULT_CALLBACK = new IErrorCallback() {
+        @Override
+        public void reportError(String title, String message) {
+            CoreLogger.logError(ErrorCallbackRegistry.class.toString(), "reportError", title + ": " + message);
+        }
+    };
+    
+    /**
+     * Currently registered callback
+     */
+    private static volatile IErrorCallback callback = DEFAULT_CALLBACK;
+    
+    /**
+     * Utility class, no instances
+     */
+    private ErrorCallbackRegistry() {
+    }
+    
+    /**
+     * Registers the callback all following errors will be reported to
+     * @param newCallback callback to be registered or null, if the default callback should be used again
+     */
+    public static void setCallback(IErrorCallback newCallback) {
+        callback = newCallback == null ? DEFAULT_CALLBACK : newCallback;
+    }
+    
+    /**
+     * Reports an error to the registered callback
+     * @param title short title of the error
+     * @param message detailed description of the error
+     */
+    public static void reportError(String title, String message) {
+        callback.reportError(title, message);
+    }
+}
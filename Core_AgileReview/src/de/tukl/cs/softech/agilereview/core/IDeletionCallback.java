@@ -0,0 +1,15 @@
+package de.tukl.cs.softech.agilereview.core;
+
+/**
+ * Receiver of the resources which are about to be deleted by the data layer. The UI plugin closes the editors showing the resources, while
+ * headless clients need no callback at all. Implementations are registered at the {@link DeletionCallbackRegistry}.
+ */
+public interface IDeletionCallback {
+    
+    /**
+     * Called before the given workspace resource and, if it is a folder, all resources within it are deleted. This method is called from the
+     * deleting thread and returns after the resources have been released.
+     * @param fullPath full workspace path of the file or folder to be deleted
+     */
+    public void aboutToDelete(String fullPath);
+}
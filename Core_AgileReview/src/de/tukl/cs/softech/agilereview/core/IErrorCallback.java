@@ -0,0 +1,17 @@
+package de.tukl.cs.softech.agilereview.core;
+
+/**
+ * Receiver of the errors which occur within the data layer and have to be reported to the user. The data layer does not know how the errors
+ * are presented: the UI plugin shows them in dialogs, while headless clients (background jobs, command line tools, benchmarks) may log them.
+ * Implementations are registered at the {@link ErrorCallbackRegistry}.
+ */
+public interface IErrorCallback {
+    
+    /**
+     * Reports an error to the user. This method may be called from any thread, including threads holding workspace locks, and therefore
+     * must not block until the user reacted.
+     * @param title short title of the error
+     * @param message detailed description of the error
+     */
+    public void reportError(String title, String message);
+}
@@ -0,0 +1,187 @@
+package de.tukl.cs.softech.agilereview.core.annotations;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+
+import de.tukl.cs.softech.agilereview.core.CoreLogger;
+import de.tukl.cs.softech.agilereview.core.ErrorCallbackRegistry;
+
+/**
+ * Remove one or more comment tags
+ */
+public class TagCleaner {
+    
+    /**
+     * Compiled tag patterns for each supported file ending
+     */
+    private static final ConcurrentHashMap<String, Pattern> tagPatterns = new ConcurrentHashMap<String, Pattern>();
+    
+    /**
+     * Supported file endings mapping to the corresponding comment tags (first begin, then end tag)
+     */
+    private static volatile Map<String, String[]> supportedFiles = Collections.emptyMap();
+    /**
+     * Regular expression matching the content of a comment tag between its begin and end tag
+     */
+    private static volatile String rawTagRegex;
+    
+    /**
+     * Sets the supported file endings and their comment tags, which are part of the preferences of the plugin. This way the tags of given
+     * contents can be removed without a running workbench.
+     * @param mapping supported file endings mapping to the corresponding comment tags (first begin, then end tag)
+     */
+    public static void setSupportedFiles(Map<String, String[]> mapping) {
+        supportedFiles = new HashMap<String, String[]>(mapping);
+        tagPatterns.clear();
+    }
+    
+    /**
+     * Sets the regular expression matching the content of a comment tag between its begin and end tag, which depends on the key separator
+     * of the plugin
+     * @param regex regular expression matching the content of a comment tag
+     */
+    public static void setRawTagRegex(String regex) {
+        rawTagRegex = regex;
+        tagPatterns.clear();
+    }
+    
+    /**
+     * Removes the comment tags from the file given by the path
+     * @param path the path relative to the workspaceroot
+     * @return true if tags were removed successfully, else false
+     */
+    public static boolean removeAllTags(IPath path) {
+        return removeTag(path, null);
+    }
+    
+    /**
+     * @param path the path of the file which will be modified
+     * @param identifier the identifier of the comment to be removed. Can be set to null in order to remove all tags
+     * @return whether tags were removed successful
+     */
+    public static boolean removeTag(IPath path, String identifier) {
+        final IFile file = ResourcesPlugin.getWorkspace().getRoot().getFile(path);
+        if (file.exists() && isSupported(file)) {
+            try {
+                String content = removeTags(file, identifier == null ? null : Collections.singleton(identifier));
+                if (content != null) {
+                    writeContents(file, content);
+                }
+            } catch (CoreException e) {
+                CoreLogger.logError(TagCleaner.class.toString(), "execute", "CoreException while trying to remove tags.", e);
+                ErrorCallbackRegistry.reportError("CoreException", "An error occured while reading/saving the file " + file.getFullPath() + "\n");
+                return false;
+            } catch (IOException e) {
+                CoreLogger.logError(TagCleaner.class.toString(), "execute", "IOException while trying to remove tags.", e);
+                return false;
+            }
+        } else {
+            return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Checks whether comment tags are supported for the given file
+     * @param file file
+     * @return true if the file ending of the file is supported, else false
+     */
+    public static boolean isSupported(IFile file) {
+        return supportedFiles.containsKey(file.getFileExtension());
+    }
+    
+    /**
+     * Reads the given file and removes the comment tags with the given identifiers in one pass. The file itself is not modified, so this method
+     * can be called for several files in parallel.
+     * @param file supported file to be read
+     * @param identifiers identifiers of the comments whose tags should be removed or null in order to remove all tags
+     * @return the content of the file without the tags or null, if no tag has been removed
+     * @throws CoreException if the file could not be read
+     * @throws IOException if the file could not be read
+     */
+    public static String removeTags(IFile file, Set<String> identifiers) throws CoreException, IOException {
+        Pattern p = tagPatterns.get(file.getFileExtension());
+        if (p == null) {
+            String[] tags = supportedFiles.get(file.getFileExtension());
+            p = compileTagPattern(tags[0], tags[1]);
+            tagPatterns.put(file.getFileExtension(), p);
+        }
+        return removeTags(new BufferedReader(new InputStreamReader(file.getContents())), p, identifiers);
+    }
+    
+    /**
+     * Compiles the pattern which matches the comment tags between the given begin and end tag, including the whitespace in front of the tags.
+     * The regular expression of the tag content has to be set before (see {@link #setRawTagRegex(String)}).
+     * @param beginTag begin tag of the comments of a language
+     * @param endTag end tag of the comments of a language
+     * @return the compiled pattern
+     */
+    public static Pattern compileTagPattern(String beginTag, String endTag) {
+        return Pattern.compile("\\s+" + Pattern.quote(beginTag) + rawTagRegex + Pattern.quote(endTag));
+    }
+    
+    /**
+     * Reads the given content and removes the comment tags with the given identifiers in one pass. The reader will be closed afterwards.
+     * @param reader content to be cleaned
+     * @param tagPattern pattern matching the comment tags, see {@link #compileTagPattern(String, String)}
+     * @param identifiers identifiers of the comments whose tags should be removed or null in order to remove all tags
+     * @return the content without the tags or null, if no tag has been removed
+     * @throws IOException if the content could not be read
+     */
+    public static String removeTags(BufferedReader reader, Pattern tagPattern, Set<String> identifiers) throws IOException {
+        // read line by line, replace tags
+        StringBuilder input = new StringBuilder();
+        boolean fileChanged = false;
+        try {
+            String line = reader.readLine();
+            while (line != null) {
+                Matcher m = tagPattern.matcher(line);
+                boolean deleteLine = false;
+                StringBuffer sb = new StringBuffer();
+                while (m.find()) {
+                    if (identifiers == null || identifiers.contains(m.group(2))) {
+                        fileChanged = true;
+                        if (m.group(4).equals("-")) {
+                            deleteLine = true;
+                        }
+                        m.appendReplacement(sb, "");
+                    }
+                }
+                m.appendTail(sb);
+                
+                line = reader.readLine();
+                if (!deleteLine || !sb.toString().matches("\\s*")) {
+                    input.append(sb);
+                    input.append(line != null ? System.getProperty("line.separator") : "");
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return fileChanged ? input.toString() : null;
+    }
+    
+    /**
+     * Replaces the content of the given file
+     * @param file file to be written
+     * @param content new content of the file
+     * @throws CoreException if the file could not be written
+     */
+    public static void writeContents(IFile file, String content) throws CoreException {
+        file.setContents(new ByteArrayInputStream(content.getBytes()), false, true, null);
+    }
+}
@@ -0,0 +1,143 @@
+package de.tukl.cs.softech.agilereview.core.dataaccess;
+
+import java.util.HashMap;
+import java.util.regex.Pattern;
+
+import agileReview.softech.tukl.de.CommentDocument.Comment;
+
+/**
+ * Aggregated comment counts per review and path prefix. For each node of the path-prefix tree (review, project, folders, file) the number of
+ * comments is counted in total and per status, so that the counts of any node can be read in constant time. The counts are maintained
+ * incrementally by the {@link ReviewModel}.
+ */
+public class CommentCounts {
+    
+    /**
+     * Status ID of open comments
+     */
+    public static final int STATUS_OPEN = 0;
+    /**
+     * Separator between review id and path within the node keys
+     */
+    private static final String KEY_SEPARATOR = "\u0000";
+    /**
+     * Separator of the path segments
+     */
+    private static final String FILE_SEPARATOR = System.getProperty("file.separator");
+    
+    /**
+     * Counters of each node of the path-prefix tree: reviewId + KEY_SEPARATOR + path prefix -> counters (index 0: total, index i + 1: status i)
+     */
+    private final HashMap<String, int[]> counters = new HashMap<String, int[]>();
+    /**
+     * Counted state of each comment: Comment -> {reviewId, path, status}
+     */
+    private final HashMap<Comment, Object[]> counted = new HashMap<Comment, Object[]>();
+    
+    /**
+     * Creates empty counts
+     */
+    CommentCounts() {
+    }
+    
+    /**
+     * Counts the given comment. If the comment has already been counted (e.g. its status or path changed), its old state will be discounted.
+     * @param c comment to be counted
+     * @param path path of the commented file
+     */
+    synchronized void add(Comment c, String path) {
+        remove(c);
+        Object[] state = new Object[] { c.getReviewID(), path, c.getStatus() };
+        counted.put(c, state);
+        update(state, 1);
+    }
+    
+    /**
+     * Discounts the given comment
+     * @param c comment to be discounted
+     */
+    synchronized void remove(Comment c) {
+        Object[] state = counted.remove(c);
+        if (state != null) {
+            update(state, -1);
+        }
+    }
+    
+    /**
+     * Removes all counts
+     */
+    synchronized void clear() {
+        counters.clear();
+        counted.clear();
+    }
+    
+    /**
+     * Adds the given delta to the counters of all nodes on the path of the given state
+     * @param state {reviewId, path, status}
+     * @param delta +1 or -1
+     */
+    private void update(Object[] state, int delta) {
+        String reviewId = (String) state[0];
+        String path = (String) state[1];
+        int status = (Integer) state[2];
+        
+        updateNode(reviewId + KEY_SEPARATOR, status, delta);
+        String[] segments = path.split(Pattern.quote(FILE_SEPARATOR));
+        StringBuilder prefix = new StringBuilder(reviewId).append(KEY_SEPARATOR);
+        for (int i = 0; i < segments.length; i++) {
+            if (i > 0) {
+                prefix.append(FILE_SEPARATOR);
+            }
+            prefix.append(segments[i]);
+            updateNode(prefix.toString(), status, delta);
+        }
+    }
+    
+    /**
+     * Adds the given delta to the total counter and the status counter of the given node
+     * @param key key of the node
+     * @param status status of the comment
+     * @param delta +1 or -1
+     */
+    private void updateNode(String key, int status, int delta) {
+        int[] c = counters.get(key);
+        if (c == null) {
+            c = new int[0];
+        }
+        if (c.length < status + 2) {
+            int[] grown = new int[status + 2];
+            System.arraycopy(c, 0, grown, 0, c.length);
+            c = grown;
+        }
+        c[0] += delta;
+        c[status + 1] += delta;
+        if (c[0] == 0) {
+            counters.remove(key);
+        } else {
+            counters.put(key, c);
+        }
+    }
+    
+    /**
+     * Returns the number of comments of the given review within the given path
+     * @param reviewId review id
+     * @param path path of a project, folder or file or the empty string for the whole review
+     * @return number of comments
+     */
+    public synchronized int getTotalCount(String reviewId, String path) {
+        int[] c = counters.get(reviewId + KEY_SEPARATOR + path);
+        return c == null ? 0 : c[0];
+    }
+    
+    /**
+     * Returns the number of comments of the given review within the given path, which have the given status
+     * @param reviewId review id
+     * @param path path of a project, folder or file or the empty string for the whole review
+     * @param status status ID
+     * @return number of comments with the given status
+     */
+    public synchronized int getCount(String reviewId, String path, int status) {
+        int[] c = counters.get(reviewId + KEY_SEPARATOR + path);
+        return c == null || c.length < status + 2 ? 0 : c[status + 1];
+    }
+}
@@ -0,0 +1,326 @@
+package de.tukl.cs.softech.agilereview.core.dataaccess;
+
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+import org.apache.xmlbeans.XmlCursor;
+
+import agileReview.softech.tukl.de.CommentDocument.Comment;
+import agileReview.softech.tukl.de.ReplyDocument.Reply;
+
+/**
+ * Tokenized inverted index over the comments, which supports case insensitive substring queries like the former regular expression based
+ * comment filter. The tokens of the query are looked up in the vocabulary of the searched field in order to determine the candidates, which
+ * are then verified against the field's text. Thus only the vocabulary and the candidates are scanned, but never the XmlBeans objects. Queries
+ * without any letters or digits (e.g. "/") cannot be looked up and are matched literally against the texts of all indexed comments. The index
+ * only holds the extracted texts of each comment identified by its key (see {@link #getKey(Comment)}), such that comments of closed reviews
+ * can be kept searchable without keeping their documents in memory. The index is maintained incrementally by the {@link ReviewModel}.
+ */
+public class CommentSearchIndex {
+    
+    /**
+     * Searchable fields of a comment
+     */
+    public enum Field {
+        /** The review ID */
+        REVIEW_ID,
+        /** The comment ID */
+        COMMENT_ID,
+        /** The author */
+        AUTHOR,
+        /** The recipient */
+        RECIPIENT,
+        /** The comment text */
+        TEXT,
+        /** The authors and texts of all replies */
+        REPLIES,
+        /** The path of the commented file */
+        PATH,
+        /** The creation date (formatted as shown in the comment table) */
+        CREATION_DATE,
+        /** The date of the last modification (formatted as shown in the comment table) */
+        LAST_MODIFIED
+    }
+    
+    /**
+     * Separator of the parts of a key (not allowed in xml documents, such that it cannot be part of an ID or an author's name)
+     */
+    private static final char KEY_SEPARATOR = '\0';
+    /**
+     * Date format used for indexing dates (same as in the comment table)
+     */
+    private final DateFormat dateFormat = new SimpleDateFormat("dd.M.yyyy', 'HH:mm:ss");
+    /**
+     * Inverted index: field -> token -> keys of the comments containing this token in the field
+     */
+    private final EnumMap<Field, TreeMap<String, HashSet<String>>> postings = new EnumMap<Field, TreeMap<String, HashSet<String>>>(Field.class);
+    /**
+     * Forward index: key of the comment -> field -> lower case field text, used for verifying the candidates of a query
+     */
+    private final HashMap<String, EnumMap<Field, String>> documents = new HashMap<String, EnumMap<Field, String>>();
+    
+    /**
+     * Creates an empty index
+     */
+    CommentSearchIndex() {
+        for (Field f : Field.values()) {
+            postings.put(f, new TreeMap<String, HashSet<String>>());
+        }
+    }
+    
+    /**
+     * Returns the key identifying the given comment within the index
+     * @param c comment
+     * @return the key of the comment
+     */
+    public static String getKey(Comment c) {
+        return getKey(c.getReviewID(), c.getAuthor(), c.getId());
+    }
+    
+    /**
+     * Returns the key identifying the comment with the given IDs within the index
+     * @param reviewId ID of the review
+     * @param author author of the comment
+     * @param commentId ID of the comment
+     * @return the key of the comment
+     */
+    public static String getKey(String reviewId, String author, String commentId) {
+        return reviewId + KEY_SEPARATOR + author + KEY_SEPARATOR + commentId;
+    }
+    
+    /**
+     * Adds the given comment to the index. If the comment has already been indexed, its index entries will be updated.
+     * @param c comment to be indexed
+     * @param path path of the commented file
+     */
+    synchronized void add(Comment c, String path) {
+        String key = getKey(c);
+        remove(key);
+        EnumMap<Field, String> doc = new EnumMap<Field, String>(Field.class);
+        doc.put(Field.REVIEW_ID, lowerCase(c.getReviewID()));
+        doc.put(Field.COMMENT_ID, lowerCase(c.getId()));
+        doc.put(Field.AUTHOR, lowerCase(c.getAuthor()));
+        doc.put(Field.RECIPIENT, lowerCase(c.getRecipient()));
+        doc.put(Field.TEXT, lowerCase(c.getText()));
+        doc.put(Field.REPLIES, lowerCase(getRepliesText(c)));
+        doc.put(Field.PATH, lowerCase(path));
+        doc.put(Field.CREATION_DATE, lowerCase(formatDate(c.getCreationDate())));
+        doc.put(Field.LAST_MODIFIED, lowerCase(formatDate(c.getLastModified())));
+        
+        for (Entry<Field, String> e : doc.entrySet()) {
+            TreeMap<String, HashSet<String>> fieldPostings = postings.get(e.getKey());
+            for (String token : splitNormalized(normalize(e.getValue()))) {
+                HashSet<String> set = fieldPostings.get(token);
+                if (set == null) {
+                    set = new HashSet<String>();
+                    fieldPostings.put(token, set);
+                }
+                set.add(key);
+            }
+        }
+        documents.put(key, doc);
+    }
+    
+    /**
+     * Removes the given comment from the index
+     * @param c comment to be removed
+     */
+    synchronized void remove(Comment c) {
+        remove(getKey(c));
+    }
+    
+    /**
+     * Removes the comment with the given key from the index
+     * @param key key of the comment to be removed
+     */
+    private void remove(String key) {
+        EnumMap<Field, String> doc = documents.remove(key);
+        if (doc == null) { return; }
+        for (Entry<Field, String> e : doc.entrySet()) {
+            TreeMap<String, HashSet<String>> fieldPostings = postings.get(e.getKey());
+            for (String token : splitNormalized(normalize(e.getValue()))) {
+                HashSet<String> set = fieldPostings.get(token);
+                if (set != null) {
+                    set.remove(key);
+                    if (set.isEmpty()) {
+                        fieldPostings.remove(token);
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Removes all comments of the given review from the index
+     * @param reviewId ID of the review
+     */
+    synchronized void removeReview(String reviewId) {
+        String prefix = reviewId + KEY_SEPARATOR;
+        ArrayList<String> keys = new ArrayList<String>();
+        for (String key : documents.keySet()) {
+            if (key.startsWith(prefix)) {
+                keys.add(key);
+            }
+        }
+        for (String key : keys) {
+            remove(key);
+        }
+    }
+    
+    /**
+     * Searches for all comments containing the given query (case insensitive) in at least one of the given fields
+     * @param query substring to be searched for
+     * @param fields fields to be searched
+     * @return the keys of all matching comments or null if the query is empty (and therefore does not restrict the result)
+     * @see #getKey(Comment)
+     */
+    public synchronized HashSet<String> search(String query, Collection<Field> fields) {
+        if (query == null || query.length() == 0) { return null; }
+        String lowerQuery = lowerCase(query);
+        String[] queryTokens = splitNormalized(normalize(query));
+        
+        HashSet<String> result = new HashSet<String>();
+        for (Field f : fields) {
+            Collection<String> smallest = documents.keySet();
+            ArrayList<HashSet<String>> candidates = new ArrayList<HashSet<String>>();
+            if (queryTokens.length > 0) {
+                // intersect the candidates of all tokens, starting with the smallest set
+                for (int i = 0; i < queryTokens.length; i++) {
+                    candidates.add(tokenMatches(f, queryTokens[i], i == 0, i == queryTokens.length - 1));
+                }
+                smallest = candidates.get(0);
+                for (HashSet<String> set : candidates) {
+                    if (set.size() < smallest.size()) {
+                        smallest = set;
+                    }
+                }
+            }
+            
+            for (String key : smallest) {
+                boolean match = true;
+                for (HashSet<String> set : candidates) {
+                    if (!set.contains(key)) {
+                        match = false;
+                        break;
+                    }
+                }
+                // the tokens only narrow down the candidates, the query itself has to be contained in the text
+                if (match && documents.get(key).get(f).contains(lowerQuery)) {
+                    result.add(key);
+                }
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Returns all comments which might contain the given query token in the given field. A token in the middle of the query has to match a
+     * token of the field completely, the first token might be the suffix and the last token the prefix of a field's token. A query consisting
+     * of a single token might occur anywhere within a field's token.
+     * @param f field to be searched
+     * @param token normalized query token
+     * @param first whether the token is the first token of the query
+     * @param last whether the token is the last token of the query
+     * @return the keys of all comments containing a matching token in the given field
+     */
+    private HashSet<String> tokenMatches(Field f, String token, boolean first, boolean last) {
+        HashSet<String> result = new HashSet<String>();
+        TreeMap<String, HashSet<String>> fieldPostings = postings.get(f);
+        if (!first && !last) {
+            HashSet<String> set = fieldPostings.get(token);
+            if (set != null) {
+                result.addAll(set);
+            }
+        } else if (!first) {
+            for (HashSet<String> set : fieldPostings.subMap(token, token + Character.MAX_VALUE).values()) {
+                result.addAll(set);
+            }
+        } else {
+            // scan the vocabulary, which is usually much smaller than the number of comments
+            for (Entry<String, HashSet<String>> e : fieldPostings.entrySet()) {
+                if (last ? e.getKey().contains(token) : e.getKey().endsWith(token)) {
+                    result.addAll(e.getValue());
+                }
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Returns the authors and texts of all replies of the given comment
+     * @param c comment
+     * @return the authors and texts of all replies
+     */
+    private String getRepliesText(Comment c) {
+        if (c.getReplies() == null) { return ""; }
+        StringBuilder sb = new StringBuilder();
+        for (Reply r : c.getReplies().getReplyArray()) {
+            XmlCursor cursor = r.newCursor();
+            sb.append(r.getAuthor()).append(' ').append(cursor.getTextValue()).append(' ');
+            cursor.dispose();
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * Formats the given date as it is shown in the comment table
+     * @param date date to be formatted
+     * @return the formatted date or null if no date was given
+     */
+    private String formatDate(Calendar date) {
+        if (date == null) { return null; }
+        return dateFormat.format(date.getTime());
+    }
+    
+    /**
+     * Converts the given text to lower case
+     * @param text text to be converted
+     * @return the text in lower case or the empty string if no text was given
+     */
+    private static String lowerCase(String text) {
+        if (text == null) { return ""; }
+        return text.toLowerCase();
+    }
+    
+    /**
+     * Normalizes the given text, i.e. converts it to lower case tokens of letters and digits separated by single blanks
+     * @param text text to be normalized
+     * @return the normalized text
+     */
+    private static String normalize(String text) {
+        if (text == null) { return ""; }
+        StringBuilder sb = new StringBuilder(text.length());
+        boolean separator = false;
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            if (Character.isLetterOrDigit(ch)) {
+                if (separator && sb.length() > 0) {
+                    sb.append(' ');
+                }
+                sb.append(Character.toLowerCase(ch));
+                separator = false;
+            } else {
+                separator = true;
+            }
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * Splits the given normalized text into its tokens
+     * @param normalized normalized text
+     * @return tokens of the given text
+     */
+    private static String[] splitNormalized(String normalized) {
+        if (normalized.length() == 0) { return new String[0]; }
+        return normalized.split(" ");
+    }
+}
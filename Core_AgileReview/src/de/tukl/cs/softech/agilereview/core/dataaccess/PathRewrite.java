@@ -0,0 +1,77 @@
+package de.tukl.cs.softech.agilereview.core.dataaccess;
+
+import org.eclipse.core.resources.IResource;
+
+/**
+ * Describes one path rewrite of a refactoring (move or rename), i.e. which path of the comment storage is moved to which new path.
+ */
+public class PathRewrite {
+    
+    /**
+     * The old path of the refactored item
+     */
+    private final String oldPath;
+    /**
+     * The new path of the refactored item
+     */
+    private final String newPath;
+    /**
+     * The type of the refactored item (see static fields PROJECT, FOLDER, FILE in {@link IResource})
+     */
+    private final int type;
+    /**
+     * Indicates whether all children of oldPath should be moved to newPath
+     */
+    private final boolean moveAllChilds;
+    
+    /**
+     * Creates a new path rewrite
+     * @param oldPath old path of the refactored item
+     * @param newPath new path of the refactored item
+     * @param type type of the refactored item (see static fields PROJECT, FOLDER, FILE in {@link IResource})
+     * @param moveAllChilds indicates whether all children of oldPath should be moved to newPath
+     */
+    public PathRewrite(String oldPath, String newPath, int type, boolean moveAllChilds) {
+        this.oldPath = oldPath;
+        this.newPath = newPath;
+        this.type = type;
+        this.moveAllChilds = moveAllChilds;
+    }
+    
+    /**
+     * Returns the old path of the refactored item
+     * @return old path of the refactored item
+     */
+    public String getOldPath() {
+        return oldPath;
+    }
+    
+    /**
+     * Returns the new path of the refactored item
+     * @return new path of the refactored item
+     */
+    public String getNewPath() {
+        return newPath;
+    }
+    
+    /**
+     * Returns the type of the refactored item
+     * @return type of the refactored item (see static fields PROJECT, FOLDER, FILE in {@link IResource})
+     */
+    public int getType() {
+        return type;
+    }
+    
+    /**
+     * States whether all children of the old path should be moved to the new path
+     * @return <i>true</i> if all children should be moved, <i>false</i> otherwise
+     */
+    public boolean isMoveAllChilds() {
+        return moveAllChilds;
+    }
+    
+    @Override
+    public String toString() {
+        return oldPath + " -> " + newPath;
+    }
+}
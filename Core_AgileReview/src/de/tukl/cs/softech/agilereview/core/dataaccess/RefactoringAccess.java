@@ -1,9 +1,11 @@
-package de.tukl.cs.softech.agilereview.dataaccess;
+package de.tukl.cs.softech.agilereview.core.dataaccess;
 import java.io.IOException;
 import java.io.StringWriter;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedList;
 import java.util.regex.Pattern;
 
 import org.apache.xmlbeans.XmlCursor;
@@ -13,10 +15,9 @@ import org.apache.xmlbeans.XmlOptions;
 import org.apache.xmlbeans.XmlTokenSource;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
-import org.eclipse.jface.dialogs.MessageDialog;
-import org.eclipse.swt.widgets.Display;
 
 import agileReview.softech.tukl.de.CommentsDocument;
 import agileReview.softech.tukl.de.CommentsDocument.Comments;
@@ -24,7 +25,8 @@ import agileReview.softech.tukl.de.FileDocument.File;
 import agileReview.softech.tukl.de.FilesDocument.Files;
 import agileReview.softech.tukl.de.FolderDocument.Folder;
 import agileReview.softech.tukl.de.ProjectDocument.Project;
-import de.tukl.cs.softech.agilereview.tools.PluginLogger;
+import de.tukl.cs.softech.agilereview.core.CoreLogger;
+import de.tukl.cs.softech.agilereview.core.ErrorCallbackRegistry;
 
 
 /**
@@ -33,9 +35,17 @@ import de.tukl.cs.softech.agilereview.tools.PluginLogger;
 public class RefactoringAccess {
     
     /**
-     * Local instance of the ReviewAccess.
+     * Path rewrites of refactorings which were performed on the comment files but not yet applied to the loaded review model
      */
-    private final ReviewAccess ra = ReviewAccess.getInstance();
+    private static final LinkedList<PathRewrite> performedRewrites = new LinkedList<PathRewrite>();
+    /**
+     * Comment files written by performed refactorings, whose resource changes are not yet consumed: file -> modification stamp after writing
+     */
+    private static final HashMap<IFile, Long> expectedChanges = new HashMap<IFile, Long>();
+    /**
+     * AgileReview Source Project whose comments are refactored
+     */
+    private final IProject sourceProject;
     /**
      * Instance of the review file model
      */
@@ -58,9 +68,11 @@ public class RefactoringAccess {
     private final HashMap<IFile, Exception> failedFiles = new HashMap<IFile, Exception>();
     
     /**
-     * Constructor of the RefactoringAccess. Initially loads all comments from the database.
+     * Constructor of the RefactoringAccess. Initially loads all comments from the given AgileReview Source Project.
+     * @param sourceProject current AgileReview Source Project (or null, if there is none)
      */
-    public RefactoringAccess() {
+    public RefactoringAccess(IProject sourceProject) {
+        this.sourceProject = sourceProject;
         loadAllComments();
     }
     
@@ -123,56 +135,71 @@ public class RefactoringAccess {
         // do the refactoring on the internal structure
         //XXX assumption: getAffectedFiles was called beforehand
         for (IFile f : affectedFilesBuffer) {
-            // Find old path
-            XmlObject oldObject = findXmlPath(rFileModel.getCommentsDoc(f), oldPath, type, false);
-            // If not found in document, then no refactoring has to be done
-            if (oldObject != null) {
-                // Select all items to move
-                String xPath = "declare namespace s='http://de.tukl.softech.agileReview'; ";
-                if (moveAllChilds) {
-                    xPath += "$this/*";
-                } else {
-                    xPath += "$this/s:comment | $this/s:file";
-                }
-                
-                XmlObject[] xPathResultCopy = oldObject.copy().selectPath(xPath);
-                // now that we have a copy, remove the old originals directly
-                XmlObject[] xPathResult = oldObject.selectPath(xPath);
-                for (int i = 0; i < xPathResult.length; i++) {
-                    cleanXmlPath(xPathResult[i]);
-                }
-                
-                // create new path
-                XmlObject newObject = findXmlPath(rFileModel.getCommentsDoc(f), newPath, type, true);
-                // create cursor and point to the place where content will be placed (inside of new node)
-                XmlCursor newC = newObject.newCursor();
-                if (!newC.toFirstChild()) {
-                    newC.toEndToken();
-                }
-                
-                boolean newIsEmpty = true;
-                
-                // move all children of old node to new node
-                for (int i = 0; i < xPathResultCopy.length; i++) {
-                    // copy object to new location
-                    XmlCursor x = xPathResultCopy[i].newCursor();
-                    x.copyXml(newC);
-                    x.dispose();
-                    // new node is no longer empty
-                    newIsEmpty = false;
-                }
-                
-                // Clean up
-                newC.dispose();
-                if (newIsEmpty) {
-                    cleanXmlPath(newObject);
-                }
-                
-            }
+            rewritePath(rFileModel.getCommentsDoc(f), oldPath, newPath, type, moveAllChilds);
             saveToString(rFileModel.getCommentsDoc(f), f, false);
         }
     }
     
+    /**
+     * Moves all comments (and children, if requested) stored under oldPath in the given document to newPath
+     * @param doc CommentsDocument which should be refactored
+     * @param oldPath old path of the refactored item
+     * @param newPath new path of the refactored item
+     * @param type type of the refactored item (see static fields PROJECT, FOLDER, FILE in {@link IResource})
+     * @param moveAllChilds indicates whether all children of oldPath should be moved to newPath
+     * @return <i>true</i> if oldPath was found in the given document and therefore the document was changed, <i>false</i> otherwise
+     */
+    public static boolean rewritePath(CommentsDocument doc, String oldPath, String newPath, int type, boolean moveAllChilds) {
+        // Find old path
+        XmlObject oldObject = findXmlPath(doc, oldPath, type, false);
+        // If not found in document, then no refactoring has to be done
+        if (oldObject == null) {
+            return false;
+        }
+        
+        // Select all items to move
+        String xPath = "declare namespace s='http://de.tukl.softech.agileReview'; ";
+        if (moveAllChilds) {
+            xPath += "$this/*";
+        } else {
+            xPath += "$this/s:comment | $this/s:file";
+        }
+        
+        XmlObject[] xPathResultCopy = oldObject.copy().selectPath(xPath);
+        // now that we have a copy, remove the old originals directly
+        XmlObject[] xPathResult = oldObject.selectPath(xPath);
+        for (int i = 0; i < xPathResult.length; i++) {
+            cleanXmlPath(xPathResult[i]);
+        }
+        
+        // create new path
+        XmlObject newObject = findXmlPath(doc, newPath, type, true);
+        // create cursor and point to the place where content will be placed (inside of new node)
+        XmlCursor newC = newObject.newCursor();
+        if (!newC.toFirstChild()) {
+            newC.toEndToken();
+        }
+        
+        boolean newIsEmpty = true;
+        
+        // move all children of old node to new node
+        for (int i = 0; i < xPathResultCopy.length; i++) {
+            // copy object to new location
+            XmlCursor x = xPathResultCopy[i].newCursor();
+            x.copyXml(newC);
+            x.dispose();
+            // new node is no longer empty
+            newIsEmpty = false;
+        }
+        
+        // Clean up
+        newC.dispose();
+        if (newIsEmpty) {
+            cleanXmlPath(newObject);
+        }
+        return true;
+    }
+    
     /**
      * Saving method for a given XML document / File pair
      * @param document
@@ -196,6 +223,56 @@ public class RefactoringAccess {
         }
     }
     
+    /**
+     * Registers the given path rewrites as performed on the comment files. They can be fetched by {@link #pollPerformedRewrites()} in order to
+     * patch the loaded review model instead of reloading it completely.
+     * @param rewrites path rewrites which were performed
+     */
+    public static synchronized void addPerformedRewrites(Collection<PathRewrite> rewrites) {
+        performedRewrites.addAll(rewrites);
+    }
+    
+    /**
+     * Returns all path rewrites registered since the last call and removes them from the registry
+     * @return path rewrites performed since the last call of this method (in order of their execution)
+     */
+    public static synchronized Collection<PathRewrite> pollPerformedRewrites() {
+        Collection<PathRewrite> result = new ArrayList<PathRewrite>(performedRewrites);
+        performedRewrites.clear();
+        return result;
+    }
+    
+    /**
+     * Discards all registered path rewrites and expected file changes
+     */
+    public static synchronized void clearPerformedRewrites() {
+        performedRewrites.clear();
+        expectedChanges.clear();
+    }
+    
+    /**
+     * Registers the given comment files as written by a refactoring. The resulting resource changes reproduce the registered path rewrites,
+     * which are applied to the loaded review model directly. Therefore they must not trigger a reload of the model, see
+     * {@link #consumeExpectedChange(IFile)}.
+     * @param files comment files which have just been written
+     */
+    public static synchronized void addExpectedChanges(Collection<IFile> files) {
+        for (IFile f : files) {
+            expectedChanges.put(f, f.getModificationStamp());
+        }
+    }
+    
+    /**
+     * Checks whether the given change of a comment file has been registered by {@link #addExpectedChanges(Collection)} and has not been
+     * modified since. The registration is consumed, such that every following change of the file will be reported again.
+     * @param file changed comment file
+     * @return <i>true</i> if the change has been performed by a refactoring, <i>false</i> otherwise
+     */
+    public static synchronized boolean consumeExpectedChange(IFile file) {
+        Long stamp = expectedChanges.remove(file);
+        return stamp != null && stamp.longValue() == file.getModificationStamp();
+    }
+    
     ///////////////////////////////////////////
     ///// Original RA functionality ///////////
     ///////////////////////////////////////////
@@ -209,7 +286,7 @@ public class RefactoringAccess {
      * @param createPath if true, path is created (if necessary)
      * @return element specified by path or null if the path was not found and createPath is false
      */
-    private XmlObject findXmlPath(CommentsDocument currCommentsDoc, String path, int type, boolean createPath) {
+    public static XmlObject findXmlPath(CommentsDocument currCommentsDoc, String path, int type, boolean createPath) {
         Comments currComments = currCommentsDoc.getComments();
         XmlObject currObject = currComments.getFiles();
         
@@ -262,8 +339,8 @@ public class RefactoringAccess {
     private void loadAllComments() {
         // Get all relevant folders in the review repository
         try {
-            if (ra.isCurrentSourceValid()) {
-                IResource[] allFolders = ra.getCurrentSourceFolder().members();
+            if (sourceProject != null && sourceProject.exists() && sourceProject.isOpen()) {
+                IResource[] allFolders = sourceProject.members();
                 // Iterate all folders
                 for (IResource currFolder : allFolders) {
                     if (currFolder instanceof IFolder) {
@@ -288,16 +365,9 @@ public class RefactoringAccess {
                 }
             }
         } catch (CoreException e) {
-            PluginLogger.logError(ReviewAccess.class.toString(), "loadAllComment", "CoreException while filling comment model", e);
-            Display.getDefault().asyncExec(new Runnable() {
-                
-                @Override
-                public void run() {
-                    MessageDialog.openError(Display.getDefault().getActiveShell(), "CoreException",
-                            "An error occured while reading the files of the AgileReview Source Folder in order to do the refactoring!");
-                }
-                
-            });
+            CoreLogger.logError(RefactoringAccess.class.toString(), "loadAllComments", "CoreException while filling comment model", e);
+            ErrorCallbackRegistry.reportError("CoreException",
+                    "An error occured while reading the files of the AgileReview Source Folder in order to do the refactoring!");
         }
     }
     
@@ -357,7 +427,7 @@ public class RefactoringAccess {
      * Deletes the given XmlObject and the part of it's path which is empty afterwards
      * @param pathObject Object to delete
      */
-    private void cleanXmlPath(XmlObject pathObject) {
+    private static void cleanXmlPath(XmlObject pathObject) {
         // Remove xml
         XmlCursor c = pathObject.newCursor();
         // Remove <comment> node
@@ -1,4 +1,4 @@
-package de.tukl.cs.softech.agilereview.dataaccess;
+package de.tukl.cs.softech.agilereview.core.dataaccess;
 
 import java.io.IOException;
 import java.util.Collection;
@@ -10,22 +10,23 @@ import org.apache.xmlbeans.XmlTokenSource;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
-import org.eclipse.jface.dialogs.MessageDialog;
-import org.eclipse.swt.widgets.Display;
-import org.eclipse.ui.IEditorPart;
-import org.eclipse.ui.IWorkbenchPage;
-import org.eclipse.ui.PlatformUI;
-import org.eclipse.ui.ide.ResourceUtil;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
 
 import agileReview.softech.tukl.de.CommentsDocument;
 import agileReview.softech.tukl.de.ReviewDocument;
-import de.tukl.cs.softech.agilereview.tools.PluginLogger;
+import de.tukl.cs.softech.agilereview.core.CoreLogger;
+import de.tukl.cs.softech.agilereview.core.DeletionCallbackRegistry;
+import de.tukl.cs.softech.agilereview.core.ErrorCallbackRegistry;
 
 /**
  * Model which holds the files in which the comments and reviews are stored and provides saving functions
  */
-class ReviewFileModel {
+public class ReviewFileModel {
     
     /**
      * Maps the files to the corresponding review document (for saving)
@@ -37,6 +38,17 @@ class ReviewFileModel {
      */
     private final HashMap<IFile, CommentsDocument> xmlCommentDocuments = new HashMap<IFile, CommentsDocument>();
     
+    /**
+     * Runs the given operation as one atomic workspace operation, which holds the given scheduling rule. The method returns as soon as the
+     * operation has been completed, such that the created or deleted resources can be used by the caller directly.
+     * @param operation workspace operation
+     * @param rule scheduling rule, which has to cover all resources modified by the operation
+     * @throws CoreException if the operation failed
+     */
+    public static void runWorkspaceOperation(IWorkspaceRunnable operation, ISchedulingRule rule) throws CoreException {
+        ResourcesPlugin.getWorkspace().run(operation, rule, IWorkspace.AVOID_UPDATE, null);
+    }
+    
     /**
      * Saving method for a given XML document / File pair
      * @param document
@@ -47,60 +59,30 @@ class ReviewFileModel {
         document.save(filePath.getLocation().toFile(), new XmlOptions().setSavePrettyPrint());
         try {
             filePath.refreshLocal(IResource.DEPTH_INFINITE, null);
-        } catch (final CoreException e) {
-            PluginLogger.logError(ReviewAccess.class.toString(), "save", "CoreException while saving " + filePath.getLocation().toOSString(), e);
-            Display.getDefault().syncExec(new Runnable() {
-                @Override
-                public void run() {
-                    MessageDialog.openError(Display.getDefault().getActiveShell(), "AgileReview: Could save AgileReview files", e
-                            .getLocalizedMessage());
-                }
-            });
+        } catch (CoreException e) {
+            CoreLogger.logError(ReviewFileModel.class.toString(), "save", "CoreException while saving " + filePath.getLocation().toOSString(), e);
+            ErrorCallbackRegistry.reportError("AgileReview: Could save AgileReview files", e.getLocalizedMessage());
         }
     }
     
     /**
-     * Deletes the given file
+     * Deletes the given file or folder within one workspace operation, which holds the delete rule of the resource
      * @param delFile
      */
     private void deleteResource(final IResource delFile) {
         try {
-            if (delFile instanceof IFile) {
-                Display.getDefault().syncExec(new Runnable() {
-                    @Override
-                    public void run() {
-                        while (PlatformUI.getWorkbench() == null) {
-                        }
-                        while (PlatformUI.getWorkbench().getActiveWorkbenchWindow() == null) {
-                        }
-                        while (PlatformUI.getWorkbench().getActiveWorkbenchWindow().getActivePage() == null) {
-                        }
-                        IWorkbenchPage page = PlatformUI.getWorkbench().getActiveWorkbenchWindow().getActivePage();
-                        IEditorPart editor = ResourceUtil.findEditor(page, (IFile) delFile);
-                        if (editor != null) {
-                            page.closeEditor(editor, false);
-                        }
-                    }
-                });
-                delFile.delete(true, null);
-            } else if (delFile instanceof IFolder) {
-                for (IResource r : ((IFolder) delFile).members()) {
-                    deleteResource(r);
-                }
-                delFile.delete(true, null);
-            } else {
-                delFile.delete(true, null);
-            }
-        } catch (final CoreException e) {
-            Display.getDefault().syncExec(new Runnable() {
+            if (!delFile.exists()) { return; }
+            DeletionCallbackRegistry.aboutToDelete(delFile.getFullPath().toString());
+            runWorkspaceOperation(new IWorkspaceRunnable() {
                 @Override
-                public void run() {
-                    MessageDialog.openError(Display.getDefault().getActiveShell(), "Could not delete file or folder", "File \""
-                            + delFile.getLocation().toOSString() + "\" could not be deleted.\n" + "Please delete the file manually.\n\nReason:\n"
-                            + e.getLocalizedMessage());
+                public void run(IProgressMonitor monitor) throws CoreException {
+                    delFile.delete(true, monitor);
                 }
-            });
-            PluginLogger.logError(this.getClass().getName(), "deleteResource", "File \"" + delFile.getLocation().toOSString()
+            }, ResourcesPlugin.getWorkspace().getRuleFactory().deleteRule(delFile));
+        } catch (CoreException e) {
+            ErrorCallbackRegistry.reportError("Could not delete file or folder", "File \"" + delFile.getLocation().toOSString()
+                    + "\" could not be deleted.\n" + "Please delete the file manually.\n\nReason:\n" + e.getLocalizedMessage());
+            CoreLogger.logError(this.getClass().getName(), "deleteResource", "File \"" + delFile.getLocation().toOSString()
                     + "\" could not be deleted", e);
         }
     }
@@ -114,7 +96,7 @@ class ReviewFileModel {
      * @param doc
      * @param path
      */
-    void addXmlDocument(XmlTokenSource doc, IFile path) {
+    public void addXmlDocument(XmlTokenSource doc, IFile path) {
         if (doc instanceof ReviewDocument) {
             this.xmlReviewDocuments.put(path, (ReviewDocument) doc);
         } else if (doc instanceof CommentsDocument) {
@@ -127,7 +109,7 @@ class ReviewFileModel {
      * Removes this file from the model
      * @param file
      */
-    void removeXmlDocument(IFile file) {
+    public void removeXmlDocument(IFile file) {
         // Delete the given file
         this.deleteResource(file);
         // If it was a review-file, delete the whole review
@@ -141,16 +123,10 @@ class ReviewFileModel {
                     for (IResource f : ((IFolder) delFolder).members()) {
                         if (f instanceof IFile) this.removeXmlDocument((IFile) f);
                     }
-                } catch (final CoreException e) {
-                    PluginLogger.logError(this.getClass().toString(), "removeXmlDocument", "CoreException while removing sibling files of "
+                } catch (CoreException e) {
+                    CoreLogger.logError(this.getClass().toString(), "removeXmlDocument", "CoreException while removing sibling files of "
                             + file.getLocation().toOSString() + " from model", e);
-                    Display.getDefault().syncExec(new Runnable() {
-                        @Override
-                        public void run() {
-                            MessageDialog.openError(Display.getDefault().getActiveShell(), "AgileReview: Could not delete AgileReview files", e
-                                    .getLocalizedMessage());
-                        }
-                    });
+                    ErrorCallbackRegistry.reportError("AgileReview: Could not delete AgileReview files", e.getLocalizedMessage());
                 }
                 
                 // Delete the folder afterwards
@@ -162,8 +138,8 @@ class ReviewFileModel {
     /**
      * Clears this model
      */
-    void clearModel() {
-        PluginLogger.log(this.getClass().toString(), "clearModel", "Review and Comment file model cleared");
+    public void clearModel() {
+        CoreLogger.log(this.getClass().toString(), "clearModel", "Review and Comment file model cleared");
         this.xmlReviewDocuments.clear();
         this.xmlCommentDocuments.clear();
     }
@@ -173,7 +149,7 @@ class ReviewFileModel {
      * @param f
      * @throws IOException
      */
-    void save(IFile f) throws IOException {
+    public void save(IFile f) throws IOException {
         XmlTokenSource document = null;
         // Try comment-file
         document = this.xmlCommentDocuments.get(f);
@@ -190,7 +166,7 @@ class ReviewFileModel {
      * Saves all files of this model
      * @throws IOException
      */
-    void saveAll() throws IOException {
+    public void saveAll() throws IOException {
         // First the reviews
         for (Entry<IFile, ReviewDocument> currEntry : this.xmlReviewDocuments.entrySet()) {
             this.save(currEntry.getValue(), currEntry.getKey());
@@ -210,7 +186,7 @@ class ReviewFileModel {
      * Returns all files saving comments persistently
      * @return all files saving comments persistently
      */
-    Collection<IFile> getAllCommentFiles() {
+    public Collection<IFile> getAllCommentFiles() {
         return xmlCommentDocuments.keySet();
     }
     
@@ -219,7 +195,7 @@ class ReviewFileModel {
      * @param file
      * @return Comments document represented by this file
      */
-    CommentsDocument getCommentsDoc(IFile file) {
+    public CommentsDocument getCommentsDoc(IFile file) {
         return this.xmlCommentDocuments.get(file);
     }
     
@@ -228,7 +204,7 @@ class ReviewFileModel {
      * @param file
      * @return <i>true</i> if this file is stored in this model, <i>false</i> otherwise
      */
-    boolean containsFile(IFile file) {
+    public boolean containsFile(IFile file) {
         return this.xmlCommentDocuments.containsKey(file) || this.xmlReviewDocuments.containsKey(file);
     }
     
@@ -236,7 +212,7 @@ class ReviewFileModel {
      * Returns all stored CommentsDocuments
      * @return all stored CommentsDocuments
      */
-    Collection<CommentsDocument> getAllCommentsDocument() {
+    public Collection<CommentsDocument> getAllCommentsDocument() {
         return this.xmlCommentDocuments.values();
     }
     
@@ -244,7 +220,7 @@ class ReviewFileModel {
      * Returns all stored ReviewDocuments
      * @return all stored ReviewDocuments
      */
-    Collection<ReviewDocument> getAllReviewDocument() {
+    public Collection<ReviewDocument> getAllReviewDocument() {
         return this.xmlReviewDocuments.values();
     }
 }
\ No newline at end of file
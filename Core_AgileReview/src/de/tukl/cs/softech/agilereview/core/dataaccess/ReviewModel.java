@@ -0,0 +1,466 @@
+package de.tukl.cs.softech.agilereview.core.dataaccess;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.xml.namespace.QName;
+
+import org.apache.xmlbeans.XmlCursor;
+import org.apache.xmlbeans.XmlObject;
+
+import agileReview.softech.tukl.de.CommentDocument.Comment;
+import agileReview.softech.tukl.de.FilesDocument.Files;
+import agileReview.softech.tukl.de.ReviewDocument.Review;
+import de.tukl.cs.softech.agilereview.core.CoreLogger;
+
+/**
+ * Model which holds all comments and provides some query functions.
+ */
+public class ReviewModel {
+    
+    /**
+     * Database object which stores the comments in the following way: ReviewID.author -> CommentID (without leading "c" for correct ordering)
+     * (sorted) -> Comment \n Contains only loaded reviews. For not loaded reviews no mapping should be available
+     */
+    private final HashMap<String, HashMap<String, TreeMap<Integer, Comment>>> commentDB = new HashMap<String, HashMap<String, TreeMap<Integer, Comment>>>();
+    
+    /**
+     * Review model. Contains all reviews (ReviewId -> Review), even unloaded
+     */
+    private final HashMap<String, Review> rModel = new HashMap<String, Review>();
+    
+    /**
+     * Full-text index of all comments of the commentDB and of the closed reviews
+     */
+    private final CommentSearchIndex searchIndex = new CommentSearchIndex();
+    
+    /**
+     * Path of the commented file of each comment of the commentDB (Comment -> path). The paths are read by background jobs as well (e.g. when
+     * sorting the comments by their location), so the map has to support concurrent reads.
+     */
+    private final ConcurrentHashMap<Comment, String> commentPaths = new ConcurrentHashMap<Comment, String>();
+    
+    /**
+     * Comments of the commentDB grouped by the path of the commented file (path -> Comments)
+     */
+    private final HashMap<String, HashSet<Comment>> fileComments = new HashMap<String, HashSet<Comment>>();
+    
+    /**
+     * Comment counts per review and path prefix of all comments of the commentDB
+     */
+    private final CommentCounts counts = new CommentCounts();
+    
+    //////////////////
+    // Constructors //
+    //////////////////
+    
+    ////////////
+    // static //
+    ////////////
+    /**
+     * Computes the path of the given comment, file or folder by walking up its xml ancestors
+     * @param item comment, file or folder
+     * @return path of the commented file or the given file or folder
+     */
+    public static String computePath(XmlObject item) {
+        XmlCursor c = item.newCursor();
+        c.toParent();
+        String path = c.getAttributeText(new QName("name"));
+        
+        while (c.toParent() && !(c.getObject() instanceof Files)) {
+            path = c.getAttributeText(new QName("name")) + System.getProperty("file.separator") + path;
+        }
+        c.dispose();
+        
+        return path;
+    }
+    
+    /////////////
+    // private //
+    /////////////
+    /**
+     * Returns the Id of a Comment as an Integer representation
+     * @param c Comment id as string
+     * @return Id without leading character (="c")
+     */
+    private Integer parseCommentId(String c) {
+        String strIntegerId = c.substring(1);
+        return new Integer(strIntegerId);
+    }
+    
+    /**
+     * Computes the path of the given comment and adds it to the path projection. If the comment has already been added, its entry will be
+     * updated.
+     * @param comment Comment to be added
+     */
+    private void addPath(Comment comment) {
+        removePath(comment);
+        String path = computePath(comment);
+        commentPaths.put(comment, path);
+        HashSet<Comment> comments = fileComments.get(path);
+        if (comments == null) {
+            comments = new HashSet<Comment>();
+            fileComments.put(path, comments);
+        }
+        comments.add(comment);
+    }
+    
+    /**
+     * Removes the given comment from the path projection
+     * @param comment Comment to be removed
+     */
+    private void removePath(Comment comment) {
+        String path = commentPaths.remove(comment);
+        if (path == null) { return; }
+        HashSet<Comment> comments = fileComments.get(path);
+        if (comments != null) {
+            comments.remove(comment);
+            if (comments.isEmpty()) {
+                fileComments.remove(path);
+            }
+        }
+    }
+    
+    ////////////
+    // Setter //
+    ////////////
+    
+    /**
+     * Adds a comment to the database
+     * @param comment Comment to be added
+     */
+    public void addComment(Comment comment) {
+        String key1 = comment.getReviewID();
+        String key2 = comment.getAuthor();
+        int key3 = this.parseCommentId(comment.getId());
+        
+        if (commentDB.containsKey(key1)) // review already exists
+        {
+            HashMap<String, TreeMap<Integer, Comment>> authorMap = commentDB.get(key1);
+            if (authorMap.containsKey(key2)) // author already exists
+            {
+                Comment replaced = authorMap.get(key2).put(key3, comment);
+                if (replaced != null && replaced != comment) {
+                    searchIndex.remove(replaced);
+                    removePath(replaced);
+                    counts.remove(replaced);
+                }
+            } else // author does not exist
+            {
+                TreeMap<Integer, Comment> tmpTreeMap = new TreeMap<Integer, Comment>();
+                tmpTreeMap.put(key3, comment);
+                
+                authorMap.put(key2, tmpTreeMap);
+            }
+        } else // review did not exist
+        {
+            TreeMap<Integer, Comment> tmpTreeMap = new TreeMap<Integer, Comment>();
+            tmpTreeMap.put(key3, comment);
+            
+            HashMap<String, TreeMap<Integer, Comment>> tmpAuthorMap = new HashMap<String, TreeMap<Integer, Comment>>();
+            tmpAuthorMap.put(key2, tmpTreeMap);
+            
+            commentDB.put(key1, tmpAuthorMap);
+        }
+        addPath(comment);
+        searchIndex.add(comment, commentPaths.get(comment));
+        counts.add(comment, commentPaths.get(comment));
+    }
+    
+    /**
+     * Updates the full-text index entries and the counts of the given comment (e.g. after its status has been edited). Comments which are not
+     * part of the commentDB (e.g. deleted ones or outdated instances of relocated ones) are ignored.
+     * @param comment Comment which has been changed
+     */
+    public void reindexComment(Comment comment) {
+        if (getComment(comment.getReviewID(), comment.getAuthor(), comment.getId()) != comment) { return; }
+        String path = getPath(comment);
+        searchIndex.add(comment, path);
+        // discount the old state (e.g. the former status) before the comment is counted again
+        counts.remove(comment);
+        counts.add(comment, path);
+    }
+    
+    /**
+     * Adds a comment of a closed review to the full-text index. The comment will not be added to the database, such that it can be searched
+     * but is not shown anywhere. The index does not keep a reference to the comment.
+     * @param comment Comment of a closed review
+     */
+    public void addClosedComment(Comment comment) {
+        searchIndex.add(comment, computePath(comment));
+    }
+    
+    /**
+     * Removes the comments of the given closed review from the full-text index
+     * @param reviewId
+     */
+    public void removeClosedReview(String reviewId) {
+        searchIndex.removeReview(reviewId);
+    }
+    
+    /**
+     * Removes a comment from the database. Returns true, if it was the last comment for this review and author.
+     * @param reviewId
+     * @param author
+     * @param commentId
+     * @return <i>true</i> if the deleted comment was the last comment for this review and author, <i>false</i> otherwise
+     */
+    public boolean removeComment(String reviewId, String author, String commentId) {
+        boolean result = false;
+        TreeMap<Integer, Comment> tmpMap = commentDB.get(reviewId).get(author);
+        
+        // Remove comment
+        Comment removed = tmpMap.remove(parseCommentId(commentId));
+        if (removed != null) {
+            searchIndex.remove(removed);
+            removePath(removed);
+            counts.remove(removed);
+        }
+        
+        // If Map is empty, remove the author-Map
+        if (tmpMap.isEmpty()) {
+            commentDB.get(reviewId).remove(author);
+            result = true;
+        }
+        return result;
+    }
+    
+    /**
+     * Creates the model entry for this reviewId (should only be used for reviews without comments)
+     * @param reviewId
+     */
+    public void createModelEntry(String reviewId) {
+        // drop the index entries of the closed review
+        searchIndex.removeReview(reviewId);
+        this.commentDB.put(reviewId, new HashMap<String, TreeMap<Integer, Comment>>());
+    }
+    
+    /**
+     * Adds a review to this model
+     * @param r
+     * @return <i>false</i> if a review with this name does already exist (review will not be added then). <i>true</i> otherwise.
+     */
+    public boolean addReview(Review r) {
+        boolean result = false;
+        if (!containsCaseInsensitive(rModel.keySet(), r.getId())) {
+            this.rModel.put(r.getId(), r);
+            result = true;
+        }
+        return result;
+    }
+    
+    /**
+     * Removes the given review from the model
+     * @param reviewId
+     * @param completely if true, the review will be removed completely, if false, it will only be deleted from the commentDB, whereas its
+     *            comments remain searchable as comments of a closed review
+     */
+    public void removeReview(String reviewId, boolean completely) {
+        // Remove the review from the commentDB
+        HashMap<String, TreeMap<Integer, Comment>> authorMap = this.commentDB.remove(reviewId);
+        if (authorMap != null) {
+            for (TreeMap<Integer, Comment> comments : authorMap.values()) {
+                for (Comment c : comments.values()) {
+                    removePath(c);
+                    counts.remove(c);
+                }
+            }
+        }
+        
+        if (completely) {
+            // Remove the review itself
+            searchIndex.removeReview(reviewId);
+            this.rModel.remove(reviewId);
+        }
+    }
+    
+    /**
+     * Clears the model. The full-text index entries of closed reviews are kept, as they do not depend on the loaded documents.
+     */
+    public void clearModel() {
+        CoreLogger.log(this.getClass().toString(), "clearModel", "Review and Comment model cleared");
+        for (String reviewId : commentDB.keySet()) {
+            searchIndex.removeReview(reviewId);
+        }
+        commentDB.clear();
+        rModel.clear();
+        commentPaths.clear();
+        fileComments.clear();
+        counts.clear();
+    }
+    
+    ////////////
+    // Getter //
+    ////////////
+    
+    /**
+     * Returns the full-text index of all comments of this model
+     * @return full-text index of all comments
+     */
+    public CommentSearchIndex getSearchIndex() {
+        return searchIndex;
+    }
+    
+    /**
+     * Returns the comment counts per review and path prefix of all comments of this model
+     * @return comment counts
+     */
+    public CommentCounts getCounts() {
+        return counts;
+    }
+    
+    /**
+     * Returns the path of the file the given comment belongs to. The path is taken from the path projection, so no XML cursor walk is necessary
+     * for comments of this model. This method can be called by background jobs.
+     * @param comment
+     * @return path of the commented file
+     */
+    public String getPath(Comment comment) {
+        String path = commentPaths.get(comment);
+        if (path == null) {
+            path = computePath(comment);
+        }
+        return path;
+    }
+    
+    /**
+     * Returns all loaded comments of the file with the given path
+     * @param path path of the file as computed by {@link #computePath(XmlObject)}
+     * @return unmodifiable set of all comments of the given file or an empty set, if no comments exist
+     */
+    public Set<Comment> getFileComments(String path) {
+        HashSet<Comment> comments = fileComments.get(path);
+        if (comments == null) { return Collections.emptySet(); }
+        return Collections.unmodifiableSet(comments);
+    }
+    
+    /**
+     * Returns the next free Id for the given reviewId/author pair.
+     * @param reviewId
+     * @param author
+     * @return next free id
+     */
+    public Integer getNextCommentIdFor(String reviewId, String author) {
+        Integer result = 0;
+        // If an entry does already exist, give back the highest key+1
+        if (commentDB.containsKey(reviewId)) {
+            if (commentDB.get(reviewId).containsKey(author)) {
+                result = commentDB.get(reviewId).get(author).lastKey() + 1;
+            }
+            
+        }
+        return result;
+    }
+    
+    /**
+     * Returns the comment specified by the given combination
+     * @param reviewId
+     * @param author
+     * @param commentId
+     * @return Comment specified by the given combination or null, if there is no such comment
+     */
+    public Comment getComment(String reviewId, String author, String commentId) {
+        HashMap<String, TreeMap<Integer, Comment>> authorMap = commentDB.get(reviewId);
+        if (authorMap == null || !authorMap.containsKey(author)) { return null; }
+        return authorMap.get(author).get(parseCommentId(commentId));
+    }
+    
+    /**
+     * Returns all Comments for the given reviewId/path combination. If path is a folder, all comments in all sub-folders are returned.
+     * @param reviewId
+     * @param path
+     * @return All Comments as Collection or an empty Collection, if no Comments exist
+     */
+    public ArrayList<Comment> getComments(String reviewId, String path) {
+        ArrayList<Comment> result = new ArrayList<Comment>();
+        
+        ArrayList<Comment> allForReviewId = getComments(reviewId);
+        for (Comment c : allForReviewId) {
+            if (getPath(c).startsWith(path)) {
+                result.add(c);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Returns all Comments of the given review
+     * @param reviewId
+     * @return Returns all Comments as Collection or an empty Collection, if no Comments exist
+     */
+    public ArrayList<Comment> getComments(String reviewId) {
+        ArrayList<Comment> result = new ArrayList<Comment>();
+        
+        HashMap<String, TreeMap<Integer, Comment>> authorMap = commentDB.get(reviewId);
+        if (authorMap != null) {
+            for (TreeMap<Integer, Comment> x : authorMap.values()) {
+                result.addAll(x.values());
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Returns all comments, or an empty Collection if no comments exist
+     * @return All comments or an empty Collection if no comments exist
+     */
+    public ArrayList<Comment> getAllComments() {
+        ArrayList<Comment> result = new ArrayList<Comment>();
+        
+        for (String currReviewId : commentDB.keySet()) {
+            result.addAll(this.getComments(currReviewId));
+        }
+        return result;
+    }
+    
+    /**
+     * Checks whether the given reviewId is stored in the model
+     * @param reviewId
+     * @param checkLoaded if <i>true</i>, it is also checked, if the review is loaded
+     * @return <i>true</i> if the model contains such a reviewId, <i>false</i> otherwise.
+     */
+    public boolean containsReview(String reviewId, boolean checkLoaded) {
+        boolean result = containsCaseInsensitive(this.rModel.keySet(), reviewId);
+        
+        if (checkLoaded) {
+            result = result && containsCaseInsensitive(this.commentDB.keySet(), reviewId);
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Returns all reviews being stored in the model (this includes the not loaded reviews)
+     * @return All Reviews stored in this model
+     */
+    public ArrayList<Review> getAllReviews() {
+        ArrayList<Review> result = new ArrayList<Review>();
+        result.addAll(rModel.values());
+        return result;
+    }
+    
+    /**
+     * Checks whether a set contains the search string searching case insensitive
+     * @param set in which should be searched
+     * @param searchStr which should be searched case insensitive
+     * @return true, if the search string could be found<br>false, otherwise
+     * @author Malte Brunnlieb (19.02.2012)
+     */
+    private boolean containsCaseInsensitive(Set<String> set, String searchStr) {
+        boolean result = set.contains(searchStr);
+        if (!result) {
+            for (String key : set) {
+                if (key.toLowerCase().equals(searchStr.toLowerCase())) {
+                    result = true;
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,195 @@
+package de.tukl.cs.softech.agilereview.export;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.text.ParseException;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.xmlbeans.XmlCursor;
+import org.junit.Before;
+import org.junit.Test;
+
+import agileReview.softech.tukl.de.CommentDocument.Comment;
+import agileReview.softech.tukl.de.ReplyDocument.Reply;
+import de.tukl.cs.softech.agilereview.export.JSONLinesImport.Action;
+
+/**
+ * Tests of the rules by which the {@link JSONLinesImport} creates, updates or skips comments and appends replies
+ */
+public class JSONLinesImportTest {
+    
+    /**
+     * Existing comment, which has last been modified at 2013-11-06T12:00:00.000+0000
+     */
+    private Comment comment;
+    
+    /**
+     * Creates the existing comment
+     * @throws ParseException if the date of the comment could not be parsed
+     */
+    @Before
+    public void setUp() throws ParseException {
+        comment = Comment.Factory.newInstance();
+        comment.setId("c1");
+        comment.setAuthor("alice");
+        comment.setReviewID("r1");
+        comment.setCreationDate(JSONLines.parseDate("2013-11-06T10:00:00.000+0000"));
+        comment.setLastModified(JSONLines.parseDate("2013-11-06T12:00:00.000+0000"));
+        comment.addNewReplies();
+    }
+    
+    /**
+     * Only ids of the form of the generated ids are kept
+     */
+    @Test
+    public void testIsValidId() {
+        assertTrue(JSONLinesImport.isValidId("c0"));
+        assertTrue(JSONLinesImport.isValidId("c123"));
+        assertFalse(JSONLinesImport.isValidId(null));
+        assertFalse(JSONLinesImport.isValidId(""));
+        assertFalse(JSONLinesImport.isValidId("c"));
+        assertFalse(JSONLinesImport.isValidId("C1"));
+        assertFalse(JSONLinesImport.isValidId("c1a"));
+        assertFalse(JSONLinesImport.isValidId("../c1"));
+    }
+    
+    /**
+     * Comments which do not exist are created
+     * @throws ParseException if the date could not be parsed
+     */
+    @Test
+    public void testCreate() throws ParseException {
+        assertEquals(Action.CREATE, JSONLinesImport.getAction(null, JSONLines.parseDate("2013-11-06T13:00:00.000+0000")));
+        assertEquals(Action.CREATE, JSONLinesImport.getAction(null, null));
+    }
+    
+    /**
+     * Existing comments are updated, if the imported comment has been modified later
+     * @throws ParseException if the date could not be parsed
+     */
+    @Test
+    public void testUpdate() throws ParseException {
+        assertEquals(Action.UPDATE, JSONLinesImport.getAction(comment, JSONLines.parseDate("2013-11-06T12:00:00.001+0000")));
+        // the time zone of the dates does not matter
+        assertEquals(Action.UPDATE, JSONLinesImport.getAction(comment, JSONLines.parseDate("2013-11-06T13:30:00.000+0100")));
+    }
+    
+    /**
+     * Existing comments are skipped, if the imported comment has not been modified later or its modification date is unknown
+     * @throws ParseException if the date could not be parsed
+     */
+    @Test
+    public void testSkip() throws ParseException {
+        assertEquals(Action.SKIP, JSONLinesImport.getAction(comment, JSONLines.parseDate("2013-11-06T12:00:00.000+0000")));
+        assertEquals(Action.SKIP, JSONLinesImport.getAction(comment, JSONLines.parseDate("2013-11-06T13:00:00.000+0100")));
+        assertEquals(Action.SKIP, JSONLinesImport.getAction(comment, JSONLines.parseDate("2013-11-05T12:00:00.000+0000")));
+        assertEquals(Action.SKIP, JSONLinesImport.getAction(comment, null));
+    }
+    
+    /**
+     * New replies are appended, replies with the same author and creation date are skipped
+     * @throws ParseException if the replies could not be parsed
+     */
+    @Test
+    public void testImportRepliesByDate() throws ParseException {
+        addReply("bob", "2013-11-06T11:00:00.000+0000", "first");
+        
+        JSONLinesImport.importReplies(comment, parseReplies("[{\"author\":\"bob\",\"created\":\"2013-11-06T11:00:00.000+0000\",\"text\":\"edited\"},"
+                + "{\"author\":\"carol\",\"created\":\"2013-11-06T11:00:00.000+0000\",\"text\":\"first\"},"
+                + "{\"author\":\"bob\",\"created\":\"2013-11-06T11:30:00.000+0000\",\"text\":\"first\"}]"));
+        
+        Reply[] replies = comment.getReplies().getReplyArray();
+        assertEquals(3, replies.length);
+        assertReply(replies[0], "bob", "first");
+        assertReply(replies[1], "carol", "first");
+        assertReply(replies[2], "bob", "first");
+        assertEquals(JSONLines.parseDate("2013-11-06T11:30:00.000+0000").getTimeInMillis(), replies[2].getCreationDate().getTimeInMillis());
+    }
+    
+    /**
+     * Replies without creation date are dated at their first import and not appended again on the following imports
+     * @throws ParseException if the replies could not be parsed
+     */
+    @Test
+    public void testImportRepliesWithoutDate() throws ParseException {
+        String replies = "[{\"author\":\"bob\",\"text\":\"undated\"},{\"author\":\"bob\",\"text\":\" undated \"},"
+                + "{\"author\":\"carol\",\"text\":\"undated\"},{\"author\":\"bob\",\"text\":\"other\"}]";
+        JSONLinesImport.importReplies(comment, parseReplies(replies));
+        Reply[] imported = comment.getReplies().getReplyArray();
+        assertEquals(3, imported.length);
+        assertReply(imported[0], "bob", "undated");
+        assertReply(imported[1], "carol", "undated");
+        assertReply(imported[2], "bob", "other");
+        for (Reply r : imported) {
+            assertNotNull(r.getCreationDate());
+        }
+        
+        JSONLinesImport.importReplies(comment, parseReplies(replies));
+        JSONLinesImport.importReplies(comment, parseReplies(replies));
+        assertEquals(3, comment.getReplies().getReplyArray().length);
+    }
+    
+    /**
+     * Invalid replies are rejected
+     * @throws ParseException if the replies could not be parsed
+     */
+    @Test
+    public void testImportInvalidReplies() throws ParseException {
+        String[] invalid = { "{\"author\":\"bob\"}", "[\"text\"]", "[{\"author\":\"bob\",\"created\":\"yesterday\"}]",
+                "[{\"author\":\"bob\",\"text\":1}]" };
+        for (String replies : invalid) {
+            try {
+                JSONLinesImport.importReplies(comment, JSONLines.parseObject("{\"replies\":" + replies + "}").get("replies"));
+                throw new AssertionError("Replies " + replies + " have been accepted");
+            } catch (ParseException e) {
+                // expected
+            }
+        }
+        JSONLinesImport.importReplies(comment, null);
+        assertEquals(0, comment.getReplies().getReplyArray().length);
+    }
+    
+    /**
+     * Parses the given JSON array of replies
+     * @param replies JSON array
+     * @return the parsed replies
+     * @throws ParseException if the array could not be parsed
+     */
+    private static List<?> parseReplies(String replies) throws ParseException {
+        Map<String, Object> record = JSONLines.parseObject("{\"replies\":" + replies + "}");
+        return (List<?>) record.get("replies");
+    }
+    
+    /**
+     * Appends a reply to the existing comment
+     * @param author author of the reply
+     * @param created formatted creation date of the reply
+     * @param text text of the reply
+     * @throws ParseException if the date could not be parsed
+     */
+    private void addReply(String author, String created, String text) throws ParseException {
+        Reply r = comment.getReplies().addNewReply();
+        r.setAuthor(author);
+        r.setCreationDate(JSONLines.parseDate(created));
+        XmlCursor cursor = r.newCursor();
+        cursor.setTextValue(text);
+        cursor.dispose();
+    }
+    
+    /**
+     * Checks the author and the trimmed text of the given reply
+     * @param r reply
+     * @param author expected author
+     * @param text expected text
+     */
+    private static void assertReply(Reply r, String author, String text) {
+        assertEquals(author, r.getAuthor());
+        XmlCursor cursor = r.newCursor();
+        assertEquals(text, cursor.getTextValue().trim());
+        cursor.dispose();
+    }
+}
@@ -0,0 +1,117 @@
+package de.tukl.cs.softech.agilereview.export;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+import org.junit.Test;
+
+/**
+ * Tests of the JSON support of the JSON-lines export and import
+ */
+public class JSONLinesTest {
+    
+    /**
+     * Parses all kinds of values of an object
+     * @throws ParseException if the line could not be parsed
+     */
+    @Test
+    public void testParseObject() throws ParseException {
+        Map<String, Object> object = JSONLines.parseObject(" {\"s\": \"text\", \"n\": -1.5e2, \"t\": true, \"f\": false, \"z\": null, "
+                + "\"a\": [1, \"two\", {}], \"o\": {\"inner\": []}} ");
+        assertEquals("text", object.get("s"));
+        assertEquals(Double.valueOf(-150), object.get("n"));
+        assertEquals(Boolean.TRUE, object.get("t"));
+        assertEquals(Boolean.FALSE, object.get("f"));
+        assertTrue(object.containsKey("z"));
+        assertNull(object.get("z"));
+        List<?> array = (List<?>) object.get("a");
+        assertEquals(3, array.size());
+        assertEquals(Double.valueOf(1), array.get(0));
+        assertEquals("two", array.get(1));
+        assertTrue(((Map<?, ?>) array.get(2)).isEmpty());
+        assertTrue(((List<?>) ((Map<?, ?>) object.get("o")).get("inner")).isEmpty());
+        // members keep the order of the line
+        assertEquals(Arrays.asList("s", "n", "t", "f", "z", "a", "o"), Arrays.asList(object.keySet().toArray()));
+    }
+    
+    /**
+     * Parses the escape sequences of strings
+     * @throws ParseException if the line could not be parsed
+     */
+    @Test
+    public void testParseEscapes() throws ParseException {
+        Map<String, Object> object = JSONLines.parseObject("{\"s\":\"a\\\"b\\\\c\\/d\\n\\r\\t\\b\\f\\u00e4\"}");
+        assertEquals("a\"b\\c/d\n\r\t\b\f\u00e4", object.get("s"));
+    }
+    
+    /**
+     * Strings written by {@link JSONLines#appendString(StringBuilder, String)} are parsed to the original string
+     * @throws ParseException if the written string could not be parsed
+     */
+    @Test
+    public void testAppendStringRoundTrip() throws ParseException {
+        String original = "quote \" backslash \\ newline \n return \r tab \t control \u0001 umlaut \u00fc";
+        StringBuilder line = new StringBuilder("{\"s\":");
+        JSONLines.appendString(line, original);
+        line.append(",\"n\":");
+        JSONLines.appendString(line, null);
+        line.append('}');
+        
+        assertEquals(-1, line.indexOf("\n"));
+        assertTrue(line.indexOf("\\u0001") != -1);
+        Map<String, Object> object = JSONLines.parseObject(line.toString());
+        assertEquals(original, object.get("s"));
+        assertNull(object.get("n"));
+    }
+    
+    /**
+     * Lines which do not contain exactly one valid object are rejected
+     */
+    @Test
+    public void testParseInvalid() {
+        String[] lines = { "", "[]", "\"text\"", "{", "{\"a\":1", "{\"a\" 1}", "{a:1}", "{\"a\":1} {}", "{\"a\":\"text}", "{\"a\":tru}",
+                "{\"a\":\"\\u12\"}", "{\"a\":[1,}", "{\"a\":1-}" };
+        for (String line : lines) {
+            try {
+                JSONLines.parseObject(line);
+                throw new AssertionError("Line " + line + " has been accepted");
+            } catch (ParseException e) {
+                // expected
+            }
+        }
+    }
+    
+    /**
+     * Formatted dates are parsed to the same instant, independent of the time zone of the date
+     * @throws ParseException if the formatted date could not be parsed
+     */
+    @Test
+    public void testDateRoundTrip() throws ParseException {
+        Calendar date = Calendar.getInstance(TimeZone.getTimeZone("GMT+05:30"));
+        date.clear();
+        date.set(2013, Calendar.NOVEMBER, 6, 23, 59, 58);
+        date.set(Calendar.MILLISECOND, 123);
+        
+        Calendar parsed = JSONLines.parseDate(JSONLines.formatDate(date));
+        assertEquals(date.getTimeInMillis(), parsed.getTimeInMillis());
+        assertEquals(date.getTimeInMillis(), JSONLines.parseDate("2013-11-06T18:29:58.123+0000").getTimeInMillis());
+        assertNull(JSONLines.formatDate(null));
+        assertNull(JSONLines.parseDate(null));
+    }
+    
+    /**
+     * Invalid dates are rejected
+     */
+    @Test(expected = ParseException.class)
+    public void testParseInvalidDate() throws ParseException {
+        JSONLines.parseDate("06.11.2013");
+    }
+}
@@ -0,0 +1,133 @@
+package de.tukl.cs.softech.agilereview.export;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.junit.Test;
+
+import agileReview.softech.tukl.de.CommentDocument.Comment;
+
+/**
+ * Tests of merging the workbook of an incremental export into the workbook of a previous export
+ */
+public class WorkbookMergerTest {
+    
+    /**
+     * Rows of exported comments are replaced, rows of other comments with the same id are kept and new rows are appended
+     */
+    @Test
+    public void testMerge() {
+        Workbook previous = new HSSFWorkbook();
+        addRows(previous.createSheet("Comments"), new String[][] { { "Review", "Author", "ID", "Text" }, { "r1", "alice", "c1", "old" },
+                { "r1", "bob", "c1", "other author" }, { "r2", "alice", "c1", "other review" }, { "r1", "alice", "c3", "unchanged" } });
+        Workbook delta = new HSSFWorkbook();
+        addRows(delta.createSheet("Comments"), new String[][] { { "Review", "Author", "ID", "Text" }, { "r1", "alice", "c1", "new" },
+                { "r1", "alice", "c2", "added" } });
+        
+        new WorkbookMerger(Arrays.asList(createComment("r1", "alice", "c1"), createComment("r1", "alice", "c2"))).merge(previous, delta);
+        
+        assertEquals(Arrays.asList(Arrays.asList("Review", "Author", "ID", "Text"), Arrays.asList("r1", "bob", "c1", "other author"), Arrays
+                .asList("r2", "alice", "c1", "other review"), Arrays.asList("r1", "alice", "c3", "unchanged"), Arrays.asList("r1", "alice",
+                "c1", "new"), Arrays.asList("r1", "alice", "c2", "added")), getRows(previous.getSheet("Comments")));
+    }
+    
+    /**
+     * Rows which already exist are not appended again, sheets which do not exist in the previous workbook are ignored
+     */
+    @Test
+    public void testMergeExistingRows() {
+        Workbook previous = new HSSFWorkbook();
+        addRows(previous.createSheet("Files"), new String[][] { { "Review", "File" }, { "r1", "A.java" } });
+        Workbook delta = new HSSFWorkbook();
+        addRows(delta.createSheet("Files"), new String[][] { { "Review", "File" }, { "r1", "A.java" }, { "r1", "B.java" } });
+        addRows(delta.createSheet("Summary"), new String[][] { { "r1" } });
+        
+        new WorkbookMerger(new ArrayList<CommentWrapper>()).merge(previous, delta);
+        
+        assertEquals(Arrays.asList(Arrays.asList("Review", "File"), Arrays.asList("r1", "A.java"), Arrays.asList("r1", "B.java")),
+                getRows(previous.getSheet("Files")));
+        assertNull(previous.getSheet("Summary"));
+    }
+    
+    /**
+     * Values of all cell types are copied
+     */
+    @Test
+    public void testCopyCellTypes() {
+        Workbook previous = new HSSFWorkbook();
+        previous.createSheet("Comments");
+        Workbook delta = new HSSFWorkbook();
+        Row row = delta.createSheet("Comments").createRow(0);
+        row.createCell(0).setCellValue("r1");
+        row.createCell(1).setCellValue(42);
+        row.createCell(2).setCellValue(true);
+        row.createCell(4).setCellFormula("B1*2");
+        
+        new WorkbookMerger(new ArrayList<CommentWrapper>()).merge(previous, delta);
+        
+        Row copy = previous.getSheet("Comments").getRow(0);
+        assertEquals("r1", copy.getCell(0).getStringCellValue());
+        assertEquals(42, copy.getCell(1).getNumericCellValue(), 0);
+        assertEquals(true, copy.getCell(2).getBooleanCellValue());
+        assertNull(copy.getCell(3));
+        assertEquals("B1*2", copy.getCell(4).getCellFormula());
+    }
+    
+    /**
+     * Creates an exported comment
+     * @param reviewId review of the comment
+     * @param author author of the comment
+     * @param id id of the comment
+     * @return the exported comment
+     */
+    private static CommentWrapper createComment(String reviewId, String author, String id) {
+        Comment comment = Comment.Factory.newInstance();
+        comment.setReviewID(reviewId);
+        comment.setAuthor(author);
+        comment.setId(id);
+        comment.addNewReplies();
+        return new CommentWrapper(comment, null);
+    }
+    
+    /**
+     * Appends rows with the given string values to the given sheet
+     * @param sheet sheet
+     * @param rows values of the rows
+     */
+    private static void addRows(Sheet sheet, String[][] rows) {
+        for (String[] values : rows) {
+            Row row = sheet.createRow(sheet.getPhysicalNumberOfRows());
+            for (int i = 0; i < values.length; i++) {
+                row.createCell(i).setCellValue(values[i]);
+            }
+        }
+    }
+    
+    /**
+     * Returns the formatted values of all rows of the given sheet
+     * @param sheet sheet
+     * @return the values of the rows in row and column order
+     */
+    private static List<List<String>> getRows(Sheet sheet) {
+        DataFormatter formatter = new DataFormatter();
+        ArrayList<List<String>> rows = new ArrayList<List<String>>();
+        for (Row row : sheet) {
+            ArrayList<String> values = new ArrayList<String>();
+            for (Cell cell : row) {
+                values.add(formatter.formatCellValue(cell));
+            }
+            rows.add(values);
+        }
+        return rows;
+    }
+}